@@ -0,0 +1,301 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference.compiler;
+
+import universum.studios.android.preference.compiler.PreferencesAccessorProcessor.AccessorSpec;
+import universum.studios.android.preference.compiler.PreferencesAccessorProcessor.PreferenceSpec;
+import universum.studios.android.preference.compiler.PreferencesAccessorProcessor.PreferenceType;
+
+/**
+ * Writer that creates source code of accessor classes generated by {@link PreferencesAccessorProcessor}.
+ *
+ * @author Martin Albedinsky
+ */
+final class AccessorWriter {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Builder into which is the source code written.
+	 */
+	private final StringBuilder mBuilder = new StringBuilder(4096);
+
+	/**
+	 * Specification of the accessor of which source code to write.
+	 */
+	private final AccessorSpec mSpec;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of AccessorWriter for the given <var>spec</var>.
+	 */
+	private AccessorWriter(final AccessorSpec spec) {
+		this.mSpec = spec;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Creates source code of accessor class for the given <var>spec</var>.
+	 *
+	 * @param spec Specification of the accessor to be generated.
+	 * @return Source code of the accessor class.
+	 */
+	static String write(final AccessorSpec spec) {
+		final AccessorWriter writer = new AccessorWriter(spec);
+		writer.writeAccessor();
+		return writer.mBuilder.toString();
+	}
+
+	/**
+	 * Writes the whole accessor class.
+	 */
+	private void writeAccessor() {
+		line(0, "// Generated by preferences-compiler from " + mSpec.interfaceName + ". Do not modify!");
+		if (!mSpec.packageName.isEmpty()) {
+			line(0, "package " + mSpec.packageName + ";");
+		}
+		line(0, "");
+		line(0, "import android.content.SharedPreferences;");
+		line(0, "import android.support.annotation.CheckResult;");
+		line(0, "import android.support.annotation.NonNull;");
+		line(0, "import android.support.annotation.Nullable;");
+		line(0, "");
+		line(0, "import universum.studios.android.preference.EditableSharedPreferencesFacade;");
+		line(0, "import universum.studios.android.preference.SharedPreferencesFacade;");
+		line(0, "");
+		line(0, "/**");
+		line(0, " * Accessor for preferences declared by {@link " + mSpec.interfaceName + "}.");
+		line(0, " */");
+		line(0, "@SuppressWarnings(\"unused\")");
+		line(0, "public final class " + mSpec.className + " {");
+		line(0, "");
+		for (final PreferenceSpec preference : mSpec.preferences) {
+			line(1, "/**");
+			line(1, " * Key of the preference declared by {@link " + mSpec.interfaceName + "#" + preference.fieldName + "}.");
+			line(1, " */");
+			line(1, "public static final String " + preference.keyConstant + " = " + literal(preference.key) + ";");
+			line(0, "");
+		}
+		line(1, "private final SharedPreferencesFacade mFacade;");
+		line(0, "");
+		line(1, "/**");
+		line(1, " * Creates a new accessor for preferences accessible via the given <var>facade</var>.");
+		line(1, " */");
+		line(1, "public " + mSpec.className + "(@NonNull final SharedPreferencesFacade facade) {");
+		line(2, "this.mFacade = facade;");
+		line(1, "}");
+		line(0, "");
+		line(1, "@NonNull");
+		line(1, "public SharedPreferencesFacade getFacade() {");
+		line(2, "return mFacade;");
+		line(1, "}");
+		for (final PreferenceSpec preference : mSpec.preferences) {
+			writeAccessorMethods(preference);
+		}
+		line(0, "");
+		line(1, "/**");
+		line(1, " * Creates a new editor that may be used to change values of multiple preferences and persist");
+		line(1, " * them at once via {@link Editor#commit()}.");
+		line(1, " */");
+		line(1, "@NonNull");
+		line(1, "public Editor edit() {");
+		line(2, "return new Editor(mFacade);");
+		line(1, "}");
+		line(0, "");
+		writeEditor();
+		line(0, "}");
+	}
+
+	/**
+	 * Writes getter, setter and remove method for the given <var>preference</var>.
+	 */
+	private void writeAccessorMethods(final PreferenceSpec preference) {
+		final PreferenceType type = preference.type;
+		final String defaultValue = mSpec.interfaceName + "." + preference.fieldName;
+		line(0, "");
+		if (type == PreferenceType.STRING) line(1, "@Nullable");
+		line(1, "public " + type.javaType + " " + getterName(preference) + "() {");
+		line(2, "return " + getCall("mFacade", type, preference.keyConstant, defaultValue) + ";");
+		line(1, "}");
+		line(0, "");
+		line(1, "public boolean set" + preference.methodSuffix + "(" + parameter(type) + ") {");
+		line(2, "return " + putCall("mFacade", type, preference.keyConstant, "value") + ";");
+		line(1, "}");
+		line(0, "");
+		line(1, "public boolean remove" + preference.methodSuffix + "() {");
+		line(2, "return mFacade.remove(" + preference.keyConstant + ");");
+		line(1, "}");
+	}
+
+	/**
+	 * Returns an expression obtaining value of the given <var>type</var> for the specified <var>key</var>
+	 * from the given <var>receiver</var>.
+	 * <p>
+	 * Double values are persisted as their raw long bits, so they are obtained via {@code getLong(...)}
+	 * which is available on every facade as well as on {@code SharedPreferences}.
+	 */
+	private static String getCall(final String receiver, final PreferenceType type, final String key, final String defaultValue) {
+		if (type == PreferenceType.DOUBLE) {
+			return "Double.longBitsToDouble(" + receiver + ".getLong(" + key + ", Double.doubleToRawLongBits(" + defaultValue + ")))";
+		}
+		return receiver + ".get" + type.facadeSuffix + "(" + key + ", " + defaultValue + ")";
+	}
+
+	/**
+	 * Returns an expression putting the given <var>value</var> of the given <var>type</var> for the
+	 * specified <var>key</var> via the given <var>receiver</var>.
+	 *
+	 * @see #getCall(String, PreferenceType, String, String)
+	 */
+	private static String putCall(final String receiver, final PreferenceType type, final String key, final String value) {
+		if (type == PreferenceType.DOUBLE) {
+			return receiver + ".putLong(" + key + ", Double.doubleToRawLongBits(" + value + "))";
+		}
+		return receiver + ".put" + type.facadeSuffix + "(" + key + ", " + value + ")";
+	}
+
+	/**
+	 * Writes the Editor inner class.
+	 */
+	private void writeEditor() {
+		final int count = mSpec.preferences.size();
+		line(1, "/**");
+		line(1, " * Editor that collects changes of preference values and persists all of them via a single");
+		line(1, " * {@link SharedPreferences.Editor#commit()} if the facade is {@link EditableSharedPreferencesFacade}.");
+		line(1, " */");
+		line(1, "public static final class Editor {");
+		line(0, "");
+		line(2, "private final SharedPreferencesFacade mFacade;");
+		line(2, "private final boolean[] mChanged = new boolean[" + count + "];");
+		for (final PreferenceSpec preference : mSpec.preferences) {
+			line(2, "private " + preference.type.javaType + " mStaged" + preference.methodSuffix + ";");
+		}
+		line(0, "");
+		line(2, "Editor(final SharedPreferencesFacade facade) {");
+		line(3, "this.mFacade = facade;");
+		line(2, "}");
+		for (int i = 0; i < count; i++) {
+			final PreferenceSpec preference = mSpec.preferences.get(i);
+			line(0, "");
+			line(2, "@NonNull");
+			line(2, "public Editor set" + preference.methodSuffix + "(" + parameter(preference.type) + ") {");
+			line(3, "this.mStaged" + preference.methodSuffix + " = value;");
+			line(3, "this.mChanged[" + i + "] = true;");
+			line(3, "return this;");
+			line(2, "}");
+		}
+		line(0, "");
+		line(2, "/**");
+		line(2, " * Persists all changed values.");
+		line(2, " *");
+		line(2, " * @return {@code True} if all values have been successfully persisted, {@code false} otherwise.");
+		line(2, " */");
+		line(2, "@CheckResult");
+		line(2, "public boolean commit() {");
+		line(3, "if (!(mFacade instanceof EditableSharedPreferencesFacade)) {");
+		line(4, "boolean success = true;");
+		for (int i = 0; i < count; i++) {
+			final PreferenceSpec preference = mSpec.preferences.get(i);
+			final String key = mSpec.className + "." + preference.keyConstant;
+			line(4, "if (mChanged[" + i + "]) success &= " + putCall("mFacade", preference.type, key, "mStaged" + preference.methodSuffix) + ";");
+		}
+		line(4, "return success;");
+		line(3, "}");
+		// Changes are persisted via editor of the facade, so the facade may update its own state,
+		// like snapshot of values held by PreferencesManager, synchronously with the commit.
+		line(3, "final SharedPreferences.Editor editor = ((EditableSharedPreferencesFacade) mFacade).edit();");
+		for (int i = 0; i < count; i++) {
+			final PreferenceSpec preference = mSpec.preferences.get(i);
+			final String key = mSpec.className + "." + preference.keyConstant;
+			line(3, "if (mChanged[" + i + "]) " + putCall("editor", preference.type, key, "mStaged" + preference.methodSuffix) + ";");
+		}
+		line(3, "return editor.commit();");
+		line(2, "}");
+		line(1, "}");
+	}
+
+	/**
+	 * Returns name of getter method for the given <var>preference</var>.
+	 */
+	private static String getterName(final PreferenceSpec preference) {
+		return (preference.type == PreferenceType.BOOLEAN ? "is" : "get") + preference.methodSuffix;
+	}
+
+	/**
+	 * Returns declaration of value parameter of the specified <var>type</var>.
+	 */
+	private static String parameter(final PreferenceType type) {
+		return (type == PreferenceType.STRING ? "@Nullable " : "") + "final " + type.javaType + " value";
+	}
+
+	/**
+	 * Returns Java String literal for the given <var>value</var>.
+	 */
+	static String literal(final String value) {
+		final StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char character = value.charAt(i);
+			switch (character) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				default:
+					if (character < 0x20 || character > 0x7E) {
+						builder.append(String.format("\\u%04x", (int) character));
+					} else {
+						builder.append(character);
+					}
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	/**
+	 * Writes the given <var>text</var> indented by the specified count of tabs as a single line.
+	 */
+	private void line(final int indent, final String text) {
+		if (!text.isEmpty()) {
+			for (int i = 0; i < indent; i++) {
+				mBuilder.append('\t');
+			}
+			mBuilder.append(text);
+		}
+		mBuilder.append('\n');
+	}
+}
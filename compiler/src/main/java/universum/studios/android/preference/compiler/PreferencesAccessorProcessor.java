@@ -0,0 +1,415 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor that generates accessor classes for interfaces annotated with
+ * {@code @PreferencesAccessor}.
+ * <p>
+ * For each annotated interface is generated a final class which provides primitive typed getter and
+ * setter for each interface field annotated with {@code @PreferenceKey} implemented directly on top
+ * of {@code SharedPreferencesFacade}, so values are neither boxed nor resolved at runtime. The
+ * generated class also provides an editor that may be used to change values of multiple preferences
+ * and persist them via a single commit.
+ *
+ * @author Martin Albedinsky
+ */
+public final class PreferencesAccessorProcessor extends AbstractProcessor {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Name of the annotation marking interfaces for which should be generated accessors.
+	 */
+	static final String ANNOTATION_ACCESSOR = "universum.studios.android.preference.annotation.PreferencesAccessor";
+
+	/**
+	 * Name of the annotation marking fields that represent preferences.
+	 */
+	static final String ANNOTATION_KEY = "universum.studios.android.preference.annotation.PreferenceKey";
+
+	/**
+	 * Suffix appended to simple name of annotated interface to create name of its accessor class.
+	 */
+	private static final String ACCESSOR_SUFFIX = "Accessor";
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 */
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return new LinkedHashSet<>(Arrays.asList(ANNOTATION_ACCESSOR, ANNOTATION_KEY));
+	}
+
+	/**
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 */
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment environment) {
+		for (final TypeElement annotation : annotations) {
+			if (!ANNOTATION_ACCESSOR.equals(annotation.getQualifiedName().toString())) {
+				continue;
+			}
+			for (final Element element : environment.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.INTERFACE) {
+					error(element, "Only interfaces may be annotated with @PreferencesAccessor.");
+					continue;
+				}
+				final AccessorSpec spec = parseAccessor((TypeElement) element);
+				if (spec != null) {
+					writeAccessor(spec);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses specification of accessor to be generated for the given <var>type</var>.
+	 *
+	 * @return Specification of the accessor or {@code null} if the type declares an invalid preference.
+	 */
+	private AccessorSpec parseAccessor(final TypeElement type) {
+		final String className = annotationValue(type, ANNOTATION_ACCESSOR, "className");
+		final AccessorSpec spec = new AccessorSpec(
+				packageOf(type),
+				type.getQualifiedName().toString(),
+				className == null || className.isEmpty() ? flatSimpleName(type) + ACCESSOR_SUFFIX : className
+		);
+		final Set<String> keys = new HashSet<>();
+		final Set<String> names = new HashSet<>();
+		boolean valid = true;
+		for (final Element member : type.getEnclosedElements()) {
+			if (member.getKind() != ElementKind.FIELD) {
+				continue;
+			}
+			final String key = annotationValue(member, ANNOTATION_KEY, "value");
+			if (key == null) {
+				continue;
+			}
+			final VariableElement field = (VariableElement) member;
+			final PreferenceType preferenceType = PreferenceType.resolve(field.asType());
+			if (preferenceType == null) {
+				error(field, "Unsupported type(" + field.asType() + ") of preference. Only boolean, int, long, float, double and String preferences are supported.");
+				valid = false;
+				continue;
+			}
+			if (key.isEmpty()) {
+				error(field, "Key of preference cannot be empty.");
+				valid = false;
+				continue;
+			}
+			if (!keys.add(key)) {
+				error(field, "Duplicate preference key(" + key + ").");
+				valid = false;
+				continue;
+			}
+			final PreferenceSpec preference = new PreferenceSpec(field.getSimpleName().toString(), key, preferenceType);
+			if (!names.add(preference.methodSuffix)) {
+				error(field, "Preference(" + preference.fieldName + ") resolves to accessor methods that are already generated for another preference.");
+				valid = false;
+				continue;
+			}
+			spec.preferences.add(preference);
+		}
+		return valid ? spec : null;
+	}
+
+	/**
+	 * Returns value of the specified <var>attribute</var> of annotation with the given <var>annotationName</var>
+	 * present on the given <var>element</var>.
+	 *
+	 * @return Value of the attribute, empty string if the attribute has its default value or {@code null}
+	 * if the element is not annotated.
+	 */
+	private static String annotationValue(final Element element, final String annotationName, final String attribute) {
+		for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (!annotationName.equals(mirror.getAnnotationType().toString())) {
+				continue;
+			}
+			for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+				if (attribute.equals(entry.getKey().getSimpleName().toString())) {
+					return String.valueOf(entry.getValue().getValue());
+				}
+			}
+			return "";
+		}
+		return null;
+	}
+
+	/**
+	 * Returns name of the package in which is the given <var>type</var> declared.
+	 */
+	private static String packageOf(final TypeElement type) {
+		Element element = type;
+		while (element.getKind() != ElementKind.PACKAGE) {
+			element = element.getEnclosingElement();
+		}
+		return ((PackageElement) element).getQualifiedName().toString();
+	}
+
+	/**
+	 * Returns simple name of the given <var>type</var> prefixed by simple names of its enclosing
+	 * types separated by {@code '_'}.
+	 */
+	private static String flatSimpleName(final TypeElement type) {
+		final StringBuilder name = new StringBuilder(type.getSimpleName());
+		Element element = type.getEnclosingElement();
+		while (element.getKind() != ElementKind.PACKAGE) {
+			name.insert(0, '_').insert(0, element.getSimpleName());
+			element = element.getEnclosingElement();
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Writes source file of accessor class for the given <var>spec</var>.
+	 */
+	private void writeAccessor(final AccessorSpec spec) {
+		final String qualifiedName = spec.packageName.isEmpty() ? spec.className : spec.packageName + "." + spec.className;
+		try {
+			final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName);
+			final Writer writer = file.openWriter();
+			try {
+				writer.write(AccessorWriter.write(spec));
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + qualifiedName + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reports an error for the given <var>element</var>.
+	 */
+	private void error(final Element element, final String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Types of preferences supported by the generated accessors.
+	 */
+	enum PreferenceType {
+		BOOLEAN("boolean", "Boolean"),
+		INT("int", "Int"),
+		LONG("long", "Long"),
+		FLOAT("float", "Float"),
+		DOUBLE("double", "Double"),
+		STRING("String", "String");
+
+		/**
+		 * Name of the Java type of preference value.
+		 */
+		final String javaType;
+
+		/**
+		 * Suffix of the facade methods used to put and get preference value.
+		 */
+		final String facadeSuffix;
+
+		/**
+		 * Creates a new PreferenceType with the specified <var>javaType</var> and <var>facadeSuffix</var>.
+		 */
+		PreferenceType(final String javaType, final String facadeSuffix) {
+			this.javaType = javaType;
+			this.facadeSuffix = facadeSuffix;
+		}
+
+		/**
+		 * Resolves preference type for the given <var>type</var> of field.
+		 *
+		 * @return Resolved type or {@code null} if the type is not supported.
+		 */
+		static PreferenceType resolve(final TypeMirror type) {
+			final TypeKind kind = type.getKind();
+			switch (kind) {
+				case BOOLEAN:
+					return BOOLEAN;
+				case INT:
+					return INT;
+				case LONG:
+					return LONG;
+				case FLOAT:
+					return FLOAT;
+				case DOUBLE:
+					return DOUBLE;
+				case DECLARED:
+					return String.class.getName().equals(type.toString()) ? STRING : null;
+				default:
+					return null;
+			}
+		}
+	}
+
+	/**
+	 * Specification of an accessor class to be generated.
+	 */
+	static final class AccessorSpec {
+
+		/**
+		 * Name of the package of the accessor.
+		 */
+		final String packageName;
+
+		/**
+		 * Canonical name of the annotated interface.
+		 */
+		final String interfaceName;
+
+		/**
+		 * Simple name of the accessor class.
+		 */
+		final String className;
+
+		/**
+		 * Preferences declared by the annotated interface.
+		 */
+		final List<PreferenceSpec> preferences = new ArrayList<>();
+
+		/**
+		 * Creates a new AccessorSpec with the specified names.
+		 */
+		AccessorSpec(final String packageName, final String interfaceName, final String className) {
+			this.packageName = packageName;
+			this.interfaceName = interfaceName;
+			this.className = className;
+		}
+	}
+
+	/**
+	 * Specification of a single preference declared by an annotated interface.
+	 */
+	static final class PreferenceSpec {
+
+		/**
+		 * Name of the interface field declaring the preference.
+		 */
+		final String fieldName;
+
+		/**
+		 * Key of the preference.
+		 */
+		final String key;
+
+		/**
+		 * Type of the preference.
+		 */
+		final PreferenceType type;
+
+		/**
+		 * Name of the preference in camel case used as suffix for names of the generated methods.
+		 */
+		final String methodSuffix;
+
+		/**
+		 * Name of the generated constant holding key of the preference.
+		 */
+		final String keyConstant;
+
+		/**
+		 * Creates a new PreferenceSpec for the specified field.
+		 */
+		PreferenceSpec(final String fieldName, final String key, final PreferenceType type) {
+			this.fieldName = fieldName;
+			this.key = key;
+			this.type = type;
+			this.methodSuffix = toCamelCase(fieldName);
+			this.keyConstant = "KEY_" + toConstantCase(methodSuffix);
+		}
+
+		/**
+		 * Converts the given <var>name</var> in either constant case or camel case into upper camel case.
+		 */
+		static String toCamelCase(final String name) {
+			final StringBuilder builder = new StringBuilder(name.length());
+			if (name.indexOf('_') >= 0 || name.equals(name.toUpperCase())) {
+				boolean upper = true;
+				for (int i = 0; i < name.length(); i++) {
+					final char character = name.charAt(i);
+					if (character == '_') {
+						upper = true;
+					} else {
+						builder.append(upper ? Character.toUpperCase(character) : Character.toLowerCase(character));
+						upper = false;
+					}
+				}
+			} else {
+				builder.append(Character.toUpperCase(name.charAt(0))).append(name, 1, name.length());
+			}
+			return builder.toString();
+		}
+
+		/**
+		 * Converts the given <var>name</var> in upper camel case into constant case.
+		 */
+		static String toConstantCase(final String name) {
+			final StringBuilder builder = new StringBuilder(name.length() + 8);
+			for (int i = 0; i < name.length(); i++) {
+				final char character = name.charAt(i);
+				if (i > 0 && Character.isUpperCase(character) && !Character.isUpperCase(name.charAt(i - 1))) {
+					builder.append('_');
+				}
+				builder.append(Character.toUpperCase(character));
+			}
+			return builder.toString();
+		}
+	}
+}
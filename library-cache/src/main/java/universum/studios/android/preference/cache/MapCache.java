@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import universum.studios.android.preference.PreferencesTrace;
 import universum.studios.android.preference.SharedPreferencesCache;
 
 /**
@@ -196,7 +197,9 @@ final class MapCache implements SharedPreferencesCache {
 	@Override
 	public boolean evict(@NonNull final String key) {
 		if (mMap.containsKey(key)) {
+			final long startTime = PreferencesTrace.begin();
 			mMap.remove(key);
+			PreferencesTrace.end(PreferencesTrace.LAYER_CACHE, PreferencesTrace.OP_EVICT, null, key, startTime);
 			return true;
 		}
 		return false;
@@ -208,7 +211,9 @@ final class MapCache implements SharedPreferencesCache {
 	public int evictAll() {
 		final int size = mMap.size();
 		if (size > 0) {
+			final long startTime = PreferencesTrace.begin();
 			mMap.clear();
+			PreferencesTrace.end(PreferencesTrace.LAYER_CACHE, PreferencesTrace.OP_EVICT, null, null, startTime);
 		}
 		return size;
 	}
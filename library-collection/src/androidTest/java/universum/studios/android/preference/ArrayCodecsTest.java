@@ -0,0 +1,127 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class ArrayCodecsTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "ArrayCodecsTest";
+	private static final String PREF_KEY = "PREFERENCE.ArrayCodecs";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+		ArrayCodecs.register(TestPoint.class, new TestPointCodec());
+	}
+
+	@Test
+	public void testBuiltInCodecsAreRegistered() {
+		assertTrue(ArrayCodecs.isRegistered(int.class));
+		assertTrue(ArrayCodecs.isRegistered(Integer.class));
+		assertTrue(ArrayCodecs.isRegistered(String.class));
+	}
+
+	@Test
+	public void testPutAndGetArrayOfRegisteredType() {
+		final TestPoint[] points = {new TestPoint(1, 2), null, new TestPoint(-3, 4)};
+		assertTrue(ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, points, ArrayPreference.ENCODING_COMPACT));
+		final TestPoint[] obtained = ArrayPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		assertThat(obtained, is(points));
+		assertThat(ArrayPreference.getViewFromPreferences(mPreferences, PREF_KEY).get(2), is((Object) points[2]));
+	}
+
+	@Test
+	public void testPutAndGetCollectionOfRegisteredType() {
+		final Collection<TestPoint> points = Arrays.asList(new TestPoint(5, 6), new TestPoint(7, 8));
+		assertTrue(CollectionPreference.putIntoPreferences(mPreferences, PREF_KEY, points, TestPoint.class));
+		assertThat(CollectionPreference.<TestPoint>getFromPreferences(mPreferences, PREF_KEY, null), is(points));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRegisterCodecForBuiltInType() {
+		ArrayCodecs.register(Integer.class, new ArrayCodecs.ElementCodec<Integer>() {
+
+			@NonNull
+			@Override
+			public String encode(@NonNull Integer element) {
+				return element.toString();
+			}
+
+			@NonNull
+			@Override
+			public Integer decode(@NonNull String value) {
+				return Integer.valueOf(value);
+			}
+		});
+	}
+
+	private static final class TestPoint {
+
+		final int x, y;
+
+		TestPoint(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof TestPoint && ((TestPoint) other).x == x && ((TestPoint) other).y == y;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * x + y;
+		}
+	}
+
+	private static final class TestPointCodec implements ArrayCodecs.ElementCodec<TestPoint> {
+
+		@NonNull
+		@Override
+		public String encode(@NonNull TestPoint element) {
+			return element.x + ";" + element.y;
+		}
+
+		@NonNull
+		@Override
+		public TestPoint decode(@NonNull String value) {
+			final String[] coordinates = value.split(";");
+			return new TestPoint(Integer.parseInt(coordinates[0]), Integer.parseInt(coordinates[1]));
+		}
+	}
+}
@@ -119,6 +119,16 @@ public final class ArrayPreferenceTest extends PreferencesTest {
 		assertEquals(null, ArrayPreference.resolveArrayClassByName("Date[]"));
 	}
 
+	@Test
+	public void testWriteNegativeZero() {
+		final StringBuilder builder = new StringBuilder();
+		ArrayValueWriter.writeFloat(builder, -0f);
+		assertThat(builder.toString(), is("0"));
+		builder.setLength(0);
+		ArrayValueWriter.writeDouble(builder, -0d);
+		assertThat(builder.toString(), is("-0"));
+	}
+
 	@Test
 	public void testPutAndGetBooleanArray() {
 		// Test storing and obtaining of primitive array.
@@ -141,13 +151,10 @@ public final class ArrayPreferenceTest extends PreferencesTest {
 
 	@Test
 	public void testPutAndGetCharArray() {
-		// fixme: not working
-		/*// Test storing and obtaining of primitive array.
+		// Test storing and obtaining of primitive array.
 		char[] firstPrimitiveArray = (char[]) createTestableArrayOf(char.class);
 		char[] secondPrimitiveArray = putAndGetArray(firstPrimitiveArray);
 		assertThat(secondPrimitiveArray, is(firstPrimitiveArray));
-		// Test storing and obtaining of boxed array.
-		innerTestPutAndGetArray(Character[].class, Character.class);*/
 	}
 
 	@Test
@@ -207,10 +214,97 @@ public final class ArrayPreferenceTest extends PreferencesTest {
 
 	@Test
 	public void testPutAndGetArrayWithNullItem() {
-		// fixme: not working
-		/*final String[] firstArray = new String[] {"text", null, null};
+		final String[] firstArray = new String[] {"text", null, null};
 		final String[] secondArray = putAndGetArray(firstArray);
-		assertArraysEquals(String[].class, firstArray, secondArray);*/
+		assertArraysEquals(String[].class, firstArray, secondArray);
+	}
+
+	@Test
+	public void testPutArrayInBackwardCompatibleFormat() {
+		ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new int[]{1, -2, 3});
+		assertThat(mPreferences.getString(PREF_KEY, null), is("<int[]>[1,-2,3]"));
+		ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new double[]{15D, 0.5D});
+		assertThat(mPreferences.getString(PREF_KEY, null), is("<double[]>[15,0.5]"));
+		ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new String[]{"a\"b/c", null});
+		assertThat(mPreferences.getString(PREF_KEY, null), is("<String[]>[\"a\\\"b\\/c\",null]"));
+	}
+
+	@Test
+	public void testGetArrayPersistedAsJson() {
+		mPreferences.edit().putString(PREF_KEY, "<float[]>[ 1.5 , 2,1.0E10 ]").commit();
+		final float[] floatArray = ArrayPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		assertThat(floatArray, is(new float[]{1.5f, 2f, 1.0E10f}));
+		mPreferences.edit().putString(PREF_KEY, "<String[]>[\"\\u0041\\n\",null]").commit();
+		final String[] stringArray = ArrayPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		assertThat(stringArray, is(new String[]{"A\n", null}));
+	}
+
+	@Test
+	public void testPutAndGetArrayInCompactEncoding() {
+		final int[] intArray = (int[]) createTestableArrayOf(int.class);
+		assertThat(putAndGetArray(intArray, ArrayPreference.ENCODING_COMPACT), is(intArray));
+		assertThat(mPreferences.getString(PREF_KEY, null), is("<int[]>#1P4:AAAAABcnAAAMAAAA1pgGAA=="));
+		final byte[] byteArray = (byte[]) createTestableArrayOf(byte.class);
+		assertThat(putAndGetArray(byteArray, ArrayPreference.ENCODING_COMPACT), is(byteArray));
+		final boolean[] booleanArray = (boolean[]) createTestableArrayOf(boolean.class);
+		assertThat(putAndGetArray(booleanArray, ArrayPreference.ENCODING_COMPACT), is(booleanArray));
+		final double[] doubleArray = (double[]) createTestableArrayOf(double.class);
+		assertThat(putAndGetArray(doubleArray, ArrayPreference.ENCODING_COMPACT), is(doubleArray));
+		final Long[] longArray = (Long[]) createTestableArrayOf(Long.class);
+		assertThat(putAndGetArray(longArray, ArrayPreference.ENCODING_COMPACT), is(longArray));
+	}
+
+	@Test
+	public void testPutAndGetArrayInCompactDeltaEncoding() {
+		final long[] timestamps = new long[]{1491696000000L, 1491696001000L, 1491696002500L, 1491695000000L};
+		assertThat(putAndGetArray(timestamps, ArrayPreference.ENCODING_COMPACT_DELTA), is(timestamps));
+		assertThat(mPreferences.getString(PREF_KEY, null).startsWith("<long[]>#1V4:"), is(true));
+		final int[] intArray = new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1};
+		assertThat(putAndGetArray(intArray, ArrayPreference.ENCODING_COMPACT_DELTA), is(intArray));
+		// Delta encoding is applicable only to integers and longs.
+		final float[] floatArray = (float[]) createTestableArrayOf(float.class);
+		assertThat(putAndGetArray(floatArray, ArrayPreference.ENCODING_COMPACT_DELTA), is(floatArray));
+		assertThat(mPreferences.getString(PREF_KEY, null).startsWith("<float[]>#1P2:"), is(true));
+	}
+
+	@Test
+	public void testPutArrayNotSupportedByCompactEncoding() {
+		final String[] stringArray = (String[]) createTestableArrayOf(String.class);
+		assertThat(putAndGetArray(stringArray, ArrayPreference.ENCODING_COMPACT), is(stringArray));
+		assertThat(mPreferences.getString(PREF_KEY, null), is("<String[]>[\"text\",\"text text\",\"text text\"]"));
+		final Integer[] integerArray = new Integer[]{1, null};
+		assertThat(putAndGetArray(integerArray, ArrayPreference.ENCODING_COMPACT), is(integerArray));
+		assertThat(mPreferences.getString(PREF_KEY, null), is("<Integer[]>[1,null]"));
+	}
+
+	@Test
+	public void testGetMalformedCompactArray() {
+		mPreferences.edit().putString(PREF_KEY, "<int[]>#1P2:AAAA").commit();
+		try {
+			ArrayPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		} catch (ClassCastException e) {
+			assertThat(
+					e.getMessage(),
+					is("Cannot obtain an array for the key(" + PREF_KEY + ") from shared preferences. Value(#1P2:AAAA) is not an array!")
+			);
+			return;
+		}
+		throw new AssertionError("No exception thrown.");
+	}
+
+	@Test
+	public void testGetMalformedArray() {
+		mPreferences.edit().putString(PREF_KEY, "<int[]>[1,,2]").commit();
+		try {
+			ArrayPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		} catch (ClassCastException e) {
+			assertThat(
+					e.getMessage(),
+					is("Cannot obtain an array for the key(" + PREF_KEY + ") from shared preferences. Value([1,,2]) is not an array!")
+			);
+			return;
+		}
+		throw new AssertionError("No exception thrown.");
 	}
 
 	@SuppressWarnings("unchecked")
@@ -220,7 +314,11 @@ public final class ArrayPreferenceTest extends PreferencesTest {
 	}
 
 	private <A> A putAndGetArray(A array) {
-		final ArrayPreference<A> preference = new ArrayPreference<>(PREF_KEY, null);
+		return putAndGetArray(array, ArrayPreference.ENCODING_TEXT);
+	}
+
+	private <A> A putAndGetArray(A array, @ArrayPreference.Encoding int encoding) {
+		final ArrayPreference<A> preference = new ArrayPreference<>(PREF_KEY, null, encoding);
 		preference.updateValue(array);
 		preference.onPutIntoPreferences(mPreferences);
 		preference.invalidate();
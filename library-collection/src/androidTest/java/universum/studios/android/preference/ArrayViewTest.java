@@ -0,0 +1,112 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import org.junit.Test;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class ArrayViewTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "ArrayViewTest";
+	private static final String PREF_KEY = "PREFERENCE.ArrayView";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testGetViewForNotPersistedArray() {
+		assertThat(ArrayPreference.getViewFromPreferences(mPreferences, PREF_KEY), is(nullValue()));
+	}
+
+	@Test
+	public void testReadElementsOfArrayInTextEncoding() {
+		innerTestReadElementsOfLongArray(ArrayPreference.ENCODING_TEXT);
+	}
+
+	@Test
+	public void testReadElementsOfArrayInCompactEncoding() {
+		innerTestReadElementsOfLongArray(ArrayPreference.ENCODING_COMPACT);
+	}
+
+	@Test
+	public void testReadElementsOfArrayInCompactDeltaEncoding() {
+		innerTestReadElementsOfLongArray(ArrayPreference.ENCODING_COMPACT_DELTA);
+	}
+
+	private void innerTestReadElementsOfLongArray(@ArrayPreference.Encoding int encoding) {
+		final long[] array = new long[1000];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = 1500000000000L + i * (i % 2 == 0 ? 1000 : -7);
+		}
+		assertTrue(ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, array, encoding));
+		final ArrayView view = ArrayPreference.getViewFromPreferences(mPreferences, PREF_KEY);
+		assertThat(view.length(), is(array.length));
+		assertThat(view.getArrayClass().equals(long[].class), is(true));
+		for (int i = 0; i < array.length; i += 37) {
+			assertThat(view.getLong(i), is(array[i]));
+			assertThat(view.get(i), is((Object) array[i]));
+		}
+		final long[] range = view.copyOfRange(500, 503);
+		assertThat(range.length, is(3));
+		assertThat(range[0], is(array[500]));
+		assertThat(range[2], is(array[502]));
+	}
+
+	@Test
+	public void testReadElementsOfStringArray() {
+		assertTrue(ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new String[]{"first, \"quoted\"", null, "last"}));
+		final ArrayView view = ArrayPreference.getViewFromPreferences(mPreferences, PREF_KEY);
+		assertThat(view.length(), is(3));
+		assertThat(view.get(0), is((Object) "first, \"quoted\""));
+		assertThat(view.get(1), is(nullValue()));
+		assertThat(view.get(2), is((Object) "last"));
+	}
+
+	@Test
+	public void testReadElementAsIncompatibleType() {
+		assertTrue(ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new long[]{1L}));
+		try {
+			ArrayPreference.getViewFromPreferences(mPreferences, PREF_KEY).getInt(0);
+		} catch (ClassCastException e) {
+			assertThat(e.getMessage(), is("Cannot obtain element of(int) from array of(long[]) for the key(" + PREF_KEY + ")."));
+			return;
+		}
+		throw new AssertionError("No exception thrown.");
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testReadElementOutOfBounds() {
+		assertTrue(ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new int[]{1, 2}, ArrayPreference.ENCODING_COMPACT));
+		ArrayPreference.getViewFromPreferences(mPreferences, PREF_KEY).getInt(2);
+	}
+}
@@ -21,8 +21,10 @@ package universum.studios.android.preference;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 import universum.studios.android.test.PreferencesTest;
 
@@ -94,6 +96,45 @@ public final class CollectionPreferenceTest extends PreferencesTest {
 		innerTestPutAndGetCollection(new ArrayList<Integer>(0), Integer.class);
 	}
 
+	@Test
+	public void testPutAndGetCollectionInCompactEncoding() {
+		final Collection<Integer> collection = createTestCollectionOf(Integer.class);
+		final CollectionPreference<Integer> preference = new CollectionPreference<>(PREF_KEY, Integer.class, null, ArrayPreference.ENCODING_COMPACT_DELTA);
+		preference.updateValue(collection);
+		assertThat(preference.onPutIntoPreferences(mPreferences), is(true));
+		assertThat(mPreferences.getString(PREF_KEY, null).startsWith("<Integer[]>#1V5:"), is(true));
+		preference.invalidate();
+		assertThat(preference.onGetFromPreferences(mPreferences), is(collection));
+	}
+
+	@Test
+	public void testGetCollectionOfNumbersAsPrimitiveList() {
+		final Collection<Long> collection = createTestCollectionOf(Long.class);
+		assertThat(CollectionPreference.putIntoPreferences(mPreferences, PREF_KEY, collection, Long.class), is(true));
+		final Collection<Long> obtainedCollection = CollectionPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		assertThat(obtainedCollection instanceof PrimitiveLists.LongList, is(true));
+		assertThat(obtainedCollection, is(collection));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testSetNullItemIntoPrimitiveList() {
+		assertThat(CollectionPreference.putIntoPreferences(mPreferences, PREF_KEY, Arrays.asList(1L, 2L), Long.class), is(true));
+		final List<Long> obtainedList = (List<Long>) CollectionPreference.<Long>getFromPreferences(mPreferences, PREF_KEY, null);
+		obtainedList.set(0, null);
+	}
+
+	@Test
+	public void testGetCollectionOfNumbersWithNullItems() {
+		final Collection<Integer> collection = new ArrayList<>(3);
+		collection.add(1);
+		collection.add(null);
+		collection.add(3);
+		assertThat(CollectionPreference.putIntoPreferences(mPreferences, PREF_KEY, collection, Integer.class), is(true));
+		final Collection<Integer> obtainedCollection = CollectionPreference.getFromPreferences(mPreferences, PREF_KEY, null);
+		assertThat(obtainedCollection instanceof PrimitiveLists.IntList, is(false));
+		assertThat(obtainedCollection, is(collection));
+	}
+
 	@Test
 	public void testGetNotPersistedCollection() {
 		assertThat(CollectionPreference.getFromPreferences(mPreferences, PREF_KEY, null), is(nullValue()));
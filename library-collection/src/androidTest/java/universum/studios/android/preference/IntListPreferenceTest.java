@@ -0,0 +1,112 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class IntListPreferenceTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "IntListPreferenceTest";
+	private static final String PREF_KEY = "PREFERENCE.IntList";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testInstantiation() {
+		final IntListPreference preference = new IntListPreference(PREF_KEY, null);
+		assertThat(preference.getKey(), is(PREF_KEY));
+		assertThat(preference.getDefaultValue(), is(nullValue()));
+		assertThat(preference.getEncoding(), is(ArrayPreference.ENCODING_TEXT));
+	}
+
+	@Test
+	public void testPutAndGetList() {
+		innerTestPutAndGetList(ArrayPreference.ENCODING_TEXT);
+	}
+
+	@Test
+	public void testPutAndGetListInCompactEncoding() {
+		innerTestPutAndGetList(ArrayPreference.ENCODING_COMPACT);
+	}
+
+	@Test
+	public void testPutAndGetListInCompactDeltaEncoding() {
+		innerTestPutAndGetList(ArrayPreference.ENCODING_COMPACT_DELTA);
+	}
+
+	private void innerTestPutAndGetList(@ArrayPreference.Encoding int encoding) {
+		final IntListPreference preference = new IntListPreference(PREF_KEY, null, encoding);
+		preference.updateValue(PrimitiveLists.wrap(new int[]{45, -9784, Integer.MAX_VALUE, 0}));
+		assertThat(preference.onPutIntoPreferences(mPreferences), is(true));
+		preference.invalidate();
+		final PrimitiveLists.IntList list = preference.onGetFromPreferences(mPreferences);
+		assertThat(list.size(), is(4));
+		assertThat(list.getInt(0), is(45));
+		assertThat(list.getInt(1), is(-9784));
+		assertThat(list.getInt(2), is(Integer.MAX_VALUE));
+		assertThat(list.getInt(3), is(0));
+	}
+
+	@Test
+	public void testGetListPersistedAsCollection() {
+		assertThat(CollectionPreference.putIntoPreferences(mPreferences, PREF_KEY, Arrays.asList(1, 2, 3), Integer.class), is(true));
+		final IntListPreference preference = new IntListPreference(PREF_KEY, null);
+		assertThat(preference.onGetFromPreferences(mPreferences), is(Arrays.asList(1, 2, 3)));
+	}
+
+	@Test
+	public void testGetNotPersistedList() {
+		final PrimitiveLists.IntList defValue = PrimitiveLists.wrap(new int[]{1});
+		assertThat(new IntListPreference(PREF_KEY, defValue).onGetFromPreferences(mPreferences), is(defValue));
+	}
+
+	@Test
+	public void testGetListPersistedAsArrayOfDifferentType() {
+		assertTrue(ArrayPreference.putIntoPreferences(mPreferences, PREF_KEY, new long[]{1L}));
+		try {
+			new IntListPreference(PREF_KEY, null).onGetFromPreferences(mPreferences);
+		} catch (ClassCastException e) {
+			assertThat(
+					e.getMessage(),
+					is("Cannot obtain a list of(int) for the key(" + PREF_KEY + ") from shared preferences. " +
+							"Persisted value is an array of(long).")
+			);
+			return;
+		}
+		throw new AssertionError("No exception thrown.");
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class MutableCollectionPreferenceTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "MutableCollectionPreferenceTest";
+	private static final String PREF_KEY = "PREFERENCE.MutableCollection";
+
+	private MutableCollectionPreference<Integer> mPreference;
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		this.mPreference = new MutableCollectionPreference<>(PREF_KEY, Integer.class, null, 2);
+		// Ensure that we have a clean slate before each test.
+		assertTrue(mPreference.clear(mPreferences));
+	}
+
+	@Test
+	public void testInstantiation() {
+		final MutableCollectionPreference<String> preference = new MutableCollectionPreference<>(PREF_KEY, String.class, null);
+		assertThat(preference.getKey(), is(PREF_KEY));
+		assertThat(preference.getDefaultValue(), is(nullValue()));
+		assertThat(preference.getSegmentCapacity(), is(MutableCollectionPreference.DEFAULT_SEGMENT_CAPACITY));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInstantiationWithUnsupportedComponentType() {
+		new MutableCollectionPreference<>(PREF_KEY, Date.class, null);
+	}
+
+	@Test
+	public void testAdd() {
+		assertTrue(mPreference.add(mPreferences, 1));
+		assertTrue(mPreference.add(mPreferences, 2));
+		assertTrue(mPreference.add(mPreferences, null));
+		assertThat(mPreference.size(mPreferences), is(3));
+		assertThat(mPreferences.getString(PREF_KEY + "[0]", null), is("<Integer[]>[1,2]"));
+		assertThat(mPreferences.getString(PREF_KEY + "[1]", null), is("<Integer[]>[null]"));
+		assertThat(mPreference.onGetFromPreferences(mPreferences), is((Collection<Integer>) Arrays.asList(1, 2, null)));
+	}
+
+	@Test
+	public void testRemove() {
+		assertTrue(mPreference.add(mPreferences, 1));
+		assertTrue(mPreference.add(mPreferences, 2));
+		assertTrue(mPreference.add(mPreferences, 3));
+		assertThat(mPreference.remove(mPreferences, 4), is(false));
+		assertThat(mPreference.remove(mPreferences, 3), is(true));
+		assertThat(mPreference.remove(mPreferences, 1), is(true));
+		assertThat(mPreference.size(mPreferences), is(1));
+		assertThat(mPreference.onGetFromPreferences(mPreferences), is((Collection<Integer>) Arrays.asList(2)));
+		assertThat(mPreference.remove(mPreferences, 2), is(true));
+		assertThat(mPreference.onGetFromPreferences(mPreferences), is(nullValue()));
+	}
+
+	@Test
+	public void testTrim() {
+		for (int i = 0; i < 5; i++) {
+			assertTrue(mPreference.add(mPreferences, i));
+		}
+		assertTrue(mPreference.trim(mPreferences, 2));
+		assertThat(mPreference.size(mPreferences), is(2));
+		assertThat(mPreferences.contains(PREF_KEY + "[0]"), is(false));
+		assertThat(mPreference.onGetFromPreferences(mPreferences), is((Collection<Integer>) Arrays.asList(3, 4)));
+		assertTrue(mPreference.add(mPreferences, 5));
+		assertThat(mPreference.onGetFromPreferences(mPreferences), is((Collection<Integer>) Arrays.asList(3, 4, 5)));
+	}
+
+	@Test
+	public void testPutAndGetCollection() {
+		assertTrue(mPreference.add(mPreferences, 10));
+		final Collection<Integer> collection = Arrays.asList(1, 2, 3, 4, 5);
+		mPreference.updateValue(collection);
+		assertThat(mPreference.onPutIntoPreferences(mPreferences), is(true));
+		assertThat(mPreference.size(mPreferences), is(5));
+		mPreference.invalidate();
+		assertThat(mPreference.onGetFromPreferences(mPreferences), is(collection));
+	}
+
+	@Test
+	public void testGetCollectionNotPersistedByPreference() {
+		mPreferences.edit().putString(PREF_KEY, "<Integer[]>[1,2]").commit();
+		try {
+			mPreference.size(mPreferences);
+		} catch (IllegalStateException e) {
+			assertThat(
+					e.getMessage(),
+					is("Trying to obtain a collection of(Integer) for the key(" + PREF_KEY + ") " +
+							"from shared preferences not saved by MutableCollectionPreference.")
+			);
+			return;
+		}
+		throw new AssertionError("No exception thrown.");
+	}
+}
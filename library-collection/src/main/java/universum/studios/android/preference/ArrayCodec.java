@@ -0,0 +1,788 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Array;
+
+/**
+ * Codec that writes and reads elements of arrays of a single component type in the {@code <type[]>[item,item,...]}
+ * format.
+ * <p>
+ * There is one specialized codec for each of the types supported by {@link ArrayPreference} so each
+ * codec processes all elements of an array in a single loop without any further type checks. Codecs
+ * are registered and may be looked up via {@link ArrayCodecs}.
+ *
+ * @author Martin Albedinsky
+ * @see ArrayCodecs
+ */
+abstract class ArrayCodec {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Class of components of arrays processed by this codec.
+	 */
+	final Class<?> componentType;
+
+	/**
+	 * Class of arrays processed by this codec.
+	 */
+	final Class<?> arrayClass;
+
+	/**
+	 * Name of the array class that is persisted along with the array elements.
+	 */
+	final String arrayClassName;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ArrayCodec for arrays of the specified class.
+	 *
+	 * @param arrayClass Class of arrays to be processed by the new codec.
+	 */
+	ArrayCodec(final Class<?> arrayClass) {
+		this.componentType = arrayClass.getComponentType();
+		this.arrayClass = arrayClass;
+		this.arrayClassName = arrayClass.getSimpleName();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Creates a new array of the class processed by this codec.
+	 *
+	 * @param length Length of the new array.
+	 * @return New array.
+	 */
+	@NonNull
+	abstract Object newArray(int length);
+
+	/**
+	 * Returns length of the given <var>array</var>.
+	 *
+	 * @param array The array of the class processed by this codec.
+	 * @return Array length.
+	 */
+	abstract int length(@NonNull Object array);
+
+	/**
+	 * Writes all elements of the given <var>array</var> separated by comma into the given <var>builder</var>.
+	 *
+	 * @param builder The builder where to write the elements.
+	 * @param array   The array of the class processed by this codec.
+	 */
+	abstract void write(@NonNull StringBuilder builder, @NonNull Object array);
+
+	/**
+	 * Writes a single (boxed) <var>element</var> into the given <var>builder</var>.
+	 *
+	 * @param builder The builder where to write the element.
+	 * @param element The element to write. May be {@code null} only for codecs of non-primitive arrays.
+	 */
+	abstract void writeElement(@NonNull StringBuilder builder, @Nullable Object element);
+
+	/**
+	 * Reads all elements available via the given <var>reader</var> into a new array.
+	 *
+	 * @param reader The reader from which to read the elements.
+	 * @return New array with all read elements.
+	 * @throws ArrayValueReader.MalformedValueException If any of the elements has invalid format.
+	 */
+	@NonNull
+	abstract Object read(@NonNull ArrayValueReader reader);
+
+	/**
+	 * Reads the next element available via the given <var>reader</var>.
+	 *
+	 * @param reader The reader from which to read the element.
+	 * @return The (boxed) element. May be {@code null} only for codecs of non-primitive arrays.
+	 * @throws ArrayValueReader.MalformedValueException If the element has invalid format.
+	 */
+	@Nullable
+	abstract Object readElement(@NonNull ArrayValueReader reader);
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Codec for arrays of booleans.
+	 */
+	static final class BooleanArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of BooleanArrayCodec.
+		 */
+		BooleanArrayCodec() {
+			super(boolean[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new boolean[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((boolean[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final boolean[] values = (boolean[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				builder.append(values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			builder.append((boolean) (Boolean) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final boolean[] values = new boolean[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = reader.nextBoolean();
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextBoolean();
+		}
+	}
+
+	/**
+	 * Codec for arrays of bytes.
+	 */
+	static final class ByteArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of ByteArrayCodec.
+		 */
+		ByteArrayCodec() {
+			super(byte[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new byte[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((byte[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final byte[] values = (byte[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				builder.append(values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			builder.append((byte) (Byte) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final byte[] values = new byte[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = (byte) reader.nextInt(Byte.MIN_VALUE, Byte.MAX_VALUE);
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return (byte) reader.nextInt(Byte.MIN_VALUE, Byte.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Codec for arrays of chars.
+	 */
+	static final class CharArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of CharArrayCodec.
+		 */
+		CharArrayCodec() {
+			super(char[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new char[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((char[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final char[] values = (char[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				ArrayValueWriter.writeChar(builder, values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			ArrayValueWriter.writeChar(builder, (Character) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final char[] values = new char[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = reader.nextChar();
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextChar();
+		}
+	}
+
+	/**
+	 * Codec for arrays of shorts.
+	 */
+	static final class ShortArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of ShortArrayCodec.
+		 */
+		ShortArrayCodec() {
+			super(short[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new short[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((short[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final short[] values = (short[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				builder.append(values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			builder.append((short) (Short) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final short[] values = new short[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = (short) reader.nextInt(Short.MIN_VALUE, Short.MAX_VALUE);
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return (short) reader.nextInt(Short.MIN_VALUE, Short.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Codec for arrays of integers.
+	 */
+	static final class IntArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of IntArrayCodec.
+		 */
+		IntArrayCodec() {
+			super(int[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new int[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((int[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final int[] values = (int[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				builder.append(values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			builder.append((int) (Integer) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final int[] values = new int[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = reader.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Codec for arrays of floats.
+	 */
+	static final class FloatArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of FloatArrayCodec.
+		 */
+		FloatArrayCodec() {
+			super(float[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new float[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((float[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final float[] values = (float[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				ArrayValueWriter.writeFloat(builder, values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			ArrayValueWriter.writeFloat(builder, (Float) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final float[] values = new float[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = reader.nextFloat();
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextFloat();
+		}
+	}
+
+	/**
+	 * Codec for arrays of longs.
+	 */
+	static final class LongArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of LongArrayCodec.
+		 */
+		LongArrayCodec() {
+			super(long[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new long[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((long[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final long[] values = (long[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				builder.append(values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			builder.append((long) (Long) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final long[] values = new long[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = reader.nextLong();
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextLong();
+		}
+	}
+
+	/**
+	 * Codec for arrays of doubles.
+	 */
+	static final class DoubleArrayCodec extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of DoubleArrayCodec.
+		 */
+		DoubleArrayCodec() {
+			super(double[].class);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object newArray(final int length) {
+			return new double[length];
+		}
+
+		/**
+		 */
+		@Override
+		int length(@NonNull final Object array) {
+			return ((double[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final double[] values = (double[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				ArrayValueWriter.writeDouble(builder, values[i]);
+			}
+		}
+
+		/**
+		 */
+		@Override
+		void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			ArrayValueWriter.writeDouble(builder, (Double) element);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		Object read(@NonNull final ArrayValueReader reader) {
+			final double[] values = new double[reader.countElements()];
+			for (int i = 0; i < values.length; i++) values[i] = reader.nextDouble();
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextDouble();
+		}
+	}
+
+	/**
+	 * Base codec for arrays of objects, that is arrays of boxed primitives, Strings or types with
+	 * codecs registered via {@link ArrayCodecs#register(Class, ArrayCodecs.ElementCodec)}, which may
+	 * contain {@code null} elements.
+	 *
+	 * @param <T> Type of the array components.
+	 */
+	abstract static class ObjectArrayCodec<T> extends ArrayCodec {
+
+		/**
+		 * Creates a new instance of ObjectArrayCodec for arrays of the specified class.
+		 *
+		 * @param arrayClass Class of arrays to be processed by the new codec.
+		 */
+		ObjectArrayCodec(final Class<T[]> arrayClass) {
+			super(arrayClass);
+		}
+
+		/**
+		 * Creates a new array of the class processed by this codec.
+		 */
+		@NonNull
+		@Override
+		abstract T[] newArray(int length);
+
+		/**
+		 * Writes the given non-null <var>element</var> into the given <var>builder</var>.
+		 */
+		abstract void writeNonNull(@NonNull StringBuilder builder, @NonNull T element);
+
+		/**
+		 * Reads the next element from the given <var>reader</var> which is known to be not {@code null}.
+		 */
+		@NonNull
+		abstract T readNonNull(@NonNull ArrayValueReader reader);
+
+		/**
+		 */
+		@Override
+		final int length(@NonNull final Object array) {
+			return ((Object[]) array).length;
+		}
+
+		/**
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		final void write(@NonNull final StringBuilder builder, @NonNull final Object array) {
+			final T[] values = (T[]) array;
+			for (int i = 0; i < values.length; i++) {
+				ArrayValueWriter.writeSeparator(builder, i);
+				final T value = values[i];
+				if (value == null) {
+					ArrayValueWriter.writeNull(builder);
+				} else {
+					writeNonNull(builder, value);
+				}
+			}
+		}
+
+		/**
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		final void writeElement(@NonNull final StringBuilder builder, @Nullable final Object element) {
+			if (element == null) {
+				ArrayValueWriter.writeNull(builder);
+			} else {
+				writeNonNull(builder, (T) element);
+			}
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		final Object read(@NonNull final ArrayValueReader reader) {
+			final T[] values = newArray(reader.countElements());
+			for (int i = 0; i < values.length; i++) {
+				values[i] = reader.nextIsNull() ? null : readNonNull(reader);
+			}
+			return values;
+		}
+
+		/**
+		 */
+		@Nullable
+		@Override
+		final Object readElement(@NonNull final ArrayValueReader reader) {
+			return reader.nextIsNull() ? null : readNonNull(reader);
+		}
+	}
+
+	/**
+	 * Codec for arrays of components with {@link ArrayCodecs.ElementCodec} which persists each element
+	 * as quoted string.
+	 *
+	 * @param <T> Type of the array components.
+	 */
+	static final class ElementArrayCodec<T> extends ObjectArrayCodec<T> {
+
+		/**
+		 * Codec used to convert elements to and from String.
+		 */
+		private final ArrayCodecs.ElementCodec<T> elementCodec;
+
+		/**
+		 * Creates a new instance of ElementArrayCodec for arrays of the specified <var>componentType</var>.
+		 *
+		 * @param componentType Class of the array components.
+		 * @param elementCodec  Codec used to convert the components to and from String.
+		 */
+		@SuppressWarnings("unchecked")
+		ElementArrayCodec(final Class<T> componentType, final ArrayCodecs.ElementCodec<T> elementCodec) {
+			super((Class<T[]>) Array.newInstance(componentType, 0).getClass());
+			this.elementCodec = elementCodec;
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		@SuppressWarnings("unchecked")
+		T[] newArray(final int length) {
+			return (T[]) Array.newInstance(componentType, length);
+		}
+
+		/**
+		 */
+		@Override
+		void writeNonNull(@NonNull final StringBuilder builder, @NonNull final T element) {
+			ArrayValueWriter.writeString(builder, elementCodec.encode(element));
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		T readNonNull(@NonNull final ArrayValueReader reader) {
+			return elementCodec.decode(reader.nextString());
+		}
+	}
+}
@@ -0,0 +1,400 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of codecs used by {@link ArrayPreference}, {@link CollectionPreference} and other array
+ * based preferences to persist arrays and collections of a specific component type.
+ * <p>
+ * Codecs for arrays of all primitive types, theirs boxed representations and String are registered
+ * by default. Codecs for additional component types may be registered via {@link #register(Class, ElementCodec)}.
+ * Arrays of such types are persisted with each element converted to String by the registered
+ * {@link ElementCodec}.
+ * <p>
+ * <b>Note</b>, that name of the array class is persisted along with the array elements, so a codec
+ * for a specific component type should be registered before any array of such type is persisted or
+ * obtained and components with the same simple class name cannot be registered.
+ *
+ * @author Martin Albedinsky
+ * @see ArrayPreference
+ */
+public final class ArrayCodecs {
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/**
+	 * Codec that may be used to convert elements of a specific type to and from String, so arrays of
+	 * such elements may be persisted via array based preferences.
+	 *
+	 * @param <T> Type of the elements.
+	 * @author Martin Albedinsky
+	 * @see #register(Class, ElementCodec)
+	 */
+	public interface ElementCodec<T> {
+
+		/**
+		 * Converts the given <var>element</var> into String.
+		 *
+		 * @param element The element to be converted. Never {@code null}, {@code null} elements are
+		 *                persisted by the library.
+		 * @return String representation of the element.
+		 */
+		@NonNull
+		String encode(@NonNull T element);
+
+		/**
+		 * Converts the given <var>value</var> back into element.
+		 *
+		 * @param value The value as returned by {@link #encode(Object)}.
+		 * @return The element.
+		 */
+		@NonNull
+		T decode(@NonNull String value);
+	}
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/**
+	 * Registered codecs mapped to component types of arrays which they process.
+	 */
+	private static final Map<Class<?>, ArrayCodec> CODECS_BY_COMPONENT_TYPE = new ConcurrentHashMap<>(32);
+
+	/**
+	 * Registered codecs mapped to names of array classes which they process.
+	 */
+	private static final Map<String, ArrayCodec> CODECS_BY_NAME = new ConcurrentHashMap<>(32);
+
+	static {
+		registerCodec(new ArrayCodec.BooleanArrayCodec());
+		registerCodec(new ArrayCodec.ByteArrayCodec());
+		registerCodec(new ArrayCodec.CharArrayCodec());
+		registerCodec(new ArrayCodec.ShortArrayCodec());
+		registerCodec(new ArrayCodec.IntArrayCodec());
+		registerCodec(new ArrayCodec.FloatArrayCodec());
+		registerCodec(new ArrayCodec.LongArrayCodec());
+		registerCodec(new ArrayCodec.DoubleArrayCodec());
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Boolean>(Boolean[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Boolean[] newArray(final int length) {
+				return new Boolean[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Boolean element) {
+				builder.append((boolean) element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Boolean readNonNull(@NonNull final ArrayValueReader reader) {
+				return reader.nextBoolean();
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Byte>(Byte[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Byte[] newArray(final int length) {
+				return new Byte[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Byte element) {
+				builder.append((byte) element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Byte readNonNull(@NonNull final ArrayValueReader reader) {
+				return (byte) reader.nextInt(Byte.MIN_VALUE, Byte.MAX_VALUE);
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Short>(Short[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Short[] newArray(final int length) {
+				return new Short[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Short element) {
+				builder.append((short) element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Short readNonNull(@NonNull final ArrayValueReader reader) {
+				return (short) reader.nextInt(Short.MIN_VALUE, Short.MAX_VALUE);
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Integer>(Integer[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Integer[] newArray(final int length) {
+				return new Integer[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Integer element) {
+				builder.append((int) element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Integer readNonNull(@NonNull final ArrayValueReader reader) {
+				return reader.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Float>(Float[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Float[] newArray(final int length) {
+				return new Float[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Float element) {
+				ArrayValueWriter.writeFloat(builder, element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Float readNonNull(@NonNull final ArrayValueReader reader) {
+				return reader.nextFloat();
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Long>(Long[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Long[] newArray(final int length) {
+				return new Long[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Long element) {
+				builder.append((long) element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Long readNonNull(@NonNull final ArrayValueReader reader) {
+				return reader.nextLong();
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<Double>(Double[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Double[] newArray(final int length) {
+				return new Double[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final Double element) {
+				ArrayValueWriter.writeDouble(builder, element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			Double readNonNull(@NonNull final ArrayValueReader reader) {
+				return reader.nextDouble();
+			}
+		});
+		registerCodec(new ArrayCodec.ObjectArrayCodec<String>(String[].class) {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			String[] newArray(final int length) {
+				return new String[length];
+			}
+
+			/**
+			 */
+			@Override
+			void writeNonNull(@NonNull final StringBuilder builder, @NonNull final String element) {
+				ArrayValueWriter.writeString(builder, element);
+			}
+
+			/**
+			 */
+			@NonNull
+			@Override
+			String readNonNull(@NonNull final ArrayValueReader reader) {
+				return reader.nextString();
+			}
+		});
+	}
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private ArrayCodecs() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Registers the given <var>codec</var> for elements of the specified <var>componentType</var>,
+	 * so arrays and collections of such elements may be persisted via {@link ArrayPreference},
+	 * {@link CollectionPreference} or {@link MutableCollectionPreference}.
+	 * <p>
+	 * Arrays of registered types are always persisted as text regardless of the encoding specified
+	 * for a particular preference.
+	 *
+	 * @param componentType Class of the elements to be persisted via the codec.
+	 * @param codec         The codec used to convert the elements to and from String.
+	 * @param <T>           Type of the elements.
+	 * @throws IllegalArgumentException If the component type is primitive or array type or there is
+	 *                                  already registered a codec for a component type with the same
+	 *                                  simple name which is not registered via this method.
+	 */
+	public static <T> void register(@NonNull final Class<T> componentType, @NonNull final ElementCodec<T> codec) {
+		if (componentType.isPrimitive() || componentType.isArray()) {
+			throw new IllegalArgumentException("Cannot register codec for(" + componentType.getSimpleName() + "). Only non-array object types are supported.");
+		}
+		final ArrayCodec arrayCodec = new ArrayCodec.ElementArrayCodec<>(componentType, codec);
+		synchronized (CODECS_BY_NAME) {
+			final ArrayCodec current = CODECS_BY_NAME.get(arrayCodec.arrayClassName);
+			if (current != null && (!current.componentType.equals(componentType) || !(current instanceof ArrayCodec.ElementArrayCodec))) {
+				throw new IllegalArgumentException(
+						"Cannot register codec for(" + componentType.getName() + "). " +
+								"There is already registered codec for(" + current.componentType.getName() + ") with the same name."
+				);
+			}
+			registerCodec(arrayCodec);
+		}
+	}
+
+	/**
+	 * Registers the given <var>codec</var> for its component type and array class name.
+	 */
+	private static void registerCodec(final ArrayCodec codec) {
+		CODECS_BY_COMPONENT_TYPE.put(codec.componentType, codec);
+		CODECS_BY_NAME.put(codec.arrayClassName, codec);
+	}
+
+	/**
+	 * Checks whether there is a codec registered for the specified <var>componentType</var>.
+	 *
+	 * @param componentType The desired component type.
+	 * @return {@code True} if arrays of the specified component type may be persisted, {@code false}
+	 * otherwise.
+	 */
+	public static boolean isRegistered(@NonNull final Class<?> componentType) {
+		return CODECS_BY_COMPONENT_TYPE.containsKey(componentType);
+	}
+
+	/**
+	 * Returns codec for arrays of the specified <var>componentType</var>.
+	 *
+	 * @return Registered codec or {@code null} if there is no codec registered for such type.
+	 */
+	@Nullable
+	static ArrayCodec forComponentType(@NonNull final Class<?> componentType) {
+		return CODECS_BY_COMPONENT_TYPE.get(componentType);
+	}
+
+	/**
+	 * Returns codec for arrays of the specified <var>arrayClass</var>.
+	 *
+	 * @return Registered codec or {@code null} if there is no codec registered for such class.
+	 */
+	@Nullable
+	static ArrayCodec forArrayClass(@NonNull final Class<?> arrayClass) {
+		final Class<?> componentType = arrayClass.getComponentType();
+		return componentType == null ? null : CODECS_BY_COMPONENT_TYPE.get(componentType);
+	}
+
+	/**
+	 * Returns codec for arrays of class with the specified simple <var>arrayClassName</var>.
+	 *
+	 * @return Registered codec or {@code null} if there is no codec registered for such name.
+	 */
+	@Nullable
+	static ArrayCodec forArrayClassName(@NonNull final String arrayClassName) {
+		return CODECS_BY_NAME.get(arrayClassName);
+	}
+}
@@ -20,20 +20,26 @@ package universum.studios.android.preference;
 
 import android.content.SharedPreferences;
 import android.support.annotation.CheckResult;
+import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-
-import java.lang.reflect.Array;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 
 /**
  * A {@link SharedPreference} implementation that may be used to persist an {@code array} of values
  * via {@link SharedPreferences}.
+ * <p>
+ * By default arrays are persisted as text in {@code <type[]>[item,item,...]} format. Arrays of
+ * primitive types (or theirs boxed representations without {@code null} items) may be persisted
+ * also in a compact binary format by specifying {@link #ENCODING_COMPACT} or {@link #ENCODING_COMPACT_DELTA}
+ * encoding for the preference. Arrays persisted in any of the supported encodings may be always
+ * obtained regardless of the encoding specified for the preference.
+ * <p>
+ * Arrays of other component types may be persisted as text if there is a codec registered for
+ * such type via {@link ArrayCodecs#register(Class, ArrayCodecs.ElementCodec)}.
  *
  * @param <T> Type of items within an array of which values should be persisted by ArrayPreference.
  * @author Martin Albedinsky
@@ -46,9 +52,65 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 */
 
 	/**
-	 * Pattern used to validate that a string contents represent an array value.
+	 * Sequence that terminates the array class name at the start of a persisted array value.
+	 */
+	private static final String ARRAY_CLASS_NAME_TERMINATOR = "[]>";
+
+	/**
+	 * Average count of characters per array element used to estimate initial capacity of a builder
+	 * used to write array value.
+	 */
+	private static final int ESTIMATED_CHARS_PER_ELEMENT = 8;
+
+	/**
+	 * Encoding which persists arrays as text in {@code <type[]>[item,item,...]} format. This is
+	 * the default encoding.
+	 */
+	public static final int ENCODING_TEXT = 0;
+
+	/**
+	 * Encoding which persists arrays of primitive types in compact binary format with elements packed
+	 * as little-endian values of fixed size encoded into Base64.
+	 * <p>
+	 * Arrays of Strings or arrays of boxed primitives that contain {@code null} items are persisted
+	 * using {@link #ENCODING_TEXT}.
+	 */
+	public static final int ENCODING_COMPACT = 1;
+
+	/**
+	 * Same as {@link #ENCODING_COMPACT} but arrays of integers and longs are persisted as variable
+	 * length differences between subsequent elements which results in a significantly smaller
+	 * payload for arrays of sorted or close values, like timestamps or identifiers.
+	 */
+	public static final int ENCODING_COMPACT_DELTA = 2;
+
+	/**
+	 * Defines an annotation for determining encodings supported by {@link ArrayPreference}.
+	 */
+	@IntDef({
+			ENCODING_TEXT,
+			ENCODING_COMPACT,
+			ENCODING_COMPACT_DELTA
+	})
+	@Retention(RetentionPolicy.SOURCE)
+	public @interface Encoding {
+	}
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Encoding used to persist the array value of this preference.
+	 */
+	@Encoding
+	private final int mEncoding;
+
+	/**
+	 * Codec used to persist the array value of this preference, resolved once for class of the default
+	 * value. {@code Null} if there is no default value or no codec registered for its class.
 	 */
-	private static final Pattern VALUE_PATTERN = Pattern.compile("^\\<(.+)\\[\\]\\>\\[(.*)\\]$");
+	private final ArrayCodec mCodec;
 
 	/*
 	 * Constructors ================================================================================
@@ -58,11 +120,27 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 * Creates a new instance of ArrayPreference with the specified <var>key</var> and <var>defValue</var>.
 	 *
 	 * @throws IllegalArgumentException If the given <var>defValue</var> is not actually an array.
+	 * @see #ArrayPreference(String, Object, int)
 	 * @see SharedPreference#SharedPreference(String, Object)
 	 */
 	public ArrayPreference(@NonNull final String key, @Nullable final T defValue) {
+		this(key, defValue, ENCODING_TEXT);
+	}
+
+	/**
+	 * Creates a new instance of ArrayPreference with the specified <var>key</var>, <var>defValue</var>
+	 * and <var>encoding</var> used to persist its array value.
+	 *
+	 * @param encoding The desired encoding. One of {@link #ENCODING_TEXT}, {@link #ENCODING_COMPACT}
+	 *                 or {@link #ENCODING_COMPACT_DELTA}.
+	 * @throws IllegalArgumentException If the given <var>defValue</var> is not actually an array.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public ArrayPreference(@NonNull final String key, @Nullable final T defValue, @Encoding final int encoding) {
 		super(key, defValue);
 		assertIsArrayOrThrow(defValue);
+		this.mEncoding = encoding;
+		this.mCodec = defValue == null ? null : ArrayCodecs.forArrayClass(defValue.getClass());
 	}
 
 	/*
@@ -82,12 +160,43 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	}
 
 	/**
-	 * @see #putIntoPreferences(SharedPreferences, String, Object)
+	 * Returns the encoding used by this preference to persist its array value.
+	 *
+	 * @return One of {@link #ENCODING_TEXT}, {@link #ENCODING_COMPACT} or {@link #ENCODING_COMPACT_DELTA}.
+	 * @see #ArrayPreference(String, Object, int)
+	 */
+	@Encoding
+	public int getEncoding() {
+		return mEncoding;
+	}
+
+	/**
+	 * @see #putIntoPreferences(SharedPreferences, String, Object, int)
 	 */
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return putIntoPreferences(preferences, mKey, mValue);
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		if (mValue == null) {
+			editor.putString(mKey, null);
+			return true;
+		}
+		ArrayCodec codec = mCodec;
+		if (codec == null || !codec.arrayClass.equals(mValue.getClass())) {
+			// Value may be an array of other class than the default one (if any), for example for
+			// preferences declared with a common super type of arrays. Such value is persisted via
+			// its own codec while the codec for the default value remains unchanged.
+			assertIsArrayOrThrow(mValue);
+			codec = resolveCodecOrThrow(mValue);
+		}
+		putIntoEditor(editor, mKey, mValue, codec, mEncoding);
+		return true;
 	}
 
 	/**
@@ -99,28 +208,84 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 * @param value       The desired array value to be persisted.
 	 * @return {@code True} if put has been successful, {@code false} otherwise.
 	 * @throws IllegalArgumentException If the given value is not actually an array.
+	 * @see #putIntoPreferences(SharedPreferences, String, Object, int)
 	 */
 	@CheckResult
 	public static boolean putIntoPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final Object value) {
+		return putIntoPreferences(preferences, key, value, ENCODING_TEXT);
+	}
+
+	/**
+	 * Persists the given array <var>value</var> for the specified <var>key</var> into the given
+	 * shared <var>preferences</var> using the specified <var>encoding</var>.
+	 *
+	 * @param preferences The instance of shared preferences into which should be the given array persisted.
+	 * @param key         The key for which should be the array mapped in the shared preferences.
+	 * @param value       The desired array value to be persisted.
+	 * @param encoding    The encoding to be used to persist the array. One of {@link #ENCODING_TEXT},
+	 *                    {@link #ENCODING_COMPACT} or {@link #ENCODING_COMPACT_DELTA}.
+	 * @return {@code True} if put has been successful, {@code false} otherwise.
+	 * @throws IllegalArgumentException If the given value is not actually an array.
+	 */
+	@CheckResult
+	public static boolean putIntoPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final Object value, @Encoding final int encoding) {
+		final SharedPreferences.Editor editor = preferences.edit();
+		putIntoEditor(editor, key, value, encoding);
+		return editor.commit();
+	}
+
+	/**
+	 * Puts the given array <var>value</var> for the specified <var>key</var> into the given
+	 * <var>editor</var> using the specified <var>encoding</var> without committing it.
+	 *
+	 * @throws IllegalArgumentException If the given value is not actually an array.
+	 * @see #putIntoPreferences(SharedPreferences, String, Object, int)
+	 */
+	static void putIntoEditor(final SharedPreferences.Editor editor, final String key, final Object value, final int encoding) {
 		if (value == null) {
-			return preferences.edit().putString(key, null).commit();
-		}
-		assertIsArrayOrThrow(value);
-		final int n = Array.getLength(value);
-		final JSONArray jsonArray = new JSONArray();
-		for (int i = 0; i < n; i++) {
-			jsonArray.put(Array.get(value, i));
+			editor.putString(key, null);
+		} else {
+			assertIsArrayOrThrow(value);
+			putIntoEditor(editor, key, value, resolveCodecOrThrow(value), encoding);
 		}
-		// Save also class of the array, so when obtaining it we will know exactly of which type it is.
-		final Class<?> arrayClass = resolveArrayClass(value);
-		if (arrayClass == null) {
-			final String componentName = value.getClass().getComponentType().getSimpleName();
+	}
+
+	/**
+	 * Resolves codec for the given <var>array</var>.
+	 *
+	 * @throws IllegalArgumentException If there is no codec registered for the array.
+	 */
+	private static ArrayCodec resolveCodecOrThrow(final Object array) {
+		final ArrayCodec codec = ArrayCodecs.forArrayClass(array.getClass());
+		if (codec == null) {
+			final String componentName = array.getClass().getComponentType().getSimpleName();
 			throw new IllegalArgumentException(
 					"Failed to put array of(" + componentName + ") into shared preferences. " +
 							"Only arrays of primitive types or theirs boxed representations including String are supported."
 			);
 		}
-		return preferences.edit().putString(key, "<" + arrayClass.getSimpleName() + ">" + jsonArray.toString()).commit();
+		return codec;
+	}
+
+	/**
+	 * Puts the given array <var>value</var> converted via the specified <var>codec</var> into the
+	 * given <var>editor</var>.
+	 *
+	 * @see #putIntoPreferences(SharedPreferences, String, Object, int)
+	 */
+	private static void putIntoEditor(final SharedPreferences.Editor editor, final String key, final Object value, final ArrayCodec codec, final int encoding) {
+		// Save also class of the array, so when obtaining it we will know exactly of which type it is.
+		final String arrayClassName = codec.arrayClassName;
+		final StringBuilder builder = new StringBuilder(arrayClassName.length() + 4 + codec.length(value) * ESTIMATED_CHARS_PER_ELEMENT);
+		builder.append('<').append(arrayClassName).append('>');
+		if (encoding != ENCODING_TEXT && CompactArrayFormat.isSupported(value)) {
+			CompactArrayFormat.write(builder, value, encoding == ENCODING_COMPACT_DELTA);
+		} else {
+			builder.append('[');
+			codec.write(builder, value);
+			builder.append(']');
+		}
+		editor.putString(key, builder.toString());
 	}
 
 	/**
@@ -131,40 +296,8 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 * preference.
 	 */
 	static Class<?> resolveArrayClass(final Object array) {
-		if (array instanceof boolean[]) {
-			return boolean[].class;
-		} else if (array instanceof byte[]) {
-			return byte[].class;
-		} else if (array instanceof char[]) {
-			return char[].class;
-		} else if (array instanceof short[]) {
-			return short[].class;
-		} else if (array instanceof int[]) {
-			return int[].class;
-		} else if (array instanceof float[]) {
-			return float[].class;
-		} else if (array instanceof long[]) {
-			return long[].class;
-		} else if (array instanceof double[]) {
-			return double[].class;
-		} else if (array instanceof Boolean[]) {
-			return Boolean[].class;
-		} else if (array instanceof Byte[]) {
-			return Byte[].class;
-		} else if (array instanceof Short[]) {
-			return Short[].class;
-		} else if (array instanceof Integer[]) {
-			return Integer[].class;
-		} else if (array instanceof Float[]) {
-			return Float[].class;
-		} else if (array instanceof Long[]) {
-			return Long[].class;
-		} else if (array instanceof Double[]) {
-			return Double[].class;
-		} else if (array instanceof String[]) {
-			return String[].class;
-		}
-		return null;
+		final ArrayCodec codec = ArrayCodecs.forArrayClass(array.getClass());
+		return codec == null ? null : codec.arrayClass;
 	}
 
 	/**
@@ -195,42 +328,117 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <A> A getFromPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final Object defValue) {
-		Object array = defValue;
 		final String value = preferences.getString(key, null);
-		if (!TextUtils.isEmpty(value)) {
-			final Matcher valueMatcher = VALUE_PATTERN.matcher(value);
-			if (valueMatcher.reset(value).matches()) {
-				final String arrayClassName = valueMatcher.group(1) + "[]";
-				final Class<?> arrayClass = resolveArrayClassByName(arrayClassName);
-				if (arrayClass == null) {
-					final String componentName = arrayClassName.substring(0, arrayClassName.length() - 2);
-					throw new IllegalArgumentException(
-							"Failed to obtain an array of(" + componentName + ") for the key(" + key + ") from shared preferences. " +
-									"Only arrays of primitive types or theirs boxed representations including String are supported."
-					);
-				}
-				final String jsonArrayValue = "[" + valueMatcher.group(2) + "]";
-				JSONArray jsonArray;
-				try {
-					jsonArray = new JSONArray(jsonArrayValue);
-				} catch (JSONException e) {
-					throw new ClassCastException(
-							"Cannot obtain an array for the key(" + key + ") from shared preferences. " +
-									"Value(" + jsonArrayValue + ") is not an array!"
-					);
-				}
-				final int n = jsonArray.length();
-				array = createArrayInSize(arrayClass.getComponentType(), n);
-				for (int i = 0; i < n; i++) {
-					setArrayValueAt(arrayClass, array, i, jsonArray.opt(i));
-				}
-			} else {
-				throw new IllegalStateException(
-						"Trying to obtain an array for the key(" + key + ") from shared preferences not saved by the Preferences library."
-				);
+		if (TextUtils.isEmpty(value)) {
+			return (A) defValue;
+		}
+		final int bodyStart = resolveBodyStartOrThrow(key, value);
+		return (A) readArray(key, value, bodyStart, resolvePersistedCodec(key, value, bodyStart));
+	}
+
+	/**
+	 * Obtains a view providing random access to elements of the array persisted by this preference
+	 * within the given shared <var>preferences</var>.
+	 *
+	 * @see #getViewFromPreferences(SharedPreferences, String)
+	 */
+	@Nullable
+	public ArrayView getViewFromPreferences(@NonNull final SharedPreferences preferences) {
+		return getViewFromPreferences(preferences, mKey);
+	}
+
+	/**
+	 * Obtains a view providing random access to elements of the <b>array</b> persisted within the
+	 * given shared <var>preferences</var> for the specified <var>key</var>.
+	 * <p>
+	 * Unlike {@link #getFromPreferences(SharedPreferences, String, Object)} this does not decode
+	 * the persisted elements. Elements are decoded only when they are requested via the returned
+	 * view, which is suitable for large arrays of which only length or some of the elements are needed.
+	 *
+	 * @param preferences The instance of shared preferences where is the desired array persisted.
+	 * @param key         The key for which is the desired array mapped in the shared preferences.
+	 * @return View for the persisted array or {@code null} if there is no array persisted for the
+	 * specified key.
+	 * @throws ClassCastException       If value stored for the specified key does not represent an
+	 *                                  array.
+	 * @throws IllegalArgumentException If type of the persisted array is not supported by this library.
+	 * @throws IllegalStateException    If the array was not stored by means of this library.
+	 * @see ArrayView
+	 */
+	@Nullable
+	public static ArrayView getViewFromPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key) {
+		final String value = preferences.getString(key, null);
+		return TextUtils.isEmpty(value) ? null : new ArrayView(key, value);
+	}
+
+	/**
+	 * Same as {@link #resolveBodyStart(String)} but throws an exception if the specified <var>value</var>
+	 * does not match array preference structure.
+	 *
+	 * @param key   The key for which is the value mapped in shared preferences.
+	 * @param value The array preference value. Must not be empty.
+	 * @return Index of the first character after the array class name part.
+	 * @throws IllegalStateException If the value was not stored by means of this library.
+	 */
+	static int resolveBodyStartOrThrow(final String key, final String value) {
+		final int bodyStart = resolveBodyStart(value);
+		if (bodyStart == -1) {
+			throw new IllegalStateException(
+					"Trying to obtain an array for the key(" + key + ") from shared preferences not saved by the Preferences library."
+			);
+		}
+		return bodyStart;
+	}
+
+	/**
+	 * Resolves codec for the array persisted within the specified array preference <var>value</var>.
+	 *
+	 * @param key       The key for which is the value mapped in shared preferences.
+	 * @param value     The array preference value.
+	 * @param bodyStart Index at which starts body of the value as resolved via {@link #resolveBodyStart(String)}.
+	 * @return Codec for class of the persisted array.
+	 * @throws IllegalArgumentException If type of the persisted array is not supported by this library.
+	 */
+	static ArrayCodec resolvePersistedCodec(final String key, final String value, final int bodyStart) {
+		final String arrayClassName = value.substring(1, bodyStart - 1);
+		final ArrayCodec codec = ArrayCodecs.forArrayClassName(arrayClassName);
+		if (codec == null) {
+			final String componentName = arrayClassName.substring(0, arrayClassName.length() - 2);
+			throw new IllegalArgumentException(
+					"Failed to obtain an array of(" + componentName + ") for the key(" + key + ") from shared preferences. " +
+							"Only arrays of primitive types or theirs boxed representations including String are supported."
+			);
+		}
+		return codec;
+	}
+
+	/**
+	 * Reads elements from body of the specified array preference <var>value</var> into a new array
+	 * of the class processed by the specified <var>codec</var>.
+	 * <p>
+	 * The requested class does not need to be the same as the persisted one, for example elements
+	 * persisted as {@code Integer[]} may be read directly into {@code int[]} without boxing them,
+	 * as long as none of the elements is {@code null}.
+	 *
+	 * @param key        The key for which is the value mapped in shared preferences.
+	 * @param value      The array preference value.
+	 * @param bodyStart  Index at which starts body of the value as resolved via {@link #resolveBodyStart(String)}.
+	 * @param codec      Codec for class of the array into which to read the elements.
+	 * @return New array with all read elements.
+	 * @throws ClassCastException If the body cannot be read as array of the requested class.
+	 */
+	static Object readArray(final String key, final String value, final int bodyStart, final ArrayCodec codec) {
+		try {
+			if (value.charAt(bodyStart) == CompactArrayFormat.PREFIX) {
+				return CompactArrayFormat.read(value, bodyStart, codec.arrayClass);
 			}
+			return codec.read(new ArrayValueReader(value, bodyStart + 1, value.length() - 1));
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw new ClassCastException(
+					"Cannot obtain an array for the key(" + key + ") from shared preferences. " +
+							"Value(" + value.substring(bodyStart) + ") is not an array!"
+			);
 		}
-		return (A) array;
 	}
 
 	/**
@@ -242,36 +450,44 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 */
 	@Nullable
 	static String extractArrayValueFromPreferenceValue(final String value) {
-		final Matcher matcher = VALUE_PATTERN.matcher(value);
-		if (!TextUtils.isEmpty(value) && matcher.matches()) {
-			return matcher.group(2);
+		final int bodyStart = TextUtils.isEmpty(value) ? -1 : resolveBodyStart(value);
+		if (bodyStart == -1) {
+			return null;
 		}
-		return null;
+		return value.charAt(bodyStart) == CompactArrayFormat.PREFIX ?
+				value.substring(bodyStart) :
+				value.substring(bodyStart + 1, value.length() - 1);
 	}
 
 	/**
-	 * Sets a value of the given <var>array</var> at the specified <var>index</var> to the given one.
+	 * Resolves index at which starts the body with array elements within the specified array
+	 * <var>value</var> that should have either {@code <type[]>[item,item,...]} structure or structure
+	 * of the compact format.
 	 *
-	 * @param arrayClass Class of the given array used to resolve proper setting of the given value.
-	 * @param array      The array of which specific value to update.
-	 * @param index      The index at which should be the value updated.
-	 * @param value      The value to update.
+	 * @param value The array preference value. Must not be empty.
+	 * @return Index of the first character after the array class name part or {@code -1} if the
+	 * specified value does not match array preference structure.
 	 */
-	private static void setArrayValueAt(final Class<?> arrayClass, final Object array, final int index, final Object value) {
-		if (value == null) {
-			Array.set(array, index, null);
-			return;
+	static int resolveBodyStart(final String value) {
+		if (value.charAt(0) != '<') {
+			return -1;
 		}
-		if (byte[].class.equals(arrayClass) || Byte[].class.equals(arrayClass)) {
-			Array.set(array, index, Byte.valueOf(value.toString()));
-		} else if (short[].class.equals(arrayClass) || Short[].class.equals(arrayClass)) {
-			Array.set(array, index, Short.valueOf(value.toString()));
-		} else if (float[].class.equals(arrayClass) || Float[].class.equals(arrayClass)) {
-			Array.set(array, index, Float.valueOf(value.toString()));
-		} else if (long[].class.equals(arrayClass) || Long[].class.equals(arrayClass)) {
-			Array.set(array, index, Long.valueOf(value.toString()));
-		} else {
-			Array.set(array, index, value);
+		final int arrayClassNameEnd = value.indexOf(ARRAY_CLASS_NAME_TERMINATOR, 1);
+		if (arrayClassNameEnd <= 1) {
+			return -1;
+		}
+		final int bodyStart = arrayClassNameEnd + ARRAY_CLASS_NAME_TERMINATOR.length();
+		final int bodyEnd = value.length() - 1;
+		if (bodyStart > bodyEnd) {
+			return -1;
+		}
+		switch (value.charAt(bodyStart)) {
+			case '[':
+				return bodyStart < bodyEnd && value.charAt(bodyEnd) == ']' ? bodyStart : -1;
+			case CompactArrayFormat.PREFIX:
+				return bodyStart;
+			default:
+				return -1;
 		}
 	}
 
@@ -279,89 +495,11 @@ public final class ArrayPreference<T> extends SharedPreference<T> {
 	 * Resolves array class for the specified <var>arrayClassName</var>.
 	 *
 	 * @param arrayClassName Name of the array class that should be resolved.
-	 * @return Array class associated with the specified name or {@code Object[].class} if the given
-	 * class name is associated with an array that is not supported by this preference.
+	 * @return Array class associated with the specified name or {@code null} if the given class
+	 * name is associated with an array that is not supported by this preference.
 	 */
 	static Class<?> resolveArrayClassByName(final String arrayClassName) {
-		switch (arrayClassName) {
-			case "boolean[]":
-				return boolean[].class;
-			case "byte[]":
-				return byte[].class;
-			case "char[]":
-				return char[].class;
-			case "short[]":
-				return short[].class;
-			case "int[]":
-				return int[].class;
-			case "float[]":
-				return float[].class;
-			case "long[]":
-				return long[].class;
-			case "double[]":
-				return double[].class;
-			case "Boolean[]":
-				return Boolean[].class;
-			case "Byte[]":
-				return Byte[].class;
-			case "Short[]":
-				return Short[].class;
-			case "Integer[]":
-				return Integer[].class;
-			case "Float[]":
-				return Float[].class;
-			case "Long[]":
-				return Long[].class;
-			case "Double[]":
-				return Double[].class;
-			case "String[]":
-				return String[].class;
-			default:
-				return null;
-		}
-	}
-
-	/**
-	 * Creates a new instance of array of the type for the requested <var>componentClass</var>.
-	 *
-	 * @param componentClass Class of a component that can be stored within the new array.
-	 * @param size           Fixed size for the new array.
-	 * @return New instance of the requested array.
-	 */
-	static Object createArrayInSize(final Class<?> componentClass, final int size) {
-		if (boolean.class.equals(componentClass)) {
-			return new boolean[size];
-		} else if (byte.class.equals(componentClass)) {
-			return new byte[size];
-		} else if (char.class.equals(componentClass)) {
-			return new char[size];
-		} else if (short.class.equals(componentClass)) {
-			return new short[size];
-		} else if (int.class.equals(componentClass)) {
-			return new int[size];
-		} else if (float.class.equals(componentClass)) {
-			return new float[size];
-		} else if (long.class.equals(componentClass)) {
-			return new long[size];
-		} else if (double.class.equals(componentClass)) {
-			return new double[size];
-		} else if (Boolean.class.equals(componentClass)) {
-			return new Boolean[size];
-		} else if (Byte.class.equals(componentClass)) {
-			return new Byte[size];
-		} else if (Short.class.equals(componentClass)) {
-			return new Short[size];
-		} else if (Integer.class.equals(componentClass)) {
-			return new Integer[size];
-		} else if (Float.class.equals(componentClass)) {
-			return new Float[size];
-		} else if (Long.class.equals(componentClass)) {
-			return new Long[size];
-		} else if (Double.class.equals(componentClass)) {
-			return new Double[size];
-		} else if (String.class.equals(componentClass)) {
-			return new String[size];
-		}
-		return null;
+		final ArrayCodec codec = ArrayCodecs.forArrayClassName(arrayClassName);
+		return codec == null ? null : codec.arrayClass;
 	}
 }
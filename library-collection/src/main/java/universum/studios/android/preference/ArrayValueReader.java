@@ -0,0 +1,562 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * A single-pass reader that may be used to read elements of an array value persisted in the
+ * {@code <type[]>[item,item,...]} format directly into primitive values without any intermediate
+ * objects.
+ * <p>
+ * The reader accepts elements in the same format as written by {@link ArrayValueWriter} and also
+ * elements written by {@code org.json.JSONArray} which has been used by the previous versions of
+ * the library, so the already persisted values may be still read.
+ *
+ * @author Martin Albedinsky
+ */
+final class ArrayValueReader {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Powers of ten that may be exactly represented by a double value.
+	 */
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * Powers of ten that may be exactly represented by a float value.
+	 */
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+			1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	/**
+	 * Maximum number of significant digits which may be parsed into a double value exactly.
+	 */
+	private static final int DOUBLE_MAX_EXACT_DIGITS = 15;
+
+	/**
+	 * Maximum value of mantissa which may be exactly represented by a float value (2^24).
+	 */
+	private static final long FLOAT_MAX_EXACT_MANTISSA = 1 << 24;
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Value containing the elements to be read.
+	 */
+	private final String mValue;
+
+	/**
+	 * Index (exclusive) at which the elements part of the value ends.
+	 */
+	private final int mEnd;
+
+	/**
+	 * Index of a character at which should start reading of the next element.
+	 */
+	private int mPosition;
+
+	/**
+	 * Index (inclusive) at which starts the last token read via {@link #readToken()}.
+	 */
+	private int mTokenStart;
+
+	/**
+	 * Index (exclusive) at which ends the last token read via {@link #readToken()}.
+	 */
+	private int mTokenEnd;
+
+	/**
+	 * Flag indicating whether the mantissa parsed via {@link #parseExactMantissa(int)} is negative.
+	 */
+	private boolean mNegative;
+
+	/**
+	 * Count of fraction digits of the mantissa parsed via {@link #parseExactMantissa(int)}.
+	 */
+	private int mFractionDigits;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ArrayValueReader for the specified part of the given <var>value</var>.
+	 *
+	 * @param value The value containing array elements separated by comma.
+	 * @param start Index (inclusive) of the first character of the elements part.
+	 * @param end   Index (exclusive) of the last character of the elements part.
+	 */
+	ArrayValueReader(@NonNull final String value, final int start, final int end) {
+		this.mValue = value;
+		this.mPosition = start;
+		this.mEnd = end;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Counts elements that are available to be read by this reader from its current position.
+	 * <p>
+	 * <b>Note</b>, that this method does not change the current position of this reader.
+	 *
+	 * @return Count of elements, {@code 0} if there are no elements to be read.
+	 * @throws MalformedValueException If a string element is not properly terminated.
+	 */
+	int countElements() {
+		int index = skipWhitespace(mPosition);
+		if (index >= mEnd) {
+			return 0;
+		}
+		int count = 1;
+		while (index < mEnd) {
+			final char c = mValue.charAt(index);
+			if (c == '"') {
+				index = skipString(index);
+			} else {
+				if (c == ',') count++;
+				index++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Creates an index of elements that are available to be read by this reader from its current
+	 * position.
+	 * <p>
+	 * <b>Note</b>, that this method does not change the current position of this reader.
+	 *
+	 * @return Array with index at which starts each of the elements followed by index right after
+	 * the end of the last element, so the element at position {@code i} may be read by a new reader
+	 * for range {@code [index[i], index[i + 1] - 1)}.
+	 * @throws MalformedValueException If a string element is not properly terminated.
+	 */
+	int[] indexElements() {
+		final int count = countElements();
+		final int[] index = new int[count + 1];
+		index[0] = mPosition;
+		int position = mPosition;
+		int element = 1;
+		while (position < mEnd) {
+			final char c = mValue.charAt(position);
+			if (c == '"') {
+				position = skipString(position);
+			} else {
+				if (c == ',') index[element++] = position + 1;
+				position++;
+			}
+		}
+		index[count] = mEnd + 1;
+		return index;
+	}
+
+	/**
+	 * Checks whether there are any more elements to be read.
+	 *
+	 * @return {@code True} if there is at least one more element, {@code false} otherwise.
+	 */
+	boolean hasNext() {
+		this.mPosition = skipWhitespace(mPosition);
+		return mPosition < mEnd;
+	}
+
+	/**
+	 * Checks whether the next element is a {@code null} literal and if so, consumes it.
+	 *
+	 * @return {@code True} if {@code null} element has been consumed, {@code false} otherwise.
+	 */
+	boolean nextIsNull() {
+		final int start = skipWhitespace(mPosition);
+		if (mValue.startsWith("null", start)) {
+			final int end = skipWhitespace(start + 4);
+			if (end == mEnd || mValue.charAt(end) == ',') {
+				this.mPosition = end;
+				consumeSeparator();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the next element as boolean.
+	 *
+	 * @return The read boolean value.
+	 * @throws MalformedValueException If the next element is not a boolean literal.
+	 */
+	boolean nextBoolean() {
+		readToken();
+		final boolean value;
+		if (tokenEquals("true")) {
+			value = true;
+		} else if (tokenEquals("false")) {
+			value = false;
+		} else {
+			throw new MalformedValueException();
+		}
+		consumeSeparator();
+		return value;
+	}
+
+	/**
+	 * Reads the next element as integer and checks whether it is within the specified range.
+	 *
+	 * @param min Minimum allowed value.
+	 * @param max Maximum allowed value.
+	 * @return The read integer value.
+	 * @throws MalformedValueException If the next element is not an integer or is out of the range.
+	 */
+	int nextInt(final int min, final int max) {
+		final long value = nextLong();
+		if (value < min || value > max) {
+			throw new MalformedValueException();
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Reads the next element as long.
+	 *
+	 * @return The read long value.
+	 * @throws MalformedValueException If the next element is not a long number.
+	 */
+	long nextLong() {
+		readToken();
+		int index = mTokenStart;
+		final boolean negative = mValue.charAt(index) == '-';
+		if (negative || mValue.charAt(index) == '+') index++;
+		if (index == mTokenEnd) {
+			throw new MalformedValueException();
+		}
+		// Accumulate negatively so also Long.MIN_VALUE may be parsed without overflow.
+		long result = 0;
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multiplyLimit = limit / 10;
+		while (index < mTokenEnd) {
+			final int digit = mValue.charAt(index++) - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit) {
+				throw new MalformedValueException();
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw new MalformedValueException();
+			}
+			result -= digit;
+		}
+		consumeSeparator();
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Reads the next element as float.
+	 *
+	 * @return The read float value.
+	 * @throws MalformedValueException If the next element is not a float number.
+	 */
+	float nextFloat() {
+		readToken();
+		final float value;
+		final long mantissa = parseExactMantissa(DOUBLE_MAX_EXACT_DIGITS);
+		if (mantissa >= 0 && mantissa < FLOAT_MAX_EXACT_MANTISSA && mFractionDigits < FLOAT_POWERS_OF_TEN.length) {
+			// Both operands are exact so the division is correctly rounded.
+			final float result = mantissa / FLOAT_POWERS_OF_TEN[mFractionDigits];
+			value = mNegative ? -result : result;
+		} else {
+			try {
+				value = Float.parseFloat(mValue.substring(mTokenStart, mTokenEnd));
+			} catch (NumberFormatException e) {
+				throw new MalformedValueException();
+			}
+		}
+		consumeSeparator();
+		return value;
+	}
+
+	/**
+	 * Reads the next element as double.
+	 *
+	 * @return The read double value.
+	 * @throws MalformedValueException If the next element is not a double number.
+	 */
+	double nextDouble() {
+		readToken();
+		final double value;
+		final long mantissa = parseExactMantissa(DOUBLE_MAX_EXACT_DIGITS);
+		if (mantissa >= 0 && mFractionDigits < DOUBLE_POWERS_OF_TEN.length) {
+			// Both operands are exact so the division is correctly rounded.
+			final double result = mantissa / DOUBLE_POWERS_OF_TEN[mFractionDigits];
+			value = mNegative ? -result : result;
+		} else {
+			try {
+				value = Double.parseDouble(mValue.substring(mTokenStart, mTokenEnd));
+			} catch (NumberFormatException e) {
+				throw new MalformedValueException();
+			}
+		}
+		consumeSeparator();
+		return value;
+	}
+
+	/**
+	 * Parses the current token as a plain decimal number with at most the specified count of digits
+	 * into mantissa (as if without decimal point) and its count of fraction digits.
+	 *
+	 * @param maxDigits Maximum number of digits the mantissa may have.
+	 * @return The parsed absolute mantissa or {@code -1} if the token is not a plain decimal number
+	 * or has too many digits so it cannot be parsed exactly and should be parsed via the platform.
+	 */
+	private long parseExactMantissa(final int maxDigits) {
+		int index = mTokenStart;
+		this.mNegative = mValue.charAt(index) == '-';
+		if (mNegative) index++;
+		this.mFractionDigits = 0;
+		long mantissa = 0;
+		int digits = 0;
+		boolean fraction = false;
+		if (index == mTokenEnd) return -1;
+		while (index < mTokenEnd) {
+			final char c = mValue.charAt(index++);
+			if (c >= '0' && c <= '9') {
+				if (++digits > maxDigits) return -1;
+				mantissa = mantissa * 10 + (c - '0');
+				if (fraction) mFractionDigits++;
+			} else if (c == '.' && !fraction && digits > 0) {
+				fraction = true;
+			} else {
+				return -1;
+			}
+		}
+		// Preserve sign of negative zero by letting the platform parse it.
+		return mNegative && mantissa == 0 ? -1 : mantissa;
+	}
+
+	/**
+	 * Reads the next element as char. The element is expected to be a string with exactly one
+	 * character.
+	 *
+	 * @return The read char value.
+	 * @throws MalformedValueException If the next element is not a single character string.
+	 */
+	char nextChar() {
+		final String value = nextString();
+		if (value == null || value.length() != 1) {
+			throw new MalformedValueException();
+		}
+		return value.charAt(0);
+	}
+
+	/**
+	 * Reads the next element as String.
+	 *
+	 * @return The read String value. May be {@code null} if the element is a {@code null} literal.
+	 * @throws MalformedValueException If the next element is not a properly terminated string.
+	 */
+	@Nullable
+	String nextString() {
+		if (nextIsNull()) {
+			return null;
+		}
+		this.mPosition = skipWhitespace(mPosition);
+		if (mPosition >= mEnd) {
+			throw new MalformedValueException();
+		}
+		final String value;
+		if (mValue.charAt(mPosition) == '"') {
+			final int start = mPosition + 1;
+			final int end = skipString(mPosition) - 1;
+			final int escapeIndex = mValue.indexOf('\\', start);
+			value = escapeIndex == -1 || escapeIndex >= end ? mValue.substring(start, end) : unescape(start, end);
+			this.mPosition = end + 1;
+		} else {
+			// Unquoted strings are accepted in the same way as by the JSON tokener.
+			readToken();
+			value = mValue.substring(mTokenStart, mTokenEnd);
+		}
+		consumeSeparator();
+		return value;
+	}
+
+	/**
+	 * Reads a token (without any quotes) that starts at the current position and ends before the
+	 * next separator or whitespace.
+	 *
+	 * @throws MalformedValueException If there is no token available.
+	 */
+	private void readToken() {
+		int index = skipWhitespace(mPosition);
+		this.mTokenStart = index;
+		while (index < mEnd) {
+			final char c = mValue.charAt(index);
+			if (c == ',' || isWhitespace(c)) break;
+			index++;
+		}
+		if (index == mTokenStart) {
+			throw new MalformedValueException();
+		}
+		this.mTokenEnd = mPosition = index;
+	}
+
+	/**
+	 * Checks whether the last read token equals to the given <var>literal</var>.
+	 */
+	private boolean tokenEquals(final String literal) {
+		return mTokenEnd - mTokenStart == literal.length() && mValue.startsWith(literal, mTokenStart);
+	}
+
+	/**
+	 * Consumes a separator following the current position (if any).
+	 *
+	 * @throws MalformedValueException If there is other than separator character after the
+	 *                                 current element.
+	 */
+	private void consumeSeparator() {
+		this.mPosition = skipWhitespace(mPosition);
+		if (mPosition < mEnd) {
+			if (mValue.charAt(mPosition) != ',') {
+				throw new MalformedValueException();
+			}
+			this.mPosition = skipWhitespace(mPosition + 1);
+			if (mPosition == mEnd) {
+				// Trailing separator without any element after it.
+				throw new MalformedValueException();
+			}
+		}
+	}
+
+	/**
+	 * Skips a quoted string starting at the specified <var>index</var>.
+	 *
+	 * @return Index right after the closing quote.
+	 * @throws MalformedValueException If the string is not terminated.
+	 */
+	private int skipString(int index) {
+		index++;
+		while (index < mEnd) {
+			final char c = mValue.charAt(index++);
+			if (c == '\\') {
+				index++;
+			} else if (c == '"') {
+				return index;
+			}
+		}
+		throw new MalformedValueException();
+	}
+
+	/**
+	 * Skips all whitespace characters starting at the specified <var>index</var>.
+	 *
+	 * @return Index of the first non-whitespace character or end index.
+	 */
+	private int skipWhitespace(int index) {
+		while (index < mEnd && isWhitespace(mValue.charAt(index))) index++;
+		return index;
+	}
+
+	/**
+	 * Checks whether the given character is whitespace as defined by JSON.
+	 */
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * Un-escapes contents of a string between the specified indexes.
+	 *
+	 * @throws MalformedValueException If there is an invalid escape sequence.
+	 */
+	private String unescape(final int start, final int end) {
+		final StringBuilder builder = new StringBuilder(end - start);
+		int index = start;
+		while (index < end) {
+			final char c = mValue.charAt(index++);
+			if (c != '\\') {
+				builder.append(c);
+				continue;
+			}
+			final char escaped = mValue.charAt(index++);
+			switch (escaped) {
+				case 'u':
+					if (index + 4 > end) {
+						throw new MalformedValueException();
+					}
+					int code = 0;
+					for (int i = 0; i < 4; i++) {
+						final int digit = Character.digit(mValue.charAt(index++), 16);
+						if (digit == -1) {
+							throw new MalformedValueException();
+						}
+						code = (code << 4) | digit;
+					}
+					builder.append((char) code);
+					break;
+				case 't':
+					builder.append('\t');
+					break;
+				case 'b':
+					builder.append('\b');
+					break;
+				case 'n':
+					builder.append('\n');
+					break;
+				case 'r':
+					builder.append('\r');
+					break;
+				case 'f':
+					builder.append('\f');
+					break;
+				default:
+					// Covers also quote, back-slash and slash.
+					builder.append(escaped);
+					break;
+			}
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Exception thrown by {@link ArrayValueReader} whenever it encounters an element that does not
+	 * have the requested format.
+	 */
+	static final class MalformedValueException extends RuntimeException {
+
+		/**
+		 * Creates a new instance of MalformedValueException.
+		 */
+		MalformedValueException() {
+			super("Malformed array value.");
+		}
+	}
+}
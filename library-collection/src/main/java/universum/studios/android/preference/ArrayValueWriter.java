@@ -0,0 +1,180 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Utility class that may be used to write elements of an array value in the {@code <type[]>[item,item,...]}
+ * format directly into a {@link StringBuilder}.
+ * <p>
+ * Elements of finite values are written in the same format as written by {@code org.json.JSONArray}
+ * which has been used by the previous versions of the library. Non-finite floating point values,
+ * which are refused by {@code org.json}, are written as {@code NaN} and {@code Infinity} literals.
+ *
+ * @author Martin Albedinsky
+ */
+final class ArrayValueWriter {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Hexadecimal digits used to write escaped control characters.
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private ArrayValueWriter() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Writes a separator between two elements into the given <var>builder</var> if the specified
+	 * <var>index</var> is not the index of the first element.
+	 *
+	 * @param builder The builder where to write the separator.
+	 * @param index   Index of the element that is about to be written.
+	 */
+	static void writeSeparator(@NonNull final StringBuilder builder, final int index) {
+		if (index > 0) builder.append(',');
+	}
+
+	/**
+	 * Writes {@code null} literal into the given <var>builder</var>.
+	 */
+	static void writeNull(@NonNull final StringBuilder builder) {
+		builder.append("null");
+	}
+
+	/**
+	 * Writes the given float <var>value</var> into the given <var>builder</var>.
+	 * <p>
+	 * Integral values are written without fraction part. Negative zero is written as {@code 0} in
+	 * the same way as {@code org.json} writes boxed float values.
+	 */
+	static void writeFloat(@NonNull final StringBuilder builder, final float value) {
+		final long longValue = (long) value;
+		if (value == longValue && longValue != Long.MAX_VALUE && longValue != Long.MIN_VALUE) {
+			builder.append(longValue);
+		} else {
+			builder.append(value);
+		}
+	}
+
+	/**
+	 * Writes the given double <var>value</var> into the given <var>builder</var>.
+	 * <p>
+	 * Integral values are written without fraction part. Negative zero is written as {@code -0}.
+	 */
+	static void writeDouble(@NonNull final StringBuilder builder, final double value) {
+		final long longValue = (long) value;
+		if (value == longValue && longValue != Long.MAX_VALUE && longValue != Long.MIN_VALUE) {
+			writeIntegral(builder, value, longValue);
+		} else {
+			builder.append(value);
+		}
+	}
+
+	/**
+	 * Writes the given integral floating point <var>value</var> as long value while preserving sign
+	 * of negative zero.
+	 */
+	private static void writeIntegral(final StringBuilder builder, final double value, final long longValue) {
+		if (longValue == 0 && Double.doubleToRawLongBits(value) != 0) {
+			builder.append("-0");
+		} else {
+			builder.append(longValue);
+		}
+	}
+
+	/**
+	 * Writes the given char <var>value</var> as quoted single character string into the given
+	 * <var>builder</var>.
+	 */
+	static void writeChar(@NonNull final StringBuilder builder, final char value) {
+		builder.append('"');
+		writeEscaped(builder, value);
+		builder.append('"');
+	}
+
+	/**
+	 * Writes the given String <var>value</var> as quoted string into the given <var>builder</var>.
+	 * If the value is {@code null}, {@code null} literal is written instead.
+	 */
+	static void writeString(@NonNull final StringBuilder builder, @Nullable final String value) {
+		if (value == null) {
+			writeNull(builder);
+			return;
+		}
+		builder.append('"');
+		final int length = value.length();
+		for (int i = 0; i < length; i++) {
+			writeEscaped(builder, value.charAt(i));
+		}
+		builder.append('"');
+	}
+
+	/**
+	 * Writes the given character into the given <var>builder</var> escaping it if necessary.
+	 */
+	private static void writeEscaped(final StringBuilder builder, final char c) {
+		switch (c) {
+			case '"':
+			case '\\':
+			case '/':
+				builder.append('\\').append(c);
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			case '\b':
+				builder.append("\\b");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\f':
+				builder.append("\\f");
+				break;
+			default:
+				if (c <= 0x1F) {
+					builder.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+				} else {
+					builder.append(c);
+				}
+				break;
+		}
+	}
+}
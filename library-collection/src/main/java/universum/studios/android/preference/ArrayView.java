@@ -0,0 +1,614 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * A read-only view that provides random access to elements of an array persisted via {@link ArrayPreference}
+ * without obtaining the whole array.
+ * <p>
+ * A view may be obtained via {@link ArrayPreference#getViewFromPreferences(android.content.SharedPreferences, String)}.
+ * Elements are decoded from the persisted value only when they are requested:
+ * <ul>
+ * <li>for arrays persisted as text, the view indexes positions of all elements once when it is
+ * created and then parses only the requested elements,</li>
+ * <li>for arrays persisted in {@link ArrayPreference#ENCODING_COMPACT compact} encoding, the view
+ * decodes only the bytes of the requested elements,</li>
+ * <li>for arrays persisted in {@link ArrayPreference#ENCODING_COMPACT_DELTA compact delta} encoding,
+ * the view creates an index of every {@value #CHECKPOINT_INTERVAL}th element when any of the elements
+ * is requested for the first time and then decodes at most {@value #CHECKPOINT_INTERVAL} elements
+ * for each request.</li>
+ * </ul>
+ * <p>
+ * Primitive elements may be obtained without boxing via one of the typed getters, like {@link #getInt(int)},
+ * which accept elements of the corresponding primitive type (or its boxed representation) or of any
+ * narrower type.
+ *
+ * @author Martin Albedinsky
+ * @see ArrayPreference
+ */
+public final class ArrayView {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Count of elements between two indexed elements of an array persisted in compact delta encoding.
+	 */
+	private static final int CHECKPOINT_INTERVAL = 64;
+
+	/**
+	 * Kinds of array elements.
+	 */
+	private static final int KIND_BOOLEAN = 0;
+	private static final int KIND_BYTE = 1;
+	private static final int KIND_CHAR = 2;
+	private static final int KIND_SHORT = 3;
+	private static final int KIND_INT = 4;
+	private static final int KIND_FLOAT = 5;
+	private static final int KIND_LONG = 6;
+	private static final int KIND_DOUBLE = 7;
+	private static final int KIND_STRING = 8;
+	private static final int KIND_OBJECT = 9;
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * The key for which is the viewed array mapped in shared preferences.
+	 */
+	private final String mKey;
+
+	/**
+	 * The persisted array value.
+	 */
+	private final String mValue;
+
+	/**
+	 * Index at which starts body of the persisted value.
+	 */
+	private final int mBodyStart;
+
+	/**
+	 * Class of the persisted array.
+	 */
+	private final Class<?> mArrayClass;
+
+	/**
+	 * Codec for class of the persisted array.
+	 */
+	private final ArrayCodec mCodec;
+
+	/**
+	 * Kind of elements of the persisted array.
+	 */
+	private final int mKind;
+
+	/**
+	 * Count of elements of the persisted array.
+	 */
+	private final int mLength;
+
+	/**
+	 * Header of the array persisted in compact format. {@code Null} if the array is persisted as text.
+	 */
+	private final CompactArrayFormat.Header mCompactHeader;
+
+	/**
+	 * Index of elements of the array persisted as text.
+	 *
+	 * @see ArrayValueReader#indexElements()
+	 */
+	private final int[] mTextIndex;
+
+	/**
+	 * Decoded payload of the array persisted in compact delta encoding.
+	 */
+	private byte[] mDeltaPayload;
+
+	/**
+	 * Positions of every {@link #CHECKPOINT_INTERVAL}th element within {@link #mDeltaPayload}.
+	 */
+	private int[] mCheckpointPositions;
+
+	/**
+	 * Values of elements preceding the elements at {@link #mCheckpointPositions}.
+	 */
+	private long[] mCheckpointValues;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ArrayView for the given array <var>value</var>.
+	 *
+	 * @param key   The key for which is the value mapped in shared preferences.
+	 * @param value The persisted array value. Must not be empty.
+	 * @throws ClassCastException       If the value does not represent an array.
+	 * @throws IllegalArgumentException If type of the persisted array is not supported.
+	 * @throws IllegalStateException    If the value was not persisted by means of this library.
+	 */
+	ArrayView(final String key, final String value) {
+		this.mKey = key;
+		this.mValue = value;
+		this.mBodyStart = ArrayPreference.resolveBodyStartOrThrow(key, value);
+		this.mCodec = ArrayPreference.resolvePersistedCodec(key, value, mBodyStart);
+		this.mArrayClass = mCodec.arrayClass;
+		this.mKind = resolveKind(mCodec.componentType);
+		try {
+			if (value.charAt(mBodyStart) == CompactArrayFormat.PREFIX) {
+				this.mCompactHeader = CompactArrayFormat.readHeader(value, mBodyStart);
+				this.mTextIndex = null;
+				this.mLength = mCompactHeader.length;
+				assertCompactPayload();
+			} else {
+				this.mCompactHeader = null;
+				this.mTextIndex = new ArrayValueReader(value, mBodyStart + 1, value.length() - 1).indexElements();
+				this.mLength = mTextIndex.length - 1;
+			}
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw notAnArray();
+		}
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Resolves kind of elements for the given component class.
+	 */
+	private static int resolveKind(final Class<?> componentClass) {
+		if (String.class.equals(componentClass)) {
+			return KIND_STRING;
+		}
+		final Class<?> primitiveClass = componentClass.isPrimitive() ? componentClass : CompactArrayFormat.unboxedClass(componentClass);
+		if (primitiveClass == null) return KIND_OBJECT;
+		if (boolean.class.equals(primitiveClass)) return KIND_BOOLEAN;
+		if (byte.class.equals(primitiveClass)) return KIND_BYTE;
+		if (char.class.equals(primitiveClass)) return KIND_CHAR;
+		if (short.class.equals(primitiveClass)) return KIND_SHORT;
+		if (int.class.equals(primitiveClass)) return KIND_INT;
+		if (float.class.equals(primitiveClass)) return KIND_FLOAT;
+		if (long.class.equals(primitiveClass)) return KIND_LONG;
+		return KIND_DOUBLE;
+	}
+
+	/**
+	 * Asserts that the payload of the array persisted in compact format has expected size.
+	 *
+	 * @throws ArrayValueReader.MalformedValueException If the payload is not valid.
+	 */
+	private void assertCompactPayload() {
+		final Class<?> primitiveClass = primitiveClass();
+		final int payloadLength = mValue.length() - mCompactHeader.payloadStart;
+		if (mCompactHeader.encoding == CompactArrayFormat.ENCODING_DELTA_VARINT) {
+			if ((mKind != KIND_INT && mKind != KIND_LONG) || CompactArrayFormat.base64Length(mLength) > payloadLength) {
+				throw new ArrayValueReader.MalformedValueException();
+			}
+		} else if (primitiveClass == null || CompactArrayFormat.base64Length(CompactArrayFormat.packedPayloadSize(primitiveClass, mLength)) != payloadLength) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+	}
+
+	/**
+	 * Returns primitive class of elements of the persisted array.
+	 */
+	private Class<?> primitiveClass() {
+		final Class<?> componentClass = mArrayClass.getComponentType();
+		return componentClass.isPrimitive() ? componentClass : CompactArrayFormat.unboxedClass(componentClass);
+	}
+
+	/**
+	 * Returns the class of the persisted array.
+	 *
+	 * @return One of array classes supported by {@link ArrayPreference}.
+	 */
+	@NonNull
+	public Class<?> getArrayClass() {
+		return mArrayClass;
+	}
+
+	/**
+	 * Returns the length of the persisted array.
+	 *
+	 * @return Count of elements.
+	 */
+	public int length() {
+		return mLength;
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as boolean.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 * @throws ClassCastException             If the persisted array is not array of booleans.
+	 * @throws NullPointerException           If the element is {@code null}.
+	 */
+	public boolean getBoolean(final int index) {
+		assertKind(mKind == KIND_BOOLEAN, "boolean");
+		assertIndex(index);
+		try {
+			if (mCompactHeader == null) {
+				return nonNullTextElement(index).nextBoolean();
+			}
+			final byte[] bytes = CompactArrayFormat.decodeBase64Range(mValue, mCompactHeader.payloadStart, index >> 3, 1);
+			return (bytes[0] & (1 << (index & 7))) != 0;
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw notAnArray();
+		}
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as char.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 * @throws ClassCastException             If the persisted array is not array of chars.
+	 */
+	public char getChar(final int index) {
+		assertKind(mKind == KIND_CHAR, "char");
+		assertIndex(index);
+		try {
+			return mCompactHeader == null ? textElement(index).nextChar() : (char) readPacked(index);
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw notAnArray();
+		}
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as int.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 * @throws ClassCastException             If the persisted array is not array of bytes, shorts
+	 *                                        or integers.
+	 * @throws NullPointerException           If the element is {@code null}.
+	 */
+	public int getInt(final int index) {
+		assertKind(mKind == KIND_BYTE || mKind == KIND_SHORT || mKind == KIND_INT, "int");
+		return (int) readIntegral(index);
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as long.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 * @throws ClassCastException             If the persisted array is not array of bytes, shorts,
+	 *                                        integers or longs.
+	 * @throws NullPointerException           If the element is {@code null}.
+	 */
+	public long getLong(final int index) {
+		assertKind(mKind == KIND_BYTE || mKind == KIND_SHORT || mKind == KIND_INT || mKind == KIND_LONG, "long");
+		return readIntegral(index);
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as float.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 * @throws ClassCastException             If the persisted array is not array of floats.
+	 * @throws NullPointerException           If the element is {@code null}.
+	 */
+	public float getFloat(final int index) {
+		assertKind(mKind == KIND_FLOAT, "float");
+		return (float) readFloating(index);
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as double.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 * @throws ClassCastException             If the persisted array is not array of floats or doubles.
+	 * @throws NullPointerException           If the element is {@code null}.
+	 */
+	public double getDouble(final int index) {
+		assertKind(mKind == KIND_FLOAT || mKind == KIND_DOUBLE, "double");
+		return readFloating(index);
+	}
+
+	/**
+	 * Returns the element at the specified <var>index</var> as an object, that is boxed representation
+	 * of a primitive value, String or an element decoded via codec registered in {@link ArrayCodecs}.
+	 *
+	 * @param index Index of the desired element.
+	 * @return The element value. May be {@code null} if the persisted array is not array of primitives.
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 */
+	@Nullable
+	public Object get(final int index) {
+		assertIndex(index);
+		if (mCompactHeader == null) {
+			try {
+				return mCodec.readElement(textElement(index));
+			} catch (ArrayValueReader.MalformedValueException e) {
+				throw notAnArray();
+			}
+		}
+		switch (mKind) {
+			case KIND_BOOLEAN:
+				return getBoolean(index);
+			case KIND_BYTE:
+				return (byte) readIntegral(index);
+			case KIND_CHAR:
+				return getChar(index);
+			case KIND_SHORT:
+				return (short) readIntegral(index);
+			case KIND_INT:
+				return (int) readIntegral(index);
+			case KIND_FLOAT:
+				return (float) readFloating(index);
+			case KIND_LONG:
+				return readIntegral(index);
+			default:
+				return readFloating(index);
+		}
+	}
+
+	/**
+	 * Copies the specified range of elements into a new array of the same class as the persisted
+	 * array. Only the elements within the range are decoded.
+	 *
+	 * @param from Index of the first element to copy (inclusive).
+	 * @param to   Index of the last element to copy (exclusive).
+	 * @param <A>  Type of the persisted array.
+	 * @return New array with the elements from the range.
+	 * @throws IndexOutOfBoundsException If the range is out of bounds.
+	 */
+	@NonNull
+	@SuppressWarnings("unchecked")
+	public <A> A copyOfRange(final int from, final int to) {
+		if (from < 0 || to > mLength || from > to) {
+			throw new IndexOutOfBoundsException("Range[" + from + ", " + to + ") is out of bounds of array with length(" + mLength + ").");
+		}
+		try {
+			if (mCompactHeader == null) {
+				final int start = mTextIndex[from];
+				final int end = from == to ? start : mTextIndex[to] - 1;
+				return (A) mCodec.read(new ArrayValueReader(mValue, start, end));
+			}
+			final Class<?> primitiveClass = primitiveClass();
+			final int length = to - from;
+			final Object primitiveArray;
+			if (mCompactHeader.encoding == CompactArrayFormat.ENCODING_DELTA_VARINT) {
+				primitiveArray = readDeltaRange(from, to);
+			} else if (mKind == KIND_BOOLEAN) {
+				final boolean[] values = new boolean[length];
+				for (int i = 0; i < length; i++) values[i] = getBoolean(from + i);
+				primitiveArray = values;
+			} else {
+				final int size = CompactArrayFormat.packedSize(primitiveClass);
+				final byte[] bytes = CompactArrayFormat.decodeBase64Range(mValue, mCompactHeader.payloadStart, from * size, length * size);
+				primitiveArray = CompactArrayFormat.unpack(bytes, primitiveClass, length);
+			}
+			return (A) (mArrayClass.getComponentType().isPrimitive() ? primitiveArray : CompactArrayFormat.toBoxedArray(primitiveArray, mArrayClass));
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw notAnArray();
+		}
+	}
+
+	/**
+	 * Reads integral element at the specified <var>index</var>.
+	 */
+	private long readIntegral(final int index) {
+		assertIndex(index);
+		try {
+			if (mCompactHeader == null) {
+				return nonNullTextElement(index).nextLong();
+			}
+			if (mCompactHeader.encoding == CompactArrayFormat.ENCODING_DELTA_VARINT) {
+				final long value = readDelta(index);
+				return mKind == KIND_INT ? (int) value : value;
+			}
+			final long raw = readPacked(index);
+			switch (mKind) {
+				case KIND_BYTE:
+					return (byte) raw;
+				case KIND_SHORT:
+					return (short) raw;
+				case KIND_INT:
+					return (int) raw;
+				default:
+					return raw;
+			}
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw notAnArray();
+		}
+	}
+
+	/**
+	 * Reads floating point element at the specified <var>index</var>.
+	 */
+	private double readFloating(final int index) {
+		assertIndex(index);
+		try {
+			if (mCompactHeader == null) {
+				final ArrayValueReader reader = nonNullTextElement(index);
+				return mKind == KIND_FLOAT ? reader.nextFloat() : reader.nextDouble();
+			}
+			final long raw = readPacked(index);
+			return mKind == KIND_FLOAT ? Float.intBitsToFloat((int) raw) : Double.longBitsToDouble(raw);
+		} catch (ArrayValueReader.MalformedValueException e) {
+			throw notAnArray();
+		}
+	}
+
+	/**
+	 * Reads raw bits of the packed element at the specified <var>index</var>.
+	 */
+	private long readPacked(final int index) {
+		final int size = CompactArrayFormat.packedSize(primitiveClass());
+		final byte[] bytes = CompactArrayFormat.decodeBase64Range(mValue, mCompactHeader.payloadStart, index * size, size);
+		long raw = 0;
+		for (int i = size - 1; i >= 0; i--) {
+			raw = (raw << 8) | (bytes[i] & 0xFF);
+		}
+		return raw;
+	}
+
+	/**
+	 * Reads element at the specified <var>index</var> of an array persisted in compact delta encoding.
+	 */
+	private long readDelta(final int index) {
+		ensureCheckpoints();
+		final int checkpoint = index / CHECKPOINT_INTERVAL;
+		final CompactArrayFormat.VarintReader reader = new CompactArrayFormat.VarintReader(mDeltaPayload, mCheckpointPositions[checkpoint]);
+		long value = mCheckpointValues[checkpoint];
+		for (int i = checkpoint * CHECKPOINT_INTERVAL; i <= index; i++) {
+			value += decodeDelta(reader.next());
+		}
+		return value;
+	}
+
+	/**
+	 * Reads the specified range of elements of an array persisted in compact delta encoding.
+	 */
+	private Object readDeltaRange(final int from, final int to) {
+		final int length = to - from;
+		final long[] values = new long[length];
+		if (length > 0) {
+			values[0] = readDelta(from);
+			final int checkpoint = from / CHECKPOINT_INTERVAL;
+			final CompactArrayFormat.VarintReader reader = new CompactArrayFormat.VarintReader(mDeltaPayload, mCheckpointPositions[checkpoint]);
+			// Skip the elements up to the first one which has been already read.
+			for (int i = checkpoint * CHECKPOINT_INTERVAL; i <= from; i++) {
+				reader.next();
+			}
+			for (int i = 1; i < length; i++) {
+				values[i] = values[i - 1] + decodeDelta(reader.next());
+			}
+		}
+		if (mKind == KIND_LONG) {
+			return values;
+		}
+		final int[] intValues = new int[length];
+		for (int i = 0; i < length; i++) intValues[i] = (int) values[i];
+		return intValues;
+	}
+
+	/**
+	 * Decodes zig-zag encoded difference between two elements in the same way as it has been encoded
+	 * for the kind of the persisted array.
+	 */
+	private long decodeDelta(final long encoded) {
+		if (mKind == KIND_INT) {
+			final int value = (int) encoded;
+			return (value >>> 1) ^ -(value & 1);
+		}
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	/**
+	 * Decodes payload of an array persisted in compact delta encoding and indexes position of every
+	 * {@link #CHECKPOINT_INTERVAL}th element, if not indexed yet.
+	 *
+	 * @throws ArrayValueReader.MalformedValueException If the payload is not valid.
+	 */
+	private void ensureCheckpoints() {
+		if (mDeltaPayload != null) {
+			return;
+		}
+		final byte[] payload = CompactArrayFormat.decodeBase64(mValue, mCompactHeader.payloadStart, mValue.length());
+		final int checkpointsCount = (mLength + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+		final int[] positions = new int[checkpointsCount];
+		final long[] values = new long[checkpointsCount];
+		final CompactArrayFormat.VarintReader reader = new CompactArrayFormat.VarintReader(payload);
+		long value = 0;
+		for (int i = 0; i < mLength; i++) {
+			if (i % CHECKPOINT_INTERVAL == 0) {
+				positions[i / CHECKPOINT_INTERVAL] = reader.position();
+				values[i / CHECKPOINT_INTERVAL] = value;
+			}
+			value += decodeDelta(reader.next());
+		}
+		reader.assertFinished();
+		this.mCheckpointPositions = positions;
+		this.mCheckpointValues = values;
+		this.mDeltaPayload = payload;
+	}
+
+	/**
+	 * Creates a reader for the element at the specified <var>index</var> of an array persisted as text.
+	 */
+	private ArrayValueReader textElement(final int index) {
+		return new ArrayValueReader(mValue, mTextIndex[index], mTextIndex[index + 1] - 1);
+	}
+
+	/**
+	 * Same as {@link #textElement(int)} but also asserts that the element is not {@code null}.
+	 *
+	 * @throws NullPointerException If the element is {@code null}.
+	 */
+	private ArrayValueReader nonNullTextElement(final int index) {
+		if (textElement(index).nextIsNull()) {
+			throw new NullPointerException("Element at index(" + index + ") of array for the key(" + mKey + ") is null.");
+		}
+		return textElement(index);
+	}
+
+	/**
+	 * Asserts that the specified <var>index</var> is within bounds of the persisted array.
+	 *
+	 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+	 */
+	private void assertIndex(final int index) {
+		if (index < 0 || index >= mLength) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+	}
+
+	/**
+	 * Asserts that elements of the persisted array may be obtained as the requested type.
+	 *
+	 * @throws ClassCastException If the assertion is not satisfied.
+	 */
+	private void assertKind(final boolean satisfied, final String requestedType) {
+		if (!satisfied) {
+			throw new ClassCastException(
+					"Cannot obtain element of(" + requestedType + ") from array of(" + mArrayClass.getSimpleName() + ") " +
+							"for the key(" + mKey + ")."
+			);
+		}
+	}
+
+	/**
+	 * Creates an exception indicating that the persisted value is not a valid array.
+	 */
+	private ClassCastException notAnArray() {
+		return new ClassCastException(
+				"Cannot obtain an array for the key(" + mKey + ") from shared preferences. " +
+						"Value(" + mValue.substring(mBodyStart) + ") is not an array!"
+		);
+	}
+}
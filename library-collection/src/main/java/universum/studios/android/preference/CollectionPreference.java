@@ -22,6 +22,7 @@ import android.content.SharedPreferences;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.text.TextUtils;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -29,6 +30,10 @@ import java.util.Collection;
 /**
  * A {@link SharedPreference} implementation that may be used to persist a {@link Collection} of values
  * via {@link SharedPreferences}.
+ * <p>
+ * Collections are persisted in the same way as arrays via {@link ArrayPreference} so a collection
+ * preference may be created also with one of encodings supported by the array preference via
+ * {@link #CollectionPreference(String, Class, Collection, int)}.
  *
  * @param <T> Type of items within a collection of which values should be persisted by CollectionPreference.
  * @author Martin Albedinsky
@@ -45,6 +50,18 @@ public final class CollectionPreference<T> extends SharedPreference<Collection<T
 	 */
 	private final Class<T> mComponentType;
 
+	/**
+	 * Encoding used to persist the collection value of this preference.
+	 */
+	@ArrayPreference.Encoding
+	private final int mEncoding;
+
+	/**
+	 * Codec for arrays of the component type of this preference. {@code Null} if there is no codec
+	 * registered for such type at the time this preference is created.
+	 */
+	private final ArrayCodec mCodec;
+
 	/*
 	 * Constructors ================================================================================
 	 */
@@ -54,11 +71,28 @@ public final class CollectionPreference<T> extends SharedPreference<Collection<T
 	 *
 	 * @param componentType Class of components that can be presented within a collection that is to
 	 *                      by persisted by the new collection preference.
+	 * @see #CollectionPreference(String, Class, Collection, int)
 	 * @see SharedPreference#SharedPreference(String, Object)
 	 */
 	public CollectionPreference(@NonNull final String key, @NonNull final Class<T> componentType, @Nullable final Collection<T> defValue) {
+		this(key, componentType, defValue, ArrayPreference.ENCODING_TEXT);
+	}
+
+	/**
+	 * Creates a new instance of ListPreference with the specified <var>key</var>, <var>defValue</var>
+	 * and <var>encoding</var> used to persist its collection value.
+	 *
+	 * @param componentType Class of components that can be presented within a collection that is to
+	 *                      by persisted by the new collection preference.
+	 * @param encoding      The desired encoding. One of {@link ArrayPreference#ENCODING_TEXT},
+	 *                      {@link ArrayPreference#ENCODING_COMPACT} or {@link ArrayPreference#ENCODING_COMPACT_DELTA}.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public CollectionPreference(@NonNull final String key, @NonNull final Class<T> componentType, @Nullable final Collection<T> defValue, @ArrayPreference.Encoding final int encoding) {
 		super(key, defValue);
 		this.mComponentType = componentType;
+		this.mEncoding = encoding;
+		this.mCodec = ArrayCodecs.forComponentType(componentType);
 	}
 
 	/*
@@ -66,12 +100,31 @@ public final class CollectionPreference<T> extends SharedPreference<Collection<T
 	 */
 
 	/**
-	 * @see #putIntoPreferences(SharedPreferences, String, Collection, Class)
+	 * Returns the encoding used by this preference to persist its collection value.
+	 *
+	 * @return One of encodings supported by {@link ArrayPreference}.
+	 * @see #CollectionPreference(String, Class, Collection, int)
+	 */
+	@ArrayPreference.Encoding
+	public int getEncoding() {
+		return mEncoding;
+	}
+
+	/**
+	 * @see #putIntoPreferences(SharedPreferences, String, Collection, Class, int)
 	 */
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return putIntoPreferences(preferences, mKey, mValue, mComponentType);
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		putIntoEditor(editor, mKey, mValue, mComponentType, mCodec == null ? ArrayCodecs.forComponentType(mComponentType) : mCodec, mEncoding);
+		return true;
 	}
 
 	/**
@@ -84,26 +137,54 @@ public final class CollectionPreference<T> extends SharedPreference<Collection<T
 	 * @param value         The desired collection value to be persisted.
 	 * @param componentType Class of components presented within the given collection.
 	 * @return {@code True} if put has been successful, {@code false} otherwise.
+	 * @see #putIntoPreferences(SharedPreferences, String, Collection, Class, int)
 	 */
 	@CheckResult
-	@SuppressWarnings("unchecked")
 	public static <T> boolean putIntoPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final Collection<T> value, @NonNull final Class<T> componentType) {
+		return putIntoPreferences(preferences, key, value, componentType, ArrayPreference.ENCODING_TEXT);
+	}
+
+	/**
+	 * Persists the given collection <var>value</var> for the specified <var>key</var> into the given
+	 * shared <var>preferences</var> using the specified <var>encoding</var>.
+	 *
+	 * @param preferences   The instance of shared preferences into which should be the given collection
+	 *                      persisted.
+	 * @param key           The key for which should be the collection mapped in the shared preferences.
+	 * @param value         The desired collection value to be persisted.
+	 * @param componentType Class of components presented within the given collection.
+	 * @param encoding      The encoding to be used to persist the collection. One of encodings
+	 *                      supported by {@link ArrayPreference}.
+	 * @return {@code True} if put has been successful, {@code false} otherwise.
+	 */
+	@CheckResult
+	public static <T> boolean putIntoPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final Collection<T> value, @NonNull final Class<T> componentType, @ArrayPreference.Encoding final int encoding) {
 		final SharedPreferences.Editor editor = preferences.edit();
+		putIntoEditor(editor, key, value, componentType, ArrayCodecs.forComponentType(componentType), encoding);
+		return editor.commit();
+	}
+
+	/**
+	 * Puts the given collection <var>value</var> converted via the specified <var>codec</var> into
+	 * the given <var>editor</var> without committing it.
+	 *
+	 * @see #putIntoPreferences(SharedPreferences, String, Collection, Class, int)
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> void putIntoEditor(final SharedPreferences.Editor editor, final String key, final Collection<T> value, final Class<T> componentType, final ArrayCodec codec, final int encoding) {
 		if (value == null) {
 			editor.putString(key, null);
 		} else {
-			final T[] array = (T[]) ArrayPreference.createArrayInSize(componentType, value.size());
-			if (array == null) {
+			if (codec == null || componentType.isPrimitive()) {
 				final String componentName = componentType.getSimpleName();
 				throw new IllegalArgumentException(
 						"Failed to put collection of(" + componentName + ") into shared preferences. " +
 								"Only collections of primitive types or theirs boxed representations including String are supported."
 				);
 			}
-			value.toArray(array);
-			return ArrayPreference.putIntoPreferences(preferences, key, array);
+			final T[] array = value.toArray((T[]) codec.newArray(value.size()));
+			ArrayPreference.putIntoEditor(editor, key, array, encoding);
 		}
-		return editor.commit();
 	}
 
 	/**
@@ -116,8 +197,15 @@ public final class CollectionPreference<T> extends SharedPreference<Collection<T
 	}
 
 	/**
-	 * Obtains the <b>array</b> persisted within the given shared <var>preferences</var> for the
+	 * Obtains the <b>collection</b> persisted within the given shared <var>preferences</var> for the
 	 * specified <var>key</var>.
+	 * <p>
+	 * Collections of {@link Integer Integers}, {@link Long Longs}, {@link Float Floats} and {@link Double Doubles}
+	 * without {@code null} elements are read directly into array of primitive values and returned as
+	 * one of list views provided by {@link PrimitiveLists}, so theirs elements are not boxed unless
+	 * they are accessed via {@link Collection} interface.
+	 * <b>Note</b>, that such list views cannot contain {@code null} elements, so setting of a {@code null}
+	 * element into such list fails with {@link NullPointerException}.
 	 *
 	 * @param preferences The instance of shared preferences where is the desired collection persisted.
 	 * @param key         The key for which is the desired collection mapped in the shared preferences.
@@ -136,10 +224,21 @@ public final class CollectionPreference<T> extends SharedPreference<Collection<T
 	@SuppressWarnings("unchecked")
 	public static <T> Collection<T> getFromPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final Collection<T> defValue) {
 		final String value = preferences.getString(key, null);
-		if (value != null) {
+		if (!TextUtils.isEmpty(value)) {
 			try {
-				final T[] array = ArrayPreference.getFromPreferences(preferences, key, null);
-				return Arrays.asList(array);
+				final int bodyStart = ArrayPreference.resolveBodyStartOrThrow(key, value);
+				final ArrayCodec codec = ArrayPreference.resolvePersistedCodec(key, value, bodyStart);
+				final Class<?> primitiveArrayClass = PrimitiveLists.resolvePrimitiveArrayClass(codec.arrayClass);
+				if (primitiveArrayClass != null) {
+					try {
+						final ArrayCodec primitiveCodec = ArrayCodecs.forArrayClass(primitiveArrayClass);
+						return (Collection<T>) PrimitiveLists.wrapArray(ArrayPreference.readArray(key, value, bodyStart, primitiveCodec));
+					} catch (ClassCastException e) {
+						// Persisted elements may contain null values which cannot be read into primitive array.
+						if (primitiveArrayClass.equals(codec.arrayClass)) throw e;
+					}
+				}
+				return Arrays.asList((T[]) ArrayPreference.readArray(key, value, bodyStart, codec));
 			} catch (ClassCastException e) {
 				final String arrayValue = ArrayPreference.extractArrayValueFromPreferenceValue(value);
 				throw new ClassCastException(
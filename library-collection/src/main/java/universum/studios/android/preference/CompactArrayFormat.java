@@ -0,0 +1,718 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Utility class that implements the <b>compact</b> format for array values persisted via
+ * {@link ArrayPreference} and {@link CollectionPreference}.
+ * <p>
+ * An array value in compact format has the following structure:
+ * <pre>
+ * &lt;type[]&gt;#{version}{encoding}{length}:{payload}
+ * </pre>
+ * where the <b>payload</b> is Base64 representation of the array elements either packed as
+ * little-endian values of fixed size ({@link #ENCODING_PACKED}) or, for arrays of integers and
+ * longs, as zig-zag encoded variable length differences between subsequent elements
+ * ({@link #ENCODING_DELTA_VARINT}). Booleans are packed as single bits.
+ * <p>
+ * Only arrays of primitive types and arrays of theirs boxed representations which do not contain
+ * any {@code null} items may be written in compact format.
+ *
+ * @author Martin Albedinsky
+ */
+final class CompactArrayFormat {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Character that follows the array class name and identifies an array value in compact format.
+	 */
+	static final char PREFIX = '#';
+
+	/**
+	 * Current version of the compact format.
+	 */
+	static final char VERSION = '1';
+
+	/**
+	 * Encoding of array elements packed as little-endian values of fixed size.
+	 */
+	static final char ENCODING_PACKED = 'P';
+
+	/**
+	 * Encoding of array elements as zig-zag variable length differences between subsequent elements.
+	 */
+	static final char ENCODING_DELTA_VARINT = 'V';
+
+	/**
+	 * Character that separates length of an array from its payload.
+	 */
+	static final char PAYLOAD_SEPARATOR = ':';
+
+	/**
+	 * Alphabet used to encode payload into Base64.
+	 */
+	private static final char[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+	/**
+	 * Character used to pad encoded Base64 payload.
+	 */
+	private static final char BASE64_PADDING = '=';
+
+	/**
+	 * Lookup table used to decode Base64 payload. Contains {@code -1} for invalid characters.
+	 */
+	private static final byte[] BASE64_DECODE_TABLE = new byte[128];
+
+	static {
+		for (int i = 0; i < BASE64_DECODE_TABLE.length; i++) {
+			BASE64_DECODE_TABLE[i] = -1;
+		}
+		for (int i = 0; i < BASE64_ALPHABET.length; i++) {
+			BASE64_DECODE_TABLE[BASE64_ALPHABET[i]] = (byte) i;
+		}
+	}
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private CompactArrayFormat() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Checks whether the given <var>array</var> may be written in compact format.
+	 *
+	 * @param array The array to check. Should be one of arrays supported by {@link ArrayPreference}.
+	 * @return {@code True} if the array is of primitive type or it is an array of boxed primitives
+	 * without {@code null} items, {@code false} otherwise.
+	 */
+	static boolean isSupported(@NonNull final Object array) {
+		final Class<?> componentClass = array.getClass().getComponentType();
+		if (componentClass.isPrimitive()) {
+			return true;
+		}
+		if (unboxedClass(componentClass) == null) {
+			return false;
+		}
+		for (final Object item : (Object[]) array) {
+			if (item == null) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the given <var>array</var> in compact format into the given <var>builder</var>. The
+	 * array class name part is expected to be already written.
+	 *
+	 * @param builder The builder where to write the array.
+	 * @param array   The array to write. Must be supported as determined by {@link #isSupported(Object)}.
+	 * @param delta   {@code True} to use {@link #ENCODING_DELTA_VARINT} if the array is an array of
+	 *                integers or longs, {@code false} to always use {@link #ENCODING_PACKED}.
+	 */
+	static void write(@NonNull final StringBuilder builder, @NonNull final Object array, final boolean delta) {
+		final Object primitiveArray = toPrimitiveArray(array);
+		final boolean deltaSupported = primitiveArray instanceof int[] || primitiveArray instanceof long[];
+		final byte[] payload;
+		final int payloadLength;
+		final char encoding;
+		if (delta && deltaSupported) {
+			encoding = ENCODING_DELTA_VARINT;
+			if (primitiveArray instanceof int[]) {
+				final int[] values = (int[]) primitiveArray;
+				payload = new byte[values.length * 5];
+				int previous = 0, position = 0;
+				for (final int value : values) {
+					final int difference = value - previous;
+					position = writeVarint(payload, position, ((difference << 1) ^ (difference >> 31)) & 0xFFFFFFFFL);
+					previous = value;
+				}
+				payloadLength = position;
+			} else {
+				final long[] values = (long[]) primitiveArray;
+				payload = new byte[values.length * 10];
+				long previous = 0;
+				int position = 0;
+				for (final long value : values) {
+					final long difference = value - previous;
+					position = writeVarint(payload, position, (difference << 1) ^ (difference >> 63));
+					previous = value;
+				}
+				payloadLength = position;
+			}
+		} else {
+			encoding = ENCODING_PACKED;
+			payload = pack(primitiveArray);
+			payloadLength = payload.length;
+		}
+		builder.append(PREFIX).append(VERSION).append(encoding);
+		builder.append(Array.getLength(primitiveArray)).append(PAYLOAD_SEPARATOR);
+		writeBase64(builder, payload, payloadLength);
+	}
+
+	/**
+	 * Converts the given array of boxed primitives into array of corresponding primitives.
+	 *
+	 * @param array The array to convert. Must not contain {@code null} items.
+	 * @return Array of primitives or the same array if it is already a primitive one.
+	 */
+	private static Object toPrimitiveArray(final Object array) {
+		if (array.getClass().getComponentType().isPrimitive()) {
+			return array;
+		}
+		final Object[] items = (Object[]) array;
+		final int n = items.length;
+		if (array instanceof Boolean[]) {
+			final boolean[] values = new boolean[n];
+			for (int i = 0; i < n; i++) values[i] = (Boolean) items[i];
+			return values;
+		} else if (array instanceof Byte[]) {
+			final byte[] values = new byte[n];
+			for (int i = 0; i < n; i++) values[i] = (Byte) items[i];
+			return values;
+		} else if (array instanceof Short[]) {
+			final short[] values = new short[n];
+			for (int i = 0; i < n; i++) values[i] = (Short) items[i];
+			return values;
+		} else if (array instanceof Integer[]) {
+			final int[] values = new int[n];
+			for (int i = 0; i < n; i++) values[i] = (Integer) items[i];
+			return values;
+		} else if (array instanceof Float[]) {
+			final float[] values = new float[n];
+			for (int i = 0; i < n; i++) values[i] = (Float) items[i];
+			return values;
+		} else if (array instanceof Long[]) {
+			final long[] values = new long[n];
+			for (int i = 0; i < n; i++) values[i] = (Long) items[i];
+			return values;
+		} else {
+			final double[] values = new double[n];
+			for (int i = 0; i < n; i++) values[i] = (Double) items[i];
+			return values;
+		}
+	}
+
+	/**
+	 * Packs the given primitive array into bytes as little-endian values.
+	 */
+	private static byte[] pack(final Object array) {
+		if (array instanceof byte[]) {
+			return (byte[]) array;
+		}
+		if (array instanceof boolean[]) {
+			final boolean[] values = (boolean[]) array;
+			final byte[] bytes = new byte[(values.length + 7) >> 3];
+			for (int i = 0; i < values.length; i++) {
+				if (values[i]) bytes[i >> 3] |= 1 << (i & 7);
+			}
+			return bytes;
+		}
+		final ByteBuffer buffer;
+		if (array instanceof char[]) {
+			final char[] values = (char[]) array;
+			buffer = allocateBuffer(values.length * 2);
+			buffer.asCharBuffer().put(values);
+		} else if (array instanceof short[]) {
+			final short[] values = (short[]) array;
+			buffer = allocateBuffer(values.length * 2);
+			buffer.asShortBuffer().put(values);
+		} else if (array instanceof int[]) {
+			final int[] values = (int[]) array;
+			buffer = allocateBuffer(values.length * 4);
+			buffer.asIntBuffer().put(values);
+		} else if (array instanceof float[]) {
+			final float[] values = (float[]) array;
+			buffer = allocateBuffer(values.length * 4);
+			buffer.asFloatBuffer().put(values);
+		} else if (array instanceof long[]) {
+			final long[] values = (long[]) array;
+			buffer = allocateBuffer(values.length * 8);
+			buffer.asLongBuffer().put(values);
+		} else {
+			final double[] values = (double[]) array;
+			buffer = allocateBuffer(values.length * 8);
+			buffer.asDoubleBuffer().put(values);
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Allocates a new little-endian byte buffer with the specified <var>capacity</var>.
+	 */
+	private static ByteBuffer allocateBuffer(final int capacity) {
+		return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Reads an array in compact format from the given <var>value</var>.
+	 *
+	 * @param value      The value containing the array.
+	 * @param start      Index of the {@link #PREFIX} character within the value.
+	 * @param arrayClass Class of the array to be created. Must be one of classes supported by
+	 *                   {@link ArrayPreference} except {@code String[]}.
+	 * @return New array with all read elements.
+	 * @throws ArrayValueReader.MalformedValueException If the value does not have the compact format
+	 *                                                  or its version or encoding is not supported.
+	 */
+	@NonNull
+	static Object read(@NonNull final String value, final int start, @NonNull final Class<?> arrayClass) {
+		final Header header = readHeader(value, start);
+		final Class<?> componentClass = arrayClass.getComponentType();
+		final Class<?> primitiveClass = componentClass.isPrimitive() ? componentClass : unboxedClass(componentClass);
+		if (primitiveClass == null) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		final byte[] payload = decodeBase64(value, header.payloadStart, value.length());
+		final Object primitiveArray;
+		if (header.encoding == ENCODING_DELTA_VARINT) {
+			primitiveArray = readDeltaVarints(payload, primitiveClass, header.length);
+		} else {
+			primitiveArray = unpack(payload, primitiveClass, header.length);
+		}
+		return componentClass.isPrimitive() ? primitiveArray : toBoxedArray(primitiveArray, arrayClass);
+	}
+
+	/**
+	 * Reads header of an array value in compact format.
+	 *
+	 * @param value The value containing the array.
+	 * @param start Index of the {@link #PREFIX} character within the value.
+	 * @return Header with encoding, length and index at which starts the payload.
+	 * @throws ArrayValueReader.MalformedValueException If the header is not valid.
+	 */
+	@NonNull
+	static Header readHeader(@NonNull final String value, final int start) {
+		final int separatorIndex = value.indexOf(PAYLOAD_SEPARATOR, start);
+		if (separatorIndex < start + 4 || value.charAt(start) != PREFIX || value.charAt(start + 1) != VERSION) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		final char encoding = value.charAt(start + 2);
+		if (encoding != ENCODING_PACKED && encoding != ENCODING_DELTA_VARINT) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		long length = 0;
+		for (int i = start + 3; i < separatorIndex; i++) {
+			final int digit = value.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || (length = length * 10 + digit) > Integer.MAX_VALUE) {
+				throw new ArrayValueReader.MalformedValueException();
+			}
+		}
+		return new Header(encoding, (int) length, separatorIndex + 1);
+	}
+
+	/**
+	 * Returns primitive class for the given boxed <var>componentClass</var>.
+	 */
+	static Class<?> unboxedClass(final Class<?> componentClass) {
+		if (Boolean.class.equals(componentClass)) return boolean.class;
+		if (Byte.class.equals(componentClass)) return byte.class;
+		if (Short.class.equals(componentClass)) return short.class;
+		if (Integer.class.equals(componentClass)) return int.class;
+		if (Float.class.equals(componentClass)) return float.class;
+		if (Long.class.equals(componentClass)) return long.class;
+		if (Double.class.equals(componentClass)) return double.class;
+		return null;
+	}
+
+	/**
+	 * Unpacks primitive array of the specified class and length from the given packed <var>payload</var>.
+	 *
+	 * @throws ArrayValueReader.MalformedValueException If size of the payload does not match the length.
+	 */
+	static Object unpack(final byte[] payload, final Class<?> primitiveClass, final int length) {
+		if (boolean.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, (length + 7L) >> 3);
+			final boolean[] values = new boolean[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = (payload[i >> 3] & (1 << (i & 7))) != 0;
+			}
+			return values;
+		}
+		if (byte.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, length);
+			return payload;
+		}
+		final ByteBuffer buffer = ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+		if (char.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, length * 2L);
+			final char[] values = new char[length];
+			buffer.asCharBuffer().get(values);
+			return values;
+		} else if (short.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, length * 2L);
+			final short[] values = new short[length];
+			buffer.asShortBuffer().get(values);
+			return values;
+		} else if (int.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, length * 4L);
+			final int[] values = new int[length];
+			buffer.asIntBuffer().get(values);
+			return values;
+		} else if (float.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, length * 4L);
+			final float[] values = new float[length];
+			buffer.asFloatBuffer().get(values);
+			return values;
+		} else if (long.class.equals(primitiveClass)) {
+			assertPayloadSize(payload, length * 8L);
+			final long[] values = new long[length];
+			buffer.asLongBuffer().get(values);
+			return values;
+		} else {
+			assertPayloadSize(payload, length * 8L);
+			final double[] values = new double[length];
+			buffer.asDoubleBuffer().get(values);
+			return values;
+		}
+	}
+
+	/**
+	 * Returns size in bytes of a single packed element of the specified primitive class.
+	 *
+	 * @return Size in bytes or {@code 0} for booleans which are packed as single bits.
+	 */
+	static int packedSize(final Class<?> primitiveClass) {
+		if (boolean.class.equals(primitiveClass)) return 0;
+		if (byte.class.equals(primitiveClass)) return 1;
+		if (char.class.equals(primitiveClass) || short.class.equals(primitiveClass)) return 2;
+		if (int.class.equals(primitiveClass) || float.class.equals(primitiveClass)) return 4;
+		return 8;
+	}
+
+	/**
+	 * Returns size in bytes of payload with the specified count of packed elements of the specified
+	 * primitive class.
+	 */
+	static long packedPayloadSize(final Class<?> primitiveClass, final int length) {
+		final int size = packedSize(primitiveClass);
+		return size == 0 ? (length + 7L) >> 3 : (long) length * size;
+	}
+
+	/**
+	 * Returns length of Base64 representation of payload with the specified size in bytes.
+	 */
+	static long base64Length(final long payloadSize) {
+		return ((payloadSize + 2) / 3) * 4;
+	}
+
+	/**
+	 * Decodes only the specified range of bytes from Base64 payload of the given <var>value</var>.
+	 * Only the groups of Base64 characters that contain the requested bytes are decoded.
+	 *
+	 * @param value        The value containing the payload.
+	 * @param payloadStart Index at which starts the payload within the value.
+	 * @param byteStart    Index of the first byte to decode.
+	 * @param byteCount    Count of bytes to decode.
+	 * @return Decoded bytes.
+	 * @throws ArrayValueReader.MalformedValueException If the payload does not contain the requested
+	 *                                                  bytes or is not a valid Base64.
+	 */
+	static byte[] decodeBase64Range(final String value, final int payloadStart, final int byteStart, final int byteCount) {
+		if (byteCount == 0) {
+			return new byte[0];
+		}
+		final int firstGroup = byteStart / 3;
+		final int lastGroup = (byteStart + byteCount - 1) / 3;
+		final long end = payloadStart + (lastGroup + 1L) * 4;
+		if (end > value.length()) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		final byte[] bytes = decodeBase64(value, payloadStart + firstGroup * 4, (int) end);
+		final int offset = byteStart - firstGroup * 3;
+		if (bytes.length < offset + byteCount) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		if (offset == 0 && bytes.length == byteCount) {
+			return bytes;
+		}
+		final byte[] range = new byte[byteCount];
+		System.arraycopy(bytes, offset, range, 0, byteCount);
+		return range;
+	}
+
+	/**
+	 * Asserts that the given <var>payload</var> has exactly the specified <var>size</var>.
+	 */
+	private static void assertPayloadSize(final byte[] payload, final long size) {
+		if (payload.length != size) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+	}
+
+	/**
+	 * Reads primitive array of integers or longs from the given <var>payload</var> with zig-zag
+	 * variable length differences.
+	 *
+	 * @throws ArrayValueReader.MalformedValueException If the payload does not contain exactly the
+	 *                                                  specified number of values or the requested
+	 *                                                  class is not int or long.
+	 */
+	private static Object readDeltaVarints(final byte[] payload, final Class<?> primitiveClass, final int length) {
+		// Each value occupies at least one byte.
+		if (payload.length < length) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		final VarintReader reader = new VarintReader(payload);
+		if (int.class.equals(primitiveClass)) {
+			final int[] values = new int[length];
+			int previous = 0;
+			for (int i = 0; i < length; i++) {
+				final int encoded = (int) reader.next();
+				previous += (encoded >>> 1) ^ -(encoded & 1);
+				values[i] = previous;
+			}
+			reader.assertFinished();
+			return values;
+		} else if (long.class.equals(primitiveClass)) {
+			final long[] values = new long[length];
+			long previous = 0;
+			for (int i = 0; i < length; i++) {
+				final long encoded = reader.next();
+				previous += (encoded >>> 1) ^ -(encoded & 1);
+				values[i] = previous;
+			}
+			reader.assertFinished();
+			return values;
+		}
+		throw new ArrayValueReader.MalformedValueException();
+	}
+
+	/**
+	 * Converts the given primitive array into array of corresponding boxed primitives.
+	 */
+	static Object toBoxedArray(final Object primitiveArray, final Class<?> arrayClass) {
+		final int n = Array.getLength(primitiveArray);
+		final Object[] items = (Object[]) ArrayCodecs.forArrayClass(arrayClass).newArray(n);
+		if (primitiveArray instanceof boolean[]) {
+			final boolean[] values = (boolean[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		} else if (primitiveArray instanceof byte[]) {
+			final byte[] values = (byte[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		} else if (primitiveArray instanceof short[]) {
+			final short[] values = (short[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		} else if (primitiveArray instanceof int[]) {
+			final int[] values = (int[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		} else if (primitiveArray instanceof float[]) {
+			final float[] values = (float[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		} else if (primitiveArray instanceof long[]) {
+			final long[] values = (long[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		} else {
+			final double[] values = (double[]) primitiveArray;
+			for (int i = 0; i < n; i++) items[i] = values[i];
+		}
+		return items;
+	}
+
+	/**
+	 * Writes the given unsigned <var>value</var> as variable length integer into the given <var>bytes</var>.
+	 *
+	 * @return Position right after the written value.
+	 */
+	private static int writeVarint(final byte[] bytes, int position, long value) {
+		while ((value & ~0x7FL) != 0) {
+			bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		bytes[position++] = (byte) value;
+		return position;
+	}
+
+	/**
+	 * Writes the specified count of <var>bytes</var> encoded into Base64 into the given <var>builder</var>.
+	 */
+	private static void writeBase64(final StringBuilder builder, final byte[] bytes, final int length) {
+		builder.ensureCapacity(builder.length() + ((length + 2) / 3) * 4);
+		int i = 0;
+		for (; i + 2 < length; i += 3) {
+			final int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+			builder.append(BASE64_ALPHABET[bits >>> 18]);
+			builder.append(BASE64_ALPHABET[(bits >>> 12) & 0x3F]);
+			builder.append(BASE64_ALPHABET[(bits >>> 6) & 0x3F]);
+			builder.append(BASE64_ALPHABET[bits & 0x3F]);
+		}
+		final int remaining = length - i;
+		if (remaining > 0) {
+			final int bits = (bytes[i] & 0xFF) << 16 | (remaining == 2 ? (bytes[i + 1] & 0xFF) << 8 : 0);
+			builder.append(BASE64_ALPHABET[bits >>> 18]);
+			builder.append(BASE64_ALPHABET[(bits >>> 12) & 0x3F]);
+			builder.append(remaining == 2 ? BASE64_ALPHABET[(bits >>> 6) & 0x3F] : BASE64_PADDING);
+			builder.append(BASE64_PADDING);
+		}
+	}
+
+	/**
+	 * Decodes Base64 encoded bytes from the specified part of the given <var>value</var>.
+	 *
+	 * @throws ArrayValueReader.MalformedValueException If the value is not a valid Base64.
+	 */
+	static byte[] decodeBase64(final String value, final int start, int end) {
+		if ((end - start) % 4 != 0) {
+			throw new ArrayValueReader.MalformedValueException();
+		}
+		int padding = 0;
+		while (end > start && padding < 2 && value.charAt(end - 1) == BASE64_PADDING) {
+			end--;
+			padding++;
+		}
+		final int length = end - start;
+		final byte[] bytes = new byte[length * 3 / 4];
+		int position = 0, bits = 0, bitsCount = 0;
+		for (int i = start; i < end; i++) {
+			final char c = value.charAt(i);
+			final int digit = c < BASE64_DECODE_TABLE.length ? BASE64_DECODE_TABLE[c] : -1;
+			if (digit == -1) {
+				throw new ArrayValueReader.MalformedValueException();
+			}
+			bits = (bits << 6) | digit;
+			bitsCount += 6;
+			if (bitsCount >= 8) {
+				bitsCount -= 8;
+				bytes[position++] = (byte) (bits >> bitsCount);
+			}
+		}
+		return bytes;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Header of an array value persisted in compact format.
+	 */
+	static final class Header {
+
+		/**
+		 * Encoding of the array elements.
+		 */
+		final char encoding;
+
+		/**
+		 * Count of elements of the array.
+		 */
+		final int length;
+
+		/**
+		 * Index at which starts Base64 payload within the array value.
+		 */
+		final int payloadStart;
+
+		/**
+		 * Creates a new instance of Header with the specified values.
+		 */
+		Header(final char encoding, final int length, final int payloadStart) {
+			this.encoding = encoding;
+			this.length = length;
+			this.payloadStart = payloadStart;
+		}
+	}
+
+	/**
+	 * Reader of variable length integers from an array of bytes.
+	 */
+	static final class VarintReader {
+
+		/**
+		 * Bytes from which to read the integers.
+		 */
+		private final byte[] bytes;
+
+		/**
+		 * Position of the next byte to be read.
+		 */
+		private int position;
+
+		/**
+		 * Creates a new instance of VarintReader for the given <var>bytes</var>.
+		 */
+		VarintReader(final byte[] bytes) {
+			this(bytes, 0);
+		}
+
+		/**
+		 * Creates a new instance of VarintReader for the given <var>bytes</var> which starts reading
+		 * at the specified <var>position</var>.
+		 */
+		VarintReader(final byte[] bytes, final int position) {
+			this.bytes = bytes;
+			this.position = position;
+		}
+
+		/**
+		 * Returns position of the next byte to be read.
+		 */
+		int position() {
+			return position;
+		}
+
+		/**
+		 * Reads the next unsigned variable length integer.
+		 *
+		 * @throws ArrayValueReader.MalformedValueException If there are no more bytes or the integer
+		 *                                                  is longer than 64 bits.
+		 */
+		long next() {
+			long result = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				if (position >= bytes.length) {
+					throw new ArrayValueReader.MalformedValueException();
+				}
+				final byte b = bytes[position++];
+				result |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return result;
+				}
+			}
+			throw new ArrayValueReader.MalformedValueException();
+		}
+
+		/**
+		 * Asserts that all bytes have been read.
+		 *
+		 * @throws ArrayValueReader.MalformedValueException If there are any remaining bytes.
+		 */
+		void assertFinished() {
+			if (position != bytes.length) {
+				throw new ArrayValueReader.MalformedValueException();
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * A {@link SharedPreference} implementation that may be used to persist a list of {@code double} values
+ * via {@link android.content.SharedPreferences SharedPreferences} without boxing them.
+ * <p>
+ * Lists are persisted in the same way as arrays via {@link ArrayPreference}, so this preference may
+ * obtain also values persisted as {@code double[]} or {@code Double[]} (without {@code null} elements)
+ * via {@link ArrayPreference} or {@link CollectionPreference}.
+ *
+ * @author Martin Albedinsky
+ * @see PrimitiveLists.DoubleList
+ */
+public final class DoubleListPreference extends PrimitiveListPreference<PrimitiveLists.DoubleList> {
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of DoubleListPreference with the specified <var>key</var> and <var>defValue</var>.
+	 *
+	 * @see #DoubleListPreference(String, PrimitiveLists.DoubleList, int)
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public DoubleListPreference(@NonNull final String key, @Nullable final PrimitiveLists.DoubleList defValue) {
+		this(key, defValue, ArrayPreference.ENCODING_TEXT);
+	}
+
+	/**
+	 * Creates a new instance of DoubleListPreference with the specified <var>key</var>, <var>defValue</var>
+	 * and <var>encoding</var> used to persist its list value.
+	 *
+	 * @param encoding The desired encoding. One of {@link ArrayPreference#ENCODING_TEXT},
+	 *                 {@link ArrayPreference#ENCODING_COMPACT} or {@link ArrayPreference#ENCODING_COMPACT_DELTA}.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public DoubleListPreference(@NonNull final String key, @Nullable final PrimitiveLists.DoubleList defValue, @ArrayPreference.Encoding final int encoding) {
+		super(key, defValue, double[].class, encoding);
+	}
+}
@@ -0,0 +1,577 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A {@link SharedPreference} implementation that may be used to persist a large {@link Collection}
+ * of values via {@link SharedPreferences} which may be modified incrementally via {@link #add(SharedPreferences, Object)},
+ * {@link #remove(SharedPreferences, Object)} and {@link #trim(SharedPreferences, int)} without
+ * the need to obtain, re-encode and persist the whole collection.
+ * <p>
+ * Items of the collection are persisted in segments of a fixed capacity, each mapped in shared
+ * preferences for its own key derived from the key of the preference. Each segment has the same
+ * {@code <type[]>[item,item,...]} format as an array persisted via {@link ArrayPreference}. The key
+ * of the preference itself is used to persist only a small header with bounds of the segments.
+ * This means that appending a new item requires only the new item to be encoded and only the last
+ * segment and the header to be persisted. Removing or trimming of items requires only the affected
+ * segments to be re-encoded.
+ * <p>
+ * Items of a collection persisted by this preference are always obtained in the order in which
+ * they have been added.
+ * <p>
+ * <b>Note</b>, that modifications made by this preference are not synchronized, so a single
+ * collection should be modified always from the same thread.
+ *
+ * @param <T> Type of items within a collection of which values should be persisted by MutableCollectionPreference.
+ * @author Martin Albedinsky
+ * @see CollectionPreference
+ */
+public final class MutableCollectionPreference<T> extends SharedPreference<Collection<T>> {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Default capacity of a single segment of a persisted collection.
+	 */
+	public static final int DEFAULT_SEGMENT_CAPACITY = 64;
+
+	/**
+	 * Character that follows the array class name within the persisted header.
+	 */
+	private static final char HEADER_PREFIX = '*';
+
+	/**
+	 * Character that separates values of the persisted header.
+	 */
+	private static final char HEADER_SEPARATOR = ':';
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Class of components stored within a collection persisted by this preference.
+	 */
+	private final Class<T> mComponentType;
+
+	/**
+	 * Codec used to write and read items of segments.
+	 */
+	private final ArrayCodec mCodec;
+
+	/**
+	 * Prefix of each persisted segment containing the array class name.
+	 */
+	private final String mSegmentPrefix;
+
+	/**
+	 * Maximum count of items persisted within a single segment.
+	 */
+	private final int mSegmentCapacity;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #MutableCollectionPreference(String, Class, Collection, int)} with {@link #DEFAULT_SEGMENT_CAPACITY}.
+	 */
+	public MutableCollectionPreference(@NonNull final String key, @NonNull final Class<T> componentType, @Nullable final Collection<T> defValue) {
+		this(key, componentType, defValue, DEFAULT_SEGMENT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new instance of MutableCollectionPreference with the specified <var>key</var>,
+	 * <var>defValue</var> and capacity of segments in which will be the collection persisted.
+	 *
+	 * @param componentType   Class of components that can be presented within a collection that is to
+	 *                        by persisted by the new collection preference. Only boxed representations
+	 *                        of primitive types, String and types registered via {@link ArrayCodecs}
+	 *                        are supported.
+	 * @param segmentCapacity Maximum count of items to be persisted within a single segment. The
+	 *                        greater capacity is, the less keys are used but the more items need to
+	 *                        be re-encoded when removing items.
+	 * @throws IllegalArgumentException If the specified component type is not supported or the
+	 *                                  segment capacity is not positive.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public MutableCollectionPreference(
+			@NonNull final String key,
+			@NonNull final Class<T> componentType,
+			@Nullable final Collection<T> defValue,
+			@IntRange(from = 1) final int segmentCapacity
+	) {
+		super(key, defValue);
+		final ArrayCodec codec = componentType.isPrimitive() ? null : ArrayCodecs.forComponentType(componentType);
+		if (codec == null) {
+			throw new IllegalArgumentException(
+					"Unsupported collection of(" + componentType.getSimpleName() + "). " +
+							"Only collections of boxed representations of primitive types including String are supported."
+			);
+		}
+		if (segmentCapacity <= 0) {
+			throw new IllegalArgumentException("Segment capacity must be positive, specified(" + segmentCapacity + ").");
+		}
+		this.mComponentType = componentType;
+		this.mCodec = codec;
+		this.mSegmentPrefix = "<" + codec.arrayClassName + ">";
+		this.mSegmentCapacity = segmentCapacity;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns the capacity of segments in which is the collection of this preference persisted.
+	 *
+	 * @return Maximum count of items within a single segment.
+	 * @see #MutableCollectionPreference(String, Class, Collection, int)
+	 */
+	public int getSegmentCapacity() {
+		return mSegmentCapacity;
+	}
+
+	/**
+	 * Creates key for which is the segment at the specified <var>index</var> mapped in shared preferences.
+	 */
+	private String segmentKey(final int index) {
+		return mKey + "[" + index + "]";
+	}
+
+	/**
+	 * Returns the count of items of the collection persisted by this preference within the given
+	 * shared <var>preferences</var>.
+	 * <p>
+	 * This requires only the header of the persisted collection to be read.
+	 *
+	 * @param preferences The instance of shared preferences where is the collection persisted.
+	 * @return Count of persisted items or {@code 0} if there is no collection persisted.
+	 */
+	@IntRange(from = 0)
+	public int size(@NonNull final SharedPreferences preferences) {
+		final Header header = readHeader(preferences);
+		return header == null ? 0 : header.size;
+	}
+
+	/**
+	 * Appends the given <var>item</var> at the end of the collection persisted by this preference
+	 * within the given shared <var>preferences</var>.
+	 * <p>
+	 * Only the given item is encoded and only the last segment along with the header is persisted.
+	 *
+	 * @param preferences The instance of shared preferences where is the collection persisted.
+	 * @param item        The item to be appended. May be {@code null}.
+	 * @return {@code True} if the item has been successfully persisted, {@code false} otherwise.
+	 */
+	@CheckResult
+	public boolean add(@NonNull final SharedPreferences preferences, @Nullable final T item) {
+		Header header = readHeader(preferences);
+		if (header == null) {
+			header = new Header(0, -1, 0, 0);
+		}
+		final SharedPreferences.Editor editor = preferences.edit();
+		final String lastSegment = header.size == 0 ? null : preferences.getString(segmentKey(header.last), null);
+		final StringBuilder builder;
+		if (lastSegment == null || header.lastSize >= mSegmentCapacity) {
+			header.last++;
+			header.lastSize = 0;
+			builder = new StringBuilder(mSegmentPrefix.length() + 16).append(mSegmentPrefix).append('[');
+		} else {
+			builder = new StringBuilder(lastSegment.length() + 16);
+			builder.append(lastSegment, 0, lastSegment.length() - 1).append(',');
+		}
+		mCodec.writeElement(builder, item);
+		builder.append(']');
+		header.lastSize++;
+		header.size++;
+		editor.putString(segmentKey(header.last), builder.toString());
+		editor.putString(mKey, header.write(mSegmentPrefix));
+		return commitAndInvalidate(editor);
+	}
+
+	/**
+	 * Removes the first occurrence of the given <var>item</var> from the collection persisted by
+	 * this preference within the given shared <var>preferences</var>.
+	 * <p>
+	 * Segments are read one by one until the item is found and only the segment containing the
+	 * item is re-encoded and persisted.
+	 *
+	 * @param preferences The instance of shared preferences where is the collection persisted.
+	 * @param item        The item to be removed. May be {@code null}.
+	 * @return {@code True} if the item has been found and its removal successfully persisted,
+	 * {@code false} otherwise.
+	 */
+	@CheckResult
+	public boolean remove(@NonNull final SharedPreferences preferences, @Nullable final T item) {
+		final Header header = readHeader(preferences);
+		if (header == null) {
+			return false;
+		}
+		int previousIndex = -1;
+		int previousSize = 0;
+		for (int i = header.first; i <= header.last; i++) {
+			final String segmentKey = segmentKey(i);
+			final Object[] segment = readSegment(segmentKey, preferences.getString(segmentKey, null));
+			if (segment == null) {
+				continue;
+			}
+			final int itemIndex = indexOf(segment, item);
+			if (itemIndex == -1) {
+				previousIndex = i;
+				previousSize = segment.length;
+				continue;
+			}
+			final SharedPreferences.Editor editor = preferences.edit();
+			if (--header.size == 0) {
+				editor.remove(segmentKey).remove(mKey);
+				return commitAndInvalidate(editor);
+			}
+			if (segment.length == 1) {
+				editor.remove(segmentKey);
+				if (i == header.first) {
+					header.first = i + 1;
+				}
+				if (i == header.last) {
+					header.last = previousIndex;
+					header.lastSize = previousSize;
+				}
+			} else {
+				editor.putString(segmentKey, writeSegment(segment, 0, segment.length, itemIndex));
+				if (i == header.last) {
+					header.lastSize--;
+				}
+			}
+			editor.putString(mKey, header.write(mSegmentPrefix));
+			return commitAndInvalidate(editor);
+		}
+		return false;
+	}
+
+	/**
+	 * Trims the collection persisted by this preference within the given shared <var>preferences</var>
+	 * so it contains at most the specified count of items. The oldest items, that is items that
+	 * have been added first, are removed.
+	 * <p>
+	 * Segments that contain only items to be removed are removed as whole without their items being
+	 * decoded (only separators of the items are counted) and only the segment with the first of
+	 * remaining items is decoded, re-encoded and persisted.
+	 *
+	 * @param preferences The instance of shared preferences where is the collection persisted.
+	 * @param maxSize     Maximum count of items that should remain in the collection.
+	 * @return {@code True} if trimming has been successful or the collection already does not contain
+	 * more items than requested, {@code false} otherwise.
+	 */
+	@CheckResult
+	public boolean trim(@NonNull final SharedPreferences preferences, @IntRange(from = 0) final int maxSize) {
+		final Header header = readHeader(preferences);
+		if (header == null || header.size <= maxSize) {
+			return true;
+		}
+		if (maxSize == 0) {
+			return clear(preferences);
+		}
+		final SharedPreferences.Editor editor = preferences.edit();
+		int itemsToRemove = header.size - maxSize;
+		for (int i = header.first; i <= header.last && itemsToRemove > 0; i++) {
+			final String segmentKey = segmentKey(i);
+			final String value = preferences.getString(segmentKey, null);
+			final int segmentSize = countSegmentItems(segmentKey, value);
+			if (segmentSize == 0) {
+				continue;
+			}
+			if (segmentSize <= itemsToRemove) {
+				editor.remove(segmentKey);
+				itemsToRemove -= segmentSize;
+				header.first = i + 1;
+			} else {
+				final Object[] segment = readSegment(segmentKey, value);
+				editor.putString(segmentKey, writeSegment(segment, itemsToRemove, segment.length, -1));
+				if (i == header.last) {
+					header.lastSize -= itemsToRemove;
+				}
+				itemsToRemove = 0;
+				header.first = i;
+			}
+		}
+		header.size = maxSize;
+		editor.putString(mKey, header.write(mSegmentPrefix));
+		return commitAndInvalidate(editor);
+	}
+
+	/**
+	 * Removes the collection persisted by this preference along with all its segments from the
+	 * given shared <var>preferences</var>.
+	 *
+	 * @param preferences The instance of shared preferences where is the collection persisted.
+	 * @return {@code True} if removal has been successful, {@code false} otherwise.
+	 */
+	@CheckResult
+	public boolean clear(@NonNull final SharedPreferences preferences) {
+		final SharedPreferences.Editor editor = preferences.edit();
+		removeSegments(editor, readHeader(preferences));
+		editor.remove(mKey);
+		return commitAndInvalidate(editor);
+	}
+
+	/**
+	 * Commits the given <var>editor</var> and invalidates the actual value of this preference, so
+	 * the modified collection is obtained next time it is requested.
+	 */
+	private boolean commitAndInvalidate(final SharedPreferences.Editor editor) {
+		invalidate();
+		return editor.commit();
+	}
+
+	/**
+	 * Removes all segments within bounds of the given <var>header</var> via the given <var>editor</var>.
+	 */
+	private void removeSegments(final SharedPreferences.Editor editor, final Header header) {
+		if (header != null) {
+			for (int i = header.first; i <= header.last; i++) {
+				editor.remove(segmentKey(i));
+			}
+		}
+	}
+
+	/**
+	 * Persists the whole collection value of this preference, replacing any collection that has
+	 * been persisted for the key of this preference before.
+	 */
+	@Override
+	@CheckResult
+	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		removeSegments(editor, readHeader(preferences));
+		if (mValue == null || mValue.isEmpty()) {
+			editor.remove(mKey);
+			return true;
+		}
+		final Header header = new Header(0, -1, 0, mValue.size());
+		final Iterator<T> iterator = mValue.iterator();
+		while (iterator.hasNext()) {
+			final StringBuilder builder = new StringBuilder(mSegmentPrefix).append('[');
+			int segmentSize = 0;
+			while (iterator.hasNext() && segmentSize < mSegmentCapacity) {
+				ArrayValueWriter.writeSeparator(builder, segmentSize++);
+				mCodec.writeElement(builder, iterator.next());
+			}
+			header.last++;
+			header.lastSize = segmentSize;
+			editor.putString(segmentKey(header.last), builder.append(']').toString());
+		}
+		editor.putString(mKey, header.write(mSegmentPrefix));
+		return true;
+	}
+
+	/**
+	 * Obtains the whole collection persisted by this preference. Returned collection may be modified.
+	 *
+	 * @throws ClassCastException    If any of the persisted segments does not represent a collection
+	 *                               of the component type of this preference.
+	 * @throws IllegalStateException If the collection was not persisted by this preference.
+	 */
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	protected Collection<T> onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		final Header header = readHeader(preferences);
+		if (header == null) {
+			return mDefaultValue;
+		}
+		final Collection<T> collection = new ArrayList<>(header.size);
+		for (int i = header.first; i <= header.last; i++) {
+			final String segmentKey = segmentKey(i);
+			final Object[] segment = readSegment(segmentKey, preferences.getString(segmentKey, null));
+			if (segment != null) {
+				for (final Object item : segment) {
+					collection.add((T) item);
+				}
+			}
+		}
+		return collection;
+	}
+
+	/**
+	 * Reads header of the collection persisted by this preference.
+	 *
+	 * @return The persisted header or {@code null} if there is no collection persisted.
+	 * @throws IllegalStateException If the header was not persisted by this preference.
+	 */
+	private Header readHeader(final SharedPreferences preferences) {
+		final String value = preferences.getString(mKey, null);
+		if (TextUtils.isEmpty(value)) {
+			return null;
+		}
+		final int valuesStart = mSegmentPrefix.length() + 1;
+		final int[] values = new int[4];
+		int index = 0;
+		if (value.startsWith(mSegmentPrefix) && value.length() > valuesStart && value.charAt(valuesStart - 1) == HEADER_PREFIX) {
+			int start = valuesStart;
+			for (; index < values.length && start < value.length(); index++) {
+				int end = value.indexOf(HEADER_SEPARATOR, start);
+				if (end == -1) end = value.length();
+				try {
+					values[index] = Integer.parseInt(value.substring(start, end));
+				} catch (NumberFormatException e) {
+					break;
+				}
+				start = end + 1;
+			}
+		}
+		if (index != values.length) {
+			throw new IllegalStateException(
+					"Trying to obtain a collection of(" + mComponentType.getSimpleName() + ") for the key(" + mKey + ") " +
+							"from shared preferences not saved by MutableCollectionPreference."
+			);
+		}
+		return new Header(values[0], values[1], values[2], values[3]);
+	}
+
+	/**
+	 * Reads items of a single segment from the given <var>value</var>.
+	 *
+	 * @return Array with items of the segment or {@code null} if there is no segment persisted.
+	 * @throws ClassCastException If the segment does not represent array of component type of this
+	 *                            preference.
+	 */
+	private Object[] readSegment(final String segmentKey, final String value) {
+		if (TextUtils.isEmpty(value)) {
+			return null;
+		}
+		assertIsSegmentOrThrow(segmentKey, value);
+		return (Object[]) ArrayPreference.readArray(segmentKey, value, ArrayPreference.resolveBodyStartOrThrow(segmentKey, value), mCodec);
+	}
+
+	/**
+	 * Checks whether the given <var>value</var> is a segment of items of the component type of this
+	 * preference.
+	 *
+	 * @throws ClassCastException If the value is not such segment.
+	 */
+	private void assertIsSegmentOrThrow(final String segmentKey, final String value) {
+		if (!value.startsWith(mSegmentPrefix)) {
+			throw new ClassCastException(
+					"Cannot obtain a collection segment of(" + mComponentType.getSimpleName() + ") for the key(" + segmentKey + ") from shared preferences."
+			);
+		}
+	}
+
+	/**
+	 * Counts items of the segment persisted as the given <var>value</var> without decoding them.
+	 *
+	 * @return Count of items or {@code 0} if there is no segment persisted.
+	 */
+	private int countSegmentItems(final String segmentKey, final String value) {
+		if (TextUtils.isEmpty(value)) {
+			return 0;
+		}
+		assertIsSegmentOrThrow(segmentKey, value);
+		final int bodyStart = ArrayPreference.resolveBodyStartOrThrow(segmentKey, value);
+		return new ArrayValueReader(value, bodyStart + 1, value.length() - 1).countElements();
+	}
+
+	/**
+	 * Writes items of the given <var>segment</var> from the specified range, except the item at
+	 * <var>skipIndex</var>, into a new segment value.
+	 */
+	private String writeSegment(final Object[] segment, final int start, final int end, final int skipIndex) {
+		final StringBuilder builder = new StringBuilder(mSegmentPrefix).append('[');
+		int written = 0;
+		for (int i = start; i < end; i++) {
+			if (i != skipIndex) {
+				ArrayValueWriter.writeSeparator(builder, written++);
+				mCodec.writeElement(builder, segment[i]);
+			}
+		}
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * Returns index of the first occurrence of the given <var>item</var> within the given <var>segment</var>.
+	 */
+	private static int indexOf(final Object[] segment, final Object item) {
+		for (int i = 0; i < segment.length; i++) {
+			if (item == null ? segment[i] == null : item.equals(segment[i])) return i;
+		}
+		return -1;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Header of a collection persisted by {@link MutableCollectionPreference} which is persisted in
+	 * {@code <type[]>*first:last:lastSize:size} format.
+	 */
+	private static final class Header {
+
+		/**
+		 * Index of the first and the last segment.
+		 */
+		int first, last;
+
+		/**
+		 * Count of items within the last segment.
+		 */
+		int lastSize;
+
+		/**
+		 * Count of items within the whole collection.
+		 */
+		int size;
+
+		/**
+		 * Creates a new instance of Header with the specified values.
+		 */
+		Header(final int first, final int last, final int lastSize, final int size) {
+			this.first = first;
+			this.last = last;
+			this.lastSize = lastSize;
+			this.size = size;
+		}
+
+		/**
+		 * Writes this header into a String value with the given <var>prefix</var>.
+		 */
+		String write(final String prefix) {
+			return prefix + HEADER_PREFIX + first + HEADER_SEPARATOR + last + HEADER_SEPARATOR + lastSize + HEADER_SEPARATOR + size;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import java.util.List;
+
+/**
+ * Base {@link SharedPreference} implementation for preferences which persist one of list views
+ * provided by {@link PrimitiveLists} without boxing its elements.
+ * <p>
+ * Lists are persisted in the same way as arrays via {@link ArrayPreference}, so these preferences may
+ * obtain also values persisted as primitive arrays or arrays of theirs boxed representations (without
+ * {@code null} elements) via {@link ArrayPreference} or {@link CollectionPreference}.
+ *
+ * @param <L> Type of the list view persisted by the preference.
+ * @author Martin Albedinsky
+ * @see IntListPreference
+ * @see LongListPreference
+ * @see FloatListPreference
+ * @see DoubleListPreference
+ */
+abstract class PrimitiveListPreference<L extends List<?>> extends SharedPreference<L> {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Class of the primitive array backing list values of this preference.
+	 */
+	private final Class<?> mArrayClass;
+
+	/**
+	 * Encoding used to persist the list value of this preference.
+	 */
+	@ArrayPreference.Encoding
+	private final int mEncoding;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of PrimitiveListPreference with the specified <var>key</var>, <var>defValue</var>
+	 * and <var>encoding</var> used to persist its list value.
+	 *
+	 * @param arrayClass Class of the primitive array backing the list values. Must be one of arrays
+	 *                   for which there is a list view provided by {@link PrimitiveLists}.
+	 * @param encoding   The desired encoding. One of {@link ArrayPreference#ENCODING_TEXT},
+	 *                   {@link ArrayPreference#ENCODING_COMPACT} or {@link ArrayPreference#ENCODING_COMPACT_DELTA}.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	PrimitiveListPreference(@NonNull final String key, @Nullable final L defValue, @NonNull final Class<?> arrayClass, @ArrayPreference.Encoding final int encoding) {
+		super(key, defValue);
+		this.mArrayClass = arrayClass;
+		this.mEncoding = encoding;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns the encoding used by this preference to persist its list value.
+	 *
+	 * @return One of encodings supported by {@link ArrayPreference}.
+	 */
+	@ArrayPreference.Encoding
+	public int getEncoding() {
+		return mEncoding;
+	}
+
+	/**
+	 */
+	@Override
+	@CheckResult
+	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		ArrayPreference.putIntoEditor(editor, mKey, mValue == null ? null : PrimitiveLists.arrayOf(mValue), mEncoding);
+		return true;
+	}
+
+	/**
+	 * @throws ClassCastException If value stored for the key of this preference does not represent
+	 *                            an array of primitive values of the type supported by this preference.
+	 */
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	protected L onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		final String value = preferences.getString(mKey, null);
+		if (TextUtils.isEmpty(value)) {
+			return mDefaultValue;
+		}
+		final int bodyStart = ArrayPreference.resolveBodyStartOrThrow(mKey, value);
+		final ArrayCodec codec = ArrayPreference.resolvePersistedCodec(mKey, value, bodyStart);
+		if (PrimitiveLists.resolvePrimitiveArrayClass(codec.arrayClass) != mArrayClass) {
+			throw new ClassCastException(
+					"Cannot obtain a list of(" + mArrayClass.getComponentType().getName() + ") for the key(" + mKey + ") from shared preferences. " +
+							"Persisted value is an array of(" + codec.componentType.getSimpleName() + ")."
+			);
+		}
+		return (L) PrimitiveLists.wrapArray(ArrayPreference.readArray(mKey, value, bodyStart, ArrayCodecs.forArrayClass(mArrayClass)));
+	}
+}
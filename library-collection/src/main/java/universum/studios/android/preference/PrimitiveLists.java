@@ -0,0 +1,557 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Factory that provides {@link java.util.List List} views backed by arrays of primitive values.
+ * <ul>
+ * <li>{@link #wrap(int[])}</li>
+ * <li>{@link #wrap(long[])}</li>
+ * <li>{@link #wrap(float[])}</li>
+ * <li>{@link #wrap(double[])}</li>
+ * </ul>
+ * <p>
+ * Each list has fixed size (same as {@link java.util.Arrays#asList(Object[]) Arrays.asList(Object[])})
+ * and writes through to its backing array. Unlike lists returned by {@code Arrays.asList(Object[])},
+ * these lists cannot contain {@code null} elements, so
+ * {@link java.util.List#set(int, Object) List.set(int, Object)} throws {@link NullPointerException}
+ * for {@code null} element. Elements of a list may be accessed without boxing via its primitive
+ * specific accessors, like {@link IntList#getInt(int)}, elements accessed via {@link java.util.List List}
+ * interface are boxed only at the time they are requested.
+ *
+ * @author Martin Albedinsky
+ * @see CollectionPreference
+ * @see IntListPreference
+ * @see LongListPreference
+ * @see FloatListPreference
+ * @see DoubleListPreference
+ */
+public final class PrimitiveLists {
+
+	/**
+	 */
+	private PrimitiveLists() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns a list view backed by the given array of integers.
+	 *
+	 * @param array The array to be wrapped. Changes made via the list are written through to this array.
+	 * @return List view ready to be used.
+	 */
+	@NonNull
+	public static IntList wrap(@NonNull final int[] array) {
+		return new IntList(array);
+	}
+
+	/**
+	 * Returns a list view backed by the given array of longs.
+	 *
+	 * @param array The array to be wrapped. Changes made via the list are written through to this array.
+	 * @return List view ready to be used.
+	 */
+	@NonNull
+	public static LongList wrap(@NonNull final long[] array) {
+		return new LongList(array);
+	}
+
+	/**
+	 * Returns a list view backed by the given array of floats.
+	 *
+	 * @param array The array to be wrapped. Changes made via the list are written through to this array.
+	 * @return List view ready to be used.
+	 */
+	@NonNull
+	public static FloatList wrap(@NonNull final float[] array) {
+		return new FloatList(array);
+	}
+
+	/**
+	 * Returns a list view backed by the given array of doubles.
+	 *
+	 * @param array The array to be wrapped. Changes made via the list are written through to this array.
+	 * @return List view ready to be used.
+	 */
+	@NonNull
+	public static DoubleList wrap(@NonNull final double[] array) {
+		return new DoubleList(array);
+	}
+
+	/**
+	 * Wraps the given primitive <var>array</var> into corresponding list view.
+	 *
+	 * @param array The array to be wrapped. Must be one of arrays for which there is a list view.
+	 * @return List view backed by the given array.
+	 * @see #resolvePrimitiveArrayClass(Class)
+	 */
+	static AbstractList<?> wrapArray(final Object array) {
+		if (array instanceof int[]) {
+			return new IntList((int[]) array);
+		} else if (array instanceof long[]) {
+			return new LongList((long[]) array);
+		} else if (array instanceof float[]) {
+			return new FloatList((float[]) array);
+		}
+		return new DoubleList((double[]) array);
+	}
+
+	/**
+	 * Returns the array backing the given list <var>view</var>.
+	 *
+	 * @param view One of list views created via {@link #wrapArray(Object)}.
+	 * @return The backing array.
+	 */
+	static Object arrayOf(final List<?> view) {
+		if (view instanceof IntList) {
+			return ((IntList) view).array;
+		} else if (view instanceof LongList) {
+			return ((LongList) view).array;
+		} else if (view instanceof FloatList) {
+			return ((FloatList) view).array;
+		}
+		return ((DoubleList) view).array;
+	}
+
+	/**
+	 * Resolves class of primitive array for which there is a list view and which corresponds to the
+	 * given <var>arrayClass</var>.
+	 *
+	 * @param arrayClass Class of an array of primitives or theirs boxed representations.
+	 * @return Class of the corresponding primitive array or {@code null} if there is no list view
+	 * for such array.
+	 */
+	static Class<?> resolvePrimitiveArrayClass(final Class<?> arrayClass) {
+		if (int[].class.equals(arrayClass) || Integer[].class.equals(arrayClass)) {
+			return int[].class;
+		} else if (long[].class.equals(arrayClass) || Long[].class.equals(arrayClass)) {
+			return long[].class;
+		} else if (float[].class.equals(arrayClass) || Float[].class.equals(arrayClass)) {
+			return float[].class;
+		} else if (double[].class.equals(arrayClass) || Double[].class.equals(arrayClass)) {
+			return double[].class;
+		}
+		return null;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * A fixed size list view backed by an array of integers.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class IntList extends AbstractList<Integer> implements RandomAccess, PrimitiveArrayView {
+
+		/**
+		 * Array backing this list.
+		 */
+		final int[] array;
+
+		/**
+		 * Creates a new instance of IntList backed by the given <var>array</var>.
+		 */
+		IntList(final int[] array) {
+			this.array = array;
+		}
+
+		/**
+		 */
+		@Override
+		public int size() {
+			return array.length;
+		}
+
+		/**
+		 * Returns the element at the specified <var>index</var> without boxing it.
+		 *
+		 * @param index Index of the desired element.
+		 * @return The element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public int getInt(final int index) {
+			return array[index];
+		}
+
+		/**
+		 */
+		@Override
+		public Integer get(final int index) {
+			return array[index];
+		}
+
+		/**
+		 * Replaces the element at the specified <var>index</var> with the given value without boxing it.
+		 *
+		 * @param index Index of the element to replace.
+		 * @param value The new value.
+		 * @return The previous element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public int setInt(final int index, final int value) {
+			final int previous = array[index];
+			array[index] = value;
+			return previous;
+		}
+
+		/**
+		 * @throws NullPointerException If the given element is {@code null} as it cannot be stored
+		 *                              in the backing array.
+		 */
+		@Override
+		public Integer set(final int index, @NonNull final Integer element) {
+			return setInt(index, element);
+		}
+
+		/**
+		 */
+		@Override
+		public int indexOf(final Object object) {
+			if (object instanceof Integer) {
+				final int value = (Integer) object;
+				for (int i = 0; i < array.length; i++) {
+					if (array[i] == value) return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean contains(final Object object) {
+			return indexOf(object) != -1;
+		}
+
+		/**
+		 * Returns a copy of the array backing this list.
+		 *
+		 * @return Array with all elements of this list.
+		 */
+		@NonNull
+		public int[] toIntArray() {
+			return array.clone();
+		}
+	}
+
+	/**
+	 * A fixed size list view backed by an array of longs.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class LongList extends AbstractList<Long> implements RandomAccess, PrimitiveArrayView {
+
+		/**
+		 * Array backing this list.
+		 */
+		final long[] array;
+
+		/**
+		 * Creates a new instance of LongList backed by the given <var>array</var>.
+		 */
+		LongList(final long[] array) {
+			this.array = array;
+		}
+
+		/**
+		 */
+		@Override
+		public int size() {
+			return array.length;
+		}
+
+		/**
+		 * Returns the element at the specified <var>index</var> without boxing it.
+		 *
+		 * @param index Index of the desired element.
+		 * @return The element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public long getLong(final int index) {
+			return array[index];
+		}
+
+		/**
+		 */
+		@Override
+		public Long get(final int index) {
+			return array[index];
+		}
+
+		/**
+		 * Replaces the element at the specified <var>index</var> with the given value without boxing it.
+		 *
+		 * @param index Index of the element to replace.
+		 * @param value The new value.
+		 * @return The previous element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public long setLong(final int index, final long value) {
+			final long previous = array[index];
+			array[index] = value;
+			return previous;
+		}
+
+		/**
+		 * @throws NullPointerException If the given element is {@code null} as it cannot be stored
+		 *                              in the backing array.
+		 */
+		@Override
+		public Long set(final int index, @NonNull final Long element) {
+			return setLong(index, element);
+		}
+
+		/**
+		 */
+		@Override
+		public int indexOf(final Object object) {
+			if (object instanceof Long) {
+				final long value = (Long) object;
+				for (int i = 0; i < array.length; i++) {
+					if (array[i] == value) return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean contains(final Object object) {
+			return indexOf(object) != -1;
+		}
+
+		/**
+		 * Returns a copy of the array backing this list.
+		 *
+		 * @return Array with all elements of this list.
+		 */
+		@NonNull
+		public long[] toLongArray() {
+			return array.clone();
+		}
+	}
+
+	/**
+	 * A fixed size list view backed by an array of floats.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class FloatList extends AbstractList<Float> implements RandomAccess, PrimitiveArrayView {
+
+		/**
+		 * Array backing this list.
+		 */
+		final float[] array;
+
+		/**
+		 * Creates a new instance of FloatList backed by the given <var>array</var>.
+		 */
+		FloatList(final float[] array) {
+			this.array = array;
+		}
+
+		/**
+		 */
+		@Override
+		public int size() {
+			return array.length;
+		}
+
+		/**
+		 * Returns the element at the specified <var>index</var> without boxing it.
+		 *
+		 * @param index Index of the desired element.
+		 * @return The element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public float getFloat(final int index) {
+			return array[index];
+		}
+
+		/**
+		 */
+		@Override
+		public Float get(final int index) {
+			return array[index];
+		}
+
+		/**
+		 * Replaces the element at the specified <var>index</var> with the given value without boxing it.
+		 *
+		 * @param index Index of the element to replace.
+		 * @param value The new value.
+		 * @return The previous element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public float setFloat(final int index, final float value) {
+			final float previous = array[index];
+			array[index] = value;
+			return previous;
+		}
+
+		/**
+		 * @throws NullPointerException If the given element is {@code null} as it cannot be stored
+		 *                              in the backing array.
+		 */
+		@Override
+		public Float set(final int index, @NonNull final Float element) {
+			return setFloat(index, element);
+		}
+
+		/**
+		 */
+		@Override
+		public int indexOf(final Object object) {
+			if (object instanceof Float) {
+				// Compare bits in the same way as Float.equals(Object) does.
+				final int bits = Float.floatToIntBits((Float) object);
+				for (int i = 0; i < array.length; i++) {
+					if (Float.floatToIntBits(array[i]) == bits) return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean contains(final Object object) {
+			return indexOf(object) != -1;
+		}
+
+		/**
+		 * Returns a copy of the array backing this list.
+		 *
+		 * @return Array with all elements of this list.
+		 */
+		@NonNull
+		public float[] toFloatArray() {
+			return array.clone();
+		}
+	}
+
+	/**
+	 * A fixed size list view backed by an array of doubles.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class DoubleList extends AbstractList<Double> implements RandomAccess, PrimitiveArrayView {
+
+		/**
+		 * Array backing this list.
+		 */
+		final double[] array;
+
+		/**
+		 * Creates a new instance of DoubleList backed by the given <var>array</var>.
+		 */
+		DoubleList(final double[] array) {
+			this.array = array;
+		}
+
+		/**
+		 */
+		@Override
+		public int size() {
+			return array.length;
+		}
+
+		/**
+		 * Returns the element at the specified <var>index</var> without boxing it.
+		 *
+		 * @param index Index of the desired element.
+		 * @return The element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public double getDouble(final int index) {
+			return array[index];
+		}
+
+		/**
+		 */
+		@Override
+		public Double get(final int index) {
+			return array[index];
+		}
+
+		/**
+		 * Replaces the element at the specified <var>index</var> with the given value without boxing it.
+		 *
+		 * @param index Index of the element to replace.
+		 * @param value The new value.
+		 * @return The previous element at the index.
+		 * @throws ArrayIndexOutOfBoundsException If the index is out of bounds.
+		 */
+		public double setDouble(final int index, final double value) {
+			final double previous = array[index];
+			array[index] = value;
+			return previous;
+		}
+
+		/**
+		 * @throws NullPointerException If the given element is {@code null} as it cannot be stored
+		 *                              in the backing array.
+		 */
+		@Override
+		public Double set(final int index, @NonNull final Double element) {
+			return setDouble(index, element);
+		}
+
+		/**
+		 */
+		@Override
+		public int indexOf(final Object object) {
+			if (object instanceof Double) {
+				// Compare bits in the same way as Double.equals(Object) does.
+				final long bits = Double.doubleToLongBits((Double) object);
+				for (int i = 0; i < array.length; i++) {
+					if (Double.doubleToLongBits(array[i]) == bits) return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean contains(final Object object) {
+			return indexOf(object) != -1;
+		}
+
+		/**
+		 * Returns a copy of the array backing this list.
+		 *
+		 * @return Array with all elements of this list.
+		 */
+		@NonNull
+		public double[] toDoubleArray() {
+			return array.clone();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class CodecPreferenceTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "CodecPreferenceTest";
+	private static final String PREF_KEY = "PREFERENCE.Codec";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testInstantiation() {
+		final CodecPreference<String> preference = new CodecPreference<>(PREF_KEY, ValueCodecs.STRING, null);
+		assertThat(preference.getKey(), is(PREF_KEY));
+		assertThat(preference.getValue(), is(nullValue()));
+		assertThat(preference.getDefaultValue(), is(nullValue()));
+	}
+
+	@Test
+	public void testPutAndGet() {
+		final CodecPreference<Map<String, List<Long>>> preference = new CodecPreference<>(
+				PREF_KEY,
+				ValueCodecs.mapOf(ValueCodecs.STRING, ValueCodecs.listOf(ValueCodecs.nullable(ValueCodecs.LONG))),
+				null
+		);
+		assertThat(preference.getFromPreferences(mPreferences), is(nullValue()));
+		final Map<String, List<Long>> value = new LinkedHashMap<>();
+		value.put("first", Arrays.asList(1L, null, -1500000000000L));
+		value.put("žáček", Arrays.<Long>asList());
+		preference.updateValue(value);
+		assertThat(preference.putIntoPreferences(mPreferences), is(true));
+		preference.invalidate();
+		assertThat(preference.getFromPreferences(mPreferences), is(value));
+	}
+
+	@Test
+	public void testPutNullValue() {
+		assertThat(CodecPreference.putIntoPreferences(mPreferences, PREF_KEY, 10, ValueCodecs.INTEGER), is(true));
+		assertThat(CodecPreference.putIntoPreferences(mPreferences, PREF_KEY, null, ValueCodecs.INTEGER), is(true));
+		assertThat(mPreferences.contains(PREF_KEY), is(false));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testGetValueNotPersistedByCodec() {
+		mPreferences.edit().putString(PREF_KEY, "/////w==").commit();
+		CodecPreference.getFromPreferences(mPreferences, PREF_KEY, null, ValueCodecs.listOf(ValueCodecs.STRING));
+	}
+}
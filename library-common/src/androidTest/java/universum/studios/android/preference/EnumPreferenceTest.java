@@ -27,6 +27,7 @@ import universum.studios.android.test.PreferencesTest;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
 
 /**
  * @author Martin Albedinsky
@@ -67,4 +68,26 @@ public final class EnumPreferenceTest extends PreferencesTest {
 		preference.invalidate();
 		assertThat(preference.getFromPreferences(mPreferences), is(TestEnum.AUTUMN));
 	}
+
+	@Test
+	public void testPutAndGetWithOrdinalStorage() {
+		final EnumPreference<TestEnum> preference = new EnumPreference<>(PREF_KEY, TestEnum.class, null, EnumPreference.STORAGE_ORDINAL);
+		assertThat(preference.getFromPreferences(mPreferences), is(nullValue()));
+		preference.updateValue(TestEnum.SUMMER);
+		assertThat(preference.putIntoPreferences(mPreferences), is(true));
+		assertThat(mPreferences.getInt(PREF_KEY, -1), is(TestEnum.SUMMER.ordinal()));
+		preference.invalidate();
+		assertThat(preference.getFromPreferences(mPreferences), is(TestEnum.SUMMER));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInstantiationWithoutEnumClass() {
+		new EnumPreference<TestEnum>(PREF_KEY, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetWithUnknownName() {
+		mPreferences.edit().putString(PREF_KEY, "MONSOON").commit();
+		new EnumPreference<>(PREF_KEY, TestEnum.class, TestEnum.SPRING).getFromPreferences(mPreferences);
+	}
 }
@@ -0,0 +1,102 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.EnumSet;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class EnumSetPreferenceTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "EnumSetPreferenceTest";
+	private static final String PREF_KEY = "PREFERENCE.EnumSet";
+
+	@SuppressWarnings("unused")
+	private enum TestEnum {
+		WINTER, SPRING, SUMMER, AUTUMN
+	}
+
+	@SuppressWarnings("unused")
+	private enum LargeTestEnum {
+		V00, V01, V02, V03, V04, V05, V06, V07, V08, V09, V10, V11, V12, V13, V14, V15,
+		V16, V17, V18, V19, V20, V21, V22, V23, V24, V25, V26, V27, V28, V29, V30, V31,
+		V32, V33, V34, V35, V36, V37, V38, V39, V40, V41, V42, V43, V44, V45, V46, V47,
+		V48, V49, V50, V51, V52, V53, V54, V55, V56, V57, V58, V59, V60, V61, V62, V63,
+		V64, V65, V66, V67, V68, V69
+	}
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testInstantiation() {
+		final EnumSetPreference<TestEnum> preference = new EnumSetPreference<>(PREF_KEY, TestEnum.class, null);
+		assertThat(preference.getKey(), is(PREF_KEY));
+		assertThat(preference.getValue(), is(nullValue()));
+		assertThat(preference.getDefaultValue(), is(nullValue()));
+	}
+
+	@Test
+	public void testPutAndGet() {
+		final EnumSetPreference<TestEnum> preference = new EnumSetPreference<>(PREF_KEY, TestEnum.class, EnumSet.of(TestEnum.SPRING));
+		assertThat(preference.getFromPreferences(mPreferences), is(EnumSet.of(TestEnum.SPRING)));
+		preference.updateValue(EnumSet.of(TestEnum.WINTER, TestEnum.AUTUMN));
+		assertThat(preference.putIntoPreferences(mPreferences), is(true));
+		assertThat(mPreferences.getLong(PREF_KEY, 0), is(0b1001L));
+		preference.invalidate();
+		assertThat(preference.getFromPreferences(mPreferences), is(EnumSet.of(TestEnum.WINTER, TestEnum.AUTUMN)));
+	}
+
+	@Test
+	public void testPutAndGetEmptySet() {
+		final EnumSetPreference<TestEnum> preference = new EnumSetPreference<>(PREF_KEY, TestEnum.class, EnumSet.of(TestEnum.SPRING));
+		preference.updateValue(EnumSet.noneOf(TestEnum.class));
+		assertThat(preference.putIntoPreferences(mPreferences), is(true));
+		preference.invalidate();
+		assertThat(preference.getFromPreferences(mPreferences), is(EnumSet.noneOf(TestEnum.class)));
+	}
+
+	@Test
+	public void testPutAndGetSetOfLargeEnum() {
+		final EnumSetPreference<LargeTestEnum> preference = new EnumSetPreference<>(PREF_KEY, LargeTestEnum.class, null);
+		final EnumSet<LargeTestEnum> value = EnumSet.of(LargeTestEnum.V00, LargeTestEnum.V63, LargeTestEnum.V64, LargeTestEnum.V69);
+		preference.updateValue(value);
+		assertThat(preference.putIntoPreferences(mPreferences), is(true));
+		preference.invalidate();
+		assertThat(preference.getFromPreferences(mPreferences), is(value));
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class FlagGroupPreferenceTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "FlagGroupPreferenceTest";
+	private static final String PREF_KEY = "PREFERENCE.FlagGroup";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).remove(PREF_KEY + "[1]").commit();
+	}
+
+	@Test
+	public void testInstantiation() {
+		final FlagGroupPreference preference = new FlagGroupPreference(PREF_KEY, 10);
+		assertThat(preference.getKey(), is(PREF_KEY));
+		assertThat(preference.getFlagCount(), is(10));
+		assertThat(preference.getDefaultValue(), is(new long[1]));
+	}
+
+	@Test
+	public void testDefaultFlags() {
+		final FlagGroupPreference preference = new FlagGroupPreference(PREF_KEY, 3, new long[]{0b101});
+		assertThat(preference.isSet(mPreferences, 0), is(true));
+		assertThat(preference.isSet(mPreferences, 1), is(false));
+		assertThat(preference.isSet(mPreferences, 2), is(true));
+	}
+
+	@Test
+	public void testSetAndGet() {
+		final FlagGroupPreference preference = new FlagGroupPreference(PREF_KEY, 100);
+		assertThat(preference.set(mPreferences, 70, true), is(true));
+		assertThat(preference.isSet(mPreferences, 70), is(true));
+		assertThat(mPreferences.contains(PREF_KEY), is(false));
+		assertThat(mPreferences.getLong(PREF_KEY + "[1]", 0), is(1L << 6));
+		preference.invalidate();
+		assertThat(preference.isSet(mPreferences, 70), is(true));
+		assertThat(preference.isSet(mPreferences, 6), is(false));
+	}
+
+	@Test
+	public void testEditAndCommit() {
+		final FlagGroupPreference preference = new FlagGroupPreference(PREF_KEY, 100);
+		assertThat(preference.edit().set(1, true).set(64, true).set(99, true).set(99, false).commit(mPreferences), is(true));
+		preference.invalidate();
+		assertThat(preference.isSet(mPreferences, 1), is(true));
+		assertThat(preference.isSet(mPreferences, 64), is(true));
+		assertThat(preference.isSet(mPreferences, 99), is(false));
+	}
+
+	@Test
+	public void testCommitIgnoresNotPersistedValue() {
+		final FlagGroupPreference preference = new FlagGroupPreference(PREF_KEY, 10);
+		preference.updateValue(new long[]{-1L});
+		assertThat(preference.edit().set(1, true).commit(mPreferences), is(true));
+		assertThat(mPreferences.getLong(PREF_KEY, 0), is(1L << 1));
+		assertThat(preference.isSet(mPreferences, 2), is(false));
+	}
+
+	@Test
+	public void testNullValue() {
+		final FlagGroupPreference preference = new FlagGroupPreference(PREF_KEY, 3, new long[]{0b101});
+		preference.updateValue(null);
+		assertThat(preference.isSet(mPreferences, 0), is(true));
+		assertThat(preference.edit().set(1, true).commit(mPreferences), is(true));
+		assertThat(preference.isSet(mPreferences, 1), is(true));
+		assertThat(preference.isSet(mPreferences, 2), is(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUpdateValueOfInvalidLength() {
+		new FlagGroupPreference(PREF_KEY, 10).updateValue(new long[2]);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSetFlagOutOfRange() {
+		new FlagGroupPreference(PREF_KEY, 10).edit().set(10, true);
+	}
+}
@@ -18,6 +18,7 @@
  */
 package universum.studios.android.preference;
 
+import android.content.SharedPreferences;
 import android.support.test.runner.AndroidJUnit4;
 
 import org.junit.Test;
@@ -62,4 +63,15 @@ public final class IntegerPreferenceTest extends PreferencesTest {
 		preference.invalidate();
 		assertThat(preference.getFromPreferences(mPreferences), is(2017));
 	}
+
+	@Test
+	public void testStageIntoEditor() {
+		final IntegerPreference preference = new IntegerPreference(PREF_KEY, 3);
+		preference.updateValue(2018);
+		final SharedPreferences.Editor editor = mPreferences.edit();
+		assertThat(preference.stageIntoEditor(mPreferences, editor), is(true));
+		assertThat(mPreferences.contains(PREF_KEY), is(false));
+		assertThat(editor.commit(), is(true));
+		assertThat(mPreferences.getInt(PREF_KEY, 0), is(2018));
+	}
 }
@@ -50,7 +50,15 @@ public final class BooleanPreference extends SharedPreference<Boolean> {
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return preferences.edit().putBoolean(mKey, mValue).commit();
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		editor.putBoolean(mKey, mValue);
+		return true;
 	}
 
 	/**
@@ -0,0 +1,170 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Base64;
+
+/**
+ * A {@link SharedPreference} implementation that may be used to persist a value of any type via
+ * {@link SharedPreferences} using a {@link ValueCodec} that converts such value into its binary
+ * representation. The binary representation is persisted as Base64 String.
+ * <p>
+ * Codecs for common types of values, like lists or maps, are available via {@link ValueCodecs}:
+ * <pre>
+ * final CodecPreference&lt;Map&lt;String, Long&gt;&gt; preference = new CodecPreference&lt;&gt;(
+ *      "PREFERENCE.Timestamps",
+ *      ValueCodecs.mapOf(ValueCodecs.STRING, ValueCodecs.LONG),
+ *      Collections.&lt;String, Long&gt;emptyMap()
+ * );
+ * </pre>
+ *
+ * @param <T> Type of the value to be persisted.
+ * @author Martin Albedinsky
+ * @see ValueCodec
+ * @see ValueCodecs
+ */
+public final class CodecPreference<T> extends SharedPreference<T> {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Codec used to convert value of this preference.
+	 */
+	private final ValueCodec<T> mCodec;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of CodecPreference with the specified <var>key</var>, <var>codec</var>
+	 * and <var>defValue</var>.
+	 *
+	 * @param codec The codec used to convert value of the new preference to and from its binary
+	 *              representation.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public CodecPreference(@NonNull final String key, @NonNull final ValueCodec<T> codec, @Nullable final T defValue) {
+		super(key, defValue);
+		this.mCodec = codec;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Same as {@link #putIntoPreferences(SharedPreferences, String, Object, ValueCodec)} for value
+	 * of this preference.
+	 */
+	@Override
+	@CheckResult
+	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		putIntoEditor(editor, mKey, mValue, mCodec);
+		return true;
+	}
+
+	/**
+	 * Puts the given <var>value</var> into the given shared <var>preferences</var> converted by
+	 * the specified <var>codec</var>.
+	 *
+	 * @param preferences The instance of shared preferences into which will be the value persisted.
+	 * @param key         The key under which will be the value persisted.
+	 * @param value       The value to be persisted. May be {@code null} to remove the current value.
+	 * @param codec       The codec used to convert the value into its binary representation.
+	 * @param <T>         Type of the value.
+	 * @return {@code True} if the value has been successfully persisted, {@code false} otherwise.
+	 */
+	@CheckResult
+	public static <T> boolean putIntoPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final T value, @NonNull final ValueCodec<T> codec) {
+		final SharedPreferences.Editor editor = preferences.edit();
+		putIntoEditor(editor, key, value, codec);
+		return editor.commit();
+	}
+
+	/**
+	 * Puts the given <var>value</var> converted by the specified <var>codec</var> into the given
+	 * <var>editor</var> without committing it.
+	 *
+	 * @see #putIntoPreferences(SharedPreferences, String, Object, ValueCodec)
+	 */
+	private static <T> void putIntoEditor(final SharedPreferences.Editor editor, final String key, final T value, final ValueCodec<T> codec) {
+		if (value == null) {
+			editor.remove(key);
+		} else {
+			final ValueOutput output = new ValueOutput();
+			codec.encode(value, output);
+			editor.putString(key, Base64.encodeToString(output.buffer(), 0, output.size(), Base64.NO_WRAP));
+		}
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	protected T onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		return getFromPreferences(preferences, mKey, mDefaultValue, mCodec);
+	}
+
+	/**
+	 * Obtains the value for the specified <var>key</var> from the given shared <var>preferences</var>
+	 * converted by the specified <var>codec</var>.
+	 *
+	 * @param preferences The instance of shared preferences into which was the value persisted.
+	 * @param key         The key under which is the value persisted.
+	 * @param defValue    Default value to return if there is no value persisted for the key.
+	 * @param codec       The codec used to convert the value from its binary representation.
+	 * @param <T>         Type of the value.
+	 * @return Value associated with the key or the default value.
+	 * @throws ClassCastException If the persisted value cannot be converted by the codec.
+	 */
+	@Nullable
+	public static <T> T getFromPreferences(@NonNull final SharedPreferences preferences, @NonNull final String key, @Nullable final T defValue, @NonNull final ValueCodec<T> codec) {
+		final String value = preferences.getString(key, null);
+		if (value == null) {
+			return defValue;
+		}
+		try {
+			final ValueInput input = new ValueInput(Base64.decode(value, Base64.NO_WRAP));
+			final T decoded = codec.decode(input);
+			if (input.isExhausted()) {
+				return decoded;
+			}
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			// Handled below.
+		}
+		throw new ClassCastException(
+				"Cannot obtain a value for the key(" + key + ") from shared preferences. " +
+						"Value(" + value + ") cannot be decoded by the specified codec."
+		);
+	}
+}
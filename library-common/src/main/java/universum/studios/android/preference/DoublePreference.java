@@ -0,0 +1,75 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * A {@link SharedPreference} implementation that may be used to persist a {@link Double} value via
+ * {@link SharedPreferences}.
+ * <p>
+ * The value is persisted losslessly as its raw long bits via {@link SharedPreferences.Editor#putLong(String, long)},
+ * so it should be obtained only via this preference or {@link SimpleSharedPreferencesFacade#getDouble(String, double)}.
+ *
+ * @author Martin Albedinsky
+ * @see BooleanPreference
+ * @see IntegerPreference
+ * @see LongPreference
+ * @see StringPreference
+ * @see FloatPreference
+ * @see EnumPreference
+ */
+public final class DoublePreference extends SharedPreference<Double> {
+
+	/**
+	 * Creates a new instance of DoublePreference with the specified <var>key</var> and <var>defValue</var>.
+	 *
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public DoublePreference(@NonNull final String key, @NonNull final Double defValue) {
+		super(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	@CheckResult
+	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		editor.putLong(mKey, Double.doubleToRawLongBits(mValue));
+		return true;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	protected Double onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		return Double.longBitsToDouble(preferences.getLong(mKey, Double.doubleToRawLongBits(mDefaultValue)));
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup table of constants of a specific enum class used by enum based preferences to resolve
+ * persisted enum values without reflection. Tables are created once per enum class and shared.
+ *
+ * @author Martin Albedinsky
+ * @see EnumPreference
+ * @see EnumSetPreference
+ */
+final class EnumConstants {
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/**
+	 * Tables created for enum classes.
+	 */
+	private static final Map<Class<?>, EnumConstants> TABLES = new ConcurrentHashMap<>();
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Constants of the enum indexed by theirs ordinals.
+	 */
+	final Enum<?>[] constants;
+
+	/**
+	 * Constants of the enum mapped to theirs names.
+	 */
+	private final Map<String, Enum<?>> mConstantsByName;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of EnumConstants for the specified <var>enumClass</var>.
+	 */
+	private EnumConstants(final Class<?> enumClass) {
+		this.constants = (Enum<?>[]) enumClass.getEnumConstants();
+		this.mConstantsByName = new HashMap<>(Math.max(constants.length * 4 / 3 + 1, 16));
+		for (final Enum<?> constant : constants) {
+			mConstantsByName.put(constant.name(), constant);
+		}
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns table of constants for the specified <var>enumClass</var>.
+	 *
+	 * @param enumClass Class of the desired enum.
+	 * @return Shared table of the enum constants.
+	 */
+	@NonNull
+	static EnumConstants of(@NonNull final Class<?> enumClass) {
+		EnumConstants table = TABLES.get(enumClass);
+		if (table == null) {
+			table = new EnumConstants(enumClass);
+			TABLES.put(enumClass, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Returns constant with the specified <var>name</var>.
+	 *
+	 * @param name Name of the desired constant.
+	 * @return The constant or {@code null} if there is no constant with such name.
+	 */
+	@Nullable
+	Enum<?> forName(@NonNull final String name) {
+		return mConstantsByName.get(name);
+	}
+
+	/**
+	 * Returns constant with the specified <var>ordinal</var>.
+	 *
+	 * @param ordinal Ordinal of the desired constant.
+	 * @return The constant or {@code null} if there is no constant with such ordinal.
+	 */
+	@Nullable
+	Enum<?> forOrdinal(final int ordinal) {
+		return ordinal >= 0 && ordinal < constants.length ? constants[ordinal] : null;
+	}
+}
@@ -20,13 +20,22 @@ package universum.studios.android.preference;
 
 import android.content.SharedPreferences;
 import android.support.annotation.CheckResult;
+import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
 /**
  * A {@link SharedPreference} implementation that may be used to persist an {@link Enum} value via
  * {@link SharedPreferences}.
+ * <p>
+ * By default the enum value is persisted as its name. {@link #STORAGE_ORDINAL} may be specified
+ * to persist the value as its ordinal instead, which should be used only for enums of which
+ * constants will not be reordered. In both cases the persisted value is resolved via a lookup table
+ * created once per enum class.
  *
  * @param <E> Type of the enum implementation of which value should be persisted.
  * @author Martin Albedinsky
@@ -35,16 +44,115 @@ import android.text.TextUtils;
  * @see LongPreference
  * @see StringPreference
  * @see FloatPreference
+ * @see EnumSetPreference
  */
 public final class EnumPreference<E extends Enum> extends SharedPreference<E> {
 
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Storage which persists enum value as String with its name.
+	 */
+	public static final int STORAGE_NAME = 0;
+
+	/**
+	 * Storage which persists enum value as int with its ordinal.
+	 */
+	public static final int STORAGE_ORDINAL = 1;
+
+	/**
+	 * Defines an annotation for determining set of allowed storages for EnumPreference.
+	 */
+	@IntDef({
+			STORAGE_NAME,
+			STORAGE_ORDINAL
+	})
+	@Retention(RetentionPolicy.SOURCE)
+	public @interface Storage {
+	}
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Lookup table with constants of the enum of which value is persisted by this preference.
+	 * May be {@code null} if the enum class has not been specified and could not be resolved from
+	 * the default value.
+	 */
+	private final EnumConstants mConstants;
+
+	/**
+	 * Storage used to persist the enum value of this preference.
+	 */
+	@Storage
+	private final int mStorage;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
 	/**
 	 * Creates a new instance of EnumPreference with the specified <var>key</var> and <var>defValue</var>.
+	 * <p>
+	 * Class of the enum is resolved from the default value, so the default value should not be
+	 * {@code null}. Use {@link #EnumPreference(String, Class, Enum)} otherwise.
 	 *
+	 * @throws IllegalArgumentException If the default value is {@code null}.
 	 * @see SharedPreference#SharedPreference(String, Object)
 	 */
+	@SuppressWarnings("unchecked")
 	public EnumPreference(@NonNull final String key, @Nullable final E defValue) {
+		this(key, defValue == null ? null : (Class<E>) defValue.getDeclaringClass(), defValue, STORAGE_NAME);
+	}
+
+	/**
+	 * Creates a new instance of EnumPreference with the specified <var>key</var>, <var>enumClass</var>
+	 * and <var>defValue</var>.
+	 *
+	 * @param enumClass Class of the enum of which value will be persisted by the new preference.
+	 * @throws IllegalArgumentException If the enum class is {@code null}.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public EnumPreference(@NonNull final String key, @NonNull final Class<E> enumClass, @Nullable final E defValue) {
+		this(key, enumClass, defValue, STORAGE_NAME);
+	}
+
+	/**
+	 * Creates a new instance of EnumPreference with the specified <var>key</var>, <var>enumClass</var>,
+	 * <var>defValue</var> and <var>storage</var>.
+	 *
+	 * @param enumClass Class of the enum of which value will be persisted by the new preference.
+	 * @param storage   The desired storage. One of {@link #STORAGE_NAME} or {@link #STORAGE_ORDINAL}.
+	 * @throws IllegalArgumentException If the enum class is {@code null}.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public EnumPreference(@NonNull final String key, @NonNull final Class<E> enumClass, @Nullable final E defValue, @Storage final int storage) {
 		super(key, defValue);
+		if (enumClass == null) {
+			throw new IllegalArgumentException(
+					"Cannot resolve enum class for the key(" + key + "). " +
+							"Specify it via EnumPreference(String, Class, Enum) when there is no default value."
+			);
+		}
+		this.mConstants = EnumConstants.of(enumClass);
+		this.mStorage = storage;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns the storage used by this preference to persist its enum value.
+	 *
+	 * @return One of {@link #STORAGE_NAME} or {@link #STORAGE_ORDINAL}.
+	 */
+	@Storage
+	public int getStorage() {
+		return mStorage;
 	}
 
 	/**
@@ -52,7 +160,23 @@ public final class EnumPreference<E extends Enum> extends SharedPreference<E> {
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return preferences.edit().putString(mKey, mValue.name()).commit();
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		if (mStorage == STORAGE_ORDINAL) {
+			if (mValue == null) {
+				editor.remove(mKey);
+			} else {
+				editor.putInt(mKey, mValue.ordinal());
+			}
+		} else {
+			editor.putString(mKey, mValue == null ? null : mValue.name());
+		}
+		return true;
 	}
 
 	/**
@@ -61,7 +185,31 @@ public final class EnumPreference<E extends Enum> extends SharedPreference<E> {
 	@Override
 	@SuppressWarnings("unchecked")
 	protected E onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		if (mStorage == STORAGE_ORDINAL) {
+			if (!preferences.contains(mKey)) {
+				return mDefaultValue;
+			}
+			final int ordinal = preferences.getInt(mKey, -1);
+			final Enum<?> constant = mConstants.forOrdinal(ordinal);
+			if (constant == null) {
+				throw new IllegalArgumentException(
+						"Cannot obtain an enum for the key(" + mKey + ") from shared preferences. " +
+								"There is no constant with ordinal(" + ordinal + ")."
+				);
+			}
+			return (E) constant;
+		}
 		final String enumName = preferences.getString(mKey, mDefaultValue == null ? "" : mDefaultValue.name());
-		return TextUtils.isEmpty(enumName) ? null : (E) E.valueOf(mDefaultValue.getClass(), enumName);
+		if (TextUtils.isEmpty(enumName)) {
+			return null;
+		}
+		final Enum<?> constant = mConstants.forName(enumName);
+		if (constant == null) {
+			throw new IllegalArgumentException(
+					"Cannot obtain an enum for the key(" + mKey + ") from shared preferences. " +
+							"There is no constant with name(" + enumName + ")."
+			);
+		}
+		return (E) constant;
 	}
 }
@@ -0,0 +1,173 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.EnumSet;
+
+/**
+ * A {@link SharedPreference} implementation that may be used to persist an {@link EnumSet} value via
+ * {@link SharedPreferences}.
+ * <p>
+ * The set is persisted as a bitmask where each bit represents presence of an enum constant with
+ * the corresponding ordinal, so adding or reordering of the enum constants changes meaning of the
+ * persisted values. Sets of enums with at most 64 constants are persisted as a single {@code long}
+ * value, sets of larger enums as String with the bitmask words.
+ *
+ * @param <E> Type of the enum implementation of which set should be persisted.
+ * @author Martin Albedinsky
+ * @see EnumPreference
+ */
+public final class EnumSetPreference<E extends Enum<E>> extends SharedPreference<EnumSet<E>> {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Count of enum constants that may be persisted in a single {@code long} value.
+	 */
+	private static final int WORD_SIZE = 64;
+
+	/**
+	 * Separator of the bitmask words persisted for sets of large enums.
+	 */
+	private static final char WORD_SEPARATOR = ',';
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Class of the enum of which set is persisted.
+	 */
+	private final Class<E> mEnumClass;
+
+	/**
+	 * Constants of the enum indexed by theirs ordinals.
+	 */
+	private final Enum<?>[] mConstants;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of EnumSetPreference with the specified <var>key</var> and <var>defValue</var>.
+	 *
+	 * @param enumClass Class of the enum of which set will be persisted by the new preference.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public EnumSetPreference(@NonNull final String key, @NonNull final Class<E> enumClass, @Nullable final EnumSet<E> defValue) {
+		super(key, defValue);
+		this.mEnumClass = enumClass;
+		this.mConstants = EnumConstants.of(enumClass).constants;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 */
+	@Override
+	@CheckResult
+	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		if (mValue == null) {
+			editor.remove(mKey);
+			return true;
+		}
+		if (mConstants.length <= WORD_SIZE) {
+			long mask = 0;
+			for (final E constant : mValue) {
+				mask |= 1L << constant.ordinal();
+			}
+			editor.putLong(mKey, mask);
+			return true;
+		}
+		final long[] words = new long[(mConstants.length + WORD_SIZE - 1) / WORD_SIZE];
+		for (final E constant : mValue) {
+			words[constant.ordinal() / WORD_SIZE] |= 1L << constant.ordinal();
+		}
+		final StringBuilder builder = new StringBuilder(words.length * 8);
+		for (int i = 0; i < words.length; i++) {
+			if (i > 0) builder.append(WORD_SEPARATOR);
+			builder.append(words[i]);
+		}
+		editor.putString(mKey, builder.toString());
+		return true;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	protected EnumSet<E> onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		if (!preferences.contains(mKey)) {
+			return mDefaultValue;
+		}
+		final EnumSet<E> set = EnumSet.noneOf(mEnumClass);
+		if (mConstants.length <= WORD_SIZE) {
+			addConstants(set, preferences.getLong(mKey, 0), 0);
+			return set;
+		}
+		final String words = preferences.getString(mKey, "");
+		int wordStart = 0;
+		for (int offset = 0; wordStart <= words.length() && offset < mConstants.length; offset += WORD_SIZE) {
+			int wordEnd = words.indexOf(WORD_SEPARATOR, wordStart);
+			if (wordEnd < 0) wordEnd = words.length();
+			try {
+				addConstants(set, Long.parseLong(words.substring(wordStart, wordEnd)), offset);
+			} catch (NumberFormatException e) {
+				throw new ClassCastException(
+						"Cannot obtain a set of(" + mEnumClass.getSimpleName() + ") for the key(" + mKey + ") from shared preferences. " +
+								"Value(" + words + ") is not a bitmask!"
+				);
+			}
+			wordStart = wordEnd + 1;
+		}
+		return set;
+	}
+
+	/**
+	 * Adds into the given <var>set</var> constants for all bits set in the specified <var>word</var>
+	 * where the lowest bit represents constant with the specified ordinal <var>offset</var>.
+	 */
+	private void addConstants(final EnumSet<E> set, long word, final int offset) {
+		while (word != 0) {
+			final int ordinal = offset + Long.numberOfTrailingZeros(word);
+			if (ordinal >= mConstants.length) {
+				break;
+			}
+			set.add(mEnumClass.cast(mConstants[ordinal]));
+			word &= word - 1;
+		}
+	}
+}
@@ -0,0 +1,331 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * A {@link SharedPreference} implementation that may be used to persist a group of boolean flags
+ * via {@link SharedPreferences} packed into {@code long} values, where each of such values holds
+ * up to 64 flags. Flags are identified by theirs indexes within the group, which should be declared
+ * as constants:
+ * <pre>
+ * public static final int FLAG_ONBOARDING_FINISHED = 0;
+ * public static final int FLAG_TUTORIAL_SHOWN = 1;
+ *
+ * final FlagGroupPreference flags = new FlagGroupPreference("PREFERENCE.Flags", 2);
+ * flags.set(preferences, FLAG_TUTORIAL_SHOWN, true);
+ * if (flags.isSet(preferences, FLAG_ONBOARDING_FINISHED)) {
+ *      // ...
+ * }
+ * </pre>
+ * Value of this preference is an array with the packed flags which is obtained from shared
+ * preferences only once and than only tested for the requested flags. Values of multiple flags
+ * may be changed at once via {@link Editor} obtained by {@link #edit()}.
+ * <p>
+ * First 64 flags are persisted under the key of this preference, each following 64 flags under
+ * the key with {@code [index]} suffix, like {@code PREFERENCE.Flags[1]}.
+ *
+ * @author Martin Albedinsky
+ * @see BooleanPreference
+ */
+public final class FlagGroupPreference extends SharedPreference<long[]> {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Count of flags that are packed into a single {@code long} value.
+	 */
+	private static final int SLOT_SIZE = 64;
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Count of flags in the group.
+	 */
+	private final int mFlagCount;
+
+	/**
+	 * Keys under which are persisted the slots with packed flags.
+	 */
+	private final String[] mSlotKeys;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #FlagGroupPreference(String, int, long[])} with all flags unset by default.
+	 */
+	public FlagGroupPreference(@NonNull final String key, @IntRange(from = 1) final int flagCount) {
+		this(key, flagCount, null);
+	}
+
+	/**
+	 * Creates a new instance of FlagGroupPreference with the specified <var>key</var>, <var>flagCount</var>
+	 * and <var>defValue</var>.
+	 *
+	 * @param flagCount Count of flags in the group.
+	 * @param defValue  Default values of the flags packed into {@code long} values, where the lowest
+	 *                  bit of the first value represents flag at index {@code 0}. May be {@code null}
+	 *                  to have all flags unset by default.
+	 * @throws IllegalArgumentException If the flag count is not positive or the default value does
+	 *                                  not have the expected length.
+	 * @see SharedPreference#SharedPreference(String, Object)
+	 */
+	public FlagGroupPreference(@NonNull final String key, @IntRange(from = 1) final int flagCount, @Nullable final long[] defValue) {
+		super(key, defValue == null ? new long[slotCount(flagCount)] : defValue);
+		if (mDefaultValue.length != slotCount(flagCount)) {
+			throw new IllegalArgumentException(
+					"Default value for the key(" + key + ") must have length of(" + slotCount(flagCount) + ") to hold(" + flagCount + ") flags."
+			);
+		}
+		this.mFlagCount = flagCount;
+		this.mSlotKeys = new String[mDefaultValue.length];
+		for (int i = 0; i < mSlotKeys.length; i++) {
+			mSlotKeys[i] = i == 0 ? key : key + "[" + i + "]";
+		}
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns count of {@code long} values needed to hold the specified count of flags.
+	 */
+	private static int slotCount(final int flagCount) {
+		if (flagCount <= 0) {
+			throw new IllegalArgumentException("Flag count(" + flagCount + ") must be positive.");
+		}
+		return (flagCount + SLOT_SIZE - 1) / SLOT_SIZE;
+	}
+
+	/**
+	 * Returns count of flags in this group.
+	 *
+	 * @return Count of flags.
+	 */
+	public int getFlagCount() {
+		return mFlagCount;
+	}
+
+	/**
+	 * Checks whether the flag at the specified <var>index</var> is set.
+	 * <p>
+	 * The flags are obtained from the given shared <var>preferences</var> only if this preference
+	 * does not hold the actual value.
+	 *
+	 * @param preferences The instance of shared preferences where are the flags persisted.
+	 * @param index       Index of the desired flag.
+	 * @return {@code True} if the flag is set, {@code false} otherwise.
+	 * @throws IndexOutOfBoundsException If the index is out of range of this group.
+	 */
+	public boolean isSet(@NonNull final SharedPreferences preferences, final int index) {
+		checkIndex(index);
+		final long[] slots = getFromPreferences(preferences);
+		final int slot = index / SLOT_SIZE;
+		return ((slots == null ? mDefaultValue[slot] : slots[slot]) & (1L << index)) != 0;
+	}
+
+	/**
+	 * Sets the flag at the specified <var>index</var> to the given <var>value</var>. Only the single
+	 * {@code long} value containing the flag is persisted.
+	 *
+	 * @param preferences The instance of shared preferences where are the flags persisted.
+	 * @param index       Index of the flag to be changed.
+	 * @param value       The desired value of the flag.
+	 * @return {@code True} if the change has been successfully persisted, {@code false} otherwise.
+	 * @throws IndexOutOfBoundsException If the index is out of range of this group.
+	 */
+	@CheckResult
+	public boolean set(@NonNull final SharedPreferences preferences, final int index, final boolean value) {
+		return edit().set(index, value).commit(preferences);
+	}
+
+	/**
+	 * Updates the packed flags of this preference. A {@code null} value represents the default flags
+	 * and its persisting removes all flags of this group from shared preferences.
+	 *
+	 * @throws IllegalArgumentException If the new value is not {@code null} and does not have the
+	 *                                  same length as the default value of this preference.
+	 */
+	@Override
+	public FlagGroupPreference updateValue(@Nullable final long[] newValue) {
+		if (newValue != null && newValue.length != mSlotKeys.length) {
+			throw new IllegalArgumentException(
+					"Value for the key(" + mKey + ") must have length of(" + mSlotKeys.length + ") to hold(" + mFlagCount + ") flags."
+			);
+		}
+		super.updateValue(newValue);
+		return this;
+	}
+
+	/**
+	 * Creates a new editor that may be used to change values of multiple flags of this group at once.
+	 *
+	 * @return New editor for this group.
+	 */
+	@NonNull
+	public Editor edit() {
+		return new Editor(this);
+	}
+
+	/**
+	 * Checks whether the specified <var>index</var> is within range of this group.
+	 */
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= mFlagCount) {
+			throw new IndexOutOfBoundsException("Flag index(" + index + ") is out of range of group with(" + mFlagCount + ") flags for the key(" + mKey + ").");
+		}
+	}
+
+	/**
+	 */
+	@Override
+	@CheckResult
+	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		if (mValue == null) {
+			for (final String slotKey : mSlotKeys) {
+				editor.remove(slotKey);
+			}
+		} else {
+			for (int i = 0; i < mSlotKeys.length; i++) {
+				editor.putLong(mSlotKeys[i], mValue[i]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 */
+	@NonNull
+	@Override
+	protected long[] onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+		final long[] slots = new long[mSlotKeys.length];
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = preferences.getLong(mSlotKeys[i], mDefaultValue[i]);
+		}
+		return slots;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Editor that collects changes of flags of a {@link FlagGroupPreference} and persists all of them
+	 * via a single commit where only the {@code long} values containing the changed flags are persisted.
+	 * The flags that are not changed are preserved as they are persisted at the time of commit.
+	 *
+	 * @author Martin Albedinsky
+	 * @see FlagGroupPreference#edit()
+	 */
+	public static final class Editor {
+
+		/**
+		 * Preference of which flags are changed by this editor.
+		 */
+		private final FlagGroupPreference mPreference;
+
+		/**
+		 * Masks with flags to be set.
+		 */
+		private final long[] mSetMasks;
+
+		/**
+		 * Masks with flags to be unset.
+		 */
+		private final long[] mUnsetMasks;
+
+		/**
+		 * Creates a new instance of Editor for the given <var>preference</var>.
+		 */
+		Editor(final FlagGroupPreference preference) {
+			this.mPreference = preference;
+			this.mSetMasks = new long[preference.mSlotKeys.length];
+			this.mUnsetMasks = new long[preference.mSlotKeys.length];
+		}
+
+		/**
+		 * Changes the flag at the specified <var>index</var> to the given <var>value</var>.
+		 *
+		 * @param index Index of the flag to be changed.
+		 * @param value The desired value of the flag.
+		 * @return This editor to allow methods chaining.
+		 * @throws IndexOutOfBoundsException If the index is out of range of the group.
+		 */
+		@NonNull
+		public Editor set(final int index, final boolean value) {
+			mPreference.checkIndex(index);
+			final int slot = index / SLOT_SIZE;
+			final long mask = 1L << index;
+			if (value) {
+				mSetMasks[slot] |= mask;
+				mUnsetMasks[slot] &= ~mask;
+			} else {
+				mUnsetMasks[slot] |= mask;
+				mSetMasks[slot] &= ~mask;
+			}
+			return this;
+		}
+
+		/**
+		 * Persists all changed flags into the given shared <var>preferences</var>.
+		 *
+		 * @param preferences The instance of shared preferences where are the flags persisted.
+		 * @return {@code True} if the changes have been successfully persisted or there are no
+		 * changes, {@code false} otherwise.
+		 */
+		@CheckResult
+		public boolean commit(@NonNull final SharedPreferences preferences) {
+			final String[] slotKeys = mPreference.mSlotKeys;
+			SharedPreferences.Editor editor = null;
+			for (int i = 0; i < slotKeys.length; i++) {
+				if ((mSetMasks[i] | mUnsetMasks[i]) != 0) {
+					if (editor == null) editor = preferences.edit();
+					final long slot = preferences.getLong(slotKeys[i], mPreference.mDefaultValue[i]);
+					editor.putLong(slotKeys[i], (slot | mSetMasks[i]) & ~mUnsetMasks[i]);
+				}
+			}
+			if (editor == null) {
+				return true;
+			}
+			final boolean committed = editor.commit();
+			// Value held by the preference may be out of date now, so it will be obtained again.
+			mPreference.invalidate();
+			return committed;
+		}
+	}
+}
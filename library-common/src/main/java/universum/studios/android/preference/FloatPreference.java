@@ -32,6 +32,7 @@ import android.support.annotation.Nullable;
  * @see IntegerPreference
  * @see LongPreference
  * @see StringPreference
+ * @see DoublePreference
  * @see EnumPreference
  */
 public final class FloatPreference extends SharedPreference<Float> {
@@ -50,7 +51,15 @@ public final class FloatPreference extends SharedPreference<Float> {
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return preferences.edit().putFloat(mKey, mValue).commit();
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		editor.putFloat(mKey, mValue);
+		return true;
 	}
 
 	/**
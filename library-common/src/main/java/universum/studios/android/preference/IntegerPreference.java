@@ -50,7 +50,15 @@ public final class IntegerPreference extends SharedPreference<Integer> {
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return preferences.edit().putInt(mKey, mValue).commit();
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		editor.putInt(mKey, mValue);
+		return true;
 	}
 
 	/**
@@ -50,7 +50,15 @@ public final class LongPreference extends SharedPreference<Long> {
 	@Override
 	@CheckResult
 	protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
-		return preferences.edit().putLong(mKey, mValue).commit();
+		return commitStaged(preferences);
+	}
+
+	/**
+	 */
+	@Override
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		editor.putLong(mKey, mValue);
+		return true;
 	}
 
 	/**
@@ -0,0 +1,57 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Interface for codecs that may be used to convert values of a specific type to and from binary
+ * representation, so such values may be persisted via {@link CodecPreference} without a need to
+ * parse them from a textual format like JSON.
+ * <p>
+ * Codecs for common types of values are available via {@link ValueCodecs}.
+ *
+ * @param <T> Type of the values that the codec converts.
+ * @author Martin Albedinsky
+ * @see CodecPreference
+ * @see ValueCodecs
+ */
+public interface ValueCodec<T> {
+
+	/**
+	 * Writes the given <var>value</var> into the specified <var>output</var>.
+	 *
+	 * @param value  The value to be written. Never {@code null}, {@code null} values are handled by
+	 *               the preference itself or by codec created via {@link ValueCodecs#nullable(ValueCodec)}.
+	 * @param output The output where to write binary representation of the value.
+	 * @see #decode(ValueInput)
+	 */
+	void encode(@NonNull T value, @NonNull ValueOutput output);
+
+	/**
+	 * Reads a value from the specified <var>input</var> that has been written via {@link #encode(Object, ValueOutput)}.
+	 *
+	 * @param input The input from which to read binary representation of the value.
+	 * @return The read value.
+	 * @throws IllegalStateException If the input does not contain enough bytes or the bytes do not
+	 *                               represent a valid value.
+	 */
+	@NonNull
+	T decode(@NonNull ValueInput input);
+}
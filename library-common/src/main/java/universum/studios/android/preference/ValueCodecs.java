@@ -0,0 +1,508 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Factory providing {@link ValueCodec ValueCodecs} for common types of values. Codecs for structured
+ * values may be composed from these codecs, like {@code ValueCodecs.mapOf(ValueCodecs.STRING, ValueCodecs.listOf(ValueCodecs.LONG))}.
+ *
+ * @author Martin Albedinsky
+ * @see CodecPreference
+ */
+public final class ValueCodecs {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Codec for {@link Boolean} values.
+	 */
+	public static final ValueCodec<Boolean> BOOLEAN = new ValueCodec<Boolean>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Boolean value, @NonNull final ValueOutput output) {
+			output.writeBoolean(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Boolean decode(@NonNull final ValueInput input) {
+			return input.readBoolean();
+		}
+	};
+
+	/**
+	 * Codec for {@link Integer} values.
+	 */
+	public static final ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Integer value, @NonNull final ValueOutput output) {
+			output.writeInt(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Integer decode(@NonNull final ValueInput input) {
+			return input.readInt();
+		}
+	};
+
+	/**
+	 * Codec for {@link Long} values.
+	 */
+	public static final ValueCodec<Long> LONG = new ValueCodec<Long>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Long value, @NonNull final ValueOutput output) {
+			output.writeLong(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Long decode(@NonNull final ValueInput input) {
+			return input.readLong();
+		}
+	};
+
+	/**
+	 * Codec for {@link Float} values.
+	 */
+	public static final ValueCodec<Float> FLOAT = new ValueCodec<Float>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Float value, @NonNull final ValueOutput output) {
+			output.writeFloat(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Float decode(@NonNull final ValueInput input) {
+			return input.readFloat();
+		}
+	};
+
+	/**
+	 * Codec for {@link Double} values.
+	 */
+	public static final ValueCodec<Double> DOUBLE = new ValueCodec<Double>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Double value, @NonNull final ValueOutput output) {
+			output.writeDouble(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Double decode(@NonNull final ValueInput input) {
+			return input.readDouble();
+		}
+	};
+
+	/**
+	 * Codec for {@link String} values.
+	 */
+	public static final ValueCodec<String> STRING = new ValueCodec<String>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final String value, @NonNull final ValueOutput output) {
+			output.writeString(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public String decode(@NonNull final ValueInput input) {
+			return input.readString();
+		}
+	};
+
+	/**
+	 * Codec for arrays of bytes.
+	 */
+	public static final ValueCodec<byte[]> BYTES = new ValueCodec<byte[]>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final byte[] value, @NonNull final ValueOutput output) {
+			output.writeBytes(value);
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public byte[] decode(@NonNull final ValueInput input) {
+			return input.readBytes();
+		}
+	};
+
+	/**
+	 * Codec for arrays of int values.
+	 */
+	public static final ValueCodec<int[]> INT_ARRAY = new ValueCodec<int[]>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final int[] value, @NonNull final ValueOutput output) {
+			output.writeSize(value.length);
+			for (final int element : value) {
+				output.writeInt(element);
+			}
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public int[] decode(@NonNull final ValueInput input) {
+			final int[] value = new int[checkedSize(input)];
+			for (int i = 0; i < value.length; i++) {
+				value[i] = input.readInt();
+			}
+			return value;
+		}
+	};
+
+	/**
+	 * Codec for arrays of long values.
+	 */
+	public static final ValueCodec<long[]> LONG_ARRAY = new ValueCodec<long[]>() {
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final long[] value, @NonNull final ValueOutput output) {
+			output.writeSize(value.length);
+			for (final long element : value) {
+				output.writeLong(element);
+			}
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public long[] decode(@NonNull final ValueInput input) {
+			final long[] value = new long[checkedSize(input)];
+			for (int i = 0; i < value.length; i++) {
+				value[i] = input.readLong();
+			}
+			return value;
+		}
+	};
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private ValueCodecs() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Creates a codec that supports also {@code null} values using the given <var>codec</var> for
+	 * non-null values.
+	 *
+	 * @param codec The codec used to convert non-null values.
+	 * @param <T>   Type of the values.
+	 * @return Codec supporting {@code null} values.
+	 */
+	@NonNull
+	public static <T> ValueCodec<T> nullable(@NonNull final ValueCodec<T> codec) {
+		return new NullableCodec<>(codec);
+	}
+
+	/**
+	 * Creates a codec for lists of elements converted by the given <var>elementCodec</var>. The
+	 * decoded lists are unmodifiable.
+	 *
+	 * @param elementCodec The codec used to convert elements of the lists. Should be {@link #nullable(ValueCodec)}
+	 *                     if the lists may contain {@code null} elements.
+	 * @param <T>          Type of the elements.
+	 * @return Codec for lists.
+	 */
+	@NonNull
+	public static <T> ValueCodec<List<T>> listOf(@NonNull final ValueCodec<T> elementCodec) {
+		return new ListCodec<>(elementCodec);
+	}
+
+	/**
+	 * Creates a codec for sets of elements converted by the given <var>elementCodec</var>. The
+	 * decoded sets are unmodifiable.
+	 *
+	 * @param elementCodec The codec used to convert elements of the sets.
+	 * @param <T>          Type of the elements.
+	 * @return Codec for sets.
+	 */
+	@NonNull
+	public static <T> ValueCodec<Set<T>> setOf(@NonNull final ValueCodec<T> elementCodec) {
+		return new SetCodec<>(elementCodec);
+	}
+
+	/**
+	 * Creates a codec for maps with keys and values converted by the given codecs. The decoded maps
+	 * are unmodifiable and preserve order in which theirs entries have been encoded.
+	 *
+	 * @param keyCodec   The codec used to convert keys of the maps.
+	 * @param valueCodec The codec used to convert values of the maps.
+	 * @param <K>        Type of the keys.
+	 * @param <V>        Type of the values.
+	 * @return Codec for maps.
+	 */
+	@NonNull
+	public static <K, V> ValueCodec<Map<K, V>> mapOf(@NonNull final ValueCodec<K> keyCodec, @NonNull final ValueCodec<V> valueCodec) {
+		return new MapCodec<>(keyCodec, valueCodec);
+	}
+
+	/**
+	 * Reads size of a collection or an array from the given <var>input</var> and checks that the
+	 * input has at least one byte for each element, so a corrupted size cannot cause allocation
+	 * of a huge collection.
+	 */
+	static int checkedSize(final ValueInput input) {
+		final int size = input.readSize();
+		if (size > input.remaining()) {
+			throw new IllegalStateException("Size(" + size + ") exceeds count of remaining bytes.");
+		}
+		return size;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * A {@link ValueCodec} that prefixes each value by flag indicating whether it is {@code null}.
+	 *
+	 * @param <T> Type of the values.
+	 */
+	private static final class NullableCodec<T> implements ValueCodec<T> {
+
+		/**
+		 * Codec used to convert non-null values.
+		 */
+		private final ValueCodec<T> codec;
+
+		/**
+		 * Creates a new instance of NullableCodec that delegates to the given <var>codec</var>.
+		 */
+		NullableCodec(final ValueCodec<T> codec) {
+			this.codec = codec;
+		}
+
+		/**
+		 */
+		@Override
+		public void encode(@Nullable final T value, @NonNull final ValueOutput output) {
+			output.writeBoolean(value != null);
+			if (value != null) codec.encode(value, output);
+		}
+
+		/**
+		 */
+		@Override
+		@SuppressWarnings("ConstantConditions")
+		public T decode(@NonNull final ValueInput input) {
+			return input.readBoolean() ? codec.decode(input) : null;
+		}
+	}
+
+	/**
+	 * A {@link ValueCodec} for lists.
+	 *
+	 * @param <T> Type of the list elements.
+	 */
+	private static final class ListCodec<T> implements ValueCodec<List<T>> {
+
+		/**
+		 * Codec used to convert elements.
+		 */
+		private final ValueCodec<T> elementCodec;
+
+		/**
+		 * Creates a new instance of ListCodec with the given <var>elementCodec</var>.
+		 */
+		ListCodec(final ValueCodec<T> elementCodec) {
+			this.elementCodec = elementCodec;
+		}
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final List<T> value, @NonNull final ValueOutput output) {
+			output.writeSize(value.size());
+			for (final T element : value) {
+				elementCodec.encode(element, output);
+			}
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public List<T> decode(@NonNull final ValueInput input) {
+			final int size = checkedSize(input);
+			final List<T> value = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				value.add(elementCodec.decode(input));
+			}
+			return Collections.unmodifiableList(value);
+		}
+	}
+
+	/**
+	 * A {@link ValueCodec} for sets.
+	 *
+	 * @param <T> Type of the set elements.
+	 */
+	private static final class SetCodec<T> implements ValueCodec<Set<T>> {
+
+		/**
+		 * Codec used to convert elements.
+		 */
+		private final ValueCodec<T> elementCodec;
+
+		/**
+		 * Creates a new instance of SetCodec with the given <var>elementCodec</var>.
+		 */
+		SetCodec(final ValueCodec<T> elementCodec) {
+			this.elementCodec = elementCodec;
+		}
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Set<T> value, @NonNull final ValueOutput output) {
+			output.writeSize(value.size());
+			for (final T element : value) {
+				elementCodec.encode(element, output);
+			}
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Set<T> decode(@NonNull final ValueInput input) {
+			final int size = checkedSize(input);
+			final Set<T> value = new HashSet<>(Math.max(size * 4 / 3 + 1, 16));
+			for (int i = 0; i < size; i++) {
+				value.add(elementCodec.decode(input));
+			}
+			return Collections.unmodifiableSet(value);
+		}
+	}
+
+	/**
+	 * A {@link ValueCodec} for maps.
+	 *
+	 * @param <K> Type of the map keys.
+	 * @param <V> Type of the map values.
+	 */
+	private static final class MapCodec<K, V> implements ValueCodec<Map<K, V>> {
+
+		/**
+		 * Codec used to convert keys.
+		 */
+		private final ValueCodec<K> keyCodec;
+
+		/**
+		 * Codec used to convert values.
+		 */
+		private final ValueCodec<V> valueCodec;
+
+		/**
+		 * Creates a new instance of MapCodec with the given <var>keyCodec</var> and <var>valueCodec</var>.
+		 */
+		MapCodec(final ValueCodec<K> keyCodec, final ValueCodec<V> valueCodec) {
+			this.keyCodec = keyCodec;
+			this.valueCodec = valueCodec;
+		}
+
+		/**
+		 */
+		@Override
+		public void encode(@NonNull final Map<K, V> value, @NonNull final ValueOutput output) {
+			output.writeSize(value.size());
+			for (final Map.Entry<K, V> entry : value.entrySet()) {
+				keyCodec.encode(entry.getKey(), output);
+				valueCodec.encode(entry.getValue(), output);
+			}
+		}
+
+		/**
+		 */
+		@NonNull
+		@Override
+		public Map<K, V> decode(@NonNull final ValueInput input) {
+			final int size = checkedSize(input);
+			final Map<K, V> value = new LinkedHashMap<>(Math.max(size * 4 / 3 + 1, 16));
+			for (int i = 0; i < size; i++) {
+				final K key = keyCodec.decode(input);
+				value.put(key, valueCodec.decode(input));
+			}
+			return Collections.unmodifiableMap(value);
+		}
+	}
+}
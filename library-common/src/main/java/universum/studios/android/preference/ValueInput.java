@@ -0,0 +1,236 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Input from which {@link ValueCodec ValueCodecs} read binary representation of values written
+ * via {@link ValueOutput}.
+ * <p>
+ * All read methods throw {@link IllegalStateException} if the input does not contain enough bytes
+ * to read the requested value.
+ *
+ * @author Martin Albedinsky
+ * @see ValueOutput
+ */
+public final class ValueInput {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Bytes from which to read the values.
+	 */
+	private final byte[] mBytes;
+
+	/**
+	 * Position of the next byte to be read.
+	 */
+	private int mPosition;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ValueInput to read values from the given <var>bytes</var>.
+	 *
+	 * @param bytes The bytes with binary representation of values.
+	 */
+	ValueInput(final byte[] bytes) {
+		this.mBytes = bytes;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Reads a boolean value written via {@link ValueOutput#writeBoolean(boolean)}.
+	 *
+	 * @return The read value.
+	 */
+	public boolean readBoolean() {
+		return readByte() != 0;
+	}
+
+	/**
+	 * Reads a single byte written via {@link ValueOutput#writeByte(int)}.
+	 *
+	 * @return The read value.
+	 */
+	public byte readByte() {
+		if (mPosition >= mBytes.length) {
+			throw endOfInput();
+		}
+		return mBytes[mPosition++];
+	}
+
+	/**
+	 * Reads a size written via {@link ValueOutput#writeSize(int)}.
+	 *
+	 * @return The read size.
+	 */
+	public int readSize() {
+		final long size = readVarLong();
+		if (size < 0 || size > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Invalid size(" + size + ").");
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Reads an int value written via {@link ValueOutput#writeInt(int)}.
+	 *
+	 * @return The read value.
+	 */
+	public int readInt() {
+		final int encoded = (int) readVarLong();
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	/**
+	 * Reads a long value written via {@link ValueOutput#writeLong(long)}.
+	 *
+	 * @return The read value.
+	 */
+	public long readLong() {
+		final long encoded = readVarLong();
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	/**
+	 * Reads a float value written via {@link ValueOutput#writeFloat(float)}.
+	 *
+	 * @return The read value.
+	 */
+	public float readFloat() {
+		return Float.intBitsToFloat((int) readFixed(4));
+	}
+
+	/**
+	 * Reads a double value written via {@link ValueOutput#writeDouble(double)}.
+	 *
+	 * @return The read value.
+	 */
+	public double readDouble() {
+		return Double.longBitsToDouble(readFixed(8));
+	}
+
+	/**
+	 * Reads a String value written via {@link ValueOutput#writeString(String)}.
+	 *
+	 * @return The read value.
+	 */
+	@NonNull
+	public String readString() {
+		final int length = readSize();
+		if (length > mBytes.length - mPosition) {
+			throw endOfInput();
+		}
+		final char[] characters = new char[length];
+		for (int i = 0; i < length; i++) {
+			final byte next = readByte();
+			if (next >= 0) {
+				characters[i] = (char) next;
+			} else {
+				mPosition--;
+				final long character = readVarLong();
+				if (character > Character.MAX_VALUE) {
+					throw new IllegalStateException("Invalid character(" + character + ").");
+				}
+				characters[i] = (char) character;
+			}
+		}
+		return new String(characters);
+	}
+
+	/**
+	 * Reads bytes written via {@link ValueOutput#writeBytes(byte[])}.
+	 *
+	 * @return The read bytes.
+	 */
+	@NonNull
+	public byte[] readBytes() {
+		final int count = readSize();
+		if (count > mBytes.length - mPosition) {
+			throw endOfInput();
+		}
+		final byte[] bytes = new byte[count];
+		System.arraycopy(mBytes, mPosition, bytes, 0, count);
+		mPosition += count;
+		return bytes;
+	}
+
+	/**
+	 * Returns count of the bytes that have not been read yet.
+	 *
+	 * @return Count of remaining bytes.
+	 */
+	public int remaining() {
+		return mBytes.length - mPosition;
+	}
+
+	/**
+	 * Checks whether all bytes of this input has been read.
+	 *
+	 * @return {@code True} if there are no more bytes to be read, {@code false} otherwise.
+	 */
+	public boolean isExhausted() {
+		return mPosition >= mBytes.length;
+	}
+
+	/**
+	 * Reads unsigned variable length quantity.
+	 */
+	private long readVarLong() {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final byte next = readByte();
+			value |= (long) (next & 0x7F) << shift;
+			if (next >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed variable length quantity.");
+	}
+
+	/**
+	 * Reads the specified count of <var>bytes</var> in little endian order.
+	 */
+	private long readFixed(final int bytes) {
+		if (bytes > mBytes.length - mPosition) {
+			throw endOfInput();
+		}
+		long value = 0;
+		for (int i = 0; i < bytes; i++) {
+			value |= (long) (mBytes[mPosition++] & 0xFF) << (i * 8);
+		}
+		return value;
+	}
+
+	/**
+	 * Creates an exception indicating that there are not enough bytes to be read.
+	 */
+	private static IllegalStateException endOfInput() {
+		return new IllegalStateException("Unexpected end of input.");
+	}
+}
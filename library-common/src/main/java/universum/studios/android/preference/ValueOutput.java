@@ -0,0 +1,244 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Output into which {@link ValueCodec ValueCodecs} write binary representation of values.
+ * <p>
+ * Integral values are written as variable length quantities, so small values occupy only a single
+ * byte. Floating point values are written as theirs raw bits in a fixed length.
+ *
+ * @author Martin Albedinsky
+ * @see ValueInput
+ */
+public final class ValueOutput {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Initial capacity of the output buffer.
+	 */
+	private static final int INITIAL_CAPACITY = 32;
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Buffer with the written bytes.
+	 */
+	private byte[] mBuffer = new byte[INITIAL_CAPACITY];
+
+	/**
+	 * Count of the bytes written into the buffer.
+	 */
+	private int mSize;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new empty instance of ValueOutput.
+	 */
+	ValueOutput() {
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Writes the given boolean <var>value</var> as a single byte.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeBoolean(final boolean value) {
+		return writeByte(value ? 1 : 0);
+	}
+
+	/**
+	 * Writes lower 8 bits of the given <var>value</var> as a single byte.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeByte(final int value) {
+		ensureCapacity(1);
+		mBuffer[mSize++] = (byte) value;
+		return this;
+	}
+
+	/**
+	 * Writes the given non-negative <var>size</var> like size of a collection in as less bytes as possible.
+	 *
+	 * @param size The size to be written.
+	 * @return This output to allow methods chaining.
+	 * @throws IllegalArgumentException If the size is negative.
+	 */
+	public ValueOutput writeSize(final int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size(" + size + ") cannot be negative.");
+		}
+		writeVarLong(size);
+		return this;
+	}
+
+	/**
+	 * Writes the given int <var>value</var> in as less bytes as possible, so values closer to zero
+	 * occupy less bytes.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeInt(final int value) {
+		writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+		return this;
+	}
+
+	/**
+	 * Writes the given long <var>value</var> in as less bytes as possible, so values closer to zero
+	 * occupy less bytes.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeLong(final long value) {
+		writeVarLong((value << 1) ^ (value >> 63));
+		return this;
+	}
+
+	/**
+	 * Writes raw bits of the given float <var>value</var> in 4 bytes.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeFloat(final float value) {
+		writeFixed(Float.floatToRawIntBits(value), 4);
+		return this;
+	}
+
+	/**
+	 * Writes raw bits of the given double <var>value</var> in 8 bytes.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeDouble(final double value) {
+		writeFixed(Double.doubleToRawLongBits(value), 8);
+		return this;
+	}
+
+	/**
+	 * Writes the given String <var>value</var> prefixed by its length. Each character occupies
+	 * a single byte if it is an ASCII character and at most 3 bytes otherwise.
+	 *
+	 * @param value The value to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeString(@NonNull final String value) {
+		final int length = value.length();
+		writeVarLong(length);
+		ensureCapacity(length);
+		for (int i = 0; i < length; i++) {
+			final char character = value.charAt(i);
+			if (character < 0x80) {
+				if (mSize == mBuffer.length) ensureCapacity(1);
+				mBuffer[mSize++] = (byte) character;
+			} else {
+				writeVarLong(character);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the given <var>bytes</var> prefixed by theirs count.
+	 *
+	 * @param bytes The bytes to be written.
+	 * @return This output to allow methods chaining.
+	 */
+	public ValueOutput writeBytes(@NonNull final byte[] bytes) {
+		writeVarLong(bytes.length);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, mBuffer, mSize, bytes.length);
+		mSize += bytes.length;
+		return this;
+	}
+
+	/**
+	 * Writes the given <var>value</var> as unsigned variable length quantity.
+	 */
+	private void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		mBuffer[mSize++] = (byte) value;
+	}
+
+	/**
+	 * Writes the specified count of lower <var>bytes</var> of the given <var>value</var> in little
+	 * endian order.
+	 */
+	private void writeFixed(final long value, final int bytes) {
+		ensureCapacity(bytes);
+		for (int i = 0; i < bytes; i++) {
+			mBuffer[mSize++] = (byte) (value >>> (i * 8));
+		}
+	}
+
+	/**
+	 * Ensures that the buffer has space for at least the specified count of <var>additionalBytes</var>.
+	 */
+	private void ensureCapacity(final int additionalBytes) {
+		final int required = mSize + additionalBytes;
+		if (required > mBuffer.length) {
+			final byte[] buffer = new byte[Math.max(required, mBuffer.length * 2)];
+			System.arraycopy(mBuffer, 0, buffer, 0, mSize);
+			this.mBuffer = buffer;
+		}
+	}
+
+	/**
+	 * Returns count of the bytes written into this output.
+	 *
+	 * @return Size of this output.
+	 */
+	int size() {
+		return mSize;
+	}
+
+	/**
+	 * Returns buffer with the bytes written into this output. Only first {@link #size()} bytes are valid.
+	 *
+	 * @return Buffer of this output.
+	 */
+	@NonNull
+	byte[] buffer() {
+		return mBuffer;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class CompressingSharedPreferencesTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "CompressingSharedPreferencesTest";
+	private static final String PREF_KEY = "PREFERENCE.Compressing";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testPutGetLargeValue() {
+		final CompressingSharedPreferences preferences = new CompressingSharedPreferences(mPreferences);
+		final String value = createJson(500);
+		assertThat(preferences.edit().putString(PREF_KEY, value).commit(), is(true));
+		final String persistedValue = mPreferences.getString(PREF_KEY, null);
+		assertThat(persistedValue.startsWith(CompressingSharedPreferences.COMPRESSED_VALUE_PREFIX), is(true));
+		assertThat(persistedValue.length() < value.length(), is(true));
+		assertThat(preferences.getString(PREF_KEY, null), is(value));
+		assertThat(preferences.getAll().get(PREF_KEY), is((Object) value));
+	}
+
+	@Test
+	public void testPutGetSmallValue() {
+		final CompressingSharedPreferences preferences = new CompressingSharedPreferences(mPreferences);
+		preferences.edit().putString(PREF_KEY, "value").commit();
+		assertThat(mPreferences.getString(PREF_KEY, null), is("value"));
+		assertThat(preferences.getString(PREF_KEY, null), is("value"));
+	}
+
+	@Test
+	public void testPutGetPrefixedValue() {
+		final CompressingSharedPreferences preferences = new CompressingSharedPreferences(mPreferences);
+		final String value = CompressingSharedPreferences.COMPRESSED_VALUE_PREFIX + "value";
+		preferences.edit().putString(PREF_KEY, value).commit();
+		assertThat(mPreferences.getString(PREF_KEY, null).equals(value), is(false));
+		assertThat(preferences.getString(PREF_KEY, null), is(value));
+	}
+
+	@Test
+	public void testGetDefaultValue() {
+		final CompressingSharedPreferences preferences = new CompressingSharedPreferences(mPreferences);
+		assertThat(preferences.getString(PREF_KEY, "default"), is("default"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInstantiationWithNegativeThreshold() {
+		new CompressingSharedPreferences(mPreferences, -1, null);
+	}
+
+	private static String createJson(final int count) {
+		final StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) builder.append(',');
+			builder.append("{\"id\":").append(i).append(",\"name\":\"item\"}");
+		}
+		return builder.append(']').toString();
+	}
+}
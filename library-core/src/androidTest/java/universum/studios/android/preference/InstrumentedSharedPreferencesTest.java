@@ -0,0 +1,109 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class InstrumentedSharedPreferencesTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "InstrumentedSharedPreferencesTest";
+	private static final String PREF_KEY = "PREFERENCE.Instrumented";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testRecordReads() {
+		final InstrumentedSharedPreferences preferences = new InstrumentedSharedPreferences(mPreferences);
+		preferences.getString(PREF_KEY, "value");
+		preferences.getString(PREF_KEY, "value");
+		final InstrumentedSharedPreferences.KeyStats stats = preferences.getStats().get(PREF_KEY);
+		assertThat(stats.reads, is(2L));
+		assertThat(stats.readBytes, is(20L));
+		assertThat(stats.coldReadLatency.getCount(), is(1L));
+		assertThat(stats.warmReadLatency.getCount(), is(1L));
+	}
+
+	@Test
+	public void testRecordWrites() {
+		final InstrumentedSharedPreferences preferences = new InstrumentedSharedPreferences(mPreferences);
+		assertThat(preferences.edit().putInt(PREF_KEY, 1).commit(), is(true));
+		preferences.edit().putInt(PREF_KEY, 2).apply();
+		final InstrumentedSharedPreferences.KeyStats stats = preferences.getStats().get(PREF_KEY);
+		assertThat(stats.writes, is(2L));
+		assertThat(stats.writtenBytes, is(8L));
+		assertThat(stats.commitLatency.getCount(), is(1L));
+		assertThat(stats.applyLatency.getCount(), is(1L));
+	}
+
+	@Test
+	public void testRecordMainThreadAccess() throws Exception {
+		final InstrumentedSharedPreferences preferences = new InstrumentedSharedPreferences(mPreferences);
+		final Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				preferences.getInt(PREF_KEY, 0);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertThat(preferences.getStats().get(PREF_KEY).mainThreadReads, is(0L));
+	}
+
+	@Test
+	public void testExportAndReset() {
+		final InstrumentedSharedPreferences preferences = new InstrumentedSharedPreferences(mPreferences);
+		preferences.getInt(PREF_KEY, 0);
+		final String[] lines = preferences.export().split("\n");
+		assertThat(lines.length, is(2));
+		assertThat(lines[0], is(InstrumentedSharedPreferences.EXPORT_HEADER));
+		assertThat(lines[1].startsWith(PREF_KEY + ",1,"), is(true));
+		preferences.reset();
+		assertThat(preferences.getStats().isEmpty(), is(true));
+	}
+
+	@Test
+	public void testHistogramPercentile() {
+		final InstrumentedSharedPreferences.Histogram histogram = new InstrumentedSharedPreferences.Histogram(
+				new long[InstrumentedSharedPreferences.Histogram.BUCKET_COUNT]
+		);
+		assertThat(histogram.percentile(0.5), is(0L));
+		assertThat(InstrumentedSharedPreferences.Histogram.bucketFor(1024), is(0));
+		assertThat(InstrumentedSharedPreferences.Histogram.bucketFor(1025), is(1));
+		assertThat(InstrumentedSharedPreferences.Histogram.getBucketUpperBound(1), is(2048L));
+	}
+}
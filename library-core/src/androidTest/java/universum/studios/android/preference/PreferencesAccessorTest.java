@@ -0,0 +1,98 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.preference.annotation.PreferenceKey;
+import universum.studios.android.preference.annotation.PreferencesAccessor;
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests accessor generated by preferences-compiler for {@link TestSettings}.
+ *
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class PreferencesAccessorTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "PreferencesAccessorTest";
+
+	@PreferencesAccessor(className = "TestSettingsAccessor")
+	interface TestSettings {
+
+		@PreferenceKey("PREFERENCE.Accessor.FirstLaunch")
+		boolean FIRST_LAUNCH = true;
+
+		@PreferenceKey("PREFERENCE.Accessor.LaunchCount")
+		int LAUNCH_COUNT = 0;
+
+		@PreferenceKey("PREFERENCE.Accessor.UserName")
+		String USER_NAME = null;
+	}
+
+	private TestSettingsAccessor mAccessor;
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().clear().commit();
+		this.mAccessor = new TestSettingsAccessor(new SimpleSharedPreferencesFacade(mPreferences));
+	}
+
+	@Test
+	public void testKeys() {
+		assertThat(TestSettingsAccessor.KEY_FIRST_LAUNCH, is("PREFERENCE.Accessor.FirstLaunch"));
+		assertThat(TestSettingsAccessor.KEY_LAUNCH_COUNT, is("PREFERENCE.Accessor.LaunchCount"));
+		assertThat(TestSettingsAccessor.KEY_USER_NAME, is("PREFERENCE.Accessor.UserName"));
+	}
+
+	@Test
+	public void testGetDefaultValues() {
+		assertThat(mAccessor.isFirstLaunch(), is(true));
+		assertThat(mAccessor.getLaunchCount(), is(0));
+		assertThat(mAccessor.getUserName(), is(nullValue()));
+	}
+
+	@Test
+	public void testSetAndGet() {
+		assertThat(mAccessor.setLaunchCount(12), is(true));
+		assertThat(mAccessor.getLaunchCount(), is(12));
+		assertThat(mPreferences.getInt(TestSettingsAccessor.KEY_LAUNCH_COUNT, 0), is(12));
+		assertThat(mAccessor.removeLaunchCount(), is(true));
+		assertThat(mAccessor.getLaunchCount(), is(0));
+	}
+
+	@Test
+	public void testEditAndCommit() {
+		assertThat(mAccessor.edit().setFirstLaunch(false).setUserName("Joe").commit(), is(true));
+		assertThat(mAccessor.isFirstLaunch(), is(false));
+		assertThat(mAccessor.getUserName(), is("Joe"));
+		assertThat(mPreferences.contains(TestSettingsAccessor.KEY_LAUNCH_COUNT), is(false));
+	}
+}
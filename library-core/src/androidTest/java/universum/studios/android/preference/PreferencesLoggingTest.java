@@ -34,7 +34,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Martin Albedinsky
@@ -76,6 +78,33 @@ public final class PreferencesLoggingTest extends BaseInstrumentedTest {
 		assertThat(PreferencesLogging.getLogger(), is(logger));
 	}
 
+	@Test
+	public void testIsLoggable() {
+		assertThat(PreferencesLogging.isLoggable(TAG, Log.DEBUG), is(false));
+		PreferencesLogging.setLogger(new SimpleLogger(Log.DEBUG));
+		assertThat(PreferencesLogging.isLoggable(TAG, Log.VERBOSE), is(false));
+		assertThat(PreferencesLogging.isLoggable(TAG, Log.DEBUG), is(true));
+	}
+
+	@Test
+	public void testDWithPattern() {
+		PreferencesLogging.setLogger(mMockLogger);
+		when(mMockLogger.getLogLevel()).thenReturn(Log.DEBUG);
+		when(mMockLogger.isLoggable(TAG, Log.DEBUG)).thenReturn(true);
+		PreferencesLogging.d(TAG, "message.debug(%s)", "arg");
+		verify(mMockLogger, times(1)).d(TAG, "message.debug(arg)");
+		PreferencesLogging.d(TAG, "message.debug(%s, %s)", "arg1", 2);
+		verify(mMockLogger, times(1)).d(TAG, "message.debug(arg1, 2)");
+	}
+
+	@Test
+	public void testDWithPatternNotLoggable() {
+		PreferencesLogging.setLogger(mMockLogger);
+		when(mMockLogger.getLogLevel()).thenReturn(Log.ASSERT);
+		PreferencesLogging.d(TAG, "message.debug(%s)", "arg");
+		verify(mMockLogger, never()).d(TAG, "message.debug(arg)");
+	}
+
 	@Test
 	public void testV() {
 		PreferencesLogging.setLogger(mMockLogger);
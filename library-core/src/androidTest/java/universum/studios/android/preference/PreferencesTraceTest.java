@@ -0,0 +1,109 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class PreferencesTraceTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "PreferencesTraceTest";
+	private static final String PREF_KEY = "PREFERENCE.Trace";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Override
+	public void afterTest() throws Exception {
+		super.afterTest();
+		PreferencesTrace.stop();
+	}
+
+	@Test
+	public void testStopped() {
+		final SimpleSharedPreferencesFacade facade = new SimpleSharedPreferencesFacade(mPreferences);
+		facade.putInt(PREF_KEY, 1);
+		assertThat(PreferencesTrace.isRunning(), is(false));
+		assertThat(PreferencesTrace.begin(), is(0L));
+		assertThat(PreferencesTrace.entries().isEmpty(), is(true));
+	}
+
+	@Test
+	public void testRecordFacadeOperations() {
+		PreferencesTrace.start(PreferencesTrace.DEFAULT_CAPACITY);
+		final SimpleSharedPreferencesFacade facade = new SimpleSharedPreferencesFacade(mPreferences, "store");
+		facade.putInt(PREF_KEY, 1);
+		facade.getInt(PREF_KEY, 0);
+		final List<PreferencesTrace.Entry> entries = PreferencesTrace.entries();
+		assertThat(entries.size(), is(2));
+		assertThat(entries.get(0).layer, is(PreferencesTrace.LAYER_FACADE));
+		assertThat(entries.get(0).operation, is(PreferencesTrace.OP_WRITE));
+		assertThat(entries.get(0).store, is("store"));
+		assertThat(entries.get(0).keyHash, is(PREF_KEY.hashCode()));
+		assertThat(entries.get(0).threadId, is(Thread.currentThread().getId()));
+		assertThat(entries.get(1).operation, is(PreferencesTrace.OP_READ));
+	}
+
+	@Test
+	public void testKeepOnlyRecentOperations() {
+		PreferencesTrace.start(3);
+		for (int i = 0; i < 10; i++) {
+			final long startTime = PreferencesTrace.begin();
+			PreferencesTrace.end(PreferencesTrace.LAYER_MANAGER, PreferencesTrace.OP_READ, null, PREF_KEY, startTime);
+		}
+		final List<PreferencesTrace.Entry> entries = PreferencesTrace.entries();
+		assertThat(entries.size(), is(4));
+		assertThat(entries.get(0).sequence, is(6L));
+		assertThat(entries.get(3).sequence, is(9L));
+	}
+
+	@Test
+	public void testDump() {
+		PreferencesTrace.start(PreferencesTrace.DEFAULT_CAPACITY);
+		final long startTime = PreferencesTrace.begin();
+		PreferencesTrace.end(PreferencesTrace.LAYER_CACHE, PreferencesTrace.OP_EVICT, "store", PREF_KEY, startTime);
+		final String[] lines = PreferencesTrace.dump().split("\n");
+		assertThat(lines.length, is(2));
+		assertThat(lines[0], is(PreferencesTrace.DUMP_HEADER));
+		assertThat(lines[1].startsWith("0,"), is(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStartWithInvalidCapacity() {
+		PreferencesTrace.start(0);
+	}
+}
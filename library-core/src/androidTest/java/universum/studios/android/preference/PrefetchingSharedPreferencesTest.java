@@ -0,0 +1,110 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class PrefetchingSharedPreferencesTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "PrefetchingSharedPreferencesTest";
+	private static final String PREF_KEY = "PREFERENCE.Prefetched";
+	private static final String PROFILE_NAME = "test_prefetch_profile";
+	private static final Executor DIRECT_EXECUTOR = new Executor() {
+
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private SharedPreferences mProfile;
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		this.mProfile = mContext.getSharedPreferences(PROFILE_NAME, SharedPreferencesPolicy.MODE_PRIVATE);
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+		mProfile.edit().clear().commit();
+	}
+
+	@Test
+	public void testRecordAndSaveProfile() {
+		final PrefetchingSharedPreferences preferences = new PrefetchingSharedPreferences(mPreferences, mProfile, 60000);
+		preferences.getInt(PREF_KEY, 0);
+		preferences.saveProfile();
+		// Reads after the profile has been saved should not be recorded.
+		preferences.getString(PREF_KEY + ".Other", null);
+		final Set<String> entries = mProfile.getStringSet(PrefetchingSharedPreferences.PROFILE_KEY, null);
+		assertThat(entries.size(), is(1));
+		assertThat(entries.contains("i:" + PREF_KEY), is(true));
+	}
+
+	@Test
+	public void testPrefetch() {
+		mPreferences.edit().putInt(PREF_KEY, 10).commit();
+		final PrefetchingSharedPreferences recordingPreferences = new PrefetchingSharedPreferences(mPreferences, mProfile, 60000);
+		assertThat(recordingPreferences.getInt(PREF_KEY, 0), is(10));
+		recordingPreferences.saveProfile();
+		final PrefetchingSharedPreferences preferences = new PrefetchingSharedPreferences(mPreferences, mProfile, 0);
+		preferences.prefetch(DIRECT_EXECUTOR);
+		assertThat(preferences.getPrefetchedCount(), is(1));
+		assertThat(preferences.getInt(PREF_KEY, 0), is(10));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testPrefetchedValueOfDifferentType() {
+		mPreferences.edit().putInt(PREF_KEY, 10).commit();
+		mProfile.edit().putStringSet(PrefetchingSharedPreferences.PROFILE_KEY, Collections.singleton("i:" + PREF_KEY)).commit();
+		final PrefetchingSharedPreferences preferences = new PrefetchingSharedPreferences(mPreferences, mProfile, 0);
+		preferences.prefetch(DIRECT_EXECUTOR);
+		assertThat(preferences.getPrefetchedCount(), is(1));
+		// Prefetched int value should not be served for a long read.
+		preferences.getLong(PREF_KEY, 0);
+	}
+
+	@Test
+	public void testPrefetchedValuesDroppedOnEdit() {
+		mPreferences.edit().putInt(PREF_KEY, 10).commit();
+		mProfile.edit().putStringSet(PrefetchingSharedPreferences.PROFILE_KEY, Collections.singleton("i:" + PREF_KEY)).commit();
+		final PrefetchingSharedPreferences preferences = new PrefetchingSharedPreferences(mPreferences, mProfile, 0);
+		preferences.prefetch(DIRECT_EXECUTOR);
+		assertThat(preferences.edit().putInt(PREF_KEY, 20).commit(), is(true));
+		assertThat(preferences.getPrefetchedCount(), is(0));
+		assertThat(preferences.getInt(PREF_KEY, 0), is(20));
+	}
+}
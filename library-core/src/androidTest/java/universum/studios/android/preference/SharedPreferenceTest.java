@@ -111,6 +111,18 @@ public final class SharedPreferenceTest extends PreferencesTest {
 		assertThat(preference.getValue(), is("newValue"));
 	}
 
+	@Test
+	public void testStageIntoEditor() {
+		final SharedPreference<String> preference = new PreferenceImpl(PREF_KEY, PREF_DEF_VALUE);
+		assertThat(preference.updateValue("stagedValue"), is(preference));
+		final SharedPreferences.Editor editor = mPreferences.edit();
+		assertThat(preference.stageIntoEditor(mPreferences, editor), is(true));
+		// Staged value should not be persisted until the editor is committed.
+		assertThat(mPreferences.contains(PREF_KEY), is(false));
+		assertThat(editor.commit(), is(true));
+		assertThat(mPreferences.getString(PREF_KEY, null), is("stagedValue"));
+	}
+
 	@Test
 	public void testCreateOnChangeListener() {
 		final SharedPreference<String> preference = new PreferenceImpl(PREF_KEY, PREF_DEF_VALUE);
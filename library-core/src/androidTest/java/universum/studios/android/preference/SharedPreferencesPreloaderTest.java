@@ -0,0 +1,92 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import universum.studios.android.test.BaseInstrumentedTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class SharedPreferencesPreloaderTest extends BaseInstrumentedTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "SharedPreferencesPreloaderTest";
+	private static final String PREFERENCES_NAME = "test_preloaded_preferences";
+
+	@Test
+	public void testPreloadAndAwait() {
+		final SharedPreferencesPreloader preloader = new SharedPreferencesPreloader(mContext);
+		preloader.preload(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE);
+		final SharedPreferences preferences = preloader.await(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE);
+		assertThat(preferences == mContext.getSharedPreferences(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE), is(true));
+		assertThat(preloader.isLoaded(PREFERENCES_NAME), is(true));
+	}
+
+	@Test
+	public void testAwaitWithoutPreload() {
+		final SharedPreferencesPreloader preloader = new SharedPreferencesPreloader(mContext);
+		assertThat(preloader.isLoaded(PREFERENCES_NAME), is(false));
+		final SharedPreferences preferences = preloader.await(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE, 1, TimeUnit.SECONDS);
+		assertThat(preferences == mContext.getSharedPreferences(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE), is(true));
+		assertThat(preloader.isLoaded(PREFERENCES_NAME), is(true));
+	}
+
+	@Test
+	public void testAwaitWithTimeoutLoadsPendingPreload() {
+		final List<Runnable> pendingTasks = new ArrayList<>();
+		final SharedPreferencesPreloader preloader = new SharedPreferencesPreloader(mContext, new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				pendingTasks.add(command);
+			}
+		});
+		preloader.preload(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE);
+		assertThat(preloader.isLoaded(PREFERENCES_NAME), is(false));
+		final SharedPreferences preferences = preloader.await(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE, 10, TimeUnit.MILLISECONDS);
+		assertThat(preferences == mContext.getSharedPreferences(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE), is(true));
+		assertThat(preloader.isLoaded(PREFERENCES_NAME), is(true));
+		// Loading has already finished on the calling thread, so the pending task does nothing.
+		pendingTasks.get(0).run();
+		assertThat(preloader.isLoaded(PREFERENCES_NAME), is(true));
+	}
+
+	@Test
+	public void testFactory() {
+		final SharedPreferencesPreloader preloader = new SharedPreferencesPreloader(mContext);
+		preloader.preload(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE);
+		final SharedPreferencesFactory factory = preloader.factory(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE);
+		assertThat(factory.createPreferences(mContext) == mContext.getSharedPreferences(PREFERENCES_NAME, SharedPreferencesPolicy.MODE_PRIVATE), is(true));
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class SharedPreferencesSnapshotTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "SharedPreferencesSnapshotTest";
+	private static final String PREF_KEY = "PREFERENCE.Snapshot";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().clear().commit();
+	}
+
+	@Test
+	public void testCaptureValues() {
+		mPreferences.edit()
+				.putString(PREF_KEY + ".String", "value")
+				.putInt(PREF_KEY + ".Int", 10)
+				.putLong(PREF_KEY + ".Long", 1500000000000L)
+				.putFloat(PREF_KEY + ".Float", 0.5f)
+				.putBoolean(PREF_KEY + ".Boolean", true)
+				.commit();
+		final SharedPreferencesSnapshot snapshot = SharedPreferencesSnapshot.capture(mPreferences);
+		assertThat(snapshot.size(), is(5));
+		assertThat(snapshot.getString(PREF_KEY + ".String", null), is("value"));
+		assertThat(snapshot.getInt(PREF_KEY + ".Int", 0), is(10));
+		assertThat(snapshot.getLong(PREF_KEY + ".Long", 0), is(1500000000000L));
+		assertThat(snapshot.getFloat(PREF_KEY + ".Float", 0), is(0.5f));
+		assertThat(snapshot.getBoolean(PREF_KEY + ".Boolean", false), is(true));
+	}
+
+	@Test
+	public void testDefaultValues() {
+		final SharedPreferencesSnapshot snapshot = SharedPreferencesSnapshot.capture(mPreferences);
+		assertThat(snapshot.contains(PREF_KEY), is(false));
+		assertThat(snapshot.getString(PREF_KEY, null), is(nullValue()));
+		assertThat(snapshot.getInt(PREF_KEY, -1), is(-1));
+		assertThat(snapshot.getDouble(PREF_KEY, 0.25), is(0.25));
+	}
+
+	@Test
+	public void testSnapshotIsNotChangedByPreferences() {
+		mPreferences.edit().putInt(PREF_KEY, 1).commit();
+		final SharedPreferencesSnapshot snapshot = SharedPreferencesSnapshot.capture(mPreferences);
+		mPreferences.edit().putInt(PREF_KEY, 2).commit();
+		assertThat(snapshot.getInt(PREF_KEY, 0), is(1));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testGetValueOfDifferentType() {
+		mPreferences.edit().putInt(PREF_KEY, 1).commit();
+		SharedPreferencesSnapshot.capture(mPreferences).getString(PREF_KEY, null);
+	}
+}
@@ -78,6 +78,18 @@ public final class SimpleSharedPreferencesFacadeTest extends BaseInstrumentedTes
 		assertThat(mFacade.getPreferences(), is(mMockPreferences));
 	}
 
+	@Test
+	public void testEdit() {
+		when(mMockPreferencesEditor.putInt(PREF_KEY, 1)).thenReturn(mMockPreferencesEditor);
+		when(mMockPreferencesEditor.putString(PREF_KEY + ".Other", "Universe")).thenReturn(mMockPreferencesEditor);
+		when(mMockPreferencesEditor.commit()).thenReturn(true);
+		assertThat(mFacade.edit().putInt(PREF_KEY, 1).putString(PREF_KEY + ".Other", "Universe").commit(), is(true));
+		verify(mMockPreferences, times(1)).edit();
+		verify(mMockPreferencesEditor, times(1)).putInt(PREF_KEY, 1);
+		verify(mMockPreferencesEditor, times(1)).putString(PREF_KEY + ".Other", "Universe");
+		verify(mMockPreferencesEditor, times(1)).commit();
+	}
+
 	@Test
 	public void testRegisterOnSharedPreferenceChangeListener() {
 		final SharedPreferences.OnSharedPreferenceChangeListener mockListener = mock(SharedPreferences.OnSharedPreferenceChangeListener.class);
@@ -178,6 +190,21 @@ public final class SimpleSharedPreferencesFacadeTest extends BaseInstrumentedTes
 		verify(mMockPreferences, times(1)).getFloat(PREF_KEY, 0.55f);
 	}
 
+	@Test
+	public void testPutDouble() {
+		when(mMockPreferencesEditor.putLong(PREF_KEY, Double.doubleToRawLongBits(-14.56))).thenReturn(mMockPreferencesEditor);
+		mFacade.putDouble(PREF_KEY, -14.56);
+		verify(mMockPreferences, times(1)).edit();
+		verify(mMockPreferencesEditor, times(1)).putLong(PREF_KEY, Double.doubleToRawLongBits(-14.56));
+		verify(mMockPreferencesEditor, times(1)).commit();
+	}
+
+	@Test
+	public void testGetDouble() {
+		mFacade.getDouble(PREF_KEY, 0.55);
+		verify(mMockPreferences, times(1)).getLong(PREF_KEY, Double.doubleToRawLongBits(0.55));
+	}
+
 	@Test
 	public void testPutBoolean() {
 		when(mMockPreferencesEditor.putBoolean(PREF_KEY, true)).thenReturn(mMockPreferencesEditor);
@@ -0,0 +1,92 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.test.PreferencesTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class WatchdogSharedPreferencesTest extends PreferencesTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "WatchdogSharedPreferencesTest";
+	private static final String PREF_KEY = "PREFERENCE.Watchdog";
+
+	@Override
+	public void beforeTest() throws Exception {
+		super.beforeTest();
+		// Ensure that we have a clean slate before each test.
+		mPreferences.edit().remove(PREF_KEY).commit();
+	}
+
+	@Test
+	public void testDetectOnMainThread() {
+		final WatchdogSharedPreferences preferences = new WatchdogSharedPreferences(mPreferences, WatchdogSharedPreferences.DETECT_ALL);
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+
+			@Override
+			public void run() {
+				preferences.getInt(PREF_KEY, 0);
+				preferences.getInt(PREF_KEY, 0);
+				preferences.edit().putInt(PREF_KEY, 1).commit();
+			}
+		});
+		// Wrapped preferences are already loaded, so only the commit should be reported.
+		assertThat(preferences.getViolationsCount(), is(1));
+		assertThat(mPreferences.getInt(PREF_KEY, 0), is(1));
+	}
+
+	@Test
+	public void testDetectOffMainThread() {
+		final WatchdogSharedPreferences preferences = new WatchdogSharedPreferences(mPreferences, WatchdogSharedPreferences.DETECT_ALL);
+		preferences.getInt(PREF_KEY, 0);
+		assertThat(preferences.edit().putInt(PREF_KEY, 1).commit(), is(true));
+		assertThat(preferences.getViolationsCount(), is(0));
+	}
+
+	@Test
+	public void testDowngradeCommits() {
+		final WatchdogSharedPreferences preferences = new WatchdogSharedPreferences(
+				mPreferences,
+				WatchdogSharedPreferences.DETECT_COMMITS | WatchdogSharedPreferences.DOWNGRADE_COMMITS
+		);
+		final boolean[] result = new boolean[1];
+		InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+
+			@Override
+			public void run() {
+				result[0] = preferences.edit().putInt(PREF_KEY, 2).commit();
+			}
+		});
+		assertThat(result[0], is(true));
+		assertThat(preferences.getViolationsCount(), is(1));
+		assertThat(mPreferences.getInt(PREF_KEY, 0), is(2));
+	}
+}
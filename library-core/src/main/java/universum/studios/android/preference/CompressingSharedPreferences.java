@@ -0,0 +1,501 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Base64;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link SharedPreferencesWrapper} implementation which transparently compresses large String
+ * values persisted in the wrapped shared preferences.
+ * <p>
+ * String values with length above the threshold specified for these preferences are compressed via
+ * {@link Deflater}, encoded into Base64 and persisted with {@link #COMPRESSED_VALUE_PREFIX}. Such
+ * values are decompressed whenever obtained via {@link #getString(String, String)} or {@link #getAll()}.
+ * A value is persisted compressed only if it is actually shorter when compressed, except values which
+ * already start with the prefix and are thus always compressed so they cannot be mistaken for compressed
+ * values. Sets of Strings and values of other types are persisted as they are.
+ * <p>
+ * A {@link SharedPreferencesCache} may be specified for these preferences, in which case each
+ * decompressed value is stored in that cache, so it is decompressed only once until it is changed.
+ * The cached values are evicted whenever they are changed, either via editor of these preferences
+ * once the changes are committed or applied, or directly via the wrapped preferences. The cache is
+ * shared by {@link #getString(String, String)} and {@link #getAll()}. <b>Note</b>, that the cache is
+ * accessed only while holding its lock, so it does not need to be thread-safe on its own.
+ * <p>
+ * These preferences may be used to persist for example values of {@link SharedPreference SharedPreferences}
+ * holding large JSON strings or arrays by passing them to {@link SharedPreference#putIntoPreferences(SharedPreferences)}
+ * and {@link SharedPreference#getFromPreferences(SharedPreferences)}.
+ *
+ * @author Martin Albedinsky
+ */
+public final class CompressingSharedPreferences extends SharedPreferencesWrapper {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "CompressingSharedPreferences";
+
+	/**
+	 * Prefix of compressed String values persisted in the wrapped preferences.
+	 */
+	public static final String COMPRESSED_VALUE_PREFIX = "~deflate:";
+
+	/**
+	 * Default length of String values above which are such values compressed.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1024;
+
+	/**
+	 * Name of the charset used to convert String values to and from bytes.
+	 */
+	private static final String CHARSET_NAME = "UTF-8";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Length of String values above which are such values compressed.
+	 */
+	private final int mThreshold;
+
+	/**
+	 * Cache used to store decompressed values. May be {@code null}.
+	 */
+	private final SharedPreferencesCache mCache;
+
+	/**
+	 * Count of invalidations of the cache used to prevent caching of values which have been changed
+	 * while being decompressed.
+	 */
+	private int mCacheGeneration;
+
+	/**
+	 * Listener evicting values changed in the wrapped preferences from the cache. The listener is
+	 * referenced here as the wrapped preferences hold only weak references to theirs listeners.
+	 */
+	private final OnSharedPreferenceChangeListener mCacheInvalidator = new OnSharedPreferenceChangeListener() {
+
+		/**
+		 */
+		@Override
+		public void onSharedPreferenceChanged(final SharedPreferences preferences, final String key) {
+			invalidateCachedValue(key);
+		}
+	};
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #CompressingSharedPreferences(SharedPreferences, int, SharedPreferencesCache)}
+	 * with {@link #DEFAULT_THRESHOLD} and without cache.
+	 */
+	public CompressingSharedPreferences(@NonNull final SharedPreferences preferences) {
+		this(preferences, DEFAULT_THRESHOLD, null);
+	}
+
+	/**
+	 * Creates a new instance of CompressingSharedPreferences for the given <var>preferences</var>.
+	 *
+	 * @param preferences The shared preferences to be wrapped.
+	 * @param threshold   Length of String values above which should be such values compressed.
+	 * @param cache       Cache used to store decompressed values. May be {@code null} to decompress
+	 *                    values whenever they are obtained.
+	 * @throws IllegalArgumentException If the threshold is negative.
+	 */
+	public CompressingSharedPreferences(
+			@NonNull final SharedPreferences preferences,
+			final int threshold,
+			@Nullable final SharedPreferencesCache cache
+	) {
+		super(preferences);
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Threshold(" + threshold + ") cannot be negative.");
+		}
+		this.mThreshold = threshold;
+		this.mCache = cache;
+		if (cache != null) {
+			preferences.registerOnSharedPreferenceChangeListener(mCacheInvalidator);
+		}
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns the length of String values above which are such values compressed.
+	 *
+	 * @return Threshold specified for these preferences.
+	 */
+	public int getThreshold() {
+		return mThreshold;
+	}
+
+	/**
+	 * Evicts value for the specified <var>key</var> from the cache, if any.
+	 *
+	 * @param key The key of which value to evict. May be {@code null} to evict all values.
+	 */
+	void invalidateCachedValue(final String key) {
+		if (mCache != null) {
+			synchronized (mCache) {
+				this.mCacheGeneration++;
+				if (key == null) mCache.evictAll();
+				else mCache.evict(key);
+			}
+		}
+	}
+
+	/**
+	 */
+	@Override
+	public Map<String, ?> getAll() {
+		final int generation;
+		if (mCache == null) {
+			generation = 0;
+		} else {
+			synchronized (mCache) {
+				generation = mCacheGeneration;
+			}
+		}
+		final Map<String, ?> values = super.getAll();
+		final Map<String, Object> decodedValues = new HashMap<>(values.size());
+		for (final Map.Entry<String, ?> entry : values.entrySet()) {
+			final String key = entry.getKey();
+			final Object value = entry.getValue();
+			if (!(value instanceof String) || !((String) value).startsWith(COMPRESSED_VALUE_PREFIX)) {
+				decodedValues.put(key, value);
+				continue;
+			}
+			String decompressedValue = null;
+			if (mCache != null) {
+				synchronized (mCache) {
+					if (generation == mCacheGeneration && mCache.contains(key)) {
+						decompressedValue = mCache.getString(key);
+					}
+				}
+			}
+			if (decompressedValue == null) {
+				decompressedValue = decompressIntoCache(key, (String) value, generation);
+			}
+			decodedValues.put(key, decompressedValue);
+		}
+		return decodedValues;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		final int generation;
+		if (mCache == null) {
+			generation = 0;
+		} else {
+			synchronized (mCache) {
+				if (mCache.contains(key)) {
+					return mCache.getString(key);
+				}
+				generation = mCacheGeneration;
+			}
+		}
+		final String value = super.getString(key, defValue);
+		if (value == null || value == defValue || !value.startsWith(COMPRESSED_VALUE_PREFIX)) {
+			return value;
+		}
+		return decompressIntoCache(key, value, generation);
+	}
+
+	/**
+	 */
+	@NonNull
+	@Override
+	public Editor edit() {
+		return new CompressingEditor(super.edit());
+	}
+
+	/**
+	 * Decompresses the given compressed <var>value</var> and stores it into the cache, if any, unless
+	 * the cache has been invalidated since the specified <var>generation</var>.
+	 *
+	 * @param key        The key for which is the value persisted.
+	 * @param value      The value starting with {@link #COMPRESSED_VALUE_PREFIX}.
+	 * @param generation Generation of the cache before the value has been obtained.
+	 * @return Decompressed value.
+	 */
+	private String decompressIntoCache(final String key, final String value, final int generation) {
+		final String decompressedValue = decompress(key, value);
+		if (mCache != null) {
+			synchronized (mCache) {
+				if (generation == mCacheGeneration) {
+					mCache.putString(key, decompressedValue);
+				}
+			}
+		}
+		return decompressedValue;
+	}
+
+	/**
+	 * Compresses the given <var>value</var> if its length is above the threshold of these preferences
+	 * and its compressed representation is shorter, or if it starts with {@link #COMPRESSED_VALUE_PREFIX}.
+	 *
+	 * @param value The value to be encoded.
+	 * @return Compressed or the same value.
+	 */
+	String encode(final String value) {
+		if (value == null) {
+			return null;
+		}
+		final boolean prefixed = value.startsWith(COMPRESSED_VALUE_PREFIX);
+		if (value.length() <= mThreshold && !prefixed) {
+			return value;
+		}
+		final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(toBytes(value));
+			deflater.finish();
+			final ByteArrayOutputStream output = new ByteArrayOutputStream(value.length() / 4 + 16);
+			final byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				output.write(buffer, 0, deflater.deflate(buffer));
+			}
+			final String compressedValue = COMPRESSED_VALUE_PREFIX + Base64.encodeToString(output.toByteArray(), Base64.NO_WRAP);
+			return prefixed || compressedValue.length() < value.length() ? compressedValue : value;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Decompresses the given compressed <var>value</var>.
+	 *
+	 * @param key   The key for which is the value persisted.
+	 * @param value The value starting with {@link #COMPRESSED_VALUE_PREFIX}.
+	 * @return Decompressed value.
+	 * @throws IllegalStateException If the value cannot be decompressed.
+	 */
+	private static String decompress(final String key, final String value) {
+		final Inflater inflater = new Inflater(true);
+		try {
+			final byte[] input = Base64.decode(value.substring(COMPRESSED_VALUE_PREFIX.length()), Base64.NO_WRAP);
+			// Inflater without header needs an extra byte at the end of its input.
+			final byte[] paddedInput = new byte[input.length + 1];
+			System.arraycopy(input, 0, paddedInput, 0, input.length);
+			inflater.setInput(paddedInput);
+			final ByteArrayOutputStream output = new ByteArrayOutputStream(input.length * 4);
+			final byte[] buffer = new byte[4096];
+			while (!inflater.finished()) {
+				final int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new DataFormatException("Unexpected end of compressed data.");
+				}
+				output.write(buffer, 0, length);
+			}
+			return new String(output.toByteArray(), CHARSET_NAME);
+		} catch (IllegalArgumentException | DataFormatException | UnsupportedEncodingException e) {
+			throw new IllegalStateException("Failed to decompress value for the key(" + key + ").", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Converts the given <var>value</var> into UTF-8 bytes.
+	 */
+	private static byte[] toBytes(final String value) {
+		try {
+			return value.getBytes(CHARSET_NAME);
+		} catch (UnsupportedEncodingException e) {
+			// UTF-8 is always supported.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Editor which compresses String values and evicts changed values from the cache once they are
+	 * committed or applied.
+	 */
+	private final class CompressingEditor implements Editor {
+
+		/**
+		 * Editor of the wrapped preferences.
+		 */
+		private final Editor editor;
+
+		/**
+		 * Keys of values changed via this editor. Used only if the cache is specified.
+		 */
+		private final Set<String> changedKeys = new HashSet<>();
+
+		/**
+		 * Boolean flag indicating whether {@link #clear()} has been called upon this editor.
+		 */
+		private boolean cleared;
+
+		/**
+		 * Creates a new instance of CompressingEditor for the given <var>editor</var>.
+		 */
+		CompressingEditor(final Editor editor) {
+			this.editor = editor;
+		}
+
+		/**
+		 * Records change of value for the specified <var>key</var>.
+		 */
+		private void onValueChanged(final String key) {
+			if (mCache != null) changedKeys.add(key);
+		}
+
+		/**
+		 * Evicts values changed via this editor from the cache.
+		 */
+		private void invalidateChangedValues() {
+			if (cleared) {
+				invalidateCachedValue(null);
+			} else {
+				for (final String key : changedKeys) {
+					invalidateCachedValue(key);
+				}
+			}
+			changedKeys.clear();
+			this.cleared = false;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putString(final String key, @Nullable final String value) {
+			this.onValueChanged(key);
+			editor.putString(key, encode(value));
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putStringSet(final String key, @Nullable final Set<String> values) {
+			this.onValueChanged(key);
+			editor.putStringSet(key, values);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putInt(final String key, final int value) {
+			this.onValueChanged(key);
+			editor.putInt(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putLong(final String key, final long value) {
+			this.onValueChanged(key);
+			editor.putLong(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putFloat(final String key, final float value) {
+			this.onValueChanged(key);
+			editor.putFloat(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putBoolean(final String key, final boolean value) {
+			this.onValueChanged(key);
+			editor.putBoolean(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor remove(final String key) {
+			this.onValueChanged(key);
+			editor.remove(key);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor clear() {
+			this.cleared = true;
+			editor.clear();
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean commit() {
+			final boolean result = editor.commit();
+			this.invalidateChangedValues();
+			return result;
+		}
+
+		/**
+		 */
+		@Override
+		public void apply() {
+			editor.apply();
+			this.invalidateChangedValues();
+		}
+	}
+}
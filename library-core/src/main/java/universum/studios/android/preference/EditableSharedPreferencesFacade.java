@@ -0,0 +1,48 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+
+/**
+ * A {@link SharedPreferencesFacade} which may also persist changes of multiple values at once via
+ * an editor obtained via {@link #edit()}.
+ * <p>
+ * Changes made via such editor are treated by the facade in the same way as changes made via its
+ * put and remove methods, so callers that need to persist multiple values at once should prefer this
+ * editor over an editor obtained directly from the preferences hidden behind the facade.
+ *
+ * @author Martin Albedinsky
+ * @see SimpleSharedPreferencesFacade
+ */
+public interface EditableSharedPreferencesFacade extends SharedPreferencesFacade {
+
+	/**
+	 * Creates a new editor for the {@code SharedPreferences} hidden behind this facade.
+	 * <p>
+	 * All changes made via the returned editor are persisted at once via its {@link SharedPreferences.Editor#commit()}
+	 * or {@link SharedPreferences.Editor#apply()}.
+	 *
+	 * @return Editor that may be used to change multiple values at once.
+	 * @see SharedPreferences#edit()
+	 */
+	@NonNull
+	SharedPreferences.Editor edit();
+}
@@ -0,0 +1,694 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link SharedPreferencesWrapper} implementation which records statistics about reads and writes
+ * of values for each key. The following statistics are recorded for each key:
+ * <ul>
+ * <li>count of reads and writes along with count of those performed on the main thread,</li>
+ * <li>total estimated size of read and written values,</li>
+ * <li>histograms of latencies of <b>cold</b> (the first read of a key) and <b>warm</b> reads,</li>
+ * <li>histograms of latencies of commits and applies of editors that changed a key.</li>
+ * </ul>
+ * Immutable snapshot of the recorded statistics may be obtained via {@link #getStats()} or exported
+ * into CSV format via {@link #export()}.
+ * <p>
+ * Note that recording of the statistics adds a small overhead to each read and write, so these
+ * preferences are intended to be used only in debug builds or for profiling.
+ *
+ * @author Martin Albedinsky
+ * @see KeyStats
+ */
+public final class InstrumentedSharedPreferences extends SharedPreferencesWrapper {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "InstrumentedSharedPreferences";
+
+	/**
+	 * Header of statistics exported via {@link #export()}.
+	 */
+	static final String EXPORT_HEADER = "key,reads,mainThreadReads,writes,mainThreadWrites,commits,applies," +
+			"readBytes,writtenBytes,coldReadP50Nanos,warmReadP50Nanos,commitP50Nanos,commitP99Nanos,applyP50Nanos";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Counters of statistics mapped to keys.
+	 */
+	private final Map<String, KeyCounters> mCounters = new ConcurrentHashMap<>();
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of InstrumentedSharedPreferences in order to wrap and instrument the
+	 * given <var>preferences</var>.
+	 *
+	 * @param preferences The shared preferences to be wrapped.
+	 */
+	public InstrumentedSharedPreferences(@NonNull final SharedPreferences preferences) {
+		super(preferences);
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns counters for the specified <var>key</var>, creating them if there are no counters yet.
+	 */
+	private KeyCounters counters(final String key) {
+		KeyCounters counters = mCounters.get(key);
+		if (counters == null) {
+			synchronized (mCounters) {
+				counters = mCounters.get(key);
+				if (counters == null) {
+					counters = new KeyCounters();
+					mCounters.put(key, counters);
+				}
+			}
+		}
+		return counters;
+	}
+
+	/**
+	 * Records read of the given <var>value</var> for the specified <var>key</var> which has been
+	 * started at the specified <var>startTime</var>.
+	 */
+	private void recordRead(final String key, final long startTime, final Object value) {
+		final long latency = System.nanoTime() - startTime;
+		final KeyCounters counters = counters(key);
+		final long reads = counters.reads.incrementAndGet();
+		if (PreferencesThreads.isMainThread()) {
+			counters.mainThreadReads.incrementAndGet();
+		}
+		counters.readBytes.addAndGet(estimateSize(value));
+		(reads == 1 ? counters.coldReads : counters.warmReads).record(latency);
+	}
+
+	/**
+	 * Estimates size of the given <var>value</var> in bytes as persisted in shared preferences.
+	 *
+	 * @param value The value of which size to estimate.
+	 * @return Estimated size in bytes.
+	 */
+	static long estimateSize(@Nullable final Object value) {
+		if (value instanceof String) {
+			return 2L * ((String) value).length();
+		}
+		if (value instanceof Set) {
+			long size = 0;
+			for (final Object item : (Set<?>) value) {
+				size += estimateSize(item);
+			}
+			return size;
+		}
+		if (value instanceof Long) {
+			return 8;
+		}
+		if (value instanceof Integer || value instanceof Float) {
+			return 4;
+		}
+		return value instanceof Boolean ? 1 : 0;
+	}
+
+	/**
+	 */
+	@Override
+	public boolean contains(@NonNull final String key) {
+		final long startTime = System.nanoTime();
+		final boolean contains = super.contains(key);
+		this.recordRead(key, startTime, null);
+		return contains;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		final long startTime = System.nanoTime();
+		final String value = super.getString(key, defValue);
+		this.recordRead(key, startTime, value);
+		return value;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public Set<String> getStringSet(@NonNull final String key, @Nullable final Set<String> defValues) {
+		final long startTime = System.nanoTime();
+		final Set<String> values = super.getStringSet(key, defValues);
+		this.recordRead(key, startTime, values);
+		return values;
+	}
+
+	/**
+	 */
+	@Override
+	public int getInt(@NonNull final String key, final int defValue) {
+		final long startTime = System.nanoTime();
+		final int value = super.getInt(key, defValue);
+		this.recordRead(key, startTime, value);
+		return value;
+	}
+
+	/**
+	 */
+	@Override
+	public long getLong(@NonNull final String key, final long defValue) {
+		final long startTime = System.nanoTime();
+		final long value = super.getLong(key, defValue);
+		this.recordRead(key, startTime, value);
+		return value;
+	}
+
+	/**
+	 */
+	@Override
+	public float getFloat(@NonNull final String key, final float defValue) {
+		final long startTime = System.nanoTime();
+		final float value = super.getFloat(key, defValue);
+		this.recordRead(key, startTime, value);
+		return value;
+	}
+
+	/**
+	 */
+	@Override
+	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
+		final long startTime = System.nanoTime();
+		final boolean value = super.getBoolean(key, defValue);
+		this.recordRead(key, startTime, value);
+		return value;
+	}
+
+	/**
+	 */
+	@NonNull
+	@Override
+	public Editor edit() {
+		return new InstrumentedEditor(super.edit());
+	}
+
+	/**
+	 * Records write of values for the specified <var>keys</var> via commit or apply that took the
+	 * specified <var>latency</var>.
+	 */
+	void recordWrite(final Map<String, Long> sizes, final boolean commit, final long latency) {
+		final boolean mainThread = PreferencesThreads.isMainThread();
+		for (final Map.Entry<String, Long> entry : sizes.entrySet()) {
+			final KeyCounters counters = counters(entry.getKey());
+			counters.writes.incrementAndGet();
+			if (mainThread) {
+				counters.mainThreadWrites.incrementAndGet();
+			}
+			counters.writtenBytes.addAndGet(entry.getValue());
+			(commit ? counters.commits : counters.applies).record(latency);
+		}
+	}
+
+	/**
+	 * Returns immutable snapshot of statistics recorded so far.
+	 *
+	 * @return Statistics mapped to keys for which they have been recorded.
+	 * @see #export()
+	 */
+	@NonNull
+	public Map<String, KeyStats> getStats() {
+		final Map<String, KeyStats> stats = new HashMap<>(mCounters.size());
+		for (final Map.Entry<String, KeyCounters> entry : mCounters.entrySet()) {
+			stats.put(entry.getKey(), new KeyStats(entry.getKey(), entry.getValue()));
+		}
+		return Collections.unmodifiableMap(stats);
+	}
+
+	/**
+	 * Exports statistics recorded so far in CSV format with a header line, one line per key.
+	 *
+	 * @return Exported statistics.
+	 * @see #getStats()
+	 */
+	@NonNull
+	public String export() {
+		final StringBuilder builder = new StringBuilder(EXPORT_HEADER.length() * (mCounters.size() + 1));
+		builder.append(EXPORT_HEADER);
+		for (final KeyStats stats : getStats().values()) {
+			builder.append('\n').append(stats.key.replace(',', '_')).append(',')
+					.append(stats.reads).append(',')
+					.append(stats.mainThreadReads).append(',')
+					.append(stats.writes).append(',')
+					.append(stats.mainThreadWrites).append(',')
+					.append(stats.commitLatency.getCount()).append(',')
+					.append(stats.applyLatency.getCount()).append(',')
+					.append(stats.readBytes).append(',')
+					.append(stats.writtenBytes).append(',')
+					.append(stats.coldReadLatency.percentile(0.5)).append(',')
+					.append(stats.warmReadLatency.percentile(0.5)).append(',')
+					.append(stats.commitLatency.percentile(0.5)).append(',')
+					.append(stats.commitLatency.percentile(0.99)).append(',')
+					.append(stats.applyLatency.percentile(0.5));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Clears all statistics recorded so far.
+	 */
+	public void reset() {
+		mCounters.clear();
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Immutable snapshot of statistics recorded for a single key.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class KeyStats {
+
+		/**
+		 * Key for which have been the statistics recorded.
+		 */
+		public final String key;
+
+		/**
+		 * Count of reads of a value for the key.
+		 */
+		public final long reads;
+
+		/**
+		 * Count of reads performed on the main thread.
+		 */
+		public final long mainThreadReads;
+
+		/**
+		 * Count of writes of a value for the key.
+		 */
+		public final long writes;
+
+		/**
+		 * Count of writes performed on the main thread.
+		 */
+		public final long mainThreadWrites;
+
+		/**
+		 * Total estimated size of read values in bytes.
+		 */
+		public final long readBytes;
+
+		/**
+		 * Total estimated size of written values in bytes.
+		 */
+		public final long writtenBytes;
+
+		/**
+		 * Latencies of the first read of a value for the key.
+		 */
+		public final Histogram coldReadLatency;
+
+		/**
+		 * Latencies of all subsequent reads of a value for the key.
+		 */
+		public final Histogram warmReadLatency;
+
+		/**
+		 * Latencies of commits of editors which changed value for the key.
+		 */
+		public final Histogram commitLatency;
+
+		/**
+		 * Latencies of applies of editors which changed value for the key.
+		 */
+		public final Histogram applyLatency;
+
+		/**
+		 * Creates a new instance of KeyStats with snapshot of the given <var>counters</var>.
+		 */
+		KeyStats(final String key, final KeyCounters counters) {
+			this.key = key;
+			this.reads = counters.reads.get();
+			this.mainThreadReads = counters.mainThreadReads.get();
+			this.writes = counters.writes.get();
+			this.mainThreadWrites = counters.mainThreadWrites.get();
+			this.readBytes = counters.readBytes.get();
+			this.writtenBytes = counters.writtenBytes.get();
+			this.coldReadLatency = counters.coldReads.snapshot();
+			this.warmReadLatency = counters.warmReads.snapshot();
+			this.commitLatency = counters.commits.snapshot();
+			this.applyLatency = counters.applies.snapshot();
+		}
+	}
+
+	/**
+	 * Immutable histogram of latencies with exponential buckets. Upper bound of the first bucket is
+	 * {@code 1024} nanoseconds and each subsequent bucket doubles it. The last bucket contains all
+	 * latencies exceeding upper bound of the preceding bucket.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class Histogram {
+
+		/**
+		 * Count of buckets of each histogram.
+		 */
+		public static final int BUCKET_COUNT = 18;
+
+		/**
+		 * Exponent of upper bound of the first bucket.
+		 */
+		private static final int FIRST_BUCKET_SHIFT = 10;
+
+		/**
+		 * Counts of latencies within each bucket.
+		 */
+		private final long[] counts;
+
+		/**
+		 * Total count of latencies.
+		 */
+		private final long count;
+
+		/**
+		 * Creates a new instance of Histogram with the given bucket <var>counts</var>.
+		 */
+		Histogram(final long[] counts) {
+			this.counts = counts;
+			long count = 0;
+			for (final long bucketCount : counts) {
+				count += bucketCount;
+			}
+			this.count = count;
+		}
+
+		/**
+		 * Returns index of bucket for the specified <var>latency</var>.
+		 */
+		static int bucketFor(final long latency) {
+			final int bits = 64 - Long.numberOfLeadingZeros(Math.max(0, latency - 1));
+			return Math.min(Math.max(0, bits - FIRST_BUCKET_SHIFT), BUCKET_COUNT - 1);
+		}
+
+		/**
+		 * Returns upper bound of latencies within bucket at the specified <var>index</var>.
+		 *
+		 * @param index Index of the desired bucket.
+		 * @return Upper bound in nanoseconds or {@link Long#MAX_VALUE} for the last bucket.
+		 */
+		public static long getBucketUpperBound(final int index) {
+			return index >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << (FIRST_BUCKET_SHIFT + index);
+		}
+
+		/**
+		 * Returns count of latencies within bucket at the specified <var>index</var>.
+		 *
+		 * @param index Index of the desired bucket.
+		 * @return Count of latencies.
+		 */
+		public long getCount(final int index) {
+			return counts[index];
+		}
+
+		/**
+		 * Returns total count of latencies within this histogram.
+		 *
+		 * @return Count of all recorded latencies.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns approximate latency below which falls the specified <var>fraction</var> of all
+		 * latencies.
+		 *
+		 * @param fraction The desired fraction from the range {@code [0.0, 1.0]}.
+		 * @return Upper bound of bucket containing the percentile in nanoseconds or {@code 0} if
+		 * this histogram is empty.
+		 */
+		public long percentile(final double fraction) {
+			if (count == 0) {
+				return 0;
+			}
+			final long target = Math.max(1, (long) Math.ceil(count * fraction));
+			long cumulative = 0;
+			for (int i = 0; i < counts.length; i++) {
+				cumulative += counts[i];
+				if (cumulative >= target) {
+					return getBucketUpperBound(i);
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Mutable histogram of latencies recorded concurrently.
+	 */
+	private static final class LatencyCounter {
+
+		/**
+		 * Counts of latencies within each bucket.
+		 */
+		final AtomicLongArray counts = new AtomicLongArray(Histogram.BUCKET_COUNT);
+
+		/**
+		 * Records the specified <var>latency</var>.
+		 */
+		void record(final long latency) {
+			counts.incrementAndGet(Histogram.bucketFor(latency));
+		}
+
+		/**
+		 * Creates immutable snapshot of this counter.
+		 */
+		Histogram snapshot() {
+			final long[] snapshot = new long[Histogram.BUCKET_COUNT];
+			for (int i = 0; i < snapshot.length; i++) {
+				snapshot[i] = counts.get(i);
+			}
+			return new Histogram(snapshot);
+		}
+	}
+
+	/**
+	 * Counters of statistics recorded for a single key.
+	 */
+	private static final class KeyCounters {
+
+		/**
+		 * Count of reads.
+		 */
+		final AtomicLong reads = new AtomicLong();
+
+		/**
+		 * Count of reads performed on the main thread.
+		 */
+		final AtomicLong mainThreadReads = new AtomicLong();
+
+		/**
+		 * Count of writes.
+		 */
+		final AtomicLong writes = new AtomicLong();
+
+		/**
+		 * Count of writes performed on the main thread.
+		 */
+		final AtomicLong mainThreadWrites = new AtomicLong();
+
+		/**
+		 * Total estimated size of read values in bytes.
+		 */
+		final AtomicLong readBytes = new AtomicLong();
+
+		/**
+		 * Total estimated size of written values in bytes.
+		 */
+		final AtomicLong writtenBytes = new AtomicLong();
+
+		/**
+		 * Latencies of the first read.
+		 */
+		final LatencyCounter coldReads = new LatencyCounter();
+
+		/**
+		 * Latencies of subsequent reads.
+		 */
+		final LatencyCounter warmReads = new LatencyCounter();
+
+		/**
+		 * Latencies of commits.
+		 */
+		final LatencyCounter commits = new LatencyCounter();
+
+		/**
+		 * Latencies of applies.
+		 */
+		final LatencyCounter applies = new LatencyCounter();
+	}
+
+	/**
+	 * Editor which records keys and sizes of changed values and latency of commit or apply.
+	 */
+	private final class InstrumentedEditor implements Editor {
+
+		/**
+		 * Editor of the wrapped preferences.
+		 */
+		private final Editor editor;
+
+		/**
+		 * Estimated sizes of changed values mapped to theirs keys.
+		 */
+		private final Map<String, Long> sizes = new HashMap<>();
+
+		/**
+		 * Creates a new instance of InstrumentedEditor for the given <var>editor</var>.
+		 */
+		InstrumentedEditor(final Editor editor) {
+			this.editor = editor;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putString(final String key, @Nullable final String value) {
+			editor.putString(key, value);
+			sizes.put(key, estimateSize(value));
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putStringSet(final String key, @Nullable final Set<String> values) {
+			editor.putStringSet(key, values);
+			sizes.put(key, estimateSize(values));
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putInt(final String key, final int value) {
+			editor.putInt(key, value);
+			sizes.put(key, 4L);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putLong(final String key, final long value) {
+			editor.putLong(key, value);
+			sizes.put(key, 8L);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putFloat(final String key, final float value) {
+			editor.putFloat(key, value);
+			sizes.put(key, 4L);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putBoolean(final String key, final boolean value) {
+			editor.putBoolean(key, value);
+			sizes.put(key, 1L);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor remove(final String key) {
+			editor.remove(key);
+			sizes.put(key, 0L);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor clear() {
+			editor.clear();
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean commit() {
+			final long startTime = System.nanoTime();
+			final boolean result = editor.commit();
+			recordWrite(sizes, true, System.nanoTime() - startTime);
+			sizes.clear();
+			return result;
+		}
+
+		/**
+		 */
+		@Override
+		public void apply() {
+			final long startTime = System.nanoTime();
+			editor.apply();
+			recordWrite(sizes, false, System.nanoTime() - startTime);
+			sizes.clear();
+		}
+	}
+}
@@ -33,6 +33,11 @@ import universum.studios.android.logging.SimpleLogger;
  * <p>
  * Default logger used by this class has specified {@link Log#ASSERT} log level which means the the
  * library by default does not print out any logs.
+ * <p>
+ * Messages which need to be composed from multiple parts, like messages logged on frequently called
+ * code paths, should be logged via the pattern based variants of the logging methods, like
+ * {@link #d(String, String, Object)}, or guarded by {@link #isLoggable(String, int)} so no message
+ * is built when the desired log level is disabled.
  *
  * @author Martin Albedinsky
  */
@@ -77,6 +82,29 @@ public final class PreferencesLogging {
 		return sLogger;
 	}
 
+	/**
+	 * Checks whether messages with the specified <var>level</var> are logged by the current logger.
+	 * <p>
+	 * This check is cheap enough to be performed on frequently called code paths before any message
+	 * is built.
+	 *
+	 * @param tag   Tag of the messages.
+	 * @param level The desired log level. One of {@link Log#VERBOSE}, {@link Log#DEBUG}, {@link Log#INFO},
+	 *              {@link Log#WARN}, {@link Log#ERROR} or {@link Log#ASSERT}.
+	 * @return {@code True} if messages with the level will be logged, {@code false} otherwise.
+	 */
+	public static boolean isLoggable(@NonNull final String tag, final int level) {
+		final Logger logger = sLogger;
+		return level >= logger.getLogLevel() && logger.isLoggable(tag, level);
+	}
+
+	/**
+	 * Formats the given <var>pattern</var> with the specified arguments via {@link String#format(String, Object...)}.
+	 */
+	private static String format(final String pattern, final Object... args) {
+		return String.format(pattern, args);
+	}
+
 	/**
 	 * Delegates to {@link Logger#d(String, String)}.
 	 */
@@ -91,6 +119,29 @@ public final class PreferencesLogging {
 		sLogger.d(tag, msg, tr);
 	}
 
+	/**
+	 * Delegates to {@link Logger#d(String, String)} with message formatted from the given <var>pattern</var>
+	 * and <var>arg</var> if {@link Log#DEBUG} level is loggable. The message is not built otherwise.
+	 * <p>
+	 * <b>Note</b>, that an argument statically typed as {@link Throwable} is dispatched to
+	 * {@link #d(String, String, Throwable)} instead.
+	 */
+	public static void d(@NonNull final String tag, @NonNull final String pattern, @Nullable final Object arg) {
+		if (isLoggable(tag, Log.DEBUG)) {
+			sLogger.d(tag, format(pattern, arg));
+		}
+	}
+
+	/**
+	 * Delegates to {@link Logger#d(String, String)} with message formatted from the given <var>pattern</var>
+	 * and arguments if {@link Log#DEBUG} level is loggable. The message is not built otherwise.
+	 */
+	public static void d(@NonNull final String tag, @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+		if (isLoggable(tag, Log.DEBUG)) {
+			sLogger.d(tag, format(pattern, arg1, arg2));
+		}
+	}
+
 	/**
 	 * Delegates to {@link Logger#v(String, String)}.
 	 */
@@ -105,6 +156,29 @@ public final class PreferencesLogging {
 		sLogger.v(tag, msg, tr);
 	}
 
+	/**
+	 * Delegates to {@link Logger#v(String, String)} with message formatted from the given <var>pattern</var>
+	 * and <var>arg</var> if {@link Log#VERBOSE} level is loggable. The message is not built otherwise.
+	 * <p>
+	 * <b>Note</b>, that an argument statically typed as {@link Throwable} is dispatched to
+	 * {@link #v(String, String, Throwable)} instead.
+	 */
+	public static void v(@NonNull final String tag, @NonNull final String pattern, @Nullable final Object arg) {
+		if (isLoggable(tag, Log.VERBOSE)) {
+			sLogger.v(tag, format(pattern, arg));
+		}
+	}
+
+	/**
+	 * Delegates to {@link Logger#v(String, String)} with message formatted from the given <var>pattern</var>
+	 * and arguments if {@link Log#VERBOSE} level is loggable. The message is not built otherwise.
+	 */
+	public static void v(@NonNull final String tag, @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+		if (isLoggable(tag, Log.VERBOSE)) {
+			sLogger.v(tag, format(pattern, arg1, arg2));
+		}
+	}
+
 	/**
 	 * Delegates to {@link Logger#i(String, String)}.
 	 */
@@ -119,6 +193,29 @@ public final class PreferencesLogging {
 		sLogger.i(tag, msg, tr);
 	}
 
+	/**
+	 * Delegates to {@link Logger#i(String, String)} with message formatted from the given <var>pattern</var>
+	 * and <var>arg</var> if {@link Log#INFO} level is loggable. The message is not built otherwise.
+	 * <p>
+	 * <b>Note</b>, that an argument statically typed as {@link Throwable} is dispatched to
+	 * {@link #i(String, String, Throwable)} instead.
+	 */
+	public static void i(@NonNull final String tag, @NonNull final String pattern, @Nullable final Object arg) {
+		if (isLoggable(tag, Log.INFO)) {
+			sLogger.i(tag, format(pattern, arg));
+		}
+	}
+
+	/**
+	 * Delegates to {@link Logger#i(String, String)} with message formatted from the given <var>pattern</var>
+	 * and arguments if {@link Log#INFO} level is loggable. The message is not built otherwise.
+	 */
+	public static void i(@NonNull final String tag, @NonNull final String pattern, @Nullable final Object arg1, @Nullable final Object arg2) {
+		if (isLoggable(tag, Log.INFO)) {
+			sLogger.i(tag, format(pattern, arg1, arg2));
+		}
+	}
+
 	/**
 	 * Delegates to {@link Logger#w(String, String)}.
 	 */
@@ -0,0 +1,46 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.os.Looper;
+
+/**
+ * Utility class used by the Preferences library to resolve thread on which are the preferences
+ * accessed.
+ *
+ * @author Martin Albedinsky
+ */
+final class PreferencesThreads {
+
+	/**
+	 */
+	private PreferencesThreads() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Checks whether the calling thread is the main thread.
+	 *
+	 * @return {@code True} if the caller runs on the main thread, {@code false} otherwise.
+	 */
+	static boolean isMainThread() {
+		return Looper.myLooper() == Looper.getMainLooper();
+	}
+}
@@ -0,0 +1,475 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Utility class used by the Preferences library to record history of recent preference operations
+ * for diagnostic purpose.
+ * <p>
+ * Tracing is disabled by default. When started via {@link #start(int)}, operations performed by
+ * {@link SimpleSharedPreferencesFacade}, preferences manager, its cache and crypto preferences are
+ * recorded into a fixed-size ring buffer which keeps only the most recent operations. Recorded
+ * history may be obtained via {@link #entries()} or {@link #dump()}, for example to be attached to
+ * a report about an unresponsive application.
+ * <p>
+ * Recording does not acquire any locks and does not allocate any objects. Keys are recorded only as
+ * theirs hash codes, so no preference keys are kept in memory by the trace. Entries which are being
+ * overwritten while a history is obtained are skipped. An operation is not recorded at all if its
+ * slot in the buffer is still being written by another thread which has wrapped around the buffer,
+ * so a too small capacity may lose operations performed concurrently.
+ * <p>
+ * Callers record an operation by obtaining its start time via {@link #begin()} and passing it to
+ * {@link #end(int, int, String, String, long)} once the operation is finished. Both methods do
+ * nothing when the tracing is stopped.
+ *
+ * @author Martin Albedinsky
+ */
+public final class PreferencesTrace {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Layer of {@link SharedPreferencesFacade} implementations.
+	 */
+	public static final int LAYER_FACADE = 1;
+
+	/**
+	 * Layer of preferences manager.
+	 */
+	public static final int LAYER_MANAGER = 2;
+
+	/**
+	 * Layer of caches of preference values.
+	 */
+	public static final int LAYER_CACHE = 3;
+
+	/**
+	 * Layer of crypto preferences.
+	 */
+	public static final int LAYER_CRYPTO = 4;
+
+	/**
+	 * Defines an annotation for determining set of allowed layers for trace entries.
+	 */
+	@Retention(RetentionPolicy.SOURCE)
+	@IntDef({LAYER_FACADE, LAYER_MANAGER, LAYER_CACHE, LAYER_CRYPTO})
+	public @interface Layer {
+	}
+
+	/**
+	 * Operation reading a value.
+	 */
+	public static final int OP_READ = 1;
+
+	/**
+	 * Operation writing a value.
+	 */
+	public static final int OP_WRITE = 2;
+
+	/**
+	 * Operation removing a value.
+	 */
+	public static final int OP_REMOVE = 3;
+
+	/**
+	 * Operation reading a value from a cache.
+	 */
+	public static final int OP_CACHE_HIT = 4;
+
+	/**
+	 * Operation evicting a value from a cache.
+	 */
+	public static final int OP_EVICT = 5;
+
+	/**
+	 * Defines an annotation for determining set of allowed operations for trace entries.
+	 */
+	@Retention(RetentionPolicy.SOURCE)
+	@IntDef({OP_READ, OP_WRITE, OP_REMOVE, OP_CACHE_HIT, OP_EVICT})
+	public @interface Operation {
+	}
+
+	/**
+	 * Default capacity of the trace buffer.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * Maximum capacity of the trace buffer.
+	 */
+	public static final int MAX_CAPACITY = 1 << 16;
+
+	/**
+	 * Header of the dump returned by {@link #dump()}.
+	 */
+	public static final String DUMP_HEADER = "sequence,time_ns,layer,operation,store,key_hash,duration_ns,thread_id,thread_name";
+
+	/**
+	 * Count of long values stored in the buffer for a single entry.
+	 */
+	private static final int LONG_STRIDE = 5;
+
+	/**
+	 * Count of object values stored in the buffer for a single entry.
+	 */
+	private static final int OBJECT_STRIDE = 2;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/**
+	 * Buffer into which are operations currently recorded. {@code Null} if tracing is stopped.
+	 */
+	private static volatile Buffer sBuffer;
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private PreferencesTrace() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Starts recording of preference operations into a new buffer with the specified <var>capacity</var>.
+	 * Any previously recorded history is discarded.
+	 *
+	 * @param capacity Maximum count of the most recent operations to keep. Rounded up to the nearest
+	 *                 power of two.
+	 * @throws IllegalArgumentException If the capacity is not positive or exceeds {@link #MAX_CAPACITY}.
+	 * @see #stop()
+	 */
+	public static void start(final int capacity) {
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Capacity(" + capacity + ") must be in range [1, " + MAX_CAPACITY + "].");
+		}
+		int bufferCapacity = 1;
+		while (bufferCapacity < capacity) {
+			bufferCapacity <<= 1;
+		}
+		sBuffer = new Buffer(bufferCapacity);
+	}
+
+	/**
+	 * Stops recording of preference operations and discards the recorded history.
+	 *
+	 * @see #start(int)
+	 */
+	public static void stop() {
+		sBuffer = null;
+	}
+
+	/**
+	 * Checks whether preference operations are being recorded.
+	 *
+	 * @return {@code True} if tracing has been started, {@code false} otherwise.
+	 */
+	public static boolean isRunning() {
+		return sBuffer != null;
+	}
+
+	/**
+	 * Returns the start time for an operation to be recorded via {@link #end(int, int, String, String, long)}.
+	 *
+	 * @return Current time in nanoseconds or {@code 0} if tracing is stopped.
+	 */
+	public static long begin() {
+		return sBuffer == null ? 0 : System.nanoTime();
+	}
+
+	/**
+	 * Records operation started at the specified <var>startTime</var>.
+	 * <p>
+	 * This method does nothing if tracing is stopped or the start time is {@code 0}.
+	 *
+	 * @param layer     Layer which performed the operation.
+	 * @param operation The performed operation.
+	 * @param store     Name of the preferences store upon which has been the operation performed.
+	 *                  May be {@code null} if not known.
+	 * @param key       Key of the preference value. May be {@code null} for operations performed
+	 *                  upon multiple values.
+	 * @param startTime Start time of the operation as returned by {@link #begin()}.
+	 */
+	public static void end(@Layer final int layer, @Operation final int operation, @Nullable final String store, @Nullable final String key, final long startTime) {
+		final Buffer buffer = sBuffer;
+		if (buffer != null && startTime != 0) {
+			buffer.record(layer, operation, store, key == null ? 0 : key.hashCode(), startTime, System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * Returns the recorded history of preference operations.
+	 *
+	 * @return List of the recorded entries ordered from the oldest to the most recent one. Empty if
+	 * tracing is stopped.
+	 */
+	@NonNull
+	public static List<Entry> entries() {
+		final Buffer buffer = sBuffer;
+		return buffer == null ? Collections.<Entry>emptyList() : buffer.entries();
+	}
+
+	/**
+	 * Dumps the recorded history of preference operations in CSV format with {@link #DUMP_HEADER}
+	 * as its first line.
+	 *
+	 * @return Dump with a single line per recorded entry, from the oldest to the most recent one.
+	 */
+	@NonNull
+	public static String dump() {
+		final List<Entry> entries = entries();
+		final StringBuilder builder = new StringBuilder(DUMP_HEADER.length() + entries.size() * 64);
+		builder.append(DUMP_HEADER);
+		for (final Entry entry : entries) {
+			builder.append('\n');
+			builder.append(entry.sequence).append(',');
+			builder.append(entry.timeNanos).append(',');
+			builder.append(entry.layer).append(',');
+			builder.append(entry.operation).append(',');
+			builder.append(entry.store == null ? "" : entry.store).append(',');
+			builder.append(Integer.toHexString(entry.keyHash)).append(',');
+			builder.append(entry.durationNanos).append(',');
+			builder.append(entry.threadId).append(',');
+			builder.append(entry.threadName == null ? "" : entry.threadName);
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Snapshot of a single operation recorded by the trace.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class Entry {
+
+		/**
+		 * Sequence number of the operation within the current trace.
+		 */
+		public final long sequence;
+
+		/**
+		 * Time in nanoseconds when the operation has been started.
+		 */
+		public final long timeNanos;
+
+		/**
+		 * Layer which performed the operation.
+		 */
+		@Layer
+		public final int layer;
+
+		/**
+		 * The performed operation.
+		 */
+		@Operation
+		public final int operation;
+
+		/**
+		 * Name of the store upon which has been the operation performed. May be {@code null}.
+		 */
+		@Nullable
+		public final String store;
+
+		/**
+		 * Hash code of the key of the preference value or {@code 0} if not known.
+		 */
+		public final int keyHash;
+
+		/**
+		 * Duration of the operation in nanoseconds.
+		 */
+		public final long durationNanos;
+
+		/**
+		 * Id of the thread which performed the operation.
+		 */
+		public final long threadId;
+
+		/**
+		 * Name of the thread which performed the operation.
+		 */
+		@Nullable
+		public final String threadName;
+
+		/**
+		 * Creates a new instance of Entry with the specified data.
+		 */
+		Entry(
+				final long sequence,
+				final long timeNanos,
+				final int layer,
+				final int operation,
+				final String store,
+				final int keyHash,
+				final long durationNanos,
+				final long threadId,
+				final String threadName
+		) {
+			this.sequence = sequence;
+			this.timeNanos = timeNanos;
+			this.layer = layer;
+			this.operation = operation;
+			this.store = store;
+			this.keyHash = keyHash;
+			this.durationNanos = durationNanos;
+			this.threadId = threadId;
+			this.threadName = threadName;
+		}
+	}
+
+	/**
+	 * Lock-free ring buffer holding data of the recorded entries.
+	 * <p>
+	 * Each slot starts with a stamp which a writer claims via compare-and-set by setting it to the
+	 * negated sequence number of its entry incremented by one before data of the slot are written and
+	 * sets to that positive number afterwards. Only a single writer may thus write data of a slot at
+	 * a time, while readers can detect slots which are being written or have been overwritten while
+	 * being read.
+	 */
+	static final class Buffer {
+
+		/**
+		 * Mask used to compute index of a slot from a sequence number.
+		 */
+		final int mask;
+
+		/**
+		 * Sequence number of the next entry to be recorded.
+		 */
+		final AtomicLong sequence = new AtomicLong();
+
+		/**
+		 * Stamps, times, durations, threads and packed layers, operations and key hashes of entries.
+		 */
+		final AtomicLongArray longs;
+
+		/**
+		 * Store and thread names of entries.
+		 */
+		final AtomicReferenceArray<String> objects;
+
+		/**
+		 * Creates a new instance of Buffer with the specified <var>capacity</var>.
+		 *
+		 * @param capacity Power of two.
+		 */
+		Buffer(final int capacity) {
+			this.mask = capacity - 1;
+			this.longs = new AtomicLongArray(capacity * LONG_STRIDE);
+			this.objects = new AtomicReferenceArray<>(capacity * OBJECT_STRIDE);
+		}
+
+		/**
+		 * Records a new entry with the specified data.
+		 * <p>
+		 * The entry is dropped if its slot is being written by another writer or has already been
+		 * claimed for a newer entry.
+		 */
+		void record(final int layer, final int operation, final String store, final int keyHash, final long timeNanos, final long durationNanos) {
+			final long seq = sequence.getAndIncrement();
+			final int slot = (int) (seq & mask);
+			final int longIndex = slot * LONG_STRIDE;
+			final int objectIndex = slot * OBJECT_STRIDE;
+			final long stamp = longs.get(longIndex);
+			if (stamp < 0 || stamp > seq || !longs.compareAndSet(longIndex, stamp, -(seq + 1))) {
+				return;
+			}
+			final Thread thread = Thread.currentThread();
+			longs.set(longIndex + 1, timeNanos);
+			longs.set(longIndex + 2, durationNanos);
+			longs.set(longIndex + 3, thread.getId());
+			longs.set(longIndex + 4, ((long) (layer & 0xFF) << 40) | ((long) (operation & 0xFF) << 32) | (keyHash & 0xFFFFFFFFL));
+			objects.set(objectIndex, store);
+			objects.set(objectIndex + 1, thread.getName());
+			longs.set(longIndex, seq + 1);
+		}
+
+		/**
+		 * Returns snapshots of all consistently readable entries.
+		 */
+		List<Entry> entries() {
+			final long end = sequence.get();
+			final long start = Math.max(0, end - (mask + 1));
+			final List<Entry> entries = new ArrayList<>((int) (end - start));
+			for (long seq = start; seq < end; seq++) {
+				final int slot = (int) (seq & mask);
+				final int longIndex = slot * LONG_STRIDE;
+				final int objectIndex = slot * OBJECT_STRIDE;
+				if (longs.get(longIndex) != seq + 1) {
+					continue;
+				}
+				final long timeNanos = longs.get(longIndex + 1);
+				final long durationNanos = longs.get(longIndex + 2);
+				final long threadId = longs.get(longIndex + 3);
+				final long packed = longs.get(longIndex + 4);
+				final String store = objects.get(objectIndex);
+				final String threadName = objects.get(objectIndex + 1);
+				if (longs.get(longIndex) == seq + 1) {
+					entries.add(new Entry(
+							seq,
+							timeNanos,
+							(int) ((packed >>> 40) & 0xFF),
+							(int) ((packed >>> 32) & 0xFF),
+							store,
+							(int) packed,
+							durationNanos,
+							threadId,
+							threadName
+					));
+				}
+			}
+			return entries;
+		}
+	}
+}
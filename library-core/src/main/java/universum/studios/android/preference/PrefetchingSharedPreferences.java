@@ -0,0 +1,406 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link SharedPreferencesWrapper} implementation which records keys of values obtained during
+ * a startup of an application and prefetches values for those keys on a background thread during
+ * the next startup, so the startup reads of the values are served from memory.
+ * <p>
+ * The keys obtained within a recording window specified for the preferences, measured from creation
+ * of the preferences, are recorded along with type of theirs values into a separate <b>profile</b>
+ * preferences. The recorded profile is persisted after the recording window elapses upon the first
+ * subsequent read or immediately via {@link #saveProfile()}.
+ * <p>
+ * Values for keys recorded during the previous startup may be prefetched via {@link #prefetch(Executor)}
+ * which obtains each value via the typed getter from the wrapped preferences. When the wrapped preferences
+ * are for example {@code CryptoSharedPreferences}, the values are also decrypted on the background
+ * thread. Prefetched values are dropped whenever a value in the wrapped preferences is changed or
+ * an editor is obtained via {@link #edit()}.
+ * <p>
+ * <b>Note</b>, that the profile is persisted as a Set of Strings, so for pre
+ * {@link Build.VERSION_CODES#HONEYCOMB HONEYCOMB} Android versions no keys are recorded and no
+ * values are prefetched.
+ *
+ * <h3>Sample usage</h3>
+ * <pre>
+ * final PrefetchingSharedPreferences preferences = new PrefetchingSharedPreferences(
+ *          context.getSharedPreferences("app_settings", SharedPreferencesPolicy.MODE_PRIVATE),
+ *          context.getSharedPreferences("app_settings_startup_profile", SharedPreferencesPolicy.MODE_PRIVATE),
+ *          5000
+ * );
+ * preferences.prefetch(AsyncTask.THREAD_POOL_EXECUTOR);
+ * </pre>
+ *
+ * @author Martin Albedinsky
+ */
+public final class PrefetchingSharedPreferences extends SharedPreferencesWrapper {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "PrefetchingSharedPreferences";
+
+	/**
+	 * Key under which are recorded keys persisted in the profile preferences.
+	 */
+	static final String PROFILE_KEY = "PrefetchingSharedPreferences.RecordedKeys";
+
+	/**
+	 * Separator of type and key within a recorded entry.
+	 */
+	private static final char ENTRY_SEPARATOR = ':';
+
+	/**
+	 * Type of recorded entry for String value.
+	 */
+	private static final char TYPE_STRING = 's';
+
+	/**
+	 * Type of recorded entry for Set of String values.
+	 */
+	private static final char TYPE_STRING_SET = 'S';
+
+	/**
+	 * Type of recorded entry for int value.
+	 */
+	private static final char TYPE_INT = 'i';
+
+	/**
+	 * Type of recorded entry for long value.
+	 */
+	private static final char TYPE_LONG = 'l';
+
+	/**
+	 * Type of recorded entry for float value.
+	 */
+	private static final char TYPE_FLOAT = 'f';
+
+	/**
+	 * Type of recorded entry for boolean value.
+	 */
+	private static final char TYPE_BOOLEAN = 'b';
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Preferences into which are persisted recorded keys.
+	 */
+	private final SharedPreferences mProfile;
+
+	/**
+	 * Time in milliseconds since boot until which are recorded obtained keys.
+	 */
+	private final long mRecordingEnd;
+
+	/**
+	 * Entries for keys recorded during the current recording window. Only keys of the map are used.
+	 */
+	private final Map<String, Boolean> mRecordedEntries = new ConcurrentHashMap<>();
+
+	/**
+	 * Flag indicating whether the recorded profile has been already saved.
+	 */
+	private final AtomicBoolean mProfileSaved = new AtomicBoolean(false);
+
+	/**
+	 * Prefetched values mapped to theirs keys.
+	 */
+	private final Map<String, Object> mPrefetchedValues = new ConcurrentHashMap<>();
+
+	/**
+	 * Generation of prefetched values. Incremented whenever the prefetched values are dropped, so
+	 * values prefetched concurrently for older generation are not stored.
+	 */
+	private int mPrefetchGeneration;
+
+	/**
+	 * Listener used to drop prefetched values whenever a value in the wrapped preferences is changed.
+	 * Needs to be hold strongly as shared preferences hold theirs listeners only weakly.
+	 */
+	private final OnSharedPreferenceChangeListener mChangeListener = new OnSharedPreferenceChangeListener() {
+
+		/**
+		 */
+		@Override
+		public void onSharedPreferenceChanged(final SharedPreferences preferences, final String key) {
+			dropPrefetchedValues();
+		}
+	};
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of PrefetchingSharedPreferences for the given <var>preferences</var>.
+	 *
+	 * @param preferences     The shared preferences to be wrapped.
+	 * @param profile         The shared preferences into which to persist keys recorded during the
+	 *                        recording window. Should be different from the wrapped preferences.
+	 * @param recordingWindow Time in milliseconds since creation of the new preferences during which
+	 *                        to record obtained keys. May be {@code 0} to not record any keys.
+	 */
+	public PrefetchingSharedPreferences(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences profile, final long recordingWindow) {
+		super(preferences);
+		this.mProfile = profile;
+		this.mRecordingEnd = SystemClock.uptimeMillis() + Math.max(0, recordingWindow);
+		this.mProfileSaved.set(recordingWindow <= 0 || Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB);
+		preferences.registerOnSharedPreferenceChangeListener(mChangeListener);
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Prefetches values for all keys recorded during the previous recording window on the given
+	 * <var>executor</var>.
+	 *
+	 * <b>Note</b>, that for pre {@link Build.VERSION_CODES#HONEYCOMB HONEYCOMB} Android versions
+	 * this method does nothing.
+	 *
+	 * @param executor Executor on which to obtain the values from the wrapped preferences.
+	 * @see #getPrefetchedCount()
+	 */
+	public void prefetch(@NonNull final Executor executor) {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
+			return;
+		}
+		final int generation;
+		synchronized (mPrefetchedValues) {
+			generation = mPrefetchGeneration;
+		}
+		executor.execute(new Runnable() {
+
+			/**
+			 */
+			@Override
+			public void run() {
+				final Set<String> entries = mProfile.getStringSet(PROFILE_KEY, null);
+				if (entries == null) {
+					return;
+				}
+				final SharedPreferences preferences = getWrappedPreferences();
+				for (final String entry : entries) {
+					if (entry.length() < 2 || entry.charAt(1) != ENTRY_SEPARATOR) {
+						continue;
+					}
+					final String key = entry.substring(2);
+					if (!preferences.contains(key)) {
+						continue;
+					}
+					final Object value = obtainValue(preferences, entry.charAt(0), key);
+					if (value == null) {
+						continue;
+					}
+					synchronized (mPrefetchedValues) {
+						if (generation != mPrefetchGeneration) {
+							// Values have been changed since prefetching started.
+							return;
+						}
+						mPrefetchedValues.put(key, value);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Obtains value of the specified <var>type</var> for the specified <var>key</var> from the given
+	 * <var>preferences</var>.
+	 *
+	 * @return The obtained value or {@code null} if the type is not supported or there is value of
+	 * different type persisted for the key.
+	 */
+	@Nullable
+	private static Object obtainValue(final SharedPreferences preferences, final char type, final String key) {
+		try {
+			switch (type) {
+				case TYPE_STRING:
+					return preferences.getString(key, null);
+				case TYPE_STRING_SET:
+					if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
+						return null;
+					}
+					final Set<String> values = preferences.getStringSet(key, null);
+					return values == null ? null : Collections.unmodifiableSet(new HashSet<>(values));
+				case TYPE_INT:
+					return preferences.getInt(key, 0);
+				case TYPE_LONG:
+					return preferences.getLong(key, 0);
+				case TYPE_FLOAT:
+					return preferences.getFloat(key, 0);
+				case TYPE_BOOLEAN:
+					return preferences.getBoolean(key, false);
+				default:
+					return null;
+			}
+		} catch (ClassCastException e) {
+			// Type of the persisted value has been changed since the key has been recorded.
+			return null;
+		}
+	}
+
+	/**
+	 * Returns count of values that are currently prefetched.
+	 *
+	 * @return Count of values that will be served from memory.
+	 */
+	public int getPrefetchedCount() {
+		return mPrefetchedValues.size();
+	}
+
+	/**
+	 * Drops all prefetched values.
+	 */
+	private void dropPrefetchedValues() {
+		synchronized (mPrefetchedValues) {
+			mPrefetchGeneration++;
+			mPrefetchedValues.clear();
+		}
+	}
+
+	/**
+	 * Records read of a value of the specified <var>type</var> for the specified <var>key</var> if
+	 * the recording window has not elapsed yet.
+	 */
+	private void onRead(final char type, final String key) {
+		if (!mProfileSaved.get()) {
+			if (SystemClock.uptimeMillis() < mRecordingEnd) {
+				mRecordedEntries.put(type + String.valueOf(ENTRY_SEPARATOR) + key, Boolean.TRUE);
+			} else {
+				saveProfile();
+			}
+		}
+	}
+
+	/**
+	 * Persists keys recorded so far into the profile preferences, so values for such keys may be
+	 * prefetched during the next startup, and stops recording.
+	 * <p>
+	 * This method is invoked automatically upon the first read after the recording window elapses.
+	 * Subsequent calls have no effect.
+	 */
+	public void saveProfile() {
+		if (mProfileSaved.compareAndSet(false, true) && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+			mProfile.edit().putStringSet(PROFILE_KEY, new HashSet<>(mRecordedEntries.keySet())).apply();
+			mRecordedEntries.clear();
+		}
+	}
+
+	/**
+	 * Records read for the specified <var>key</var> and returns value prefetched for such key.
+	 *
+	 * @return Prefetched value or {@code null} if there is no value prefetched for the key.
+	 */
+	private Object prefetchedValue(final char type, final String key) {
+		this.onRead(type, key);
+		return mPrefetchedValues.isEmpty() ? null : mPrefetchedValues.get(key);
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		final Object value = prefetchedValue(TYPE_STRING, key);
+		return value instanceof String ? (String) value : super.getString(key, defValue);
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public Set<String> getStringSet(@NonNull final String key, @Nullable final Set<String> defValues) {
+		final Object value = prefetchedValue(TYPE_STRING_SET, key);
+		return value instanceof Set ? (Set<String>) value : super.getStringSet(key, defValues);
+	}
+
+	/**
+	 */
+	@Override
+	public int getInt(@NonNull final String key, final int defValue) {
+		final Object value = prefetchedValue(TYPE_INT, key);
+		return value instanceof Integer ? (Integer) value : super.getInt(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	public long getLong(@NonNull final String key, final long defValue) {
+		final Object value = prefetchedValue(TYPE_LONG, key);
+		return value instanceof Long ? (Long) value : super.getLong(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	public float getFloat(@NonNull final String key, final float defValue) {
+		final Object value = prefetchedValue(TYPE_FLOAT, key);
+		return value instanceof Float ? (Float) value : super.getFloat(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
+		final Object value = prefetchedValue(TYPE_BOOLEAN, key);
+		return value instanceof Boolean ? (Boolean) value : super.getBoolean(key, defValue);
+	}
+
+	/**
+	 * <b>Note</b>, that obtaining of an editor drops all prefetched values.
+	 */
+	@NonNull
+	@Override
+	public Editor edit() {
+		this.dropPrefetchedValues();
+		return super.edit();
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+/**
+ * Marker interface for {@link java.util.List List} views backed by an array of primitive values.
+ * <p>
+ * All elements of such view are of the same boxed type and the view retains only its backing array,
+ * so memory occupied by the view may be estimated from its size and type of its first element
+ * without boxing of all its elements.
+ *
+ * @author Martin Albedinsky
+ */
+interface PrimitiveArrayView {
+}
@@ -32,7 +32,9 @@ import android.text.TextUtils;
  * via {@link #updateValue(Object)} followed by {@link #putIntoPreferences(SharedPreferences)} and
  * to obtain such persisted value from preferences via {@link #getFromPreferences(SharedPreferences)}.
  * The current value that has been obtained from shared preferences for a particular preference may
- * be obtained via {@link #getValue()}.
+ * be obtained via {@link #getValue()}. Values of multiple preferences may be also staged into a
+ * single {@link SharedPreferences.Editor} via {@link #stageIntoEditor(SharedPreferences, SharedPreferences.Editor)}
+ * and persisted at once via single commit of that editor.
  * <p>
  * The key for each shared preference is required to be specified via {@link #SharedPreference(String, Object)}
  * constructor and may be later obtained via {@link #getKey()}.
@@ -231,6 +233,52 @@ public abstract class SharedPreference<T> {
 	@CheckResult
 	protected abstract boolean onPutIntoPreferences(@NonNull SharedPreferences preferences);
 
+	/**
+	 * Stages the actual value of this preference into the given <var>editor</var> without committing
+	 * it, so values of multiple preferences may be persisted via a single commit of that editor.
+	 *
+	 * @param preferences The instance of shared preferences from which has been the editor obtained.
+	 * @param editor      The editor into which should be the actual value of this preference staged.
+	 * @return {@code True} if the value has been successfully staged, {@code false} otherwise.
+	 * @see #putIntoPreferences(SharedPreferences)
+	 */
+	public final boolean stageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		return onStageIntoEditor(preferences, editor);
+	}
+
+	/**
+	 * Invoked to stage the actual value into the given <var>editor</var> without committing it.
+	 * <p>
+	 * Default implementation calls {@link #onPutIntoPreferences(SharedPreferences)} with preferences
+	 * that redirect all changes into the given editor and ignore all commits. Implementations should
+	 * override this method in order to stage theirs value directly and implement
+	 * {@link #onPutIntoPreferences(SharedPreferences)} via {@link #commitStaged(SharedPreferences)}.
+	 *
+	 * @param preferences The instance of shared preferences from which has been the editor obtained.
+	 * @param editor      The editor into which should be the actual value of this preference staged.
+	 * @return {@code True} if the value has been successfully staged, {@code false} otherwise.
+	 */
+	protected boolean onStageIntoEditor(@NonNull final SharedPreferences preferences, @NonNull final SharedPreferences.Editor editor) {
+		return onPutIntoPreferences(new StagingSharedPreferences(preferences, editor));
+	}
+
+	/**
+	 * Stages the actual value of this preference via {@link #onStageIntoEditor(SharedPreferences, SharedPreferences.Editor)}
+	 * into a new editor of the given <var>preferences</var> and commits it.
+	 * <p>
+	 * <b>Note</b>, that this method may be used to implement {@link #onPutIntoPreferences(SharedPreferences)}
+	 * only if {@link #onStageIntoEditor(SharedPreferences, SharedPreferences.Editor)} is also implemented.
+	 *
+	 * @param preferences The instance of shared preferences where should be the actual value of
+	 *                    this preference persisted.
+	 * @return {@code True} if the value has been successfully staged and committed, {@code false} otherwise.
+	 */
+	@CheckResult
+	protected final boolean commitStaged(@NonNull final SharedPreferences preferences) {
+		final SharedPreferences.Editor editor = preferences.edit();
+		return onStageIntoEditor(preferences, editor) && editor.commit();
+	}
+
 	/**
 	 * Returns the value which is at this time being hold by this preference object.
 	 * <p>
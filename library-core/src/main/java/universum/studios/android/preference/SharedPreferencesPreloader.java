@@ -0,0 +1,363 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Preloader which may be used to load {@link SharedPreferences} on a background thread before they
+ * are actually needed, so the first access to theirs values does not block a caller, usually the
+ * main thread, until the preferences file is loaded and parsed.
+ * <p>
+ * Preferences with a specific name may be scheduled for loading via {@link #preload(String, int)},
+ * usually at the start of an application, and later obtained via {@link #await(String, int)} or
+ * {@link #await(String, int, long, TimeUnit)} which block only until the loading is finished. A
+ * {@link SharedPreferencesFactory} which hands out the preloaded preferences may be created via
+ * {@link #factory(String, int)}. As {@link Context} caches instances of shared preferences, preloading
+ * speeds up also all other components which obtain the preferences with the same name directly via
+ * {@link Context#getSharedPreferences(String, int)}, like {@code PreferencesManager}.
+ *
+ * <h3>Sample usage</h3>
+ * <pre>
+ * public final class App extends Application {
+ *
+ *      private SharedPreferencesPreloader preloader;
+ *
+ *      &#64;Override
+ *      public void onCreate() {
+ *          super.onCreate();
+ *          this.preloader = new SharedPreferencesPreloader(this);
+ *          preloader.preload(SharedPreferencesPolicy.defaultPreferencesName(this), SharedPreferencesPolicy.MODE_PRIVATE);
+ *          preloader.preload("app_settings", SharedPreferencesPolicy.MODE_PRIVATE);
+ *      }
+ * }
+ * </pre>
+ *
+ * @author Martin Albedinsky
+ * @see SharedPreferencesFactory
+ */
+public final class SharedPreferencesPreloader {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "SharedPreferencesPreloader";
+
+	/**
+	 * Time in seconds for which is kept alive idle thread of the default executor.
+	 */
+	private static final int DEFAULT_EXECUTOR_KEEP_ALIVE = 5;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Context used to obtain instances of shared preferences.
+	 */
+	private final Context mContext;
+
+	/**
+	 * Executor used to load shared preferences.
+	 */
+	private final Executor mExecutor;
+
+	/**
+	 * Loading tasks mapped to names of shared preferences which they load.
+	 */
+	private final ConcurrentMap<String, FutureTask<SharedPreferences>> mTasks = new ConcurrentHashMap<>(4);
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #SharedPreferencesPreloader(Context, Executor)} with a default executor which
+	 * loads all preferences sequentially on a single background thread.
+	 */
+	public SharedPreferencesPreloader(@NonNull final Context context) {
+		this(context, createDefaultExecutor());
+	}
+
+	/**
+	 * Creates a new instance of SharedPreferencesPreloader with the specified <var>context</var>
+	 * and <var>executor</var>.
+	 *
+	 * @param context  Context used to obtain instances of shared preferences via {@link Context#getSharedPreferences(String, int)}.
+	 * @param executor Executor used to load shared preferences on a background thread.
+	 */
+	public SharedPreferencesPreloader(@NonNull final Context context, @NonNull final Executor executor) {
+		this.mContext = context.getApplicationContext() == null ? context : context.getApplicationContext();
+		this.mExecutor = executor;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Creates a default executor for the preloader.
+	 *
+	 * @return Executor with a single background thread which is terminated when idle.
+	 */
+	private static Executor createDefaultExecutor() {
+		// No core threads, so the single thread is terminated when idle also on platforms without
+		// ThreadPoolExecutor.allowCoreThreadTimeOut(boolean) (API 9). With unbounded queue the pool
+		// never grows above the single thread.
+		return new ThreadPoolExecutor(
+				0, 1,
+				DEFAULT_EXECUTOR_KEEP_ALIVE, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+
+					/**
+					 */
+					@Override
+					public Thread newThread(@NonNull final Runnable runnable) {
+						final Thread thread = new Thread(runnable, "SharedPreferencesPreloader");
+						thread.setPriority(Thread.NORM_PRIORITY - 1);
+						return thread;
+					}
+				}
+		);
+	}
+
+	/**
+	 * Schedules loading of shared preferences with the specified <var>name</var> and <var>mode</var>
+	 * on the background executor. Does nothing if preferences with such name are already scheduled
+	 * for loading or loaded.
+	 *
+	 * @param name Name of the desired shared preferences.
+	 * @param mode Mode of the desired shared preferences.
+	 * @see #isLoaded(String)
+	 * @see #await(String, int)
+	 */
+	public void preload(@NonNull final String name, @SharedPreferencesPolicy.Mode final int mode) {
+		final FutureTask<SharedPreferences> task = new FutureTask<>(new LoadTask(mContext, name, mode));
+		if (mTasks.putIfAbsent(name, task) == null) {
+			mExecutor.execute(task);
+		}
+	}
+
+	/**
+	 * Checks whether shared preferences with the specified <var>name</var> are already loaded.
+	 *
+	 * @param name Name of the desired shared preferences.
+	 * @return {@code True} if the preferences are loaded, so accessing of theirs values will not
+	 * block, {@code false} if they are still being loaded or has not been requested to be loaded yet.
+	 */
+	public boolean isLoaded(@NonNull final String name) {
+		final FutureTask<SharedPreferences> task = mTasks.get(name);
+		return task != null && task.isDone();
+	}
+
+	/**
+	 * Returns shared preferences with the specified <var>name</var>, waiting until they are loaded.
+	 * <p>
+	 * If loading of the preferences has not been started yet, they are loaded on the calling thread.
+	 *
+	 * @param name Name of the desired shared preferences.
+	 * @param mode Mode of the desired shared preferences used if they have not been requested to be
+	 *             preloaded via {@link #preload(String, int)}.
+	 * @return Loaded shared preferences.
+	 * @see #await(String, int, long, TimeUnit)
+	 */
+	@NonNull
+	public SharedPreferences await(@NonNull final String name, @SharedPreferencesPolicy.Mode final int mode) {
+		final FutureTask<SharedPreferences> task = obtainTask(name, mode);
+		// Load on this thread if the loading is still waiting for the executor, otherwise this
+		// call does nothing and we will wait for the loading to finish.
+		task.run();
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			throw asRuntimeException(name, e);
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns shared preferences with the specified <var>name</var>, waiting at most the specified
+	 * <var>timeout</var> until they are loaded.
+	 * <p>
+	 * If loading of the preferences has not been started yet, they are loaded on the calling thread,
+	 * so the timeout applies only to waiting for loading already running on another thread.
+	 *
+	 * @param name    Name of the desired shared preferences.
+	 * @param mode    Mode of the desired shared preferences used if they have not been requested to
+	 *                be preloaded via {@link #preload(String, int)}.
+	 * @param timeout The maximum time to wait.
+	 * @param unit    Unit of the timeout.
+	 * @return Loaded shared preferences or {@code null} if they have not been loaded within the
+	 * specified timeout or the calling thread has been interrupted while waiting.
+	 * @see #await(String, int)
+	 */
+	@Nullable
+	public SharedPreferences await(@NonNull final String name, @SharedPreferencesPolicy.Mode final int mode, final long timeout, @NonNull final TimeUnit unit) {
+		final FutureTask<SharedPreferences> task = obtainTask(name, mode);
+		// Same as for the untimed await, the loading waiting for the executor is run on this thread.
+		task.run();
+		try {
+			return task.get(timeout, unit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (TimeoutException e) {
+			return null;
+		} catch (ExecutionException e) {
+			throw asRuntimeException(name, e);
+		}
+	}
+
+	/**
+	 * Obtains task loading shared preferences with the specified <var>name</var>. If there is no
+	 * such task, a new one is created and run on the calling thread.
+	 */
+	private FutureTask<SharedPreferences> obtainTask(final String name, final int mode) {
+		FutureTask<SharedPreferences> task = mTasks.get(name);
+		if (task == null) {
+			final FutureTask<SharedPreferences> newTask = new FutureTask<>(new LoadTask(mContext, name, mode));
+			task = mTasks.putIfAbsent(name, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+		return task;
+	}
+
+	/**
+	 * Converts the given <var>exception</var> thrown while loading shared preferences with the
+	 * specified <var>name</var> into runtime exception.
+	 */
+	private static RuntimeException asRuntimeException(final String name, final ExecutionException exception) {
+		final Throwable cause = exception.getCause();
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		return new IllegalStateException("Failed to load shared preferences for the name(" + name + ").", cause);
+	}
+
+	/**
+	 * Creates a factory which hands out shared preferences with the specified <var>name</var> loaded
+	 * by this preloader.
+	 * <p>
+	 * <b>Note</b>, that the returned factory ignores context passed to {@link SharedPreferencesFactory#createPreferences(Context)}
+	 * and always uses context of this preloader.
+	 *
+	 * @param name Name of the desired shared preferences.
+	 * @param mode Mode of the desired shared preferences.
+	 * @return Factory which waits via {@link #await(String, int)} until the preferences are loaded.
+	 */
+	@NonNull
+	public SharedPreferencesFactory factory(@NonNull final String name, @SharedPreferencesPolicy.Mode final int mode) {
+		return new SharedPreferencesFactory() {
+
+			/**
+			 */
+			@NonNull
+			@Override
+			public SharedPreferences createPreferences(@NonNull final Context context) {
+				return await(name, mode);
+			}
+		};
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Task which obtains shared preferences and waits until theirs values are loaded.
+	 */
+	private static final class LoadTask implements Callable<SharedPreferences> {
+
+		/**
+		 * Context used to obtain shared preferences.
+		 */
+		private final Context context;
+
+		/**
+		 * Name of shared preferences to load.
+		 */
+		private final String name;
+
+		/**
+		 * Mode of shared preferences to load.
+		 */
+		private final int mode;
+
+		/**
+		 * Creates a new instance of LoadTask for shared preferences with the specified <var>name</var>
+		 * and <var>mode</var>.
+		 */
+		LoadTask(final Context context, final String name, final int mode) {
+			this.context = context;
+			this.name = name;
+			this.mode = mode;
+		}
+
+		/**
+		 */
+		@Override
+		public SharedPreferences call() {
+			final SharedPreferences preferences = context.getSharedPreferences(name, mode);
+			// Accessing of any value blocks until the preferences file is loaded and parsed.
+			preferences.contains(name);
+			return preferences;
+		}
+	}
+}
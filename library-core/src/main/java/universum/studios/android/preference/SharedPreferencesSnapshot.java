@@ -0,0 +1,188 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of all values persisted within {@link SharedPreferences} at the time when the
+ * snapshot has been captured via {@link #capture(SharedPreferences)}.
+ * <p>
+ * Values are copied from the preferences at once, so all values obtained from a single snapshot
+ * are consistent with each other and theirs obtaining does not need any synchronization. Changes
+ * made in the preferences after the snapshot has been captured are not reflected by the snapshot.
+ * <p>
+ * Same as {@link SharedPreferences}, all getters throw {@link ClassCastException} if there is
+ * value of a different type persisted for the requested key.
+ *
+ * @author Martin Albedinsky
+ * @see SharedPreferences#getAll()
+ */
+public final class SharedPreferencesSnapshot {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Values copied from the preferences.
+	 */
+	private final Map<String, ?> mValues;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of SharedPreferencesSnapshot with the given <var>values</var>.
+	 *
+	 * @param values Copy of values persisted in shared preferences.
+	 */
+	private SharedPreferencesSnapshot(final Map<String, ?> values) {
+		this.mValues = values;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Captures a new snapshot of all values currently persisted within the given <var>preferences</var>.
+	 *
+	 * @param preferences The preferences of which values to capture.
+	 * @return New snapshot.
+	 */
+	@NonNull
+	public static SharedPreferencesSnapshot capture(@NonNull final SharedPreferences preferences) {
+		return new SharedPreferencesSnapshot(new HashMap<>(preferences.getAll()));
+	}
+
+	/**
+	 * Returns count of values contained within this snapshot.
+	 *
+	 * @return Count of captured values.
+	 */
+	public int size() {
+		return mValues.size();
+	}
+
+	/**
+	 * Checks whether this snapshot contains value for the specified <var>key</var>.
+	 *
+	 * @param key The key of the desired value.
+	 * @return {@code True} if there is value for the key, {@code false} otherwise.
+	 * @see SharedPreferences#contains(String)
+	 */
+	public boolean contains(@NonNull final String key) {
+		return mValues.containsKey(key);
+	}
+
+	/**
+	 * Returns all values contained within this snapshot.
+	 *
+	 * @return Unmodifiable map with captured values.
+	 * @see SharedPreferences#getAll()
+	 */
+	@NonNull
+	public Map<String, ?> getAll() {
+		return Collections.unmodifiableMap(mValues);
+	}
+
+	/**
+	 * Returns String value for the specified <var>key</var>.
+	 *
+	 * @see SharedPreferences#getString(String, String)
+	 */
+	@Nullable
+	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		final Object value = mValues.get(key);
+		return value == null ? defValue : (String) value;
+	}
+
+	/**
+	 * Returns set of String values for the specified <var>key</var>.
+	 *
+	 * @return Unmodifiable set or the default one if there is no set for the key.
+	 * @see SharedPreferences#getStringSet(String, Set)
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public Set<String> getStringSet(@NonNull final String key, @Nullable final Set<String> defValues) {
+		final Object value = mValues.get(key);
+		return value == null ? defValues : Collections.unmodifiableSet((Set<String>) value);
+	}
+
+	/**
+	 * Returns int value for the specified <var>key</var>.
+	 *
+	 * @see SharedPreferences#getInt(String, int)
+	 */
+	public int getInt(@NonNull final String key, final int defValue) {
+		final Object value = mValues.get(key);
+		return value == null ? defValue : (Integer) value;
+	}
+
+	/**
+	 * Returns float value for the specified <var>key</var>.
+	 *
+	 * @see SharedPreferences#getFloat(String, float)
+	 */
+	public float getFloat(@NonNull final String key, final float defValue) {
+		final Object value = mValues.get(key);
+		return value == null ? defValue : (Float) value;
+	}
+
+	/**
+	 * Returns long value for the specified <var>key</var>.
+	 *
+	 * @see SharedPreferences#getLong(String, long)
+	 */
+	public long getLong(@NonNull final String key, final long defValue) {
+		final Object value = mValues.get(key);
+		return value == null ? defValue : (Long) value;
+	}
+
+	/**
+	 * Returns double value persisted via {@link SimpleSharedPreferencesFacade#putDouble(String, double)}
+	 * for the specified <var>key</var>.
+	 *
+	 * @see SimpleSharedPreferencesFacade#getDouble(String, double)
+	 */
+	public double getDouble(@NonNull final String key, final double defValue) {
+		final Object value = mValues.get(key);
+		return value == null ? defValue : Double.longBitsToDouble((Long) value);
+	}
+
+	/**
+	 * Returns boolean value for the specified <var>key</var>.
+	 *
+	 * @see SharedPreferences#getBoolean(String, boolean)
+	 */
+	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
+		final Object value = mValues.get(key);
+		return value == null ? defValue : (Boolean) value;
+	}
+}
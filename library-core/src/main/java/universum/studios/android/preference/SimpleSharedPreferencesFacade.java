@@ -29,11 +29,12 @@ import java.util.Set;
 /**
  * Simple implementation of {@link SharedPreferencesFacade} which supports simple <var>obtaining</var>
  * and <var>putting</var> of values persisted in {@link SharedPreferences} with which is facade created
- * via {@link #SimpleSharedPreferencesFacade(SharedPreferences)} constructor.
+ * via {@link #SimpleSharedPreferencesFacade(SharedPreferences)} constructor. Multiple values may be
+ * persisted at once via editor obtained via {@link #edit()}.
  *
  * @author Martin Albedinsky
  */
-public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
+public class SimpleSharedPreferencesFacade implements EditableSharedPreferencesFacade {
 
 	/*
 	 * Constants ===================================================================================
@@ -62,6 +63,11 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 	 */
 	private final SharedPreferences mPreferences;
 
+	/**
+	 * Name of the preferences store recorded for operations of this facade via {@link PreferencesTrace}.
+	 */
+	private final String mTraceStore;
+
 	/*
 	 * Constructors ================================================================================
 	 */
@@ -72,7 +78,19 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 	 * @param preferences The instance of shared preferences to hide behind the new facade.
 	 */
 	public SimpleSharedPreferencesFacade(@NonNull final SharedPreferences preferences) {
+		this(preferences, null);
+	}
+
+	/**
+	 * Creates a new instance of SimpleSharedPreferencesFacade for the specified <var>preferences</var>
+	 * with the specified <var>traceStore</var> name.
+	 *
+	 * @param preferences The instance of shared preferences to hide behind the new facade.
+	 * @param traceStore  Name of the preferences store to be recorded via {@link PreferencesTrace}.
+	 */
+	SimpleSharedPreferencesFacade(@NonNull final SharedPreferences preferences, @Nullable final String traceStore) {
 		this.mPreferences = preferences;
+		this.mTraceStore = traceStore;
 	}
 
 	/*
@@ -90,6 +108,15 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 		return mPreferences;
 	}
 
+	/**
+	 * <b>Note</b>, that commits and applies of the returned editor are recorded via {@link PreferencesTrace}.
+	 */
+	@NonNull
+	@Override
+	public SharedPreferences.Editor edit() {
+		return new TracingEditor(mPreferences.edit(), PreferencesTrace.LAYER_FACADE, mTraceStore);
+	}
+
 	/**
 	 */
 	@Override
@@ -108,14 +135,20 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 	 */
 	@Override
 	public boolean contains(@NonNull final String key) {
-		return mPreferences.contains(key);
+		final long startTime = PreferencesTrace.begin();
+		final boolean contains = mPreferences.contains(key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return contains;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putString(@NonNull final String key, @Nullable final String value) {
-		return mPreferences.edit().putString(key, value).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().putString(key, value).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
@@ -123,7 +156,10 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 	@Nullable
 	@Override
 	public String getString(@NonNull final String key, @Nullable final String defValue) {
-		return mPreferences.getString(key, defValue);
+		final long startTime = PreferencesTrace.begin();
+		final String value = mPreferences.getString(key, defValue);
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return value;
 	}
 
 	/**
@@ -132,7 +168,10 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 	 */
 	@Override
 	public boolean putStringSet(@NonNull final String key, @Nullable final Set<String> values) {
-		return Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB && mPreferences.edit().putStringSet(key, values).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB && mPreferences.edit().putStringSet(key, values).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
@@ -142,76 +181,142 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 	@Nullable
 	@Override
 	public Set<String> getStringSet(@NonNull final String key, @Nullable final Set<String> defValues) {
-		return Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB ? mPreferences.getStringSet(key, defValues) : null;
+		final long startTime = PreferencesTrace.begin();
+		final Set<String> values = Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB ? mPreferences.getStringSet(key, defValues) : null;
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return values;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putInt(@NonNull final String key, final int value) {
-		return mPreferences.edit().putInt(key, value).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().putInt(key, value).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public int getInt(@NonNull final String key, final int defValue) {
-		return mPreferences.getInt(key, defValue);
+		final long startTime = PreferencesTrace.begin();
+		final int value = mPreferences.getInt(key, defValue);
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return value;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putFloat(@NonNull final String key, final float value) {
-		return mPreferences.edit().putFloat(key, value).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().putFloat(key, value).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public float getFloat(@NonNull final String key, final float defValue) {
-		return mPreferences.getFloat(key, defValue);
+		final long startTime = PreferencesTrace.begin();
+		final float value = mPreferences.getFloat(key, defValue);
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return value;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putLong(@NonNull final String key, final long value) {
-		return mPreferences.edit().putLong(key, value).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().putLong(key, value).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public long getLong(@NonNull final String key, final long defValue) {
-		return mPreferences.getLong(key, defValue);
+		final long startTime = PreferencesTrace.begin();
+		final long value = mPreferences.getLong(key, defValue);
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return value;
+	}
+
+	/**
+	 * Puts the given double <var>value</var> for the specified <var>key</var> into {@code SharedPreferences}
+	 * hidden behind this facade.
+	 * <p>
+	 * The value is persisted losslessly as its raw long bits via {@link SharedPreferences.Editor#putLong(String, long)},
+	 * so it should be retrieved only via {@link #getDouble(String, double)}.
+	 *
+	 * @param key   The key for which to put the value into preferences.
+	 * @param value The desired value to put into preferences.
+	 * @return {@code True} if put has been successful, {@code false} otherwise.
+	 * @see Double#doubleToRawLongBits(double)
+	 */
+	public boolean putDouble(@NonNull final String key, final double value) {
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().putLong(key, Double.doubleToRawLongBits(value)).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
+	}
+
+	/**
+	 * Retrieves the double value persisted via {@link #putDouble(String, double)} for the specified
+	 * <var>key</var> from {@code SharedPreferences} hidden behind this facade.
+	 *
+	 * @param key      The key for which to retrieve its associated value.
+	 * @param defValue Default value to be returned in case when there is no value persisted for
+	 *                 the specified key.
+	 * @return Either persisted or default double value.
+	 */
+	public double getDouble(@NonNull final String key, final double defValue) {
+		final long startTime = PreferencesTrace.begin();
+		final double value = Double.longBitsToDouble(mPreferences.getLong(key, Double.doubleToRawLongBits(defValue)));
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return value;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putBoolean(@NonNull final String key, final boolean value) {
-		return mPreferences.edit().putBoolean(key, value).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().putBoolean(key, value).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_WRITE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
-		return mPreferences.getBoolean(key, defValue);
+		final long startTime = PreferencesTrace.begin();
+		final boolean value = mPreferences.getBoolean(key, defValue);
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_READ, mTraceStore, key, startTime);
+		return value;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean remove(@NonNull final String key) {
-		return mPreferences.edit().remove(key).commit();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mPreferences.edit().remove(key).commit();
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_REMOVE, mTraceStore, key, startTime);
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public int removeAll() {
+		final long startTime = PreferencesTrace.begin();
 		final Map<String, ?> values = mPreferences.getAll();
 		int result = 0;
 		if (!values.isEmpty()) {
@@ -219,6 +324,7 @@ public class SimpleSharedPreferencesFacade implements SharedPreferencesFacade {
 				if (mPreferences.edit().remove(entry.getKey()).commit()) result++;
 			}
 		}
+		PreferencesTrace.end(PreferencesTrace.LAYER_FACADE, PreferencesTrace.OP_REMOVE, mTraceStore, null, startTime);
 		return result;
 	}
 
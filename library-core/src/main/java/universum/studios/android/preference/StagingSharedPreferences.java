@@ -0,0 +1,197 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * A {@link SharedPreferencesWrapper} implementation which redirects changes made via all editors
+ * obtained via {@link #edit()} into a single editor specified by a caller. Calls to {@link Editor#commit()}
+ * or {@link Editor#apply()} upon such editors are ignored, so the staged changes may be committed
+ * by the caller at once.
+ * <p>
+ * <b>Note</b>, that values obtained from this preferences do not reflect the staged changes until
+ * they are committed.
+ *
+ * @author Martin Albedinsky
+ * @see SharedPreference#stageIntoEditor(SharedPreferences, SharedPreferences.Editor)
+ */
+final class StagingSharedPreferences extends SharedPreferencesWrapper {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "StagingSharedPreferences";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Editor into which are redirected all changes.
+	 */
+	private final StagingEditor mEditor;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of StagingSharedPreferences for the given <var>preferences</var> and
+	 * <var>editor</var>.
+	 *
+	 * @param preferences The shared preferences from which to obtain values.
+	 * @param editor      The editor into which to stage all changes.
+	 */
+	StagingSharedPreferences(@NonNull final SharedPreferences preferences, @NonNull final Editor editor) {
+		super(preferences);
+		this.mEditor = new StagingEditor(editor);
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 */
+	@NonNull
+	@Override
+	public Editor edit() {
+		return mEditor;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Editor which delegates all changes to the editor specified by a caller and ignores commits.
+	 */
+	private static final class StagingEditor implements Editor {
+
+		/**
+		 * Editor into which are staged all changes.
+		 */
+		final Editor editor;
+
+		/**
+		 * Creates a new instance of StagingEditor for the given <var>editor</var>.
+		 *
+		 * @param editor The editor into which to stage all changes.
+		 */
+		StagingEditor(final Editor editor) {
+			this.editor = editor;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putString(@NonNull final String key, @Nullable final String value) {
+			editor.putString(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putStringSet(@NonNull final String key, @Nullable final Set<String> values) {
+			editor.putStringSet(key, values);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putInt(@NonNull final String key, final int value) {
+			editor.putInt(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putLong(@NonNull final String key, final long value) {
+			editor.putLong(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putFloat(@NonNull final String key, final float value) {
+			editor.putFloat(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putBoolean(@NonNull final String key, final boolean value) {
+			editor.putBoolean(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor remove(@NonNull final String key) {
+			editor.remove(key);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor clear() {
+			editor.clear();
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean commit() {
+			// Staged changes are committed by the caller.
+			return true;
+		}
+
+		/**
+		 */
+		@Override
+		public void apply() {
+			// Staged changes are committed by the caller.
+		}
+	}
+}
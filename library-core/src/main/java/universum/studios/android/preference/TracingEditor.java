@@ -0,0 +1,168 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * A {@link SharedPreferences.Editor} implementation which delegates all changes to a wrapped editor
+ * and records each commit or apply of the changes via {@link PreferencesTrace}.
+ *
+ * @author Martin Albedinsky
+ * @see EditableSharedPreferencesFacade#edit()
+ */
+class TracingEditor implements SharedPreferences.Editor {
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Editor to which are delegated all changes.
+	 */
+	private final SharedPreferences.Editor mEditor;
+
+	/**
+	 * Layer recorded for commits and applies of this editor.
+	 */
+	@PreferencesTrace.Layer
+	private final int mTraceLayer;
+
+	/**
+	 * Name of the preferences store recorded for commits and applies of this editor.
+	 */
+	private final String mTraceStore;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of TracingEditor for the given <var>editor</var>.
+	 *
+	 * @param editor     The editor to which to delegate all changes.
+	 * @param traceLayer Layer to be recorded via {@link PreferencesTrace}.
+	 * @param traceStore Name of the preferences store to be recorded via {@link PreferencesTrace}.
+	 */
+	TracingEditor(final SharedPreferences.Editor editor, @PreferencesTrace.Layer final int traceLayer, @Nullable final String traceStore) {
+		this.mEditor = editor;
+		this.mTraceLayer = traceLayer;
+		this.mTraceStore = traceStore;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor putString(final String key, @Nullable final String value) {
+		mEditor.putString(key, value);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor putStringSet(final String key, @Nullable final Set<String> values) {
+		mEditor.putStringSet(key, values);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor putInt(final String key, final int value) {
+		mEditor.putInt(key, value);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor putLong(final String key, final long value) {
+		mEditor.putLong(key, value);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor putFloat(final String key, final float value) {
+		mEditor.putFloat(key, value);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor putBoolean(final String key, final boolean value) {
+		mEditor.putBoolean(key, value);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor remove(final String key) {
+		mEditor.remove(key);
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public SharedPreferences.Editor clear() {
+		mEditor.clear();
+		return this;
+	}
+
+	/**
+	 */
+	@Override
+	public boolean commit() {
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = mEditor.commit();
+		this.onChangesWritten();
+		PreferencesTrace.end(mTraceLayer, PreferencesTrace.OP_WRITE, mTraceStore, null, startTime);
+		return result;
+	}
+
+	/**
+	 */
+	@Override
+	public void apply() {
+		final long startTime = PreferencesTrace.begin();
+		mEditor.apply();
+		this.onChangesWritten();
+		PreferencesTrace.end(mTraceLayer, PreferencesTrace.OP_WRITE, mTraceStore, null, startTime);
+	}
+
+	/**
+	 * Invoked whenever changes made via this editor have been written into the in-memory values of
+	 * the preferences via {@link #commit()} or {@link #apply()}.
+	 */
+	void onChangesWritten() {
+		// Inheritance hierarchies may for example invalidate here values derived from the preferences.
+	}
+}
@@ -0,0 +1,411 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link SharedPreferencesWrapper} implementation which detects disk I/O performed by shared
+ * preferences on the main thread and reports it along with its duration and stack trace of the
+ * caller via {@link PreferencesLogging}.
+ * <p>
+ * The following accesses may be detected depending on flags specified for the watchdog:
+ * <ul>
+ * <li>{@link #DETECT_COMMITS}: synchronous {@link Editor#commit()} calls on the main thread,</li>
+ * <li>{@link #DETECT_FIRST_LOAD}: the first read on the main thread if it has been blocked for at
+ * least {@link #FIRST_LOAD_THRESHOLD_NANOS}, which happens when the read needs to wait until the
+ * preferences file is loaded. Reads served from already loaded preferences are not reported.</li>
+ * </ul>
+ * When {@link #DOWNGRADE_COMMITS} flag is specified, commits requested on the main thread are
+ * performed asynchronously via {@link Editor#apply()} instead and reported as successful. For pre
+ * {@link Build.VERSION_CODES#GINGERBREAD GINGERBREAD} Android versions the commits are not downgraded.
+ * <p>
+ * Instances of these preferences may be passed to {@link SimpleSharedPreferencesFacade} or to
+ * {@link SharedPreference#putIntoPreferences(SharedPreferences)} in order to detect disk I/O performed
+ * by them.
+ *
+ * @author Martin Albedinsky
+ */
+public final class WatchdogSharedPreferences extends SharedPreferencesWrapper {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	private static final String TAG = "WatchdogSharedPreferences";
+
+	/**
+	 * Flag indicating that synchronous commits on the main thread should be detected.
+	 */
+	public static final int DETECT_COMMITS = 0x00000001;
+
+	/**
+	 * Flag indicating that the first read on the main thread should be detected if it has been blocked
+	 * for at least {@link #FIRST_LOAD_THRESHOLD_NANOS}.
+	 */
+	public static final int DETECT_FIRST_LOAD = 0x00000002;
+
+	/**
+	 * Flag indicating that commits requested on the main thread should be downgraded to apply.
+	 */
+	public static final int DOWNGRADE_COMMITS = 0x00000004;
+
+	/**
+	 * Duration in nanoseconds for which needs to be the first read blocked in order to be reported
+	 * as loading of the preferences file. Reads from already loaded preferences take only few microseconds.
+	 */
+	public static final long FIRST_LOAD_THRESHOLD_NANOS = 1000000;
+
+	/**
+	 * Flags detecting all supported disk accesses.
+	 */
+	public static final int DETECT_ALL = DETECT_COMMITS | DETECT_FIRST_LOAD;
+
+	/**
+	 * Defines an annotation for determining set of allowed flags for the watchdog.
+	 */
+	@Retention(RetentionPolicy.SOURCE)
+	@IntDef(flag = true, value = {DETECT_COMMITS, DETECT_FIRST_LOAD, DOWNGRADE_COMMITS, DETECT_ALL})
+	public @interface Flags {
+	}
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Flags specifying which accesses to detect.
+	 */
+	private final int mFlags;
+
+	/**
+	 * Flag indicating whether the first read has been already performed.
+	 */
+	private final AtomicBoolean mFirstReadPerformed = new AtomicBoolean(false);
+
+	/**
+	 * Count of disk accesses on the main thread detected so far.
+	 */
+	private final AtomicInteger mViolationsCount = new AtomicInteger();
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of WatchdogSharedPreferences for the given <var>preferences</var>.
+	 *
+	 * @param preferences The shared preferences to be wrapped.
+	 * @param flags       Flags specifying which accesses to detect and whether to downgrade commits.
+	 */
+	public WatchdogSharedPreferences(@NonNull final SharedPreferences preferences, @Flags final int flags) {
+		super(preferences);
+		this.mFlags = flags;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns count of disk accesses on the main thread detected so far.
+	 *
+	 * @return Count of reported accesses. Downgraded commits are included only if {@link #DETECT_COMMITS}
+	 * has been requested.
+	 */
+	public int getViolationsCount() {
+		return mViolationsCount.get();
+	}
+
+	/**
+	 * Reports disk access with the specified <var>description</var> which took the specified
+	 * <var>durationNanos</var>.
+	 */
+	private void reportViolation(final String description, final long durationNanos) {
+		mViolationsCount.incrementAndGet();
+		if (PreferencesLogging.isLoggable(TAG, Log.WARN)) {
+			PreferencesLogging.w(
+					TAG,
+					description + " on the main thread took(" + (durationNanos / 1000) + " us).",
+					new MainThreadDiskAccess(description)
+			);
+		}
+	}
+
+	/**
+	 * Called before a read of a value from the wrapped preferences.
+	 *
+	 * @return Start time of the read in nanoseconds if it should be checked, {@code 0} otherwise.
+	 */
+	private long onReadStarted() {
+		if ((mFlags & DETECT_FIRST_LOAD) == 0 || mFirstReadPerformed.get()) {
+			return 0;
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Called after a read of a value for the specified <var>key</var> started at the specified
+	 * <var>startTime</var>.
+	 */
+	private void onReadFinished(final String key, final long startTime) {
+		if (startTime != 0 && mFirstReadPerformed.compareAndSet(false, true) && PreferencesThreads.isMainThread()) {
+			final long duration = System.nanoTime() - startTime;
+			if (duration >= FIRST_LOAD_THRESHOLD_NANOS) {
+				reportViolation("First read for the key(" + key + ")", duration);
+			}
+		}
+	}
+
+	/**
+	 */
+	@Override
+	public boolean contains(@NonNull final String key) {
+		final long startTime = onReadStarted();
+		final boolean contains = super.contains(key);
+		this.onReadFinished(key, startTime);
+		return contains;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		final long startTime = onReadStarted();
+		final String value = super.getString(key, defValue);
+		this.onReadFinished(key, startTime);
+		return value;
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public Set<String> getStringSet(@NonNull final String key, @Nullable final Set<String> defValues) {
+		final long startTime = onReadStarted();
+		final Set<String> values = super.getStringSet(key, defValues);
+		this.onReadFinished(key, startTime);
+		return values;
+	}
+
+	/**
+	 */
+	@Override
+	public int getInt(@NonNull final String key, final int defValue) {
+		final long startTime = onReadStarted();
+		final int value = super.getInt(key, defValue);
+		this.onReadFinished(key, startTime);
+		return value;
+	}
+
+	/**
+	 */
+	@Override
+	public long getLong(@NonNull final String key, final long defValue) {
+		final long startTime = onReadStarted();
+		final long value = super.getLong(key, defValue);
+		this.onReadFinished(key, startTime);
+		return value;
+	}
+
+	/**
+	 */
+	@Override
+	public float getFloat(@NonNull final String key, final float defValue) {
+		final long startTime = onReadStarted();
+		final float value = super.getFloat(key, defValue);
+		this.onReadFinished(key, startTime);
+		return value;
+	}
+
+	/**
+	 */
+	@Override
+	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
+		final long startTime = onReadStarted();
+		final boolean value = super.getBoolean(key, defValue);
+		this.onReadFinished(key, startTime);
+		return value;
+	}
+
+	/**
+	 */
+	@NonNull
+	@Override
+	public Editor edit() {
+		final Editor editor = super.edit();
+		return (mFlags & (DETECT_COMMITS | DOWNGRADE_COMMITS)) == 0 ? editor : new WatchdogEditor(editor);
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Throwable used only to capture stack trace of a caller which performed disk access on the
+	 * main thread.
+	 *
+	 * @author Martin Albedinsky
+	 */
+	public static final class MainThreadDiskAccess extends Throwable {
+
+		/**
+		 * Creates a new instance of MainThreadDiskAccess with the specified <var>message</var>.
+		 *
+		 * @param message Description of the disk access.
+		 */
+		MainThreadDiskAccess(final String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Editor which detects and optionally downgrades commits on the main thread.
+	 */
+	private final class WatchdogEditor implements Editor {
+
+		/**
+		 * Editor of the wrapped preferences.
+		 */
+		private final Editor editor;
+
+		/**
+		 * Creates a new instance of WatchdogEditor for the given <var>editor</var>.
+		 */
+		WatchdogEditor(final Editor editor) {
+			this.editor = editor;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putString(final String key, @Nullable final String value) {
+			editor.putString(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putStringSet(final String key, @Nullable final Set<String> values) {
+			editor.putStringSet(key, values);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putInt(final String key, final int value) {
+			editor.putInt(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putLong(final String key, final long value) {
+			editor.putLong(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putFloat(final String key, final float value) {
+			editor.putFloat(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor putBoolean(final String key, final boolean value) {
+			editor.putBoolean(key, value);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor remove(final String key) {
+			editor.remove(key);
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public Editor clear() {
+			editor.clear();
+			return this;
+		}
+
+		/**
+		 */
+		@Override
+		public boolean commit() {
+			if (!PreferencesThreads.isMainThread()) {
+				return editor.commit();
+			}
+			final long startTime = System.nanoTime();
+			if ((mFlags & DOWNGRADE_COMMITS) != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.GINGERBREAD) {
+				editor.apply();
+				if ((mFlags & DETECT_COMMITS) != 0) {
+					reportViolation("Commit downgraded to apply", System.nanoTime() - startTime);
+				}
+				return true;
+			}
+			final boolean result = editor.commit();
+			if ((mFlags & DETECT_COMMITS) != 0) {
+				reportViolation("Commit", System.nanoTime() - startTime);
+			}
+			return result;
+		}
+
+		/**
+		 */
+		@Override
+		public void apply() {
+			editor.apply();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation type used to mark an interface that declares keys and default values of preferences
+ * from which should be generated an accessor class at compile time.
+ * <p>
+ * Each field of the annotated interface that is annotated with {@link PreferenceKey @PreferenceKey}
+ * represents a single preference where type of the field determines type of the preference value
+ * and value of the field its default value. Supported are {@code boolean}, {@code int}, {@code long},
+ * {@code float}, {@code double} and {@link String} fields.
+ * <pre>
+ * &#64;PreferencesAccessor
+ * public interface AppSettings {
+ *
+ *      &#64;PreferenceKey("PREFERENCE.FirstLaunch")
+ *      boolean FIRST_LAUNCH = true;
+ *
+ *      &#64;PreferenceKey("PREFERENCE.LaunchCount")
+ *      int LAUNCH_COUNT = 0;
+ * }
+ * </pre>
+ * The generated {@code AppSettingsAccessor} class operates on top of a {@code SharedPreferencesFacade}
+ * and provides primitive typed getters and setters like {@code isFirstLaunch()} or {@code setLaunchCount(int)}
+ * together with {@code edit()} method that may be used to change values of multiple preferences at once.
+ *
+ * <h3>Processing</h3>
+ * This annotation is processed by {@code preferences-compiler} which needs to be added as annotation
+ * processor:
+ * <pre>
+ * annotationProcessor "universum.studios.android:preferences-compiler:${DESIRED_VERSION}"
+ * </pre>
+ *
+ * @author Martin Albedinsky
+ * @see PreferenceKey
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface PreferencesAccessor {
+
+	/**
+	 * Simple name of the generated accessor class. If not specified, simple name of the annotated
+	 * interface with {@code Accessor} suffix is used.
+	 */
+	String className() default "";
+}
@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import universum.studios.android.crypto.Crypto;
 import universum.studios.android.preference.PreferencesLogging;
+import universum.studios.android.preference.PreferencesTrace;
 import universum.studios.android.preference.SharedPreferencesCache;
 
 /**
@@ -277,18 +278,22 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 	@Nullable
 	@Override
 	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		final long startTime = PreferencesTrace.begin();
 		if (mCache == null || !mCache.contains(key)) {
 			final String encryptedValue = mDelegate.getString(mHelper.encryptKey(key), defValue);
 			if (CryptoHelper.areValuesEqual(encryptedValue, defValue)) {
+				PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 				return defValue;
 			}
 			final String decryptedValue = mHelper.decryptValue(encryptedValue);
 			if (mCache != null) {
 				mCache.putString(key, decryptedValue);
 			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 			return decryptedValue;
 		}
-		PreferencesLogging.d(TAG, "Retrieving String value for key(" + key + ") from the cache.");
+		PreferencesLogging.d(TAG, "Retrieving String value for key(%s) from the cache.", key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_CACHE_HIT, null, key, startTime);
 		return mCache.getString(key);
 	}
 
@@ -300,18 +305,22 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
 			return defValues;
 		}
+		final long startTime = PreferencesTrace.begin();
 		if (mCache == null || !mCache.contains(key)) {
 			final Set<String> encryptedValues = mDelegate.getStringSet(mHelper.encryptKey(key), defValues);
 			if (CryptoHelper.areValuesEqual(encryptedValues, defValues)) {
+				PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 				return defValues;
 			}
 			final Set<String> decryptedValues = mHelper.decryptValuesSet(encryptedValues);
 			if (mCache != null) {
 				mCache.putStringSet(key, decryptedValues);
 			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 			return decryptedValues;
 		}
-		PreferencesLogging.d(TAG, "Retrieving Set<String> value for key(" + key + ") from the cache.");
+		PreferencesLogging.d(TAG, "Retrieving Set<String> value for key(%s) from the cache.", key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_CACHE_HIT, null, key, startTime);
 		return mCache.getStringSet(key);
 	}
 
@@ -319,18 +328,22 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 	 */
 	@Override
 	public int getInt(@NonNull final String key, final int defValue) {
+		final long startTime = PreferencesTrace.begin();
 		if (mCache == null || !mCache.contains(key)) {
 			final String encryptedValue = mDelegate.getString(mHelper.encryptKey(key), Integer.toString(defValue));
 			if (CryptoHelper.areValuesEqual(encryptedValue, defValue)) {
+				PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 				return defValue;
 			}
 			final int decryptedValue = Integer.parseInt(mHelper.decryptValue(encryptedValue));
 			if (mCache != null) {
 				mCache.putInt(key, decryptedValue);
 			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 			return decryptedValue;
 		}
-		PreferencesLogging.d(TAG, "Retrieving int value for key(" + key + ") from the cache.");
+		PreferencesLogging.d(TAG, "Retrieving int value for key(%s) from the cache.", key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_CACHE_HIT, null, key, startTime);
 		return mCache.getInt(key);
 	}
 
@@ -338,18 +351,22 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 	 */
 	@Override
 	public long getLong(@NonNull final String key, final long defValue) {
+		final long startTime = PreferencesTrace.begin();
 		if (mCache == null || !mCache.contains(key)) {
 			final String encryptedValue = mDelegate.getString(mHelper.encryptKey(key), Long.toString(defValue));
 			if (CryptoHelper.areValuesEqual(encryptedValue, defValue)) {
+				PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 				return defValue;
 			}
 			final long decryptedValue = Long.parseLong(mHelper.decryptValue(encryptedValue));
 			if (mCache != null) {
 				mCache.putLong(key, decryptedValue);
 			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 			return decryptedValue;
 		}
-		PreferencesLogging.d(TAG, "Retrieving long value for key(" + key + ") from the cache.");
+		PreferencesLogging.d(TAG, "Retrieving long value for key(%s) from the cache.", key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_CACHE_HIT, null, key, startTime);
 		return mCache.getLong(key);
 	}
 
@@ -357,18 +374,22 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 	 */
 	@Override
 	public float getFloat(@NonNull final String key, final float defValue) {
+		final long startTime = PreferencesTrace.begin();
 		if (mCache == null || !mCache.contains(key)) {
 			final String encryptedValue = mDelegate.getString(mHelper.encryptKey(key), Float.toString(defValue));
 			if (CryptoHelper.areValuesEqual(encryptedValue, defValue)) {
+				PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 				return defValue;
 			}
 			final float decryptedValue = Float.parseFloat(mHelper.decryptValue(encryptedValue));
 			if (mCache != null) {
 				mCache.putFloat(key, decryptedValue);
 			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 			return decryptedValue;
 		}
-		PreferencesLogging.d(TAG, "Retrieving float value for key(" + key + ") from the cache.");
+		PreferencesLogging.d(TAG, "Retrieving float value for key(%s) from the cache.", key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_CACHE_HIT, null, key, startTime);
 		return mCache.getFloat(key);
 	}
 
@@ -376,18 +397,22 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 	 */
 	@Override
 	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
+		final long startTime = PreferencesTrace.begin();
 		if (mCache == null || !mCache.contains(key)) {
 			final String encryptedValue = mDelegate.getString(mHelper.encryptKey(key), Boolean.toString(defValue));
 			if (CryptoHelper.areValuesEqual(encryptedValue, defValue)) {
+				PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 				return defValue;
 			}
 			final boolean decryptedValue = Boolean.parseBoolean(mHelper.decryptValue(encryptedValue));
 			if (mCache != null) {
 				mCache.putBoolean(key, decryptedValue);
 			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_READ, null, key, startTime);
 			return decryptedValue;
 		}
-		PreferencesLogging.d(TAG, "Retrieving boolean value for key(" + key + ") from the cache.");
+		PreferencesLogging.d(TAG, "Retrieving boolean value for key(%s) from the cache.", key);
+		PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_CACHE_HIT, null, key, startTime);
 		return mCache.getBoolean(key);
 	}
 
@@ -831,7 +856,10 @@ public final class CryptoSharedPreferences implements SharedPreferences {
 		 */
 		@Override
 		public boolean commit() {
-			return delegate.commit();
+			final long startTime = PreferencesTrace.begin();
+			final boolean result = delegate.commit();
+			PreferencesTrace.end(PreferencesTrace.LAYER_CRYPTO, PreferencesTrace.OP_WRITE, null, null, startTime);
+			return result;
 		}
 
 		/**
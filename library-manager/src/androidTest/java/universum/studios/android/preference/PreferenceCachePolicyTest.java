@@ -0,0 +1,81 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import universum.studios.android.test.BaseInstrumentedTest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Martin Albedinsky
+ */
+@RunWith(AndroidJUnit4.class)
+public final class PreferenceCachePolicyTest extends BaseInstrumentedTest {
+
+	@SuppressWarnings("unused")
+	private static final String TAG = "PreferenceCachePolicyTest";
+
+	@Test
+	public void testAlways() {
+		assertThat(PreferenceCachePolicy.ALWAYS.getType(), is(PreferenceCachePolicy.TYPE_ALWAYS));
+		assertThat(PreferenceCachePolicy.ALWAYS.allows(Long.MAX_VALUE, 0, Long.MAX_VALUE), is(true));
+	}
+
+	@Test
+	public void testNever() {
+		assertThat(PreferenceCachePolicy.NEVER.getType(), is(PreferenceCachePolicy.TYPE_NEVER));
+		assertThat(PreferenceCachePolicy.NEVER.allows(0, 0, 0), is(false));
+	}
+
+	@Test
+	public void testExpiring() {
+		final PreferenceCachePolicy policy = PreferenceCachePolicy.expiring(1000);
+		assertThat(policy.getType(), is(PreferenceCachePolicy.TYPE_EXPIRING));
+		assertThat(policy.getTimeToLive(), is(1000L));
+		assertThat(policy.getMaxBytes(), is(0));
+		assertThat(policy.allows(Long.MAX_VALUE, 500, 1499), is(true));
+		assertThat(policy.allows(0, 500, 1500), is(false));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExpiringWithNegativeTime() {
+		PreferenceCachePolicy.expiring(-1);
+	}
+
+	@Test
+	public void testLimited() {
+		final PreferenceCachePolicy policy = PreferenceCachePolicy.limited(64);
+		assertThat(policy.getType(), is(PreferenceCachePolicy.TYPE_LIMITED));
+		assertThat(policy.getMaxBytes(), is(64));
+		assertThat(policy.getTimeToLive(), is(0L));
+		assertThat(policy.allows(64, 0, Long.MAX_VALUE), is(true));
+		assertThat(policy.allows(65, 0, 0), is(false));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLimitedWithNegativeSize() {
+		PreferenceCachePolicy.limited(-1);
+	}
+}
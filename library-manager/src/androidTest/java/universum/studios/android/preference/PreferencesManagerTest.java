@@ -19,6 +19,8 @@
 package universum.studios.android.preference;
 
 import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
 import android.support.test.runner.AndroidJUnit4;
 
 import org.junit.Test;
@@ -26,6 +28,8 @@ import org.junit.runner.RunWith;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import universum.studios.android.test.BaseInstrumentedTest;
 import universum.studios.android.test.TestUtils;
@@ -136,6 +140,35 @@ public final class PreferencesManagerTest extends BaseInstrumentedTest {
 		assertThat(mManager.key(keyIdentifier), is("TEST_PREFERENCE.Key"));
 	}
 
+	@Test
+	public void testPreloadKeys() {
+		assumeTrue(TestUtils.hasLibraryRootTestPackageName(mContext));
+		final int keyIdentifier = mContext.getResources().getIdentifier(
+				"test_preference_key",
+				"string",
+				mContext.getPackageName()
+		);
+		mManager.preloadKeys(keyIdentifier);
+		assertThat(mManager.key(keyIdentifier), is("TEST_PREFERENCE.Key"));
+		assertThat(mManager.key(keyIdentifier), is(mManager.key(keyIdentifier)));
+	}
+
+	@Test
+	public void testPutGetForResourceKey() {
+		assumeTrue(TestUtils.hasLibraryRootTestPackageName(mContext));
+		final int keyIdentifier = mContext.getResources().getIdentifier(
+				"test_preference_key",
+				"string",
+				mContext.getPackageName()
+		);
+		assertThat(mManager.putInt(keyIdentifier, 10), is(true));
+		assertThat(mManager.contains(keyIdentifier), is(true));
+		assertThat(mManager.getInt(keyIdentifier, 0), is(10));
+		assertThat(mManager.getInt("TEST_PREFERENCE.Key", 0), is(10));
+		assertThat(mManager.remove(keyIdentifier), is(true));
+		assertThat(mManager.contains(keyIdentifier), is(false));
+	}
+
 	@Test
 	public void testContains() {
 		assertThat(mManager.contains(PREF_KEY), is(false));
@@ -173,6 +206,13 @@ public final class PreferencesManagerTest extends BaseInstrumentedTest {
 		assertThat(mManager.getFloat(PREF_KEY, 0.0f), is(0.05f));
 	}
 
+	@Test
+	public void testPutGetDouble() {
+		assertThat(mManager.getDouble(PREF_KEY, 0.0), is(0.0));
+		assertThat(mManager.putDouble(PREF_KEY, 48.1486104), is(true));
+		assertThat(mManager.getDouble(PREF_KEY, 0.0), is(48.1486104));
+	}
+
 	@Test
 	public void testPutGetLong() {
 		assertThat(mManager.getLong(PREF_KEY, 100L), is(100L));
@@ -239,4 +279,197 @@ public final class PreferencesManagerTest extends BaseInstrumentedTest {
 		assertThat(mManager.putPreference(mPreference, true), is(true));
 		assertThat(mManager.getPreference(mPreference), is(true));
 	}
+
+	@Test
+	public void testCachePolicy() {
+		assertThat(mManager.getCachePolicy(mPreference), is(PreferenceCachePolicy.NEVER));
+		mManager.setCachingEnabled(true);
+		assertThat(mManager.getCachePolicy(mPreference), is(PreferenceCachePolicy.ALWAYS));
+		mManager.setCachePolicy(mPreference, PreferenceCachePolicy.NEVER);
+		assertThat(mManager.getCachePolicy(mPreference), is(PreferenceCachePolicy.NEVER));
+		mManager.setCachePolicy(mPreference, null);
+		assertThat(mManager.getCachePolicy(mPreference), is(PreferenceCachePolicy.ALWAYS));
+	}
+
+	@Test
+	public void testCachePolicyAlways() {
+		mManager.setCachePolicy(mPreference, PreferenceCachePolicy.ALWAYS);
+		assertThat(mManager.putPreference(mPreference, false), is(true));
+		mManager.getSharedPreferences().edit().putBoolean(mPreference.getKey(), true).commit();
+		assertThat(mManager.getPreference(mPreference), is(false));
+	}
+
+	@Test
+	public void testCachePolicyNever() {
+		mManager.setCachingEnabled(true);
+		mManager.setCachePolicy(mPreference, PreferenceCachePolicy.NEVER);
+		assertThat(mManager.putPreference(mPreference, false), is(true));
+		mManager.getSharedPreferences().edit().putBoolean(mPreference.getKey(), true).commit();
+		assertThat(mManager.getPreference(mPreference), is(true));
+	}
+
+	@Test
+	public void testCachePolicyLimited() {
+		final StringPreference preference = new StringPreference(PREF_KEY, null);
+		mManager.setCachePolicy(preference, PreferenceCachePolicy.limited(64));
+		assertThat(mManager.putPreference(preference, "value"), is(true));
+		mManager.getSharedPreferences().edit().putString(PREF_KEY, "other").commit();
+		assertThat(mManager.getPreference(preference), is("value"));
+		assertThat(mManager.putPreference(preference, "value exceeding the limit of the cache policy"), is(true));
+		mManager.getSharedPreferences().edit().putString(PREF_KEY, "other").commit();
+		assertThat(mManager.getPreference(preference), is("other"));
+	}
+
+	@Test
+	public void testCacheMemoryBudget() {
+		final StringPreference firstPreference = new StringPreference(PREF_KEY + ".First", null);
+		final StringPreference secondPreference = new StringPreference(PREF_KEY + ".Second", null);
+		mManager.setCachingEnabled(true);
+		assertThat(mManager.getCacheMemoryBudget(), is(PreferencesManager.CACHE_MEMORY_BUDGET_UNLIMITED));
+		mManager.setCacheMemoryBudget(64);
+		assertThat(mManager.getCacheMemoryBudget(), is(64L));
+		assertThat(mManager.putPreference(firstPreference, "first"), is(true));
+		assertThat(mManager.putPreference(secondPreference, "second"), is(true));
+		assertThat(mManager.getCachedBytes() <= 64, is(true));
+		// The first preference has been evicted in favor of the second one.
+		mManager.getSharedPreferences().edit().putString(firstPreference.getKey(), "other").commit();
+		assertThat(mManager.getPreference(firstPreference), is("other"));
+	}
+
+	@Test
+	public void testPutGetPreferences() {
+		final StringPreference stringPreference = new StringPreference(PREF_KEY + ".String", null);
+		final IntegerPreference integerPreference = new IntegerPreference(PREF_KEY + ".Integer", 0);
+		stringPreference.updateValue("value");
+		integerPreference.updateValue(10);
+		assertThat(mManager.putPreferences(stringPreference, integerPreference), is(true));
+		assertThat(mManager.getString(stringPreference.getKey(), null), is("value"));
+		assertThat(mManager.getInt(integerPreference.getKey(), 0), is(10));
+		final Object[] values = mManager.getPreferences(stringPreference, integerPreference);
+		assertThat(values.length, is(2));
+		assertThat((String) values[0], is("value"));
+		assertThat((Integer) values[1], is(10));
+	}
+
+	@Test
+	public void testPutPreferencesWhenStagingFails() {
+		final StringPreference stringPreference = new StringPreference(PREF_KEY + ".String", null);
+		final SharedPreference<Integer> failingPreference = new SharedPreference<Integer>(PREF_KEY + ".Failing", 0) {
+
+			@Override
+			protected boolean onPutIntoPreferences(@NonNull final SharedPreferences preferences) {
+				return false;
+			}
+
+			@Override
+			protected Integer onGetFromPreferences(@NonNull final SharedPreferences preferences) {
+				return preferences.getInt(getKey(), getDefaultValue());
+			}
+		};
+		stringPreference.updateValue("value");
+		failingPreference.updateValue(10);
+		assertThat(mManager.putPreferences(stringPreference, failingPreference), is(false));
+		assertThat(mManager.contains(stringPreference.getKey()), is(false));
+		assertThat(mManager.contains(failingPreference.getKey()), is(false));
+	}
+
+	@Test
+	public void testGetPreferencesReflectsChanges() {
+		final IntegerPreference preference = new IntegerPreference(PREF_KEY, 0);
+		assertThat(mManager.putInt(PREF_KEY, 1), is(true));
+		assertThat((Integer) mManager.getPreferences(preference)[0], is(1));
+		mManager.getSharedPreferences().edit().putInt(PREF_KEY, 2).commit();
+		// Direct changes invalidate the snapshot only once the change listener is notified on the main thread.
+		InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+		assertThat((Integer) mManager.getPreferences(preference)[0], is(2));
+	}
+
+	@Test
+	public void testSnapshot() {
+		assertThat(mManager.putInt(PREF_KEY, 1), is(true));
+		final SharedPreferencesSnapshot snapshot = mManager.snapshot();
+		assertThat(snapshot.getInt(PREF_KEY, 0), is(1));
+		assertThat(mManager.snapshot() == snapshot, is(true));
+	}
+
+	@Test
+	public void testSnapshotAfterChange() {
+		assertThat(mManager.putInt(PREF_KEY, 1), is(true));
+		final SharedPreferencesSnapshot snapshot = mManager.snapshot();
+		assertThat(mManager.putInt(PREF_KEY, 2), is(true));
+		assertThat(snapshot.getInt(PREF_KEY, 0), is(1));
+		assertThat(mManager.snapshot().getInt(PREF_KEY, 0), is(2));
+	}
+
+	@Test
+	public void testSnapshotAfterChangeViaEditor() {
+		assertThat(mManager.putInt(PREF_KEY, 1), is(true));
+		assertThat(mManager.snapshot().getInt(PREF_KEY, 0), is(1));
+		// Tests do not run on the main thread, so the snapshot needs to be invalidated without
+		// waiting for the change listener that is notified on the main thread.
+		assertThat(mManager.edit().putInt(PREF_KEY, 2).commit(), is(true));
+		assertThat(mManager.snapshot().getInt(PREF_KEY, 0), is(2));
+	}
+
+	@Test
+	public void testGetSharedPreferencesConcurrently() throws Exception {
+		final int threadsCount = 8;
+		final SharedPreferences[] preferences = new SharedPreferences[threadsCount];
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final CountDownLatch doneLatch = new CountDownLatch(threadsCount);
+		for (int i = 0; i < threadsCount; i++) {
+			final int index = i;
+			new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+						preferences[index] = mManager.getSharedPreferences();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						doneLatch.countDown();
+					}
+				}
+			}).start();
+		}
+		startLatch.countDown();
+		assertThat(doneLatch.await(5, TimeUnit.SECONDS), is(true));
+		for (final SharedPreferences preference : preferences) {
+			assertThat(preference == mManager.getSharedPreferences(), is(true));
+		}
+	}
+
+	@Test
+	public void testPutIntConcurrentlyWithNameSwitch() throws Exception {
+		final int threadsCount = 4;
+		final CountDownLatch doneLatch = new CountDownLatch(threadsCount);
+		for (int i = 0; i < threadsCount; i++) {
+			final int index = i;
+			new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int j = 0; j < 100; j++) {
+							mManager.putInt(PREF_KEY + "." + index, j);
+						}
+					} finally {
+						doneLatch.countDown();
+					}
+				}
+			}).start();
+		}
+		mManager.setSharedPreferencesName(TAG);
+		mManager.setSharedPreferencesName(null);
+		assertThat(doneLatch.await(5, TimeUnit.SECONDS), is(true));
+		final SharedPreferences preferences = mContext.getSharedPreferences(TAG, SharedPreferencesPolicy.MODE_PRIVATE);
+		for (int i = 0; i < threadsCount; i++) {
+			// The last value has been put either into the switched or into the default preferences.
+			final String key = PREF_KEY + "." + i;
+			assertThat(mManager.getInt(key, 0) == 99 || preferences.getInt(key, 0) == 99, is(true));
+		}
+		preferences.edit().clear().commit();
+	}
 }
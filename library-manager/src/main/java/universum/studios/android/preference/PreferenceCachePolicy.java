@@ -0,0 +1,223 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Policy specifying whether and how long an actual value of a specific {@link SharedPreference} may
+ * be cached by {@link PreferencesManager}. A policy may be specified for a desired preference via
+ * {@link PreferencesManager#setCachePolicy(SharedPreference, PreferenceCachePolicy)}.
+ * <p>
+ * The following policies are available:
+ * <ul>
+ * <li>{@link #ALWAYS}</li>
+ * <li>{@link #NEVER}</li>
+ * <li>{@link #expiring(long)}</li>
+ * <li>{@link #limited(int)}</li>
+ * </ul>
+ *
+ * @author Martin Albedinsky
+ * @see PreferencesManager#setCacheMemoryBudget(long)
+ */
+public final class PreferenceCachePolicy {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "PreferenceCachePolicy";
+
+	/**
+	 * Type of policy which allows caching of a value without any restrictions.
+	 */
+	public static final int TYPE_ALWAYS = 0x00;
+
+	/**
+	 * Type of policy which does not allow caching of a value.
+	 */
+	public static final int TYPE_NEVER = 0x01;
+
+	/**
+	 * Type of policy which allows caching of a value only for a limited time.
+	 */
+	public static final int TYPE_EXPIRING = 0x02;
+
+	/**
+	 * Type of policy which allows caching of a value only if its estimated size does not exceed
+	 * a specific limit.
+	 */
+	public static final int TYPE_LIMITED = 0x03;
+
+	/**
+	 * Defines an annotation for determining set of allowed policy types.
+	 */
+	@Retention(RetentionPolicy.SOURCE)
+	@IntDef({TYPE_ALWAYS, TYPE_NEVER, TYPE_EXPIRING, TYPE_LIMITED})
+	public @interface Type {
+	}
+
+	/**
+	 * Policy which allows caching of a value without any restrictions.
+	 */
+	public static final PreferenceCachePolicy ALWAYS = new PreferenceCachePolicy(TYPE_ALWAYS, 0);
+
+	/**
+	 * Policy which does not allow caching of a value, so the value is always obtained from shared
+	 * preferences.
+	 */
+	public static final PreferenceCachePolicy NEVER = new PreferenceCachePolicy(TYPE_NEVER, 0);
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Type of this policy.
+	 */
+	@Type
+	private final int mType;
+
+	/**
+	 * Time to live in milliseconds for {@link #TYPE_EXPIRING} or maximum size in bytes for
+	 * {@link #TYPE_LIMITED}.
+	 */
+	private final long mLimit;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of PreferenceCachePolicy with the specified <var>type</var> and <var>limit</var>.
+	 *
+	 * @param type  Type of the new policy.
+	 * @param limit Limit of the new policy specific for its type.
+	 */
+	private PreferenceCachePolicy(@Type final int type, final long limit) {
+		this.mType = type;
+		this.mLimit = limit;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Creates a new policy which allows caching of a value at most for the specified time.
+	 *
+	 * @param timeToLive Time in milliseconds after which should be the cached value obtained again
+	 *                   from shared preferences.
+	 * @return Policy with {@link #TYPE_EXPIRING} type.
+	 * @throws IllegalArgumentException If the specified time is negative.
+	 */
+	@NonNull
+	public static PreferenceCachePolicy expiring(final long timeToLive) {
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("Time to live cannot be negative. Specified(" + timeToLive + ").");
+		}
+		return new PreferenceCachePolicy(TYPE_EXPIRING, timeToLive);
+	}
+
+	/**
+	 * Creates a new policy which allows caching of a value only if its estimated size in memory does
+	 * not exceed the specified <var>maxBytes</var>.
+	 *
+	 * @param maxBytes The maximum estimated size of a value in bytes that may be cached.
+	 * @return Policy with {@link #TYPE_LIMITED} type.
+	 * @throws IllegalArgumentException If the specified size is negative.
+	 */
+	@NonNull
+	public static PreferenceCachePolicy limited(final int maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Maximum size cannot be negative. Specified(" + maxBytes + ").");
+		}
+		return new PreferenceCachePolicy(TYPE_LIMITED, maxBytes);
+	}
+
+	/**
+	 * Returns the type of this policy.
+	 *
+	 * @return One of {@link #TYPE_ALWAYS}, {@link #TYPE_NEVER}, {@link #TYPE_EXPIRING} or {@link #TYPE_LIMITED}.
+	 */
+	@Type
+	public int getType() {
+		return mType;
+	}
+
+	/**
+	 * Returns the time to live of a cached value specified for this policy.
+	 *
+	 * @return Time in milliseconds or {@code 0} if this policy is not of {@link #TYPE_EXPIRING} type.
+	 */
+	public long getTimeToLive() {
+		return mType == TYPE_EXPIRING ? mLimit : 0;
+	}
+
+	/**
+	 * Returns the maximum size of a cached value specified for this policy.
+	 *
+	 * @return Size in bytes or {@code 0} if this policy is not of {@link #TYPE_LIMITED} type.
+	 */
+	public int getMaxBytes() {
+		return mType == TYPE_LIMITED ? (int) mLimit : 0;
+	}
+
+	/**
+	 * Checks whether a value with the specified <var>size</var> and cached at the specified
+	 * <var>cachedAt</var> time may still be cached at the specified <var>now</var> time.
+	 *
+	 * @param size     Estimated size of the value in bytes.
+	 * @param cachedAt Time in milliseconds when the value has been cached.
+	 * @param now      The current time in milliseconds.
+	 * @return {@code True} if the value may remain cached, {@code false} otherwise.
+	 */
+	boolean allows(final long size, final long cachedAt, final long now) {
+		switch (mType) {
+			case TYPE_ALWAYS:
+				return true;
+			case TYPE_EXPIRING:
+				return now - cachedAt < mLimit;
+			case TYPE_LIMITED:
+				return size <= mLimit;
+			case TYPE_NEVER:
+			default:
+				return false;
+		}
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
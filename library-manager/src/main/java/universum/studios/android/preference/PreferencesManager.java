@@ -20,14 +20,20 @@ package universum.studios.android.preference;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StringRes;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Manager which implements {@link SharedPreferencesFacade} along with {@link SharedPreferencesProvider}
+ * Manager which implements {@link EditableSharedPreferencesFacade} along with {@link SharedPreferencesProvider}
  * in order to provide a simple API for putting and obtaining of values persisted within {@link SharedPreferences}.
  *
  * <h3>Shared preferences</h3>
@@ -41,6 +47,37 @@ import java.util.Set;
  * <li>{@link #containsPreference(SharedPreference)}</li>
  * <li>{@link #removePreference(SharedPreference)}</li>
  * </ul>
+ * Values of multiple preferences may be put or obtained at once via {@link #putPreferences(SharedPreference[])}
+ * and {@link #getPreferences(SharedPreference[])}.
+ *
+ * <h3>Caching</h3>
+ * Actual values of shared preferences put or obtained via this manager may be cached by the preference
+ * objects themselves. Whether a value of a specific preference may be cached is determined by
+ * {@link PreferenceCachePolicy} specified for that preference via {@link #setCachePolicy(SharedPreference, PreferenceCachePolicy)}.
+ * Preferences without any policy specified are cached only if caching is enabled via {@link #setCachingEnabled(boolean)}.
+ * Total estimated size of all cached values may be limited via {@link #setCacheMemoryBudget(long)}
+ * in which case the least recently accessed values are evicted from cache whenever the budget is exceeded.
+ * <b>Note</b>, that the manager keeps strong references to preferences with a cache policy specified
+ * or with a value cached under the memory budget, so a preference which is no longer used should be
+ * released via {@code setCachePolicy(preference, null)}.
+ *
+ * <h3>Snapshots</h3>
+ * Values of multiple related preferences may be obtained consistently via {@link #snapshot()} which
+ * returns immutable {@link SharedPreferencesSnapshot} of all values. The snapshot is captured only
+ * once and shared until a value is changed, so obtaining of values from a snapshot avoids locking of
+ * the preferences. Changes made via this manager, including its {@link #edit()}, are reflected by the
+ * very next snapshot. Changes made directly via {@link #getSharedPreferences()} or via any other
+ * instance of the same preferences are only <b>eventually</b> reflected, that is, once the registered
+ * {@link SharedPreferences.OnSharedPreferenceChangeListener} is notified, which for changes committed
+ * from a background thread happens later on the main thread.
+ *
+ * <h3>Threading</h3>
+ * A single instance of PreferencesManager may be shared across multiple threads without any external
+ * synchronization. {@link SharedPreferences} are obtained lazily and safely published to all threads
+ * and changing of the preferences name or mode switches the managed preferences atomically, so each
+ * put/get/remove request is performed either upon the old or upon the new preferences, never upon
+ * partially initialized ones. Note that instances of {@link SharedPreference} cache theirs values
+ * and should not be shared across threads when caching is enabled via {@link #setCachingEnabled(boolean)}.
  *
  * <h3>Sample implementation</h3>
  * <pre>
@@ -65,7 +102,7 @@ import java.util.Set;
  *
  * @author Martin Albedinsky
  */
-public class PreferencesManager implements SharedPreferencesFacade, SharedPreferencesProvider {
+public class PreferencesManager implements EditableSharedPreferencesFacade, SharedPreferencesProvider {
 
 	/*
 	 * Constants ===================================================================================
@@ -76,6 +113,13 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 */
 	// private static final String TAG = "PreferencesManager";
 
+	/**
+	 * Constant used to indicate that memory used by cached values of shared preferences is not limited.
+	 *
+	 * @see #setCacheMemoryBudget(long)
+	 */
+	public static final long CACHE_MEMORY_BUDGET_UNLIMITED = -1;
+
 	/*
 	 * Interface ===================================================================================
 	 */
@@ -93,21 +137,27 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 */
 	private final Context mContext;
 
+	/**
+	 * Lock used to synchronize initialization and switching of {@link #mPreferencesFacade}.
+	 */
+	private final Object mLock = new Object();
+
 	/**
 	 * File name of shared preferences managed by this manager.
 	 */
-	private String mPreferencesName;
+	private volatile String mPreferencesName;
 
 	/**
 	 * File mode of shared preferences managed by this manager.
 	 */
 	@SharedPreferencesPolicy.Mode
-	private int mPreferencesMode = SharedPreferencesPolicy.MODE_PRIVATE;
+	private volatile int mPreferencesMode = SharedPreferencesPolicy.MODE_PRIVATE;
 
 	/**
-	 * Facade to which is this manager delegating all put/get/remove requests.
+	 * Facade to which is this manager delegating all put/get/remove requests. Each request uses
+	 * the facade instance that has been current at the time the request has been started.
 	 */
-	private SimpleSharedPreferencesFacade mPreferencesFacade;
+	private volatile SimpleSharedPreferencesFacade mPreferencesFacade;
 
 	/**
 	 * Flag indicating whether caching of the actual values of each shared preference is enabled.
@@ -115,7 +165,69 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 * parsing of that value will be not performed, instead actual value will be obtained from that
 	 * preference object.
 	 */
-	private boolean mCachingEnabled;
+	private volatile boolean mCachingEnabled;
+
+	/**
+	 * Lock used to synchronize access to {@link #mCachePolicies} and {@link #mCacheEntries}.
+	 */
+	private final Object mCacheLock = new Object();
+
+	/**
+	 * Cache policies specified for shared preferences via {@link #setCachePolicy(SharedPreference, PreferenceCachePolicy)}.
+	 * Preferences are removed only explicitly by specifying {@code null} policy, same as from {@link #mCacheEntries}.
+	 */
+	private final Map<SharedPreference, PreferenceCachePolicy> mCachePolicies = new HashMap<>();
+
+	/**
+	 * Entries for shared preferences with cached values which are restricted either by a cache policy
+	 * or by the memory budget ordered from the least to the most recently accessed.
+	 */
+	private final LinkedHashMap<SharedPreference, CacheEntry> mCacheEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Total estimated size of values for {@link #mCacheEntries} in bytes.
+	 */
+	private long mCachedBytes;
+
+	/**
+	 * Maximum total estimated size of cached values in bytes.
+	 */
+	private long mCacheMemoryBudget = CACHE_MEMORY_BUDGET_UNLIMITED;
+
+	/**
+	 * Table of preference keys resolved from string resources via {@link #key(int)}.
+	 */
+	private final ResourceKeyTable mKeyTable;
+
+	/**
+	 * Version of values of shared preferences managed by this manager. Incremented whenever a value
+	 * is changed in order to invalidate the current {@link #mSnapshotEntry}.
+	 */
+	private final AtomicInteger mSnapshotVersion = new AtomicInteger();
+
+	/**
+	 * Last captured snapshot of shared preferences along with version of values it contains.
+	 */
+	private volatile SnapshotEntry mSnapshotEntry;
+
+	/**
+	 * Shared preferences for which is registered {@link #mSnapshotInvalidator}.
+	 */
+	private SharedPreferences mSnapshotPreferences;
+
+	/**
+	 * Listener used to invalidate the current snapshot whenever a value is changed in shared preferences.
+	 * Needs to be hold strongly as shared preferences hold theirs listeners only weakly.
+	 */
+	private final SharedPreferences.OnSharedPreferenceChangeListener mSnapshotInvalidator = new SharedPreferences.OnSharedPreferenceChangeListener() {
+
+		/**
+		 */
+		@Override
+		public void onSharedPreferenceChanged(final SharedPreferences preferences, final String key) {
+			invalidateSnapshot();
+		}
+	};
 
 	/*
 	 * Constructors ================================================================================
@@ -136,7 +248,7 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	public PreferencesManager(@NonNull Context context) {
 		this.mContext = context;
 		this.mPreferencesName = SharedPreferencesPolicy.defaultPreferencesName(context);
-
+		this.mKeyTable = new ResourceKeyTable(context);
 	}
 
 	/*
@@ -157,8 +269,11 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 */
 	@Override
 	public void setSharedPreferencesName(@Nullable String name) {
-		this.mPreferencesName = name == null ? SharedPreferencesPolicy.defaultPreferencesName(mContext) : name;
-		this.mPreferencesFacade = null;
+		synchronized (mLock) {
+			this.mPreferencesName = name == null ? SharedPreferencesPolicy.defaultPreferencesName(mContext) : name;
+			this.mPreferencesFacade = null;
+		}
+		this.invalidateSnapshot();
 	}
 
 	/**
@@ -173,8 +288,11 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 */
 	@Override
 	public void setSharedPreferencesMode(@SharedPreferencesPolicy.Mode int mode) {
-		this.mPreferencesMode = mode;
-		this.mPreferencesFacade = null;
+		synchronized (mLock) {
+			this.mPreferencesMode = mode;
+			this.mPreferencesFacade = null;
+		}
+		this.invalidateSnapshot();
 	}
 
 	/**
@@ -190,27 +308,44 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	@NonNull
 	@Override
 	public final SharedPreferences getSharedPreferences() {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getPreferences();
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getPreferences();
 	}
 
 	/**
 	 * Ensures that the {@link #mPreferencesFacade} for {@link SharedPreferences} managed by this
 	 * manager is initialized for {@link #mPreferencesName} and {@link #mPreferencesMode}.
+	 * <p>
+	 * The facade is initialized at most once for the current name and mode even if this method is
+	 * called concurrently from multiple threads.
+	 *
+	 * @return The current facade. Callers should use only the returned instance during a single
+	 * request as the facade may be switched concurrently.
 	 */
-	private void ensurePreferencesFacade() {
-		if (mPreferencesFacade == null) {
-			this.mPreferencesFacade = new SimpleSharedPreferencesFacade(
-					mContext.getSharedPreferences(
-							mPreferencesName,
-							mPreferencesMode
-					)
-			);
+	private SimpleSharedPreferencesFacade ensurePreferencesFacade() {
+		SimpleSharedPreferencesFacade facade = mPreferencesFacade;
+		if (facade == null) {
+			synchronized (mLock) {
+				facade = mPreferencesFacade;
+				if (facade == null) {
+					this.mPreferencesFacade = facade = new SimpleSharedPreferencesFacade(
+							mContext.getSharedPreferences(
+									mPreferencesName,
+									mPreferencesMode
+							),
+							mPreferencesName
+					);
+				}
+			}
 		}
+		return facade;
 	}
 
 	/**
 	 * Enables/disables the caching {@link universum.studios.android.preference.SharedPreference}'s values.
+	 * <p>
+	 * This flag is applied only to preferences without a cache policy specified via
+	 * {@link #setCachePolicy(SharedPreference, PreferenceCachePolicy)}.
 	 *
 	 * @param enabled {@code True} to enable caching, {@code false} to disable.
 	 * @see #isCachingEnabled()
@@ -230,47 +365,252 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 		return mCachingEnabled;
 	}
 
+	/**
+	 * Specifies a policy determining whether and how long may be an actual value of the given
+	 * <var>preference</var> cached.
+	 * <p>
+	 * The manager references the given preference until {@code null} policy is specified for it,
+	 * which also releases its cached value from the memory budget.
+	 *
+	 * @param preference The preference for which to specify the policy.
+	 * @param policy     The desired policy. May be {@code null} to apply policy determined by
+	 *                   {@link #isCachingEnabled()}.
+	 * @see #getCachePolicy(SharedPreference)
+	 */
+	public final void setCachePolicy(@NonNull final SharedPreference preference, @Nullable final PreferenceCachePolicy policy) {
+		synchronized (mCacheLock) {
+			if (policy == null) {
+				mCachePolicies.remove(preference);
+			} else {
+				mCachePolicies.put(preference, policy);
+			}
+			// Apply the new policy upon the current value immediately.
+			this.releaseCacheEntry(mCacheEntries.remove(preference));
+			preference.invalidate();
+		}
+	}
+
+	/**
+	 * Returns the policy determining whether and how long may be an actual value of the given
+	 * <var>preference</var> cached.
+	 *
+	 * @param preference The preference for which to return its policy.
+	 * @return Policy specified via {@link #setCachePolicy(SharedPreference, PreferenceCachePolicy)}
+	 * or policy determined by {@link #isCachingEnabled()} if there is no policy specified.
+	 */
+	@NonNull
+	public final PreferenceCachePolicy getCachePolicy(@NonNull final SharedPreference preference) {
+		final PreferenceCachePolicy policy;
+		synchronized (mCacheLock) {
+			policy = mCachePolicies.get(preference);
+		}
+		return policy == null ? (mCachingEnabled ? PreferenceCachePolicy.ALWAYS : PreferenceCachePolicy.NEVER) : policy;
+	}
+
+	/**
+	 * Specifies a maximum total estimated size of actual values of shared preferences that may be
+	 * cached at a time. Whenever the budget is exceeded, values of the least recently accessed
+	 * preferences are evicted from cache.
+	 * <p>
+	 * The budget is applied only to values cached after it has been specified.
+	 *
+	 * @param bytes The desired budget in bytes or {@link #CACHE_MEMORY_BUDGET_UNLIMITED}.
+	 * @see #getCacheMemoryBudget()
+	 * @see #getCachedBytes()
+	 */
+	public final void setCacheMemoryBudget(final long bytes) {
+		synchronized (mCacheLock) {
+			this.mCacheMemoryBudget = bytes < 0 ? CACHE_MEMORY_BUDGET_UNLIMITED : bytes;
+			this.trimCache();
+		}
+	}
+
+	/**
+	 * Returns the maximum total estimated size of cached values.
+	 *
+	 * @return Budget in bytes or {@link #CACHE_MEMORY_BUDGET_UNLIMITED} if there is no budget specified.
+	 * @see #setCacheMemoryBudget(long)
+	 */
+	public final long getCacheMemoryBudget() {
+		synchronized (mCacheLock) {
+			return mCacheMemoryBudget;
+		}
+	}
+
+	/**
+	 * Returns the total estimated size of cached values which are restricted either by a cache policy
+	 * or by the memory budget.
+	 *
+	 * @return Size in bytes.
+	 * @see #setCacheMemoryBudget(long)
+	 */
+	public final long getCachedBytes() {
+		synchronized (mCacheLock) {
+			return mCachedBytes;
+		}
+	}
+
+	/**
+	 * Ensures that the actual value of the given <var>preference</var> is not cached longer than
+	 * allowed by its policy before the value is obtained.
+	 */
+	private void expireCachedValue(final SharedPreference preference) {
+		synchronized (mCacheLock) {
+			final CacheEntry entry = mCacheEntries.get(preference);
+			if (entry != null && !entry.policy.allows(entry.bytes, entry.cachedAt, SystemClock.elapsedRealtime())) {
+				this.releaseCacheEntry(mCacheEntries.remove(preference));
+				preference.invalidate();
+				PreferencesTrace.end(PreferencesTrace.LAYER_CACHE, PreferencesTrace.OP_EVICT, mPreferencesName, preference.getKey(), PreferencesTrace.begin());
+			}
+		}
+	}
+
+	/**
+	 * Applies the cache policy of the given <var>preference</var> upon its actual value after the
+	 * value has been put or obtained.
+	 *
+	 * @param preference The accessed preference.
+	 * @param loaded     {@code True} if the value has been just put into or obtained from shared
+	 *                   preferences, {@code false} if the value has been obtained from cache.
+	 */
+	private void applyCachePolicy(final SharedPreference preference, final boolean loaded) {
+		final PreferenceCachePolicy policy = getCachePolicy(preference);
+		synchronized (mCacheLock) {
+			final boolean budgeted = mCacheMemoryBudget != CACHE_MEMORY_BUDGET_UNLIMITED;
+			CacheEntry entry = mCacheEntries.get(preference);
+			if (policy.getType() == PreferenceCachePolicy.TYPE_ALWAYS && !budgeted) {
+				this.releaseCacheEntry(mCacheEntries.remove(preference));
+				return;
+			}
+			final long now = SystemClock.elapsedRealtime();
+			final long cachedAt = entry == null || loaded ? now : entry.cachedAt;
+			final long bytes = entry == null || loaded ? ValueSizes.estimate(preference.mValue) : entry.bytes;
+			if (!policy.allows(bytes, cachedAt, now)) {
+				this.releaseCacheEntry(mCacheEntries.remove(preference));
+				preference.invalidate();
+				return;
+			}
+			if (entry == null) {
+				entry = new CacheEntry(policy);
+				mCacheEntries.put(preference, entry);
+			} else {
+				this.releaseCacheEntry(entry);
+				entry.policy = policy;
+			}
+			entry.cachedAt = cachedAt;
+			entry.bytes = bytes;
+			this.mCachedBytes += bytes;
+			this.trimCache();
+		}
+	}
+
+	/**
+	 * Evicts values of the least recently accessed preferences from cache until the total estimated
+	 * size of cached values fits into the current memory budget.
+	 */
+	private void trimCache() {
+		if (mCacheMemoryBudget == CACHE_MEMORY_BUDGET_UNLIMITED) {
+			return;
+		}
+		final Iterator<Map.Entry<SharedPreference, CacheEntry>> iterator = mCacheEntries.entrySet().iterator();
+		while (mCachedBytes > mCacheMemoryBudget && iterator.hasNext()) {
+			final Map.Entry<SharedPreference, CacheEntry> eldest = iterator.next();
+			iterator.remove();
+			this.releaseCacheEntry(eldest.getValue());
+			eldest.getKey().invalidate();
+			PreferencesTrace.end(PreferencesTrace.LAYER_CACHE, PreferencesTrace.OP_EVICT, mPreferencesName, eldest.getKey().getKey(), PreferencesTrace.begin());
+		}
+	}
+
+	/**
+	 * Subtracts size of value of the given cache <var>entry</var> from the total size of cached values.
+	 */
+	private void releaseCacheEntry(final CacheEntry entry) {
+		if (entry != null) {
+			this.mCachedBytes -= entry.bytes;
+			entry.bytes = 0;
+		}
+	}
+
 	/**
 	 * Returns a string key for the specified <var>resId</var>.
+	 * <p>
+	 * Each key is obtained from the context specified for this manager only once and then returned
+	 * from a table of resolved keys, so this method may be used also in performance critical paths.
+	 * Keys should be therefore defined as non-translatable strings.
 	 *
 	 * @param resId Resource id of the desired preference key.
 	 * @return String key obtained from the context specified for this manager.
+	 * @see #preloadKeys(int...)
 	 */
 	@NonNull
 	public final String key(@StringRes final int resId) {
-		return mContext.getString(resId);
+		return mKeyTable.key(resId);
+	}
+
+	/**
+	 * Resolves string keys for all the specified <var>resIds</var> at once, so they may be later
+	 * obtained via {@link #key(int)} or used by methods accepting resource ids without any resource
+	 * lookups. This method is intended to be called at the start of an application.
+	 *
+	 * @param resIds Resource ids of the preference keys to be resolved.
+	 */
+	public final void preloadKeys(@NonNull @StringRes final int... resIds) {
+		mKeyTable.resolve(resIds);
+	}
+
+	/**
+	 * <b>Note</b>, that the current {@link #snapshot()} is invalidated as soon as changes made via
+	 * the returned editor are committed or applied. Values cached by {@link SharedPreference} objects
+	 * are not affected, same as for the put methods of this manager which accept plain keys.
+	 */
+	@NonNull
+	@Override
+	public SharedPreferences.Editor edit() {
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return new TracingEditor(facade.getPreferences().edit(), PreferencesTrace.LAYER_MANAGER, mPreferencesName) {
+
+			/**
+			 */
+			@Override
+			void onChangesWritten() {
+				invalidateSnapshot();
+			}
+		};
 	}
 
 	/**
 	 */
 	@Override
 	public void registerOnSharedPreferenceChangeListener(@NonNull SharedPreferences.OnSharedPreferenceChangeListener listener) {
-		this.ensurePreferencesFacade();
-		mPreferencesFacade.registerOnSharedPreferenceChangeListener(listener);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		facade.registerOnSharedPreferenceChangeListener(listener);
 	}
 
 	/**
 	 */
 	@Override
 	public void unregisterOnSharedPreferenceChangeListener(@NonNull SharedPreferences.OnSharedPreferenceChangeListener listener) {
-		this.ensurePreferencesFacade();
-		mPreferencesFacade.unregisterOnSharedPreferenceChangeListener(listener);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		facade.unregisterOnSharedPreferenceChangeListener(listener);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean contains(@NonNull String key) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.contains(key);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.contains(key);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putString(@NonNull String key, @Nullable String value) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.putString(key, value);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putString(key, value);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
@@ -278,16 +618,18 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	@Nullable
 	@Override
 	public String getString(@NonNull String key, @Nullable String defValue) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getString(key, defValue);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getString(key, defValue);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putStringSet(@NonNull String key, @Nullable Set<String> values) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.putStringSet(key, values);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putStringSet(key, values);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
@@ -295,88 +637,336 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	@Nullable
 	@Override
 	public Set<String> getStringSet(@NonNull String key, @Nullable Set<String> defValues) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getStringSet(key, defValues);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getStringSet(key, defValues);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putInt(@NonNull String key, int value) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.putInt(key, value);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putInt(key, value);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public int getInt(@NonNull String key, int defValue) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getInt(key, defValue);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getInt(key, defValue);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putFloat(@NonNull String key, float value) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.putFloat(key, value);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putFloat(key, value);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public float getFloat(@NonNull String key, float defValue) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getFloat(key, defValue);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getFloat(key, defValue);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putLong(@NonNull String key, long value) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.putLong(key, value);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putLong(key, value);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public long getLong(@NonNull String key, long defValue) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getLong(key, defValue);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getLong(key, defValue);
+	}
+
+	/**
+	 * Puts the given double <var>value</var> for the specified <var>key</var> into {@link SharedPreferences}
+	 * managed by this manager.
+	 *
+	 * @param key   The key for which to put the value into preferences.
+	 * @param value The desired value to put into preferences.
+	 * @return {@code True} if put has been successful, {@code false} otherwise.
+	 * @see SimpleSharedPreferencesFacade#putDouble(String, double)
+	 */
+	public boolean putDouble(@NonNull String key, double value) {
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putDouble(key, value);
+		this.invalidateSnapshot();
+		return result;
+	}
+
+	/**
+	 * Retrieves the double value for the specified <var>key</var> from {@link SharedPreferences}
+	 * managed by this manager.
+	 *
+	 * @param key      The key for which to retrieve its associated value.
+	 * @param defValue Default value to be returned in case when there is no value persisted for
+	 *                 the specified key.
+	 * @return Either persisted or default double value.
+	 * @see SimpleSharedPreferencesFacade#getDouble(String, double)
+	 */
+	public double getDouble(@NonNull String key, double defValue) {
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getDouble(key, defValue);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean putBoolean(@NonNull String key, boolean value) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.putBoolean(key, value);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.putBoolean(key, value);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public boolean getBoolean(@NonNull String key, boolean defValue) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.getBoolean(key, defValue);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		return facade.getBoolean(key, defValue);
 	}
 
 	/**
 	 */
 	@Override
 	public boolean remove(@NonNull String key) {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.remove(key);
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final boolean result = facade.remove(key);
+		this.invalidateSnapshot();
+		return result;
 	}
 
 	/**
 	 */
 	@Override
 	public int removeAll() {
-		this.ensurePreferencesFacade();
-		return mPreferencesFacade.removeAll();
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final int result = facade.removeAll();
+		this.invalidateSnapshot();
+		return result;
+	}
+
+	/**
+	 * Same as {@link #contains(String)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean contains(@StringRes final int resId) {
+		return contains(key(resId));
+	}
+
+	/**
+	 * Same as {@link #putString(String, String)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putString(@StringRes final int resId, @Nullable final String value) {
+		return putString(key(resId), value);
+	}
+
+	/**
+	 * Same as {@link #getString(String, String)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	@Nullable
+	public String getString(@StringRes final int resId, @Nullable final String defValue) {
+		return getString(key(resId), defValue);
+	}
+
+	/**
+	 * Same as {@link #putStringSet(String, Set)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putStringSet(@StringRes final int resId, @Nullable final Set<String> values) {
+		return putStringSet(key(resId), values);
+	}
+
+	/**
+	 * Same as {@link #getStringSet(String, Set)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	@Nullable
+	public Set<String> getStringSet(@StringRes final int resId, @Nullable final Set<String> defValues) {
+		return getStringSet(key(resId), defValues);
+	}
+
+	/**
+	 * Same as {@link #putInt(String, int)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putInt(@StringRes final int resId, final int value) {
+		return putInt(key(resId), value);
+	}
+
+	/**
+	 * Same as {@link #getInt(String, int)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public int getInt(@StringRes final int resId, final int defValue) {
+		return getInt(key(resId), defValue);
+	}
+
+	/**
+	 * Same as {@link #putFloat(String, float)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putFloat(@StringRes final int resId, final float value) {
+		return putFloat(key(resId), value);
+	}
+
+	/**
+	 * Same as {@link #getFloat(String, float)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public float getFloat(@StringRes final int resId, final float defValue) {
+		return getFloat(key(resId), defValue);
+	}
+
+	/**
+	 * Same as {@link #putLong(String, long)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putLong(@StringRes final int resId, final long value) {
+		return putLong(key(resId), value);
+	}
+
+	/**
+	 * Same as {@link #getLong(String, long)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public long getLong(@StringRes final int resId, final long defValue) {
+		return getLong(key(resId), defValue);
+	}
+
+	/**
+	 * Same as {@link #putDouble(String, double)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putDouble(@StringRes final int resId, final double value) {
+		return putDouble(key(resId), value);
+	}
+
+	/**
+	 * Same as {@link #getDouble(String, double)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public double getDouble(@StringRes final int resId, final double defValue) {
+		return getDouble(key(resId), defValue);
+	}
+
+	/**
+	 * Same as {@link #putBoolean(String, boolean)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean putBoolean(@StringRes final int resId, final boolean value) {
+		return putBoolean(key(resId), value);
+	}
+
+	/**
+	 * Same as {@link #getBoolean(String, boolean)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean getBoolean(@StringRes final int resId, final boolean defValue) {
+		return getBoolean(key(resId), defValue);
+	}
+
+	/**
+	 * Same as {@link #remove(String)} for key specified via its resource id.
+	 *
+	 * @param resId Resource id of the preference key.
+	 * @see #key(int)
+	 */
+	public boolean remove(@StringRes final int resId) {
+		return remove(key(resId));
+	}
+
+	/**
+	 * Returns immutable snapshot of all values persisted within {@link SharedPreferences} that are
+	 * managed by this manager.
+	 * <p>
+	 * The snapshot is captured only if there is no snapshot captured yet or a value has been changed
+	 * since the last snapshot has been captured, otherwise the last snapshot is returned.
+	 * <p>
+	 * <b>Note</b>, that only changes made via this manager invalidate the last snapshot synchronously.
+	 * Changes made directly in the managed preferences invalidate it only after the change listener
+	 * has been notified on the main thread, so until then the returned snapshot may be stale.
+	 *
+	 * @return Snapshot with the actual values.
+	 * @see SharedPreferencesSnapshot
+	 */
+	@NonNull
+	public final SharedPreferencesSnapshot snapshot() {
+		final int version = mSnapshotVersion.get();
+		final SnapshotEntry entry = mSnapshotEntry;
+		if (entry != null && entry.version == version) {
+			return entry.snapshot;
+		}
+		final SharedPreferences preferences = getSharedPreferences();
+		synchronized (mSnapshotInvalidator) {
+			if (mSnapshotPreferences != preferences) {
+				if (mSnapshotPreferences != null) {
+					mSnapshotPreferences.unregisterOnSharedPreferenceChangeListener(mSnapshotInvalidator);
+				}
+				preferences.registerOnSharedPreferenceChangeListener(mSnapshotInvalidator);
+				this.mSnapshotPreferences = preferences;
+			}
+		}
+		final SharedPreferencesSnapshot snapshot = SharedPreferencesSnapshot.capture(preferences);
+		this.mSnapshotEntry = new SnapshotEntry(snapshot, version);
+		return snapshot;
+	}
+
+	/**
+	 * Invalidates the current snapshot, so the next call to {@link #snapshot()} will capture a new one.
+	 */
+	private void invalidateSnapshot() {
+		mSnapshotVersion.incrementAndGet();
 	}
 
 	/**
@@ -394,11 +984,12 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 * @see SharedPreference#putIntoPreferences(SharedPreferences)
 	 */
 	public final <T> boolean putPreference(@NonNull final SharedPreference<T> preference, @Nullable final T value) {
-		this.ensurePreferencesFacade();
-		final boolean result = preference.updateValue(value).putIntoPreferences(mPreferencesFacade.getPreferences());
-		if (!mCachingEnabled) {
-			preference.invalidate();
-		}
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final long startTime = PreferencesTrace.begin();
+		final boolean result = preference.updateValue(value).putIntoPreferences(facade.getPreferences());
+		this.invalidateSnapshot();
+		this.applyCachePolicy(preference, true);
+		PreferencesTrace.end(PreferencesTrace.LAYER_MANAGER, PreferencesTrace.OP_WRITE, mPreferencesName, preference.getKey(), startTime);
 		return result;
 	}
 
@@ -416,11 +1007,19 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 	 */
 	@Nullable
 	public final <T> T getPreference(@NonNull final SharedPreference<T> preference) {
-		this.ensurePreferencesFacade();
-		final T value = preference.getFromPreferences(mPreferencesFacade.getPreferences());
-		if (!mCachingEnabled) {
-			preference.invalidate();
-		}
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final long startTime = PreferencesTrace.begin();
+		this.expireCachedValue(preference);
+		final boolean loaded = !preference.mValueIsActual;
+		final T value = preference.getFromPreferences(facade.getPreferences());
+		this.applyCachePolicy(preference, loaded);
+		PreferencesTrace.end(
+				loaded ? PreferencesTrace.LAYER_MANAGER : PreferencesTrace.LAYER_CACHE,
+				loaded ? PreferencesTrace.OP_READ : PreferencesTrace.OP_CACHE_HIT,
+				mPreferencesName,
+				preference.getKey(),
+				startTime
+		);
 		return value;
 	}
 
@@ -453,7 +1052,132 @@ public class PreferencesManager implements SharedPreferencesFacade, SharedPrefer
 		return remove(preference.getKey());
 	}
 
+	/**
+	 * Persists the actual values of all the given <var>preferences</var> into {@link SharedPreferences}
+	 * that are managed by this manager at once.
+	 * <p>
+	 * Each preference stages its value via {@link SharedPreference#stageIntoEditor(SharedPreferences, SharedPreferences.Editor)}
+	 * into a single editor and all the values are then persisted via
+	 * single commit, so this method should be preferred over {@link #putPreference(SharedPreference, Object)}
+	 * whenever values of multiple preferences are to be persisted. If any of the preferences fails
+	 * to stage its value, none of the values is persisted.
+	 * <p>
+	 * Values of the preferences to be persisted should be specified via {@link SharedPreference#updateValue(Object)}.
+	 *
+	 * @param preferences The preferences of which values to persist.
+	 * @return {@code True} if all values have been successfully persisted, {@code false} otherwise.
+	 * @see #getPreferences(SharedPreference[])
+	 */
+	public final boolean putPreferences(@NonNull final SharedPreference<?>... preferences) {
+		final SimpleSharedPreferencesFacade facade = this.ensurePreferencesFacade();
+		final SharedPreferences sharedPreferences = facade.getPreferences();
+		final long startTime = PreferencesTrace.begin();
+		final SharedPreferences.Editor editor = sharedPreferences.edit();
+		boolean staged = true;
+		for (final SharedPreference<?> preference : preferences) {
+			staged &= preference.stageIntoEditor(sharedPreferences, editor);
+		}
+		if (!staged) {
+			// Drop the editor with all staged changes, so the preferences are persisted either all or none.
+			for (final SharedPreference<?> preference : preferences) {
+				preference.invalidate();
+			}
+			PreferencesTrace.end(PreferencesTrace.LAYER_MANAGER, PreferencesTrace.OP_WRITE, mPreferencesName, null, startTime);
+			return false;
+		}
+		final boolean committed = editor.commit();
+		this.invalidateSnapshot();
+		for (final SharedPreference<?> preference : preferences) {
+			if (committed) {
+				this.applyCachePolicy(preference, true);
+			} else {
+				preference.invalidate();
+			}
+		}
+		PreferencesTrace.end(PreferencesTrace.LAYER_MANAGER, PreferencesTrace.OP_WRITE, mPreferencesName, null, startTime);
+		return committed;
+	}
+
+	/**
+	 * Obtains values for all the given <var>preferences</var> from {@link SharedPreferences} that are
+	 * managed by this manager at once.
+	 * <p>
+	 * All values that are not cached by the preferences are obtained from a single {@link #snapshot()},
+	 * so the returned values are consistent with each other.
+	 *
+	 * @param preferences The preferences for which to obtain theirs associated values.
+	 * @return Array with values associated with the preferences in the same order as the preferences
+	 * have been specified.
+	 * @see #putPreferences(SharedPreference[])
+	 * @see #getPreference(SharedPreference)
+	 */
+	@NonNull
+	public final Object[] getPreferences(@NonNull final SharedPreference<?>... preferences) {
+		final SharedPreferences snapshotPreferences = new SnapshotSharedPreferences(snapshot());
+		final Object[] values = new Object[preferences.length];
+		for (int i = 0; i < preferences.length; i++) {
+			final SharedPreference<?> preference = preferences[i];
+			this.expireCachedValue(preference);
+			final boolean loaded = !preference.mValueIsActual;
+			values[i] = preference.getFromPreferences(snapshotPreferences);
+			this.applyCachePolicy(preference, loaded);
+		}
+		return values;
+	}
+
 	/*
 	 * Inner classes ===============================================================================
 	 */
+
+	/**
+	 * Entry holding information about a cached value of a shared preference.
+	 */
+	private static final class CacheEntry {
+
+		/**
+		 * Policy applied upon the cached value.
+		 */
+		PreferenceCachePolicy policy;
+
+		/**
+		 * Time in milliseconds when the value has been cached.
+		 */
+		long cachedAt;
+
+		/**
+		 * Estimated size of the value in bytes.
+		 */
+		long bytes;
+
+		/**
+		 * Creates a new instance of CacheEntry with the given <var>policy</var>.
+		 */
+		CacheEntry(final PreferenceCachePolicy policy) {
+			this.policy = policy;
+		}
+	}
+
+	/**
+	 * Holder for a captured snapshot along with version of values it contains.
+	 */
+	private static final class SnapshotEntry {
+
+		/**
+		 * The captured snapshot.
+		 */
+		final SharedPreferencesSnapshot snapshot;
+
+		/**
+		 * Version of values at the time before the snapshot has been captured.
+		 */
+		final int version;
+
+		/**
+		 * Creates a new instance of SnapshotEntry for the given <var>snapshot</var> and <var>version</var>.
+		 */
+		SnapshotEntry(final SharedPreferencesSnapshot snapshot, final int version) {
+			this.snapshot = snapshot;
+			this.version = version;
+		}
+	}
 }
@@ -0,0 +1,179 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.StringRes;
+
+import java.util.Arrays;
+
+/**
+ * Table of preference keys resolved from string resources. Each key is resolved via
+ * {@link Context#getString(int)} only once and then served from the table.
+ * <p>
+ * Lookups are lock-free and performed via binary search upon a sorted array of resource ids. Resolved
+ * keys are added by replacing the whole table which is expected to happen only for a small and
+ * bounded number of keys, usually at the start of an application.
+ * <p>
+ * <b>Note</b>, that keys are expected to not depend on the current configuration, so they should be
+ * defined as non-translatable strings.
+ *
+ * @author Martin Albedinsky
+ */
+final class ResourceKeyTable {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "ResourceKeyTable";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Context used to resolve keys that are not contained in the table yet.
+	 */
+	private final Context mContext;
+
+	/**
+	 * Current entries of this table. Never modified, only replaced.
+	 */
+	private volatile Entries mEntries = new Entries(new int[0], new String[0]);
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ResourceKeyTable which resolves keys via the given <var>context</var>.
+	 *
+	 * @param context Context used to resolve string resources.
+	 */
+	ResourceKeyTable(@NonNull final Context context) {
+		this.mContext = context;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns key for the specified <var>resId</var>, resolving it if it is not contained in this
+	 * table yet.
+	 *
+	 * @param resId Resource id of the desired key.
+	 * @return The resolved key.
+	 */
+	@NonNull
+	String key(@StringRes final int resId) {
+		final Entries entries = mEntries;
+		final int index = Arrays.binarySearch(entries.resIds, resId);
+		return index >= 0 ? entries.keys[index] : resolve(new int[]{resId})[0];
+	}
+
+	/**
+	 * Resolves keys for all the specified <var>resIds</var> which are not contained in this table yet
+	 * and adds them into this table at once.
+	 *
+	 * @param resIds Resource ids of the desired keys.
+	 * @return Keys for the specified resource ids in the same order.
+	 */
+	@NonNull
+	String[] resolve(@NonNull final int[] resIds) {
+		final String[] keys = new String[resIds.length];
+		synchronized (this) {
+			final Entries entries = mEntries;
+			int[] ids = entries.resIds;
+			String[] resolvedKeys = entries.keys;
+			for (int i = 0; i < resIds.length; i++) {
+				final int index = Arrays.binarySearch(ids, resIds[i]);
+				if (index >= 0) {
+					keys[i] = resolvedKeys[index];
+					continue;
+				}
+				final int insertion = -index - 1;
+				final int[] newIds = new int[ids.length + 1];
+				final String[] newKeys = new String[ids.length + 1];
+				System.arraycopy(ids, 0, newIds, 0, insertion);
+				System.arraycopy(resolvedKeys, 0, newKeys, 0, insertion);
+				System.arraycopy(ids, insertion, newIds, insertion + 1, ids.length - insertion);
+				System.arraycopy(resolvedKeys, insertion, newKeys, insertion + 1, ids.length - insertion);
+				newIds[insertion] = resIds[i];
+				newKeys[insertion] = keys[i] = mContext.getString(resIds[i]);
+				ids = newIds;
+				resolvedKeys = newKeys;
+			}
+			if (ids != entries.resIds) {
+				this.mEntries = new Entries(ids, resolvedKeys);
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Returns count of keys contained in this table.
+	 *
+	 * @return Count of resolved keys.
+	 */
+	int size() {
+		return mEntries.resIds.length;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Immutable sorted entries of the table.
+	 */
+	private static final class Entries {
+
+		/**
+		 * Sorted resource ids of the resolved keys.
+		 */
+		final int[] resIds;
+
+		/**
+		 * Resolved keys at indexes of theirs resource ids.
+		 */
+		final String[] keys;
+
+		/**
+		 * Creates a new instance of Entries with the given <var>resIds</var> and <var>keys</var>.
+		 */
+		Entries(final int[] resIds, final String[] keys) {
+			this.resIds = resIds;
+			this.keys = keys;
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only {@link SharedPreferences} implementation which provides values of a single
+ * {@link SharedPreferencesSnapshot}, so values of multiple {@link SharedPreference SharedPreferences}
+ * may be obtained consistently.
+ *
+ * @author Martin Albedinsky
+ * @see PreferencesManager#getPreferences(SharedPreference[])
+ */
+final class SnapshotSharedPreferences implements SharedPreferences {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "SnapshotSharedPreferences";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Snapshot providing values for these preferences.
+	 */
+	private final SharedPreferencesSnapshot mSnapshot;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of SnapshotSharedPreferences for the given <var>snapshot</var>.
+	 *
+	 * @param snapshot The snapshot of which values to provide.
+	 */
+	SnapshotSharedPreferences(@NonNull final SharedPreferencesSnapshot snapshot) {
+		this.mSnapshot = snapshot;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 */
+	@Override
+	public void registerOnSharedPreferenceChangeListener(@NonNull final OnSharedPreferenceChangeListener listener) {
+		// Snapshot is never changed.
+	}
+
+	/**
+	 */
+	@Override
+	public void unregisterOnSharedPreferenceChangeListener(@NonNull final OnSharedPreferenceChangeListener listener) {
+		// Snapshot is never changed.
+	}
+
+	/**
+	 */
+	@Override
+	public Map<String, ?> getAll() {
+		return mSnapshot.getAll();
+	}
+
+	/**
+	 */
+	@Override
+	public boolean contains(@NonNull final String key) {
+		return mSnapshot.contains(key);
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public String getString(@NonNull final String key, @Nullable final String defValue) {
+		return mSnapshot.getString(key, defValue);
+	}
+
+	/**
+	 */
+	@Nullable
+	@Override
+	public Set<String> getStringSet(@NonNull final String key, @Nullable final Set<String> defValues) {
+		return mSnapshot.getStringSet(key, defValues);
+	}
+
+	/**
+	 */
+	@Override
+	public int getInt(@NonNull final String key, final int defValue) {
+		return mSnapshot.getInt(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	public long getLong(@NonNull final String key, final long defValue) {
+		return mSnapshot.getLong(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	public float getFloat(@NonNull final String key, final float defValue) {
+		return mSnapshot.getFloat(key, defValue);
+	}
+
+	/**
+	 */
+	@Override
+	public boolean getBoolean(@NonNull final String key, final boolean defValue) {
+		return mSnapshot.getBoolean(key, defValue);
+	}
+
+	/**
+	 * @throws UnsupportedOperationException Snapshot preferences cannot be edited.
+	 */
+	@Override
+	public Editor edit() {
+		throw new UnsupportedOperationException("Snapshot preferences cannot be edited.");
+	}
+}
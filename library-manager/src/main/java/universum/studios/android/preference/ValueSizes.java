@@ -0,0 +1,190 @@
+/*
+ * =================================================================================================
+ *                             Copyright (C) 2017 Universum Studios
+ * =================================================================================================
+ *         Licensed under the Apache License, Version 2.0 or later (further "License" only).
+ * -------------------------------------------------------------------------------------------------
+ * You may use this file only in compliance with the License. More details and copy of this License
+ * you may obtain at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * You can redistribute, modify or publish any part of the code written within this file but as it
+ * is described in the License, the software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES or CONDITIONS OF ANY KIND.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * =================================================================================================
+ */
+package universum.studios.android.preference;
+
+import android.support.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility used to estimate size of values of shared preferences retained in memory. The estimates
+ * are based on a typical layout of objects in 32-bit virtual machines and are intended only for
+ * comparisons of values with each other and with a memory budget, not for exact accounting.
+ *
+ * @author Martin Albedinsky
+ * @see PreferenceCachePolicy
+ */
+final class ValueSizes {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "ValueSizes";
+
+	/**
+	 * Estimated size of a header of an object in bytes.
+	 */
+	private static final int OBJECT_HEADER = 8;
+
+	/**
+	 * Estimated size of a header of an array in bytes.
+	 */
+	private static final int ARRAY_HEADER = 12;
+
+	/**
+	 * Estimated size of a reference in bytes.
+	 */
+	private static final int REFERENCE = 4;
+
+	/**
+	 * Estimated size of a node of a collection or map in bytes.
+	 */
+	private static final int NODE = 24;
+
+	/**
+	 * Maximum depth of nested values of which size is estimated. Values nested deeper are estimated
+	 * as plain objects.
+	 */
+	private static final int MAX_DEPTH = 8;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private ValueSizes() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Estimates size of the given <var>value</var> in bytes including all its nested values.
+	 *
+	 * @param value The value of which size to estimate. May be {@code null}.
+	 * @return Estimated size in bytes.
+	 */
+	static long estimate(@Nullable final Object value) {
+		return estimate(value, 0);
+	}
+
+	/**
+	 * Estimates size of the given <var>value</var> at the specified <var>depth</var>.
+	 */
+	private static long estimate(final Object value, final int depth) {
+		if (value == null || value instanceof Enum || value instanceof Boolean) {
+			// Shared constants do not occupy any memory on behalf of a particular value.
+			return 0;
+		}
+		if (value instanceof String) {
+			return align(OBJECT_HEADER + 3 * 4) + align(ARRAY_HEADER + 2L * ((String) value).length());
+		}
+		if (value instanceof Long || value instanceof Double) {
+			return align(OBJECT_HEADER + 8);
+		}
+		if (value instanceof Number || value instanceof Character) {
+			return align(OBJECT_HEADER + 4);
+		}
+		if (depth >= MAX_DEPTH) {
+			return align(OBJECT_HEADER);
+		}
+		final Class<?> valueClass = value.getClass();
+		if (valueClass.isArray()) {
+			return estimateArray(value, valueClass.getComponentType(), depth);
+		}
+		if (value instanceof PrimitiveArrayView) {
+			return estimatePrimitiveArrayView((List<?>) value);
+		}
+		if (value instanceof Collection) {
+			long size = align(OBJECT_HEADER + 4 * REFERENCE);
+			for (final Object element : (Collection<?>) value) {
+				size += NODE + estimate(element, depth + 1);
+			}
+			return size;
+		}
+		if (value instanceof Map) {
+			long size = align(OBJECT_HEADER + 4 * REFERENCE);
+			for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				size += NODE + estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+			}
+			return size;
+		}
+		return align(OBJECT_HEADER);
+	}
+
+	/**
+	 * Estimates size of the given <var>array</var> with the specified <var>componentType</var>.
+	 */
+	private static long estimateArray(final Object array, final Class<?> componentType, final int depth) {
+		if (componentType == long.class) return align(ARRAY_HEADER + 8L * ((long[]) array).length);
+		if (componentType == double.class) return align(ARRAY_HEADER + 8L * ((double[]) array).length);
+		if (componentType == int.class) return align(ARRAY_HEADER + 4L * ((int[]) array).length);
+		if (componentType == float.class) return align(ARRAY_HEADER + 4L * ((float[]) array).length);
+		if (componentType == char.class) return align(ARRAY_HEADER + 2L * ((char[]) array).length);
+		if (componentType == short.class) return align(ARRAY_HEADER + 2L * ((short[]) array).length);
+		if (componentType == byte.class) return align(ARRAY_HEADER + ((byte[]) array).length);
+		if (componentType == boolean.class) return align(ARRAY_HEADER + ((boolean[]) array).length);
+		final Object[] objects = (Object[]) array;
+		long size = align(ARRAY_HEADER + (long) REFERENCE * objects.length);
+		for (final Object element : objects) {
+			size += estimate(element, depth + 1);
+		}
+		return size;
+	}
+
+	/**
+	 * Estimates size of the given primitive array <var>view</var> from its size, so its elements
+	 * need not to be boxed.
+	 */
+	private static long estimatePrimitiveArrayView(final List<?> view) {
+		final int length = view.size();
+		final Object first = length > 0 ? view.get(0) : null;
+		final long elementSize = first instanceof Long || first instanceof Double ? 8 : 4;
+		return align(OBJECT_HEADER + REFERENCE) + align(ARRAY_HEADER + elementSize * length);
+	}
+
+	/**
+	 * Aligns the given <var>size</var> to 8 bytes.
+	 */
+	private static long align(final long size) {
+		return (size + 7) & ~7L;
+	}
+}